@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.*;
+
+import com.jeantessier.dependency.*;
+
+/**
+ *  Fixed input shared by the benchmarks.  The corpus is a JAR file,
+ *  Zip file, or directory of .class files named by the
+ *  <code>jmh.corpus</code> system property.  The <code>jmh</code> Gradle
+ *  task points it at a JAR of this project's own classes, so numbers are
+ *  reproducible for a given revision; use <code>-PjmhCorpus=path</code>
+ *  to measure against something else, such as the JDK's
+ *  <code>rt.jar</code>.
+ */
+public class BenchmarkCorpus {
+    public static final String CORPUS_PROPERTY = "jmh.corpus";
+
+    public static String getPath() {
+        String result = System.getProperty(CORPUS_PROPERTY);
+
+        if (result == null || !new File(result).exists()) {
+            throw new IllegalStateException("Set -D" + CORPUS_PROPERTY + " to a JAR, Zip, or directory of .class files (got " + result + ")");
+        }
+
+        return result;
+    }
+
+    /**
+     *  Raw bytes of every .class file in the corpus, in a stable order.
+     */
+    public static List<byte[]> readClassfileBytes() throws IOException {
+        List<byte[]> result = new ArrayList<byte[]>();
+
+        File corpus = new File(getPath());
+        if (corpus.isDirectory()) {
+            readDirectory(corpus, result);
+        } else {
+            readZip(corpus, result);
+        }
+
+        return result;
+    }
+
+    /**
+     *  Parses the whole corpus with an {@link AggregatingClassfileLoader}.
+     */
+    public static AggregatingClassfileLoader loadClassfiles() {
+        AggregatingClassfileLoader result = new AggregatingClassfileLoader();
+        result.load(Collections.singleton(getPath()));
+        return result;
+    }
+
+    /**
+     *  Builds the dependency graph of the given classfiles, the way
+     *  DependencyExtractor does.
+     */
+    public static NodeFactory extractDependencies(Collection<Classfile> classfiles) {
+        NodeFactory result = new NodeFactory();
+
+        CodeDependencyCollector collector = new CodeDependencyCollector(result);
+        for (Classfile classfile : classfiles) {
+            classfile.accept(collector);
+        }
+
+        return result;
+    }
+
+    private static void readDirectory(File dir, List<byte[]> result) throws IOException {
+        File[] files = dir.listFiles();
+        Arrays.sort(files);
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                readDirectory(file, result);
+            } else if (file.getName().endsWith(".class")) {
+                InputStream in = new FileInputStream(file);
+                try {
+                    result.add(readFully(in));
+                } finally {
+                    in.close();
+                }
+            }
+        }
+    }
+
+    private static void readZip(File file, List<byte[]> result) throws IOException {
+        ZipFile zip = new ZipFile(file);
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".class")) {
+                    InputStream in = zip.getInputStream(entry);
+                    try {
+                        result.add(readFully(in));
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        byte[] buffer = new byte[8192];
+        int bytesRead;
+        while ((bytesRead = in.read(buffer)) != -1) {
+            out.write(buffer, 0, bytesRead);
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ *  Loads the corpus from disk, either straight from its JAR file or from
+ *  a directory it was unpacked into, to measure the I/O side of loading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClassfileLoadingBenchmark {
+    @Param({"jar", "directory"})
+    public String source;
+
+    @Param({"1"})
+    public int threads;
+
+    private File directory;
+    private Collection<String> filenames;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String path = BenchmarkCorpus.getPath();
+
+        if (source.equals("directory") && !new File(path).isDirectory()) {
+            directory = File.createTempFile("corpus", "");
+            directory.delete();
+            unzip(new File(path), directory);
+            path = directory.getPath();
+        }
+
+        filenames = Collections.singleton(path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (directory != null) {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    public void load() {
+        TransientClassfileLoader loader = new TransientClassfileLoader();
+        loader.setThreadCount(threads);
+        loader.load(filenames);
+    }
+
+    private static void unzip(File file, File dir) throws IOException {
+        ZipFile zip = new ZipFile(file);
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                File target = new File(dir, entry.getName());
+
+                if (entry.isDirectory()) {
+                    target.mkdirs();
+                } else {
+                    target.getParentFile().mkdirs();
+
+                    InputStream in = zip.getInputStream(entry);
+                    OutputStream out = new FileOutputStream(target);
+                    try {
+                        byte[] buffer = new byte[8192];
+                        int bytesRead;
+                        while ((bytesRead = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, bytesRead);
+                        }
+                    } finally {
+                        out.close();
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.log4j.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import com.jeantessier.classreader.impl.*;
+
+/**
+ *  Parses the corpus with the <code>classreader.impl</code> loggers at
+ *  different levels.  Run it with <code>-prof gc</code>: at
+ *  <code>ERROR</code>, the level in the distribution's
+ *  <code>log4j.properties</code>, the parser should allocate no more than
+ *  the classfiles themselves, while <code>DEBUG</code> shows what it
+ *  costs to build every trace message and then throw it away.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserLoggingBenchmark {
+    private static final String PARSER_LOGGER = "com.jeantessier.classreader.impl";
+
+    @Param({"ERROR", "DEBUG"})
+    public String level;
+
+    private List<byte[]> corpus;
+    private ClassfileFactory factory;
+    private ClassfileLoader loader;
+
+    private org.apache.log4j.Level oldLevel;
+    private boolean oldAdditivity;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        corpus = BenchmarkCorpus.readClassfileBytes();
+        factory = new DefaultClassfileFactory();
+        loader = new AggregatingClassfileLoader();
+
+        // No appenders and no additivity, so messages are built and then discarded
+        Logger logger = Logger.getLogger(PARSER_LOGGER);
+        oldLevel = logger.getLevel();
+        oldAdditivity = logger.getAdditivity();
+        logger.setLevel(org.apache.log4j.Level.toLevel(level));
+        logger.setAdditivity(false);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        Logger logger = Logger.getLogger(PARSER_LOGGER);
+        logger.setLevel(oldLevel);
+        logger.setAdditivity(oldAdditivity);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws IOException {
+        for (byte[] bytes : corpus) {
+            blackhole.consume(factory.create(loader, new DataInputStream(new ByteArrayInputStream(bytes))));
+        }
+    }
+}
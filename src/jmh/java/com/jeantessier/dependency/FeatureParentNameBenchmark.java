@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.concurrent.*;
+
+import org.apache.oro.text.perl.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+/**
+ *  Compares the scanner in {@link NodeFactory#getParentName(String)}
+ *  with the pair of Perl5 regular expressions it replaced, and measures
+ *  {@link NodeFactory#createFeature(String)} as a whole.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FeatureParentNameBenchmark {
+    private static final String[] FEATURE_NAMES = {
+        "java.lang.System.out",
+        "java.io.PrintStream.println(java.lang.String)",
+        "java.lang.Object.Object()",
+        "java.util.Map.put(java.lang.Object, java.lang.Object)",
+        "com.jeantessier.dependency.NodeFactory.createFeature(java.lang.String, boolean)",
+        "com.jeantessier.classreader.impl.Classfile.Classfile(com.jeantessier.classreader.ClassfileLoader, java.io.DataInput, com.jeantessier.classreader.impl.AttributeFactory)",
+        "com.jeantessier.metrics.Metrics$1.val$name",
+        "Test.main(java.lang.String[])",
+    };
+
+    private Perl5Util perl;
+    private NodeFactory factory;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        perl = new Perl5Util();
+        factory = new NodeFactory();
+    }
+
+    @Benchmark
+    public void perl5Util(Blackhole blackhole) {
+        for (String featureName : FEATURE_NAMES) {
+            String parentName;
+
+            if (perl.match("/^(.*)\\.[^\\.]*\\(.*\\)$/", featureName)) {
+                parentName = perl.group(1);
+            } else if (perl.match("/^(.*)\\.[^\\.]*$/", featureName)) {
+                parentName = perl.group(1);
+            } else {
+                parentName = "";
+            }
+
+            blackhole.consume(parentName);
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String featureName : FEATURE_NAMES) {
+            blackhole.consume(NodeFactory.getParentName(featureName));
+        }
+    }
+
+    @Benchmark
+    public void createFeature(Blackhole blackhole) {
+        for (String featureName : FEATURE_NAMES) {
+            blackhole.consume(factory.createFeature(featureName));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  Runs CodeDependencyCollector over the pre-parsed corpus with a filter
+ *  made of many include patterns, like DependencyExtractor with a long
+ *  -filter-includes-list.  All but one of the patterns are prefixes
+ *  that match nothing, so the filter keeps the same dependencies as
+ *  "/^com\.jeantessier\./" alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FilteredExtractionBenchmark {
+    @Param({"1", "200"})
+    private int patternCount;
+
+    private Collection<Classfile> classfiles;
+    private List<String> includes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        classfiles = BenchmarkCorpus.loadClassfiles().getAllClassfiles();
+
+        includes = new ArrayList<String>();
+        for (int i = 1; i < patternCount; i++) {
+            includes.add("/^org\\.example" + i + "\\./");
+        }
+        includes.add("/^com\\.jeantessier\\./");
+    }
+
+    @Benchmark
+    public NodeFactory extract() {
+        RegularExpressionSelectionCriteria filterCriteria = new RegularExpressionSelectionCriteria();
+        filterCriteria.setGlobalIncludes(includes);
+
+        NodeFactory result = new NodeFactory();
+        CodeDependencyCollector collector = new CodeDependencyCollector(result, filterCriteria);
+        for (Classfile classfile : classfiles) {
+            classfile.accept(collector);
+        }
+
+        return result;
+    }
+}
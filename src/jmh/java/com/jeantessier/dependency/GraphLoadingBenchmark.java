@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+import javax.xml.parsers.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.xml.sax.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  Reloads the corpus graph from XML, the way the DependencyGraphCommand
+ *  tools used to, and from a binary snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphLoadingBenchmark {
+    private byte[] xml;
+    private byte[] snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        NodeFactory factory = BenchmarkCorpus.extractDependencies(BenchmarkCorpus.loadClassfiles().getAllClassfiles());
+
+        ByteArrayOutputStream xmlOut = new ByteArrayOutputStream();
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(xmlOut, "utf-8"));
+        new XMLPrinter(writer).traverseNodes(factory.getPackages().values());
+        writer.close();
+        xml = xmlOut.toByteArray();
+
+        ByteArrayOutputStream snapshotOut = new ByteArrayOutputStream();
+        new GraphSnapshotWriter(snapshotOut).write(factory.getPackages().values());
+        snapshot = snapshotOut.toByteArray();
+    }
+
+    @Benchmark
+    public NodeFactory xml() throws IOException, SAXException, ParserConfigurationException {
+        return new NodeLoader().load(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public NodeFactory snapshot() throws IOException {
+        return new GraphSnapshotLoader().load(new ByteArrayInputStream(snapshot));
+    }
+}
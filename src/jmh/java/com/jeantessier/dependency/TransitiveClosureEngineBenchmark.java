@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  Computes the full outbound and inbound closures of one package of the
+ *  corpus graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TransitiveClosureEngineBenchmark {
+    @Param({"/^com\\.jeantessier\\.dependency\\./"})
+    public String startIncludes;
+
+    private NodeFactory factory;
+    private SelectionCriteria startCriteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = BenchmarkCorpus.extractDependencies(BenchmarkCorpus.loadClassfiles().getAllClassfiles());
+        startCriteria = new RegularExpressionSelectionCriteria(startIncludes);
+    }
+
+    @Benchmark
+    public TransitiveClosureEngine outbound() {
+        return computeAllLayers(new ClosureOutboundSelector());
+    }
+
+    @Benchmark
+    public TransitiveClosureEngine inbound() {
+        return computeAllLayers(new ClosureInboundSelector());
+    }
+
+    private TransitiveClosureEngine computeAllLayers(ClosureLayerSelector layerSelector) {
+        TransitiveClosureEngine result = new TransitiveClosureEngine(factory.getPackages().values(), startCriteria, new NullSelectionCriteria(), layerSelector);
+        result.computeAllLayers();
+        return result;
+    }
+}
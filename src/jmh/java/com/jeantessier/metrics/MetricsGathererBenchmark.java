@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.metrics;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.xml.parsers.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.xml.sax.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  Gathers OO metrics for the pre-parsed corpus, using the configuration
+ *  named by the <code>jmh.metricsConfig</code> system property
+ *  (<code>etc/MetricsConfig.xml</code> by default).  The
+ *  <code>*Computed</code> variants also compute every measurement, on
+ *  one thread and on four threads at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsGathererBenchmark {
+    private Collection<Classfile> classfiles;
+    private MetricsConfiguration configuration;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SAXException, ParserConfigurationException {
+        classfiles = BenchmarkCorpus.loadClassfiles().getAllClassfiles();
+        configuration = new MetricsConfigurationLoader().load(System.getProperty("jmh.metricsConfig", "etc/MetricsConfig.xml"));
+    }
+
+    @Benchmark
+    public MetricsFactory gather() {
+        MetricsFactory factory = new MetricsFactory("Project", configuration);
+        new MetricsGatherer(factory).visitClassfiles(classfiles);
+        return factory;
+    }
+
+    @Benchmark
+    public double gatherComputed() {
+        return computeAll(gather());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double gatherComputedConcurrently() {
+        return computeAll(gather());
+    }
+
+    private double computeAll(MetricsFactory factory) {
+        double result = 0;
+
+        for (Collection<Metrics> metricsList : Arrays.asList(factory.getAllProjectMetrics(), factory.getAllGroupMetrics(), factory.getAllClassMetrics(), factory.getAllMethodMetrics())) {
+            for (Metrics metrics : metricsList) {
+                for (String name : metrics.getMeasurementNames()) {
+                    result += metrics.getMeasurement(name).getValue().doubleValue();
+                }
+            }
+        }
+
+        return result;
+    }
+}
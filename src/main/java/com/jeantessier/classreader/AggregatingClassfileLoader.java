@@ -32,7 +32,6 @@
 
 package com.jeantessier.classreader;
 
-import java.io.*;
 import java.util.*;
 
 import com.jeantessier.classreader.impl.*;
@@ -48,10 +47,21 @@ public class AggregatingClassfileLoader extends ClassfileLoaderEventSource {
         super(factory);
     }
 
+    /**
+     *  Only parses attributes of the given types and skips all others.
+     */
+    public AggregatingClassfileLoader(Collection<AttributeType> attributeTypes) {
+        this(new DefaultClassfileFactory(attributeTypes));
+    }
+
     public AggregatingClassfileLoader(ClassfileLoaderDispatcher dispatcher) {
         this(new DefaultClassfileFactory(), dispatcher);
     }
 
+    public AggregatingClassfileLoader(Collection<AttributeType> attributeTypes, ClassfileLoaderDispatcher dispatcher) {
+        this(new DefaultClassfileFactory(attributeTypes), dispatcher);
+    }
+
     private AggregatingClassfileLoader(ClassfileFactory factory, ClassfileLoaderDispatcher dispatcher) {
         super(factory, dispatcher);
     }
@@ -68,11 +78,9 @@ public class AggregatingClassfileLoader extends ClassfileLoaderEventSource {
         return Collections.unmodifiableCollection(classfiles.keySet());
     }
 
-    protected Classfile load(DataInput in) throws IOException {
-        Classfile result = getFactory().create(this, in);
-
-        classfiles.put(result.getClassName(), result);
+    protected Classfile register(Classfile classfile) {
+        classfiles.put(classfile.getClassName(), classfile);
 
-        return result;
+        return classfile;
     }
 }
@@ -0,0 +1,239 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ *  Reads a classfile straight out of a <code>ByteBuffer</code>, such as
+ *  a memory-mapped file, without copying it into stream buffers first.
+ *  Loaders that get one of these as their <code>InputStream</code> parse
+ *  from it directly through its <code>DataInput</code> side.
+ *
+ *  <p>Whoever creates one gives up the buffer: it may be handed to
+ *  another thread for parsing, so it must not be reused or modified.
+ *  Subclasses can also wait until someone actually reads from the stream
+ *  to fetch the buffer by overriding {@link #loadBuffer()}.</p>
+ */
+public class ByteBufferInputStream extends InputStream implements DataInput {
+    private ByteBuffer buffer;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        setBuffer(buffer);
+    }
+
+    public ByteBufferInputStream(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    protected ByteBufferInputStream() {
+        // Buffer will come from loadBuffer()
+    }
+
+    /**
+     *  Called the first time the stream is read if no buffer was given
+     *  to the constructor.
+     */
+    protected ByteBuffer loadBuffer() throws IOException {
+        throw new IOException("No buffer to read from");
+    }
+
+    private void setBuffer(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        this.buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private ByteBuffer buffer() throws IOException {
+        if (buffer == null) {
+            setBuffer(loadBuffer());
+        }
+
+        return buffer;
+    }
+
+    /**
+     *  @return a view of the bytes that have not been read yet.
+     */
+    public ByteBuffer getBuffer() throws IOException {
+        return buffer().slice();
+    }
+
+    public int read() throws IOException {
+        int result = -1;
+
+        if (buffer().hasRemaining()) {
+            result = buffer().get() & 0xFF;
+        }
+
+        return result;
+    }
+
+    public int read(byte[] b, int off, int len) throws IOException {
+        int result = -1;
+
+        if (len == 0) {
+            result = 0;
+        } else if (buffer().hasRemaining()) {
+            result = Math.min(len, buffer().remaining());
+            buffer().get(b, off, result);
+        }
+
+        return result;
+    }
+
+    public long skip(long n) throws IOException {
+        int result = (int) Math.max(0, Math.min(n, buffer().remaining()));
+        buffer().position(buffer().position() + result);
+        return result;
+    }
+
+    public int available() throws IOException {
+        return buffer().remaining();
+    }
+
+    public boolean markSupported() {
+        return true;
+    }
+
+    public void mark(int readlimit) {
+        try {
+            buffer().mark();
+        } catch (IOException ex) {
+            // Nothing to mark, reset() will fail
+        }
+    }
+
+    public void reset() throws IOException {
+        try {
+            buffer().reset();
+        } catch (InvalidMarkException ex) {
+            throw new IOException("Stream not marked");
+        }
+    }
+
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        require(len);
+        buffer().get(b, off, len);
+    }
+
+    public int skipBytes(int n) throws IOException {
+        return (int) skip(n);
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public byte readByte() throws IOException {
+        require(1);
+        return buffer().get();
+    }
+
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    public short readShort() throws IOException {
+        require(2);
+        return buffer().getShort();
+    }
+
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    public char readChar() throws IOException {
+        require(2);
+        return buffer().getChar();
+    }
+
+    public int readInt() throws IOException {
+        require(4);
+        return buffer().getInt();
+    }
+
+    public long readLong() throws IOException {
+        require(8);
+        return buffer().getLong();
+    }
+
+    public float readFloat() throws IOException {
+        require(4);
+        return buffer().getFloat();
+    }
+
+    public double readDouble() throws IOException {
+        require(8);
+        return buffer().getDouble();
+    }
+
+    public String readLine() throws IOException {
+        StringBuilder result = null;
+
+        while (buffer().hasRemaining()) {
+            if (result == null) {
+                result = new StringBuilder();
+            }
+
+            char c = (char) (buffer().get() & 0xFF);
+            if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                if (buffer().hasRemaining() && buffer().get(buffer().position()) == '\n') {
+                    buffer().get();
+                }
+                break;
+            } else {
+                result.append(c);
+            }
+        }
+
+        return result != null ? result.toString() : null;
+    }
+
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+    private void require(int n) throws IOException {
+        if (buffer().remaining() < n) {
+            buffer().position(buffer().limit());
+            throw new EOFException();
+        }
+    }
+}
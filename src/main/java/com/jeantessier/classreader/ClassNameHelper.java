@@ -35,10 +35,16 @@ package com.jeantessier.classreader;
 import org.apache.oro.text.perl.*;
 
 public class ClassNameHelper {
+    /**
+     *  @deprecated no longer used by this class.  A shared
+     *              <code>Perl5Util</code> locks on every call, so use
+     *              one of your own instead.
+     */
+    @Deprecated
     public static final Perl5Util perl = new Perl5Util();
 
     public static String path2ClassName(String path) {
-        return perl.substitute("s/\\//./g", path);
+        return path.replace('/', '.');
     }
 
     public static String convertClassName(String type) {
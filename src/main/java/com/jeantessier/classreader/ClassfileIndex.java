@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ *  <p>Sidecar file that remembers, for every classfile read by an
+ *  {@link IncrementalClassfileLoader}, the digest of its contents and the
+ *  name of the class it defines, so the next run can skip unchanged
+ *  classfiles.</p>
+ *
+ *  <p>It is a UTF-8 text file with one classfile per line: the digest,
+ *  the class name, and the qualified filename, separated by tabs.  The
+ *  class name is empty if the file could not be parsed.</p>
+ */
+public class ClassfileIndex {
+    public static final String FILE_EXTENSION = ".index";
+
+    private static final String ENCODING = "UTF-8";
+    private static final char SEPARATOR = '\t';
+
+    private Map<String, String> digests = new TreeMap<String, String>();
+    private Map<String, String> classNames = new TreeMap<String, String>();
+
+    public ClassfileIndex() {
+        // Empty index
+    }
+
+    public ClassfileIndex(Map<String, String> digests, Map<String, String> classNames) {
+        this.digests.putAll(digests);
+        for (Map.Entry<String, String> entry : classNames.entrySet()) {
+            if (digests.containsKey(entry.getKey())) {
+                this.classNames.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     *  @see IncrementalClassfileLoader#getDigests()
+     */
+    public Map<String, String> getDigests() {
+        return Collections.unmodifiableMap(digests);
+    }
+
+    /**
+     *  @see Monitor#getClassNamesByFile()
+     */
+    public Map<String, String> getClassNames() {
+        return Collections.unmodifiableMap(classNames);
+    }
+
+    public void load(String filename) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(filename), ENCODING));
+        try {
+            load(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public void load(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            int first = line.indexOf(SEPARATOR);
+            int second = line.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new IOException("Malformed index entry: " + line);
+            }
+
+            String digest = line.substring(0, first);
+            String classname = line.substring(first + 1, second);
+            String file = line.substring(second + 1);
+
+            digests.put(file, digest);
+            if (classname.length() > 0) {
+                classNames.put(file, classname);
+            }
+        }
+    }
+
+    public void save(String filename) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename), ENCODING));
+        try {
+            save(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    public void save(Writer out) throws IOException {
+        for (Map.Entry<String, String> entry : digests.entrySet()) {
+            String classname = classNames.get(entry.getKey());
+
+            out.write(entry.getValue());
+            out.write(SEPARATOR);
+            out.write(classname != null ? classname : "");
+            out.write(SEPARATOR);
+            out.write(entry.getKey());
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
@@ -33,13 +33,38 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.log4j.*;
 
+/**
+ *  <p>Loads classfiles and fires {@link LoadEvent}s to registered
+ *  {@link LoadListener}s as it goes.</p>
+ *
+ *  <p>With a thread count greater than one, the loader parses
+ *  <code>.class</code> files on a pool of worker threads while it
+ *  keeps reading the next files.  Listeners still receive every
+ *  event on the thread that called {@link #load(Collection)}, in the
+ *  same order as a single-threaded load, so they do not need to be
+ *  thread-safe.</p>
+ *
+ *  <p>Listeners can be added or removed from any thread, even in the
+ *  middle of a load.  Each event goes to the listeners that were
+ *  registered when it was fired, without copying the list every
+ *  time.  A listener shared by loaders that run on different
+ *  threads is a different matter; wrap it in a
+ *  {@link SynchronizedLoadListener} so it sees one event at a
+ *  time.</p>
+ */
 public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     public static final ClassfileLoaderDispatcher DEFAULT_DISPATCHER = new PermissiveDispatcher();
-    
+    public static final int DEFAULT_THREAD_COUNT = 1;
+
+    private static final int PENDING_CLASSFILES_PER_THREAD = 4;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
     private ClassfileFactory factory;
     private ClassfileLoaderDispatcher dispatcher;
     
@@ -47,12 +72,17 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     private ClassfileLoader jarLoader = new JarClassfileLoader(this);
     private ClassfileLoader zipLoader = new ZipClassfileLoader(this);
 
-    private HashSet<LoadListener> loadListeners = new HashSet<LoadListener>();
+    private Collection<LoadListener> loadListeners = new CopyOnWriteArraySet<LoadListener>();
 
     private LinkedList<String> groupNames = new LinkedList<String>();
     private LinkedList<Integer> groupSizes = new LinkedList<Integer>();
 
     private ClassfileLoaderAction previousDispatch;
+
+    private int threadCount = DEFAULT_THREAD_COUNT;
+    private ExecutorService executor;
+    private LinkedList<PendingEvent> pendingEvents = new LinkedList<PendingEvent>();
+    private int nbPendingClassfiles;
     
     public ClassfileLoaderEventSource(ClassfileFactory factory) {
         this(factory, DEFAULT_DISPATCHER);
@@ -67,6 +97,42 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         return factory;
     }
 
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     *  Number of threads parsing <code>.class</code> files during
+     *  {@link #load(Collection)}.  A value of one, the default, parses
+     *  everything on the calling thread.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1, not " + threadCount);
+        }
+
+        this.threadCount = threadCount;
+    }
+
+    public void load(Collection<String> filenames) {
+        if (getThreadCount() == 1) {
+            super.load(filenames);
+        } else {
+            Logger.getLogger(getClass()).debug("Parsing classfiles with " + getThreadCount() + " threads");
+
+            executor = Executors.newFixedThreadPool(getThreadCount());
+            try {
+                super.load(filenames);
+                firePendingEvents(true);
+            } finally {
+                executor.shutdownNow();
+                executor = null;
+                pendingEvents.clear();
+                nbPendingClassfiles = 0;
+            }
+        }
+    }
+
     protected void load(String filename) {
         ClassfileLoaderAction dispatch = dispatcher.dispatch(filename);
 
@@ -128,13 +194,7 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
 
             case CLASS:
                 Logger.getLogger(getClass()).debug("CLASS \"" + filename + "\"");
-                try {
-                    fireBeginClassfile(filename);
-                    Classfile classfile = load(new DataInputStream(in));
-                    fireEndClassfile(filename, classfile);
-                } catch (IOException ex) {
-                    Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
-                }
+                loadClassfile(filename, in);
                 break;
                 
             default:
@@ -143,46 +203,65 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         }
     }
 
-    public void addLoadListener(LoadListener listener) {
-        synchronized(loadListeners) {
-            loadListeners.add(listener);
+    /**
+     *  Parses a <code>.class</code> file and fires the classfile events
+     *  for it.  Subclasses can override it to skip some classfiles
+     *  altogether.
+     */
+    protected void loadClassfile(String filename, InputStream in) {
+        if (executor != null) {
+            submit(filename, in);
+        } else {
+            try {
+                fireBeginClassfile(filename);
+                Classfile classfile = load(in instanceof DataInput ? (DataInput) in : new DataInputStream(in));
+                fireEndClassfile(filename, classfile);
+            } catch (IOException ex) {
+                Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
+            }
         }
     }
 
+    protected Classfile load(DataInput in) throws IOException {
+        return register(parse(in));
+    }
+
+    /**
+     *  Builds a Classfile from its binary form.  When the thread count
+     *  is greater than one, this runs on worker threads and must not
+     *  change the state of the loader.
+     */
+    protected Classfile parse(DataInput in) throws IOException {
+        return getFactory().create(this, in);
+    }
+
+    /**
+     *  Hook for subclasses that keep track of the classfiles they
+     *  have loaded.  It is always called on the loading thread, in the
+     *  order the files were read.
+     */
+    protected Classfile register(Classfile classfile) {
+        return classfile;
+    }
+
+    public void addLoadListener(LoadListener listener) {
+        loadListeners.add(listener);
+    }
+
     public void removeLoadListener(LoadListener listener) {
-        synchronized(loadListeners) {
-            loadListeners.remove(listener);
-        }
+        loadListeners.remove(listener);
     }
 
     protected void fireBeginSession() {
         Logger.getLogger(getClass()).debug("Begin session");
         
-        LoadEvent event = new LoadEvent(this, null, null, null);
-
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginSession(event);
-        }
+        fire(LoadEventType.BEGIN_SESSION, new LoadEvent(this, null, null, null));
     }
 
     protected void fireBeginGroup(String groupName, int size) {
         Logger.getLogger(getClass()).debug("Begin group \"" + groupName + "\" of size " + size);
 
-        LoadEvent event = new LoadEvent(this, groupName, size);
-
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginGroup(event);
-        }
+        fire(LoadEventType.BEGIN_GROUP, new LoadEvent(this, groupName, size));
 
         pushGroupName(groupName);
         pushGroupSize(size);
@@ -191,76 +270,31 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     protected void fireBeginFile(String filename) {
         Logger.getLogger(getClass()).debug("Begin file \"" + filename + "\"");
         
-        LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
-
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginFile(event);
-        }
+        fire(LoadEventType.BEGIN_FILE, new LoadEvent(this, getTopGroupName(), filename, null));
     }
     
     protected void fireBeginClassfile(String filename) {
         Logger.getLogger(getClass()).debug("Begin classfile \"" + filename + "\"");
         
-        LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
-
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginClassfile(event);
-        }
+        fire(LoadEventType.BEGIN_CLASSFILE, new LoadEvent(this, getTopGroupName(), filename, null));
     }
 
     protected void fireEndClassfile(String filename, Classfile classfile) {
         Logger.getLogger(getClass()).debug("End classfile \"" + filename + "\": " + ((classfile != null) ? classfile.getClassName() : "nothing"));
         
-        LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, classfile);
-
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.endClassfile(event);
-        }
+        fire(LoadEventType.END_CLASSFILE, new LoadEvent(this, getTopGroupName(), filename, classfile));
     }
 
     protected void fireEndFile(String filename) {
         Logger.getLogger(getClass()).debug("End file \"" + filename + "\"");
         
-        LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
-
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.endFile(event);
-        }
+        fire(LoadEventType.END_FILE, new LoadEvent(this, getTopGroupName(), filename, null));
     }
 
     protected void fireEndGroup(String groupName) {
         Logger.getLogger(getClass()).debug("End group \"" + groupName + "\"");
         
-        LoadEvent event = new LoadEvent(this, groupName, null, null);
-
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.endGroup(event);
-        }
+        fire(LoadEventType.END_GROUP, new LoadEvent(this, groupName, null, null));
 
         popGroupName();
         popGroupSize();
@@ -269,19 +303,74 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     protected void fireEndSession() {
         Logger.getLogger(getClass()).debug("End session");
         
-        LoadEvent event = new LoadEvent(this, null, null, null);
+        fire(LoadEventType.END_SESSION, new LoadEvent(this, null, null, null));
+    }
+
+    private void fire(LoadEventType type, LoadEvent event) {
+        if (executor != null) {
+            pendingEvents.addLast(new PendingEvent(type, event));
+            firePendingEvents(false);
+        } else {
+            dispatch(type, event);
+        }
+    }
+
+    private void dispatch(LoadEventType type, LoadEvent event) {
+        for (LoadListener listener : loadListeners) {
+            type.dispatch(listener, event);
+        }
+    }
+
+    /**
+     *  Gets hold of the classfile's bytes, since the caller will close the
+     *  stream as soon as we return, and hands them to a worker thread.
+     *  Streams that already hold their bytes in a buffer give it up
+     *  without a copy.  The end of classfile event waits in line until
+     *  parsing is done.
+     */
+    private void submit(String filename, InputStream in) {
+        try {
+            fireBeginClassfile(filename);
+
+            final ByteBuffer buffer = in instanceof ByteBufferInputStream ? ((ByteBufferInputStream) in).getBuffer() : ByteBuffer.wrap(readBytes(in));
+            Future<Classfile> future = executor.submit(new Callable<Classfile>() {
+                public Classfile call() throws IOException {
+                    return parse(new ByteBufferInputStream(buffer));
+                }
+            });
+
+            pendingEvents.addLast(new PendingClassfile(getTopGroupName(), filename, future));
+            nbPendingClassfiles++;
+            firePendingEvents(false);
+        } catch (IOException ex) {
+            Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
+        }
+    }
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
+    /**
+     *  Fires events waiting in line, in order, until it reaches a
+     *  classfile that is still being parsed.  If too many classfiles
+     *  are in flight, or if <code>all</code> is true, it waits for
+     *  them instead.
+     */
+    private void firePendingEvents(boolean all) {
+        while (!pendingEvents.isEmpty() && (all || pendingEvents.getFirst().isReady() || nbPendingClassfiles > getThreadCount() * PENDING_CLASSFILES_PER_THREAD)) {
+            pendingEvents.removeFirst().fire();
         }
+    }
 
-        for (LoadListener listener : listeners) {
-            listener.endSession(event);
+    protected byte[] readBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int bytesRead;
+        while ((bytesRead = in.read(buffer, 0, BUFFER_SIZE)) != -1) {
+            out.write(buffer, 0, bytesRead);
         }
+
+        return out.toByteArray();
     }
 
-    private String getTopGroupName() {
+    protected String getTopGroupName() {
         String result = null;
 
         if (!groupNames.isEmpty()) {
@@ -316,4 +405,115 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     private int popGroupSize() {
         return groupSizes.removeLast();
     }
+
+    private enum LoadEventType {
+        BEGIN_SESSION {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.beginSession(event);
+            }
+        },
+
+        BEGIN_GROUP {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.beginGroup(event);
+            }
+        },
+
+        BEGIN_FILE {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.beginFile(event);
+            }
+        },
+
+        BEGIN_CLASSFILE {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.beginClassfile(event);
+            }
+        },
+
+        END_CLASSFILE {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.endClassfile(event);
+            }
+        },
+
+        END_FILE {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.endFile(event);
+            }
+        },
+
+        END_GROUP {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.endGroup(event);
+            }
+        },
+
+        END_SESSION {
+            void dispatch(LoadListener listener, LoadEvent event) {
+                listener.endSession(event);
+            }
+        };
+
+        abstract void dispatch(LoadListener listener, LoadEvent event);
+    }
+
+    private class PendingEvent {
+        private LoadEventType type;
+        private LoadEvent event;
+
+        public PendingEvent(LoadEventType type, LoadEvent event) {
+            this.type = type;
+            this.event = event;
+        }
+
+        public boolean isReady() {
+            return true;
+        }
+
+        public void fire() {
+            dispatch(type, event);
+        }
+    }
+
+    private class PendingClassfile extends PendingEvent {
+        private String groupName;
+        private String filename;
+        private Future<Classfile> future;
+
+        public PendingClassfile(String groupName, String filename, Future<Classfile> future) {
+            super(LoadEventType.END_CLASSFILE, null);
+
+            this.groupName = groupName;
+            this.filename = filename;
+            this.future = future;
+        }
+
+        public boolean isReady() {
+            return future.isDone();
+        }
+
+        public void fire() {
+            nbPendingClassfiles--;
+
+            try {
+                Classfile classfile = register(future.get());
+                Logger.getLogger(ClassfileLoaderEventSource.this.getClass()).debug("End classfile \"" + filename + "\": " + ((classfile != null) ? classfile.getClassName() : "nothing"));
+                dispatch(LoadEventType.END_CLASSFILE, new LoadEvent(ClassfileLoaderEventSource.this, groupName, filename, classfile));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while loading \"" + filename + "\"", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException) {
+                    Logger.getLogger(ClassfileLoaderEventSource.this.getClass()).warn("Cannot load class from file \"" + filename + "\"", ex.getCause());
+                } else if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                } else if (ex.getCause() instanceof Error) {
+                    throw (Error) ex.getCause();
+                } else {
+                    throw new RuntimeException(ex.getCause());
+                }
+            }
+        }
+    }
 }
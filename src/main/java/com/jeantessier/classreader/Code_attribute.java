@@ -39,6 +39,20 @@ public interface Code_attribute extends Attribute_info, Iterable<Instruction> {
     public int getMaxLocals();
     public byte[] getCode();
     public Iterator<Instruction> iterator();
+
+    /**
+     *  Iterates over the instructions like {@link #iterator()}, but
+     *  returns the same {@link Instruction} every time, moved to the
+     *  next opcode.  It is only valid until the next call to
+     *  <code>next()</code>, so copy what you need out of it instead of
+     *  keeping it around.  Implementations that cannot reuse their
+     *  instructions can rely on the default, which is just
+     *  {@link #iterator()}.
+     */
+    public default Iterator<Instruction> instructionCursor() {
+        return iterator();
+    }
+
     public Collection<? extends ExceptionHandler> getExceptionHandlers();
     public Collection<? extends Attribute_info> getAttributes();
 }
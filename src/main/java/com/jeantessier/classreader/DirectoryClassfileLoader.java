@@ -33,10 +33,19 @@
 package com.jeantessier.classreader;
 
  import java.io.*;
+ import java.nio.*;
+ import java.nio.channels.*;
 
  import org.apache.log4j.*;
 
 public class DirectoryClassfileLoader extends ClassfileLoaderDecorator {
+    /**
+     *  Files at least this big get memory-mapped instead of read.  This
+     *  keeps large nested JARs off the heap while regular classfiles,
+     *  which are much smaller, avoid the cost of setting up a mapping.
+     */
+    public static final long MAPPING_THRESHOLD = 1024 * 1024;
+
     public DirectoryClassfileLoader(ClassfileLoader loader) {
         super(loader);
     }
@@ -59,7 +68,7 @@ public class DirectoryClassfileLoader extends ClassfileLoaderDecorator {
                     // be with opening "file".
                     // Errors with contents format will be handled and logged by Load().
                     try {
-                        InputStream in = new FileInputStream(file);
+                        InputStream in = new FileBufferInputStream(file);
                         getLoader().load(file.getPath(), in);
                         in.close();
                     } catch (IOException ex) {
@@ -79,4 +88,41 @@ public class DirectoryClassfileLoader extends ClassfileLoaderDecorator {
     protected void load(String filename, InputStream in) {
         // Do nothing
     }
+
+    /**
+     *  Only reads the file if the loader decides to look at it.  It reads
+     *  the whole file with a single copy into a buffer of the right size,
+     *  or maps it if it is large.  Either way, the parser reads straight
+     *  from the buffer.
+     */
+    private static class FileBufferInputStream extends ByteBufferInputStream {
+        private FileInputStream in;
+
+        public FileBufferInputStream(File file) throws IOException {
+            in = new FileInputStream(file);
+        }
+
+        protected ByteBuffer loadBuffer() throws IOException {
+            ByteBuffer result;
+
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+
+            if (size >= MAPPING_THRESHOLD) {
+                result = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                result = ByteBuffer.allocate((int) size);
+                while (result.hasRemaining() && channel.read(result) != -1) {
+                    // Keep reading
+                }
+                result.flip();
+            }
+
+            return result;
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+    }
 }
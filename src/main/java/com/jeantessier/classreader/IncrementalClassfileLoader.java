@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.*;
+import java.security.*;
+import java.util.*;
+
+import org.apache.log4j.*;
+
+/**
+ *  <p>Only parses the <code>.class</code> files whose contents changed
+ *  since a previous run.</p>
+ *
+ *  <p>It computes a SHA-1 digest of every classfile it reads, including
+ *  the ones inside JAR and Zip files, and skips those whose digest
+ *  matches the one from the previous run.  Skipped classfiles still get
+ *  their file events, but no classfile events, so a {@link Monitor}
+ *  listening to this loader will keep their classes, replace the
+ *  classes of changed files, and remove those of files that are
+ *  gone.</p>
+ *
+ *  @see ClassfileIndex
+ */
+public class IncrementalClassfileLoader extends TransientClassfileLoader {
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private Map<String, String> previousDigests;
+    private Map<String, String> digests = new HashMap<String, String>();
+
+    private int nbSkippedClassfiles;
+
+    public IncrementalClassfileLoader(Map<String, String> previousDigests) {
+        this(previousDigests, DEFAULT_DISPATCHER);
+    }
+
+    public IncrementalClassfileLoader(Map<String, String> previousDigests, ClassfileLoaderDispatcher dispatcher) {
+        super(dispatcher);
+
+        this.previousDigests = previousDigests;
+    }
+
+    public IncrementalClassfileLoader(Map<String, String> previousDigests, Collection<AttributeType> attributeTypes) {
+        this(previousDigests, attributeTypes, DEFAULT_DISPATCHER);
+    }
+
+    public IncrementalClassfileLoader(Map<String, String> previousDigests, Collection<AttributeType> attributeTypes, ClassfileLoaderDispatcher dispatcher) {
+        super(attributeTypes, dispatcher);
+
+        this.previousDigests = previousDigests;
+    }
+
+    /**
+     *  Digests of all the classfiles read so far, by qualified filename,
+     *  whether they were parsed or skipped.
+     *
+     *  @see LoadEvent#getQualifiedFilename()
+     */
+    public Map<String, String> getDigests() {
+        return Collections.unmodifiableMap(digests);
+    }
+
+    public int getNbSkippedClassfiles() {
+        return nbSkippedClassfiles;
+    }
+
+    protected void loadClassfile(String filename, InputStream in) {
+        try {
+            ByteBuffer buffer = in instanceof ByteBufferInputStream ? ((ByteBufferInputStream) in).getBuffer() : ByteBuffer.wrap(readBytes(in));
+
+            String qualifiedFilename = LoadEvent.qualifyFilename(getTopGroupName(), filename);
+            String digest = digest(buffer);
+            digests.put(qualifiedFilename, digest);
+
+            if (digest.equals(previousDigests.get(qualifiedFilename))) {
+                if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                    Logger.getLogger(getClass()).debug("Unchanged \"" + qualifiedFilename + "\": SKIP");
+                }
+                nbSkippedClassfiles++;
+            } else {
+                super.loadClassfile(filename, new ByteBufferInputStream(buffer));
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
+        }
+    }
+
+    static String digest(ByteBuffer buffer) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform must support SHA-1
+            throw new RuntimeException(ex);
+        }
+
+        digest.update(buffer.duplicate());
+
+        byte[] bytes = digest.digest();
+        char[] result = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            result[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            result[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+
+        return new String(result);
+    }
+}
@@ -65,6 +65,15 @@ public class LoadEvent extends EventObject {
         return filename;
     }
 
+    /**
+     *  Name of the file that stays unique across groups.  Entries read
+     *  from a Zip or JAR file are prefixed with the name of that file, as
+     *  in <code>lib/foo.jar!/com/foo/Bar.class</code>.
+     */
+    public String getQualifiedFilename() {
+        return qualifyFilename(getGroupName(), getFilename());
+    }
+
     public Classfile getClassfile() {
         return classfile;
     }
@@ -72,4 +81,14 @@ public class LoadEvent extends EventObject {
     public int getSize() {
         return size;
     }
+
+    static String qualifyFilename(String groupName, String filename) {
+        String result = filename;
+
+        if (groupName != null && filename != null && !filename.startsWith(groupName)) {
+            result = groupName + "!/" + filename;
+        }
+
+        return result;
+    }
 }
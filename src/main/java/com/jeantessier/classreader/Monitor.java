@@ -46,6 +46,7 @@ public class Monitor extends LoadListenerVisitorAdapter {
     private RemoveVisitor removeVisitor;
     
     private Map<String, String> fileToClass = Maps.newHashMap();
+    private Map<String, String> classToFile = Maps.newHashMap();
     private boolean closedSession = true;
 
     @VisibleForTesting
@@ -72,29 +73,80 @@ public class Monitor extends LoadListenerVisitorAdapter {
         this.closedSession = closedSession;
     }
     
+    /**
+     *  Class names of the files read during the last closed session,
+     *  by qualified filename.  Together with {@link #restore(Map)}, this
+     *  lets a later run pick up where this one left off.
+     *
+     *  @see LoadEvent#getQualifiedFilename()
+     */
+    public Map<String, String> getClassNamesByFile() {
+        Map<String, String> result = Maps.newTreeMap();
+
+        for (String previousFile : previousFiles) {
+            String classname = fileToClass.get(previousFile);
+            if (classname != null) {
+                result.put(previousFile, classname);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     *  Starts tracking as if the given files had been read in a previous
+     *  session, so the next closed session removes those that are
+     *  missing and replaces those that are read again.
+     *
+     *  @see #getClassNamesByFile()
+     */
+    public void restore(Map<String, String> classNamesByFile) {
+        for (Map.Entry<String, String> entry : classNamesByFile.entrySet()) {
+            mapFileToClass(entry.getKey(), entry.getValue());
+        }
+        previousFiles.addAll(classNamesByFile.keySet());
+    }
+
     public void beginFile(LoadEvent event) {
         Logger.getLogger(getClass()).debug("beginFile(..., " + event.getFilename() + ", ...)");
         
-        currentFiles.add(event.getFilename());
+        currentFiles.add(event.getQualifiedFilename());
     }
 
     public void endClassfile(LoadEvent event) {
         Logger.getLogger(getClass()).debug("endClassfile(..., " + event.getFilename() + ", " + event.getClassfile() + ")");
         
-        if (previousFiles.contains(event.getFilename())) {
+        String filename = event.getQualifiedFilename();
+        String classname = event.getClassfile().getClassName();
+
+        if (previousFiles.contains(filename)) {
+            String previousClassname = fileToClass.get(filename);
+            // Unless it has already moved to a file read earlier in this session
+            if (previousClassname != null && !previousClassname.equals(classname) && filename.equals(classToFile.get(previousClassname))) {
+                Logger.getLogger(getClass()).debug("Removing " + previousClassname + " ...");
+                removeVisitor.removeClass(previousClassname);
+            }
+
             Logger.getLogger(getClass()).debug("Removing " + event.getClassfile() + " ...");
-            removeVisitor.removeClass(event.getClassfile().getClassName());
+            removeVisitor.removeClass(classname);
+        } else {
+            // The class may have moved here from a file of the previous session
+            String previousFilename = classToFile.get(classname);
+            if (previousFilename != null && previousFiles.contains(previousFilename)) {
+                Logger.getLogger(getClass()).debug("Removing " + event.getClassfile() + ", previously in " + previousFilename + " ...");
+                removeVisitor.removeClass(classname);
+            }
         }
         
         super.endClassfile(event);
 
-        fileToClass.put(event.getFilename(), event.getClassfile().getClassName());
+        mapFileToClass(filename, classname);
     }
     
     public void endFile(LoadEvent event) {
         Logger.getLogger(getClass()).debug("endFile(..., " + event.getFilename() + ", ...)");
         
-        previousFiles.remove(event.getFilename());
+        previousFiles.remove(event.getQualifiedFilename());
     }
     
     public void endSession(LoadEvent event) {
@@ -107,11 +159,31 @@ public class Monitor extends LoadListenerVisitorAdapter {
     }
 
     private void removeUnreadFiles() {
+        Collection<String> currentClasses = Sets.newHashSet();
+        for (String currentFile : currentFiles) {
+            currentClasses.add(fileToClass.get(currentFile));
+        }
+
         for (String previousFile : previousFiles) {
-            String classname = fileToClass.get(previousFile);
-            Logger.getLogger(getClass()).debug("Removing " + classname + " ...");
-            removeVisitor.removeClass(classname);
+            String classname = fileToClass.remove(previousFile);
+            if (previousFile.equals(classToFile.get(classname))) {
+                classToFile.remove(classname);
+            }
+
+            // The class may have moved to another file that was read in this session
+            if (!currentClasses.contains(classname)) {
+                Logger.getLogger(getClass()).debug("Removing " + classname + " ...");
+                removeVisitor.removeClass(classname);
+            }
+        }
+    }
+
+    private void mapFileToClass(String filename, String classname) {
+        String previousClassname = fileToClass.put(filename, classname);
+        if (previousClassname != null && filename.equals(classToFile.get(previousClassname))) {
+            classToFile.remove(previousClassname);
         }
+        classToFile.put(classname, filename);
     }
 
     private void closeSession() {
@@ -32,7 +32,21 @@
 
 package com.jeantessier.classreader;
 
+import java.util.*;
+
 public class SymbolGatherer extends CollectorBase {
+    /**
+     *  Attributes that the strategies look at, for local variable names,
+     *  synthetic features, and anonymous classes.  Loaders can skip all
+     *  others.
+     */
+    public static final Collection<AttributeType> ATTRIBUTE_TYPES = Collections.unmodifiableSet(EnumSet.of(
+            AttributeType.CODE,
+            AttributeType.LOCAL_VARIABLE_TABLE,
+            AttributeType.INNER_CLASSES,
+            AttributeType.ENCLOSING_METHOD,
+            AttributeType.SYNTHETIC));
+
     private SymbolGathererStrategy strategy;
 
     private Method_info currentMethod = null;
@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+/**
+ *  Passes events to its delegate one at a time, so a single listener
+ *  can collect from several loaders running on different threads.
+ *  Give several decorators the same lock when their delegates share
+ *  state.
+ */
+public class SynchronizedLoadListener extends LoadListenerDecorator {
+    private Object lock;
+
+    public SynchronizedLoadListener(LoadListener delegate) {
+        this(delegate, delegate);
+    }
+
+    public SynchronizedLoadListener(LoadListener delegate, Object lock) {
+        super(delegate);
+
+        this.lock = lock;
+    }
+
+    public void beginSession(LoadEvent event) {
+        synchronized (lock) {
+            super.beginSession(event);
+        }
+    }
+
+    public void beginGroup(LoadEvent event) {
+        synchronized (lock) {
+            super.beginGroup(event);
+        }
+    }
+
+    public void beginFile(LoadEvent event) {
+        synchronized (lock) {
+            super.beginFile(event);
+        }
+    }
+
+    public void beginClassfile(LoadEvent event) {
+        synchronized (lock) {
+            super.beginClassfile(event);
+        }
+    }
+
+    public void endClassfile(LoadEvent event) {
+        synchronized (lock) {
+            super.endClassfile(event);
+        }
+    }
+
+    public void endFile(LoadEvent event) {
+        synchronized (lock) {
+            super.endFile(event);
+        }
+    }
+
+    public void endGroup(LoadEvent event) {
+        synchronized (lock) {
+            super.endGroup(event);
+        }
+    }
+
+    public void endSession(LoadEvent event) {
+        synchronized (lock) {
+            super.endSession(event);
+        }
+    }
+}
@@ -32,7 +32,6 @@
 
 package com.jeantessier.classreader;
 
-import java.io.*;
 import java.util.*;
 
 import com.jeantessier.classreader.impl.*;
@@ -46,10 +45,21 @@ public class TransientClassfileLoader extends ClassfileLoaderEventSource {
         super(factory);
     }
 
+    /**
+     *  Only parses attributes of the given types and skips all others.
+     */
+    public TransientClassfileLoader(Collection<AttributeType> attributeTypes) {
+        this(new DefaultClassfileFactory(attributeTypes));
+    }
+
     public TransientClassfileLoader(ClassfileLoaderDispatcher dispatcher) {
         this(new DefaultClassfileFactory(), dispatcher);
     }
 
+    public TransientClassfileLoader(Collection<AttributeType> attributeTypes, ClassfileLoaderDispatcher dispatcher) {
+        this(new DefaultClassfileFactory(attributeTypes), dispatcher);
+    }
+
     private TransientClassfileLoader(ClassfileFactory factory, ClassfileLoaderDispatcher dispatcher) {
         super(factory, dispatcher);
     }
@@ -65,8 +75,4 @@ public class TransientClassfileLoader extends ClassfileLoaderEventSource {
     public Collection<String> getAllClassNames() {
         return Collections.emptyList();
     }
-
-    protected Classfile load(DataInput in) throws IOException {
-        return getFactory().create(this, in);
-    }
 }
@@ -35,6 +35,7 @@ package com.jeantessier.classreader;
 import org.apache.log4j.Logger;
 
 import java.util.Collection;
+import java.util.Iterator;
 
 public abstract class VisitorBase implements Visitor {
     private int currentCount;
@@ -290,8 +291,9 @@ public abstract class VisitorBase implements Visitor {
     // Attribute helpers
 
     protected void visitInstructions(Code_attribute attribute) {
-        for (Instruction instruction : attribute) {
-            instruction.accept(this);
+        Iterator<Instruction> i = attribute.instructionCursor();
+        while (i.hasNext()) {
+            i.next().accept(this);
         }
     }
 
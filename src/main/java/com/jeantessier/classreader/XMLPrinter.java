@@ -37,6 +37,7 @@ import com.jeantessier.text.Hex;
 
 import java.io.PrintWriter;
 import java.util.Collection;
+import java.util.Iterator;
 
 public class XMLPrinter extends Printer {
     public static final String DEFAULT_ENCODING   = "utf-8";
@@ -503,8 +504,9 @@ public class XMLPrinter extends Printer {
 
         indent().append("<instructions>").eol();
         raiseIndent();
-        for (Instruction instruction : attribute) {
-            instruction.accept(this);
+        Iterator<Instruction> i = attribute.instructionCursor();
+        while (i.hasNext()) {
+            i.next().accept(this);
         }
         lowerIndent();
         indent().append("</instructions>").eol();
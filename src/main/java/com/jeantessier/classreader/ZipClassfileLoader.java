@@ -33,6 +33,7 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.*;
 import java.util.*;
 import java.util.zip.*;
 
@@ -108,11 +109,12 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
                 
             Logger.getLogger(getClass()).debug("Starting file " + entry.getName() + " (" + entry.getSize() + " bytes)");
 
-            byte[]      bytes = null;
-            InputStream in    = null;
+            InputStream in = null;
             try {
-                in    = zipfile.getInputStream(entry);
-                bytes = readBytes(in);
+                in = zipfile.getInputStream(entry);
+
+                Logger.getLogger(getClass()).debug("Passing up file " + entry.getName() + " (" + entry.getSize() + " bytes)");
+                getLoader().load(entry.getName(), new EntryInputStream(in, entry.getSize()));
             } finally {
                 if (in != null) {
                     try {
@@ -123,9 +125,6 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
                 }
             }
             
-            Logger.getLogger(getClass()).debug("Passing up file " + entry.getName() + " (" + bytes.length + " bytes)");
-            getLoader().load(entry.getName(), new ByteArrayInputStream(bytes));
-            
             fireEndFile(entry.getName());
         }
     }
@@ -136,32 +135,53 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
             fireBeginFile(entry.getName());
                 
             Logger.getLogger(getClass()).debug("Starting file " + entry.getName() + " (" + entry.getSize() + " bytes)");
-            byte[] bytes = readBytes(in);
-            
-            Logger.getLogger(getClass()).debug("Passing up file " + entry.getName() + " (" + bytes.length + " bytes)");
-            getLoader().load(entry.getName(), new ByteArrayInputStream(bytes));
+
+            Logger.getLogger(getClass()).debug("Passing up file " + entry.getName() + " (" + entry.getSize() + " bytes)");
+            getLoader().load(entry.getName(), new EntryInputStream(in, entry.getSize()));
             
             fireEndFile(entry.getName());
         }
     }
 
-    private byte[] readBytes(InputStream in) {
-        byte[] result = null;
-        
-        try {
-            ByteArrayOutputStream out        = new ByteArrayOutputStream();
-            byte[]                buffer     = new byte[BUFFER_SIZE];
-            int                   bytesRead = 0;
-            while ((bytesRead = in.read(buffer, 0, BUFFER_SIZE)) != -1) {
-                out.write(buffer, 0, bytesRead);
+    /**
+     *  Reads an entry into memory only if the loader decides to look at
+     *  it.  When the Zip file knows the size of the entry, the data is
+     *  inflated straight into an array of the right size, with no
+     *  intermediate copies.
+     */
+    private static class EntryInputStream extends ByteBufferInputStream {
+        private InputStream in;
+        private long size;
+
+        public EntryInputStream(InputStream in, long size) {
+            this.in = in;
+            this.size = size;
+        }
+
+        protected ByteBuffer loadBuffer() throws IOException {
+            ByteBuffer result;
+
+            if (size >= 0 && size <= Integer.MAX_VALUE) {
+                byte[] bytes = new byte[(int) size];
+
+                int offset = 0;
+                int bytesRead = 0;
+                while (offset < bytes.length && (bytesRead = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                    offset += bytesRead;
+                }
+
+                result = ByteBuffer.wrap(bytes, 0, offset);
+            } else {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int bytesRead;
+                while ((bytesRead = in.read(buffer, 0, BUFFER_SIZE)) != -1) {
+                    out.write(buffer, 0, bytesRead);
+                }
+                result = ByteBuffer.wrap(out.toByteArray());
             }
-            out.close();
-                
-            result = out.toByteArray();
-        } catch (IOException ex) {
-            Logger.getLogger(getClass()).debug("Error loading Zip entry", ex);
+
+            return result;
         }
-        
-        return(result);
     }
 }
@@ -54,12 +54,18 @@ public class Annotation implements com.jeantessier.classreader.Annotation {
         this.constantPool = constantPool;
 
         typeIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Type index: " + typeIndex + " (" + getType() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Type index: " + typeIndex + " (" + getType() + ")");
+        }
 
         int numElementValuePairs = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + numElementValuePairs + " element value pair(s) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + numElementValuePairs + " element value pair(s) ...");
+        }
         for (int i=0; i<numElementValuePairs; i++) {
-            Logger.getLogger(getClass()).debug("Element value pair " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Element value pair " + i + ":");
+            }
             elementValuePairs.add(new ElementValuePair(constantPool, in, elementValueFactory));
         }
     }
@@ -49,7 +49,9 @@ public class AnnotationDefault_attribute extends Attribute_info implements com.j
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         elementValue = elementValueFactory.create(constantPool, in);
     }
@@ -45,7 +45,9 @@ public class AnnotationElementValue extends ElementValue implements com.jeantess
         super(constantPool);
 
         annotation = new Annotation(constantPool, in);
-        Logger.getLogger(getClass()).debug("Annotation: " + annotation);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Annotation: " + annotation);
+        }
     }
 
     public Annotation getAnnotation() {
@@ -50,9 +50,13 @@ public class ArrayElementValue extends ElementValue implements com.jeantessier.c
         super(constantPool);
 
         int numValues = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + numValues + " value(s) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + numValues + " value(s) ...");
+        }
         for (int i = 0; i < numValues; i++) {
-            Logger.getLogger(getClass()).debug("value " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("value " + i + ":");
+            }
             values.add(elementValueFactory.create(constantPool, in));
         }
     }
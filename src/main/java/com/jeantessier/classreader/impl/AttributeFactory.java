@@ -33,12 +33,44 @@
 package com.jeantessier.classreader.impl;
 
 import java.io.*;
+import java.util.*;
 
 import org.apache.log4j.*;
 
 import com.jeantessier.classreader.*;
 
+/**
+ *  Reads one attribute at a time.  The factory can be told to only
+ *  parse some types of attributes; the others are skipped, using their
+ *  length, and {@link #create create()} returns <code>null</code> for
+ *  them.  Tools that never look at, say, <code>LineNumberTable</code>
+ *  or <code>LocalVariableTable</code> save both the time to parse them
+ *  and the memory to hold them.  Unknown attributes are always kept as
+ *  {@link Custom_attribute}.
+ */
 public class AttributeFactory {
+    private Set<com.jeantessier.classreader.AttributeType> attributeTypes;
+
+    public AttributeFactory() {
+        this(EnumSet.allOf(com.jeantessier.classreader.AttributeType.class));
+    }
+
+    public AttributeFactory(Collection<com.jeantessier.classreader.AttributeType> attributeTypes) {
+        this.attributeTypes = EnumSet.noneOf(com.jeantessier.classreader.AttributeType.class);
+        this.attributeTypes.addAll(attributeTypes);
+    }
+
+    public Collection<com.jeantessier.classreader.AttributeType> getAttributeTypes() {
+        return Collections.unmodifiableCollection(attributeTypes);
+    }
+
+    public boolean isParsing(com.jeantessier.classreader.AttributeType attributeType) {
+        return attributeTypes.contains(attributeType);
+    }
+
+    /**
+     *  @return the attribute, or <code>null</code> if it was skipped.
+     */
     public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         Attribute_info result;
 
@@ -48,23 +80,32 @@ public class AttributeFactory {
 
             if (entry instanceof UTF8_info) {
                 String name = ((UTF8_info) entry).getValue();
-                Logger.getLogger(AttributeFactory.class).debug("Attribute name index: " + nameIndex + " (" + name + ")");
+                if (Logger.getLogger(AttributeFactory.class).isDebugEnabled()) {
+                    Logger.getLogger(AttributeFactory.class).debug("Attribute name index: " + nameIndex + " (" + name + ")");
+                }
 
                 AttributeType attributeType = AttributeType.forName(name);
-                if (attributeType != null) {
-                    result = attributeType.create(constantPool, owner, in);
+                if (attributeType != null && !isParsing(attributeType.getAttributeType())) {
+                    skip(in);
+                    result = null;
+                } else if (attributeType != null) {
+                    result = attributeType.create(constantPool, owner, in, this);
                 } else {
                     Logger.getLogger(AttributeFactory.class).warn("Unknown attribute name \"" + name + "\"");
                     result = new Custom_attribute(name, constantPool, owner, in);
                 }
             } else {
-                Logger.getLogger(AttributeFactory.class).debug("Attribute name: " + entry);
+                if (Logger.getLogger(AttributeFactory.class).isDebugEnabled()) {
+                    Logger.getLogger(AttributeFactory.class).debug("Attribute name: " + entry);
+                }
 
                 Logger.getLogger(AttributeFactory.class).warn("Unknown attribute with invalid name \"" + entry + "\"");
                 result = new Custom_attribute(constantPool, owner, in);
             }
         } else {
-            Logger.getLogger(AttributeFactory.class).debug("Attribute name index: " + nameIndex);
+            if (Logger.getLogger(AttributeFactory.class).isDebugEnabled()) {
+                Logger.getLogger(AttributeFactory.class).debug("Attribute name index: " + nameIndex);
+            }
 
             Logger.getLogger(AttributeFactory.class).warn("Unknown attribute with no name (name index = " + nameIndex + ")");
             result = new Custom_attribute(constantPool, owner, in);
@@ -72,4 +113,21 @@ public class AttributeFactory {
 
         return result;
     }
+
+    private void skip(DataInput in) throws IOException {
+        int byteCount = in.readInt();
+        if (Logger.getLogger(AttributeFactory.class).isDebugEnabled()) {
+            Logger.getLogger(AttributeFactory.class).debug("Skipping " + byteCount + " byte(s)");
+        }
+
+        while (byteCount > 0) {
+            int skipped = in.skipBytes(byteCount);
+            if (skipped > 0) {
+                byteCount -= skipped;
+            } else {
+                in.readByte();
+                byteCount--;
+            }
+        }
+    }
 }
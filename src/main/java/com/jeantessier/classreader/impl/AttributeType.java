@@ -47,6 +47,10 @@ public enum AttributeType {
         public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
             return new Code_attribute(constantPool, owner, in);
         }
+
+        public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
+            return new Code_attribute(constantPool, owner, in, attributeFactory);
+        }
     },
 
     EXCEPTIONS(com.jeantessier.classreader.AttributeType.EXCEPTIONS) {
@@ -151,12 +155,24 @@ public enum AttributeType {
         this.attributeType = attributeType;
     }
 
+    public com.jeantessier.classreader.AttributeType getAttributeType() {
+        return attributeType;
+    }
+
     public String getAttributeName() {
         return attributeType.getAttributeName();
     }
 
     public abstract Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException;
 
+    /**
+     *  Attributes that contain other attributes override this to read
+     *  them with the given factory.
+     */
+    public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
+        return create(constantPool, owner, in);
+    }
+
     public static AttributeType forName(String attributeName) {
         AttributeType result = null;
 
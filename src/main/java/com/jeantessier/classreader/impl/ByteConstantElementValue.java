@@ -41,7 +41,9 @@ import com.jeantessier.classreader.*;
 public class ByteConstantElementValue extends ConstantElementValue implements com.jeantessier.classreader.ByteConstantElementValue {
     public ByteConstantElementValue(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool, in);
-        Logger.getLogger(getClass()).debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        }
     }
 
     public byte getConstValue() {
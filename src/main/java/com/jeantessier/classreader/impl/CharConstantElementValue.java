@@ -41,7 +41,9 @@ import com.jeantessier.classreader.*;
 public class CharConstantElementValue extends ConstantElementValue implements com.jeantessier.classreader.CharConstantElementValue {
     public CharConstantElementValue(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool, in);
-        Logger.getLogger(getClass()).debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        }
     }
 
     public char getConstValue() {
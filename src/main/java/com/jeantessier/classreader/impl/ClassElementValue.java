@@ -46,7 +46,9 @@ public class ClassElementValue extends ElementValue implements com.jeantessier.c
         super(constantPool);
 
         classInfoIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Class info index: " + classInfoIndex);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Class info index: " + classInfoIndex);
+        }
     }
 
     public int getClassInfoIndex() {
@@ -78,7 +78,9 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
         this.loader = loader;
 
         magicNumber = in.readInt();
-        Logger.getLogger(getClass()).debug("magic number = 0x" + Integer.toHexString(magicNumber).toUpperCase());
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("magic number = 0x" + Integer.toHexString(magicNumber).toUpperCase());
+        }
 
         if (magicNumber != 0xCAFEBABE) {
             throw new IOException("Bad magic number");
@@ -86,9 +88,13 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
         
         // Reading the file format's version number
         minorVersion = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("minor version = " + minorVersion);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("minor version = " + minorVersion);
+        }
         majorVersion = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("major version = " + majorVersion);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("major version = " + majorVersion);
+        }
 
         // Reading the constant pool
         Logger.getLogger(getClass()).debug("Reading the constant pool ...");
@@ -97,47 +103,72 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
 
         // Skipping the access flag
         accessFlag = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("accessFlag = " + accessFlag);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("accessFlag = " + accessFlag);
+        }
 
         // Retrieving this class's name
         classIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("thisClass = " + classIndex + " (" + getClassName() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("thisClass = " + classIndex + " (" + getClassName() + ")");
+        }
 
         // Retrieving this class's superclass
         superclassIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("superclass = " + superclassIndex + " (" + getSuperclassName() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("superclass = " + superclassIndex + " (" + getSuperclassName() + ")");
+        }
 
         // Retrieving the inferfaces
         int interfaceCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + interfaceCount + " interface(s)");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + interfaceCount + " interface(s)");
+        }
         for (int i=0; i<interfaceCount; i++) {
             Class_info interfaceInfo = (Class_info) constantPool.get(in.readUnsignedShort());
-            Logger.getLogger(getClass()).debug("    " + interfaceInfo.getName());
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("    " + interfaceInfo.getName());
+            }
             interfaces.add(interfaceInfo);
         }
 
         // Retrieving the fields
         int fieldCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + fieldCount + " field(s)");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + fieldCount + " field(s)");
+        }
         for (int i=0; i<fieldCount; i++) {
-            Logger.getLogger(getClass()).debug("Field " + i + ":");
-            fields.add(new Field_info(this, in));
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Field " + i + ":");
+            }
+            fields.add(new Field_info(this, in, attributeFactory));
         }
 
         // Retrieving the methods
         int methodCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + methodCount + " method(s)");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + methodCount + " method(s)");
+        }
         for (int i=0; i<methodCount; i++) {
-            Logger.getLogger(getClass()).debug("Method " + i + ":");
-            methods.add(new Method_info(this, in));
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Method " + i + ":");
+            }
+            methods.add(new Method_info(this, in, attributeFactory));
         }
 
         // Retrieving the attributes
         int attributeCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + attributeCount + " class attribute(s)");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + attributeCount + " class attribute(s)");
+        }
         for (int i=0; i<attributeCount; i++) {
-            Logger.getLogger(getClass()).debug("Attribute " + i + ":");
-            attributes.add(attributeFactory.create(constantPool, this, in));
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Attribute " + i + ":");
+            }
+            Attribute_info attribute = attributeFactory.create(constantPool, this, in);
+            if (attribute != null) {
+                attributes.add(attribute);
+            }
         }
     }
 
@@ -39,10 +39,25 @@ public class CodeIterator implements Iterator<com.jeantessier.classreader.Instru
     private byte[] bytecode;
     private int    pc;
 
+    private Instruction flyweight;
+
     public CodeIterator(Code_attribute code, byte[] bytecode) {
+        this(code, bytecode, false);
+    }
+
+    /**
+     *  @param reuseInstruction if <code>true</code>, {@link #next()}
+     *                          returns the same Instruction every time,
+     *                          moved to the next opcode.
+     */
+    public CodeIterator(Code_attribute code, byte[] bytecode, boolean reuseInstruction) {
         this.code = code;
         this.bytecode = bytecode;
         this.pc   = 0;
+
+        if (reuseInstruction) {
+            flyweight = new Instruction(code, bytecode, 0);
+        }
     }
 
     public boolean hasNext() {
@@ -53,7 +68,12 @@ public class CodeIterator implements Iterator<com.jeantessier.classreader.Instru
         Instruction result;
 
         if (hasNext()) {
-            result = new Instruction(code, bytecode, pc);
+            if (flyweight != null) {
+                flyweight.setStart(pc);
+                result = flyweight;
+            } else {
+                result = new Instruction(code, bytecode, pc);
+            }
             pc += result.getLength();
         } else {
             throw new NoSuchElementException();
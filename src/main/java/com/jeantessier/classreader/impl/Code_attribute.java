@@ -57,40 +57,62 @@ public class Code_attribute extends Attribute_info implements Iterable<Instructi
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         maxStack = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Code max stack: " + maxStack);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Code max stack: " + maxStack);
+        }
 
         maxLocals = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Code max locals: " + maxLocals);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Code max locals: " + maxLocals);
+        }
 
         int codeLength = in.readInt();
-        Logger.getLogger(getClass()).debug("Code length: " + codeLength);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Code length: " + codeLength);
+        }
         
         code = new byte[codeLength];
         in.readFully(code);
-        Logger.getLogger(getClass()).debug("Read " + codeLength + " byte(s): " + Hex.toString(code));
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Read " + codeLength + " byte(s): " + Hex.toString(code));
+        }
 
         int exceptionTableLength = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + exceptionTableLength + " exception handler(s) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + exceptionTableLength + " exception handler(s) ...");
+        }
         for (int i=0; i<exceptionTableLength; i++) {
-            Logger.getLogger(getClass()).debug("Exception handler " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Exception handler " + i + ":");
+            }
             exceptionHandlers.add(new ExceptionHandler(this, in));
         }
 
         int attributeCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + attributeCount + " code attribute(s)");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + attributeCount + " code attribute(s)");
+        }
         for (int i=0; i<attributeCount; i++) {
-            Logger.getLogger(getClass()).debug("code attribute " + i + ":");
-            attributes.add(attributeFactory.create(getConstantPool(), this, in));
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("code attribute " + i + ":");
+            }
+            Attribute_info attribute = attributeFactory.create(getConstantPool(), this, in);
+            if (attribute != null) {
+                attributes.add(attribute);
+            }
         }
 
         if (Logger.getLogger(getClass()).isDebugEnabled()) {
             Logger.getLogger(getClass()).debug("Read instructions(s):");
 
-            for (Instruction instr : this) {
-                logInstruction(instr);
+            Iterator<Instruction> i = instructionCursor();
+            while (i.hasNext()) {
+                logInstruction(i.next());
             }
         }
     }
@@ -111,6 +133,10 @@ public class Code_attribute extends Attribute_info implements Iterable<Instructi
         return new CodeIterator(this, code);
     }
 
+    public Iterator<Instruction> instructionCursor() {
+        return new CodeIterator(this, code, true);
+    }
+
     public Collection<ExceptionHandler> getExceptionHandlers() {
         return exceptionHandlers;
     }
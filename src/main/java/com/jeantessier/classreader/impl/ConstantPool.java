@@ -59,7 +59,9 @@ public class ConstantPool extends ArrayList<com.jeantessier.classreader.Constant
         for (int i=1; i<count; i++) {
             byte tag = in.readByte();
 
-            Logger.getLogger(getClass()).info("Entry " + i + " has tag " + tag);
+            if (Logger.getLogger(getClass()).isInfoEnabled()) {
+                Logger.getLogger(getClass()).info("Entry " + i + " has tag " + tag);
+            }
 
             switch(tag) {
                 case ConstantPoolEntry.CONSTANT_Class:
@@ -109,7 +111,9 @@ public class ConstantPool extends ArrayList<com.jeantessier.classreader.Constant
                     add(new InvokeDynamic_info(this, in));
                     break;
                 default:
-                    Logger.getLogger(getClass()).info("Unknown Tag " + tag);
+                    if (Logger.getLogger(getClass()).isInfoEnabled()) {
+                        Logger.getLogger(getClass()).info("Unknown Tag " + tag);
+                    }
                     break;
             }
         }
@@ -45,10 +45,14 @@ public class ConstantValue_attribute extends Attribute_info implements com.jeant
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         valueIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Constant value: " + getValueIndex() + " (" + getRawValue() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Constant value: " + getValueIndex() + " (" + getRawValue() + ")");
+        }
     }
 
     public int getValueIndex() {
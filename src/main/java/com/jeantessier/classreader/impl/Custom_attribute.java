@@ -53,7 +53,9 @@ public class Custom_attribute extends Attribute_info implements com.jeantessier.
         this.name = name;
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         this.info = new byte[byteCount];
         in.readFully(info);
@@ -33,11 +33,33 @@
 package com.jeantessier.classreader.impl;
 
 import java.io.*;
+import java.util.*;
 
 import com.jeantessier.classreader.*;
 
 public class DefaultClassfileFactory implements ClassfileFactory {
+    private AttributeFactory attributeFactory;
+
+    public DefaultClassfileFactory() {
+        this(new AttributeFactory());
+    }
+
+    /**
+     *  Only parses attributes of the given types.
+     */
+    public DefaultClassfileFactory(Collection<com.jeantessier.classreader.AttributeType> attributeTypes) {
+        this(new AttributeFactory(attributeTypes));
+    }
+
+    public DefaultClassfileFactory(AttributeFactory attributeFactory) {
+        this.attributeFactory = attributeFactory;
+    }
+
+    public AttributeFactory getAttributeFactory() {
+        return attributeFactory;
+    }
+
     public Classfile create(ClassfileLoader loader, DataInput in) throws IOException {
-        return new Classfile(loader, in);
+        return new Classfile(loader, in, attributeFactory);
     }
 }
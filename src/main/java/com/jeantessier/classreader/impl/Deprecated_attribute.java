@@ -43,7 +43,9 @@ public class Deprecated_attribute extends Attribute_info implements com.jeantess
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
     }
 
     public String toString() {
@@ -42,7 +42,9 @@ public class ElementValueFactory {
 
         char tag = (char) in.readUnsignedByte();
         ElementValueType elementValueType = ElementValueType.forTag(tag);
-        Logger.getLogger(getClass()).debug("tag " + tag + " (" + elementValueType + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("tag " + tag + " (" + elementValueType + ")");
+        }
         if (elementValueType != null) {
             result = elementValueType.create(constantPool, in);
         } else {
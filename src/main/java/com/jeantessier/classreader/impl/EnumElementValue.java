@@ -47,10 +47,14 @@ public class EnumElementValue extends ElementValue implements com.jeantessier.cl
         super(constantPool);
 
         typeNameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Type name index: " + typeNameIndex);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Type name index: " + typeNameIndex);
+        }
 
         constNameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Const name index: " + constNameIndex);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Const name index: " + constNameIndex);
+        }
     }
 
     public int getTypeNameIndex() {
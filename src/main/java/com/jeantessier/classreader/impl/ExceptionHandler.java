@@ -49,16 +49,24 @@ public class ExceptionHandler implements com.jeantessier.classreader.ExceptionHa
         this.code = code;
 
         startPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("start PC: " + startPC);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("start PC: " + startPC);
+        }
 
         endPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("end PC: " + endPC);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("end PC: " + endPC);
+        }
 
         handlerPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("handler PC: " + handlerPC);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("handler PC: " + handlerPC);
+        }
 
         catchTypeIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("catch type index: " + catchTypeIndex + " (" + getCatchType() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("catch type index: " + catchTypeIndex + " (" + getCatchType() + ")");
+        }
     }
 
     public Code_attribute getCode() {
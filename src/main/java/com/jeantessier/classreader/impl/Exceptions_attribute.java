@@ -46,15 +46,23 @@ public class Exceptions_attribute extends Attribute_info implements com.jeantess
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         int exceptionCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + exceptionCount + " exception(s) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + exceptionCount + " exception(s) ...");
+        }
         for (int i=0; i<exceptionCount; i++) {
-            Logger.getLogger(getClass()).debug("Exception " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Exception " + i + ":");
+            }
             Class_info exception = (Class_info) constantPool.get(in.readUnsignedShort());
             exceptions.add(exception);
-            Logger.getLogger(getClass()).debug("Class " + exception);
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Class " + exception);
+            }
         }
     }
 
@@ -61,19 +61,32 @@ public abstract class Feature_info implements com.jeantessier.classreader.Featur
         this.classfile = classfile;
 
         accessFlag = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug(getFeatureType() + " access flag: " + accessFlag);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug(getFeatureType() + " access flag: " + accessFlag);
+        }
 
         nameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug(getFeatureType() + " name: " + nameIndex + " (" + getName() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug(getFeatureType() + " name: " + nameIndex + " (" + getName() + ")");
+        }
 
         descriptorIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug(getFeatureType() + " Descriptor: " + descriptorIndex + " (" + getDescriptor() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug(getFeatureType() + " Descriptor: " + descriptorIndex + " (" + getDescriptor() + ")");
+        }
 
         int attributeCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + attributeCount + " " + getFeatureType() + " attribute(s)");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + attributeCount + " " + getFeatureType() + " attribute(s)");
+        }
         for (int i=0; i<attributeCount; i++) {
-            Logger.getLogger(getClass()).debug(getFeatureType() + " attribute " + i + ":");
-            attributes.add(attributeFactory.create(getClassfile().getConstantPool(), this, in));
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug(getFeatureType() + " attribute " + i + ":");
+            }
+            Attribute_info attribute = attributeFactory.create(getClassfile().getConstantPool(), this, in);
+            if (attribute != null) {
+                attributes.add(attribute);
+            }
         }
     }
 
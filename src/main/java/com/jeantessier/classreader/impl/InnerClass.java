@@ -60,16 +60,24 @@ public class InnerClass implements com.jeantessier.classreader.InnerClass {
         this.innerClasses = innerClasses;
 
         innerClassInfoIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Inner class info index: " + innerClassInfoIndex + " (" + getInnerClassInfo() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Inner class info index: " + innerClassInfoIndex + " (" + getInnerClassInfo() + ")");
+        }
 
         outerClassInfoIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Outer class info index: " + outerClassInfoIndex + " (" + getOuterClassInfo() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Outer class info index: " + outerClassInfoIndex + " (" + getOuterClassInfo() + ")");
+        }
 
         innerNameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Inner name index: " + innerNameIndex + " (" + getInnerName() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Inner name index: " + innerNameIndex + " (" + getInnerName() + ")");
+        }
 
         accessFlag = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Inner class access flag: " + accessFlag);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Inner class access flag: " + accessFlag);
+        }
     }
 
     public InnerClasses_attribute getInnerClasses() {
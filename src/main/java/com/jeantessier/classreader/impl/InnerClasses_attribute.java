@@ -46,12 +46,18 @@ public class InnerClasses_attribute extends Attribute_info implements com.jeante
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         int classCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + classCount + " inner class(es) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + classCount + " inner class(es) ...");
+        }
         for (int i=0; i<classCount; i++) {
-            Logger.getLogger(getClass()).debug("Inner class " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Inner class " + i + ":");
+            }
             classes.add(new InnerClass(this, in));
         }
     }
@@ -588,6 +588,14 @@ public class Instruction implements com.jeantessier.classreader.Instruction {
     public int getStart() {
         return start;
     }
+
+    /**
+     *  Moves this instruction to another opcode in the same bytecode.
+     *  Only {@link CodeIterator} should call this.
+     */
+    void setStart(int start) {
+        this.start = start;
+    }
     
     public int getOpcode() {
         return getByte(0);
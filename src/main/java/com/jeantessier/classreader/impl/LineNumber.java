@@ -47,10 +47,14 @@ public class LineNumber implements com.jeantessier.classreader.LineNumber {
         setLineNumberTable(lineNumberTable);
 
         startPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Line number table start PC: " + startPC);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Line number table start PC: " + startPC);
+        }
 
         lineNumber = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Line number: " + lineNumber);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Line number: " + lineNumber);
+        }
     }
 
     public LineNumberTable_attribute getLineNumberTable() {
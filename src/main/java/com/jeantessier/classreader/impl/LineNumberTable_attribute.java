@@ -46,12 +46,18 @@ public class LineNumberTable_attribute extends Attribute_info implements com.jea
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         int lineNumberTableLength = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + lineNumberTableLength + " line number(s) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + lineNumberTableLength + " line number(s) ...");
+        }
         for (int i=0; i<lineNumberTableLength; i++) {
-            Logger.getLogger(getClass()).debug("Line number entry " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Line number entry " + i + ":");
+            }
             lineNumbers.add(new LineNumber(this, in));
         }
     }
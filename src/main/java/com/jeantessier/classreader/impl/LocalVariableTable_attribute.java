@@ -46,12 +46,18 @@ public class LocalVariableTable_attribute extends Attribute_info implements com.
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        }
 
         int localVariableTableLength = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + localVariableTableLength + " local variable(s) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + localVariableTableLength + " local variable(s) ...");
+        }
         for (int i=0; i<localVariableTableLength; i++) {
-            Logger.getLogger(getClass()).debug("Local variable " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Local variable " + i + ":");
+            }
             localVariables.add(new LocalVariable(this, in));
         }
     }
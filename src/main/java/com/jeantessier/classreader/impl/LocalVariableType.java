@@ -50,19 +50,29 @@ public class LocalVariableType implements com.jeantessier.classreader.LocalVaria
         this.localVariableTypeTable = localVariableTypeTable;
 
         startPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("start PC: " + startPC);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("start PC: " + startPC);
+        }
 
         length = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("length: " + length);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("length: " + length);
+        }
 
         nameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("name: " + nameIndex + " (" + getName() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("name: " + nameIndex + " (" + getName() + ")");
+        }
 
         signatureIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("signature: " + signatureIndex + " (" + getSignature() + ")");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("signature: " + signatureIndex + " (" + getSignature() + ")");
+        }
 
         index = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("index: " + index);
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("index: " + index);
+        }
     }
 
     public LocalVariableTypeTable_attribute getLocalVariableTypeTable() {
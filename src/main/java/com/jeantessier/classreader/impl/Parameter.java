@@ -44,9 +44,13 @@ public class Parameter implements com.jeantessier.classreader.Parameter {
 
     public Parameter(ConstantPool constantPool, DataInput in) throws IOException {
         int numAnnotations = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + numAnnotations + " annotation(s) ...");
+        if (Logger.getLogger(getClass()).isDebugEnabled()) {
+            Logger.getLogger(getClass()).debug("Reading " + numAnnotations + " annotation(s) ...");
+        }
         for (int i=0; i<numAnnotations; i++) {
-            Logger.getLogger(getClass()).debug("Annotation " + i + ":");
+            if (Logger.getLogger(getClass()).isDebugEnabled()) {
+                Logger.getLogger(getClass()).debug("Annotation " + i + ":");
+            }
             annotations.add(new Annotation(constantPool, in));
         }
     }
@@ -36,19 +36,113 @@ import java.io.*;
 
 import com.jeantessier.classreader.*;
 
+/**
+ *  Keeps the raw modified UTF-8 bytes from the classfile and only builds
+ *  the String the first time someone asks for it.  Most tools never look
+ *  at most of the constant pool, so this saves decoding and allocating
+ *  all those Strings.
+ *
+ *  <p>The bytes are still checked when the entry is read, so a malformed
+ *  entry fails the parse with the same <code>UTFDataFormatException</code>
+ *  as <code>DataInput.readUTF()</code> would.</p>
+ */
 public class UTF8_info extends ConstantPoolEntry implements com.jeantessier.classreader.UTF8_info {
-    private String value;
+    private byte[] bytes;
+    private volatile String value;
 
     public UTF8_info(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool);
 
-        value = in.readUTF();
+        bytes = new byte[in.readUnsignedShort()];
+        in.readFully(bytes);
+
+        validate(bytes);
     }
 
     public String getValue() {
+        String result = value;
+
+        if (result == null) {
+            result = decodeValue();
+        }
+
+        return result;
+    }
+
+    private synchronized String decodeValue() {
+        if (value == null) {
+            value = decode(bytes);
+            bytes = null;
+        }
+
         return value;
     }
 
+    /**
+     *  Same checks as <code>DataInputStream.readUTF()</code>, without
+     *  building the String.
+     */
+    static void validate(byte[] bytes) throws UTFDataFormatException {
+        int count = 0;
+        while (count < bytes.length) {
+            int c = bytes[count] & 0xff;
+            switch (c >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    count++;
+                    break;
+                case 12: case 13:
+                    if (count + 2 > bytes.length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    if ((bytes[count + 1] & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (count + 1));
+                    }
+                    count += 2;
+                    break;
+                case 14:
+                    if (count + 3 > bytes.length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    if ((bytes[count + 1] & 0xC0) != 0x80 || (bytes[count + 2] & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (count + 2));
+                    }
+                    count += 3;
+                    break;
+                default:
+                    throw new UTFDataFormatException("malformed input around byte " + count);
+            }
+        }
+    }
+
+    /**
+     *  Decodes bytes that already went through {@link #validate(byte[])}.
+     */
+    static String decode(byte[] bytes) {
+        char[] chars = new char[bytes.length];
+        int nbChars = 0;
+
+        int count = 0;
+        while (count < bytes.length) {
+            int c = bytes[count] & 0xff;
+            switch (c >> 4) {
+                case 12: case 13:
+                    chars[nbChars++] = (char) (((c & 0x1F) << 6) | (bytes[count + 1] & 0x3F));
+                    count += 2;
+                    break;
+                case 14:
+                    chars[nbChars++] = (char) (((c & 0x0F) << 12) | ((bytes[count + 1] & 0x3F) << 6) | (bytes[count + 2] & 0x3F));
+                    count += 3;
+                    break;
+                default:
+                    chars[nbChars++] = (char) c;
+                    count++;
+                    break;
+            }
+        }
+
+        return new String(chars, 0, nbChars);
+    }
+
     public String toString() {
         return getValue();
     }
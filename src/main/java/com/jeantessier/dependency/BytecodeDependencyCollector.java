@@ -0,0 +1,744 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.log4j.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  <p>Extracts the same dependencies as {@link CodeDependencyCollector},
+ *  but straight from the bytes of a <code>.class</code> file, without
+ *  building a {@link Classfile} first.  It makes one pass over the
+ *  file, only decodes the constant pool entries that it needs, and skips
+ *  over the attributes that have no dependencies in them, such as line
+ *  numbers and local variables.</p>
+ *
+ *  <p>For the same filter criteria, it adds the same nodes and
+ *  dependencies to the factory as <code>CodeDependencyCollector</code>
+ *  and fires the same events, in the same order.  It also knows about
+ *  the constant pool entries of newer classfile formats, such as
+ *  <code>module-info.class</code>.</p>
+ *
+ *  <p>It reuses its buffers from one class to the next, so it is not
+ *  thread-safe.</p>
+ */
+public class BytecodeDependencyCollector {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_Utf8 = 1;
+    private static final int CONSTANT_Integer = 3;
+    private static final int CONSTANT_Float = 4;
+    private static final int CONSTANT_Long = 5;
+    private static final int CONSTANT_Double = 6;
+    private static final int CONSTANT_Class = 7;
+    private static final int CONSTANT_String = 8;
+    private static final int CONSTANT_Fieldref = 9;
+    private static final int CONSTANT_Methodref = 10;
+    private static final int CONSTANT_InterfaceMethodref = 11;
+    private static final int CONSTANT_NameAndType = 12;
+    private static final int CONSTANT_MethodHandle = 15;
+    private static final int CONSTANT_MethodType = 16;
+    private static final int CONSTANT_Dynamic = 17;
+    private static final int CONSTANT_InvokeDynamic = 18;
+    private static final int CONSTANT_Module = 19;
+    private static final int CONSTANT_Package = 20;
+
+    private static final int[] INSTRUCTION_LENGTHS = new int[0x100];
+
+    static {
+        Arrays.fill(INSTRUCTION_LENGTHS, 1);
+
+        INSTRUCTION_LENGTHS[0x10] = 2; // bipush
+        INSTRUCTION_LENGTHS[0x11] = 3; // sipush
+        INSTRUCTION_LENGTHS[0x12] = 2; // ldc
+        INSTRUCTION_LENGTHS[0x13] = 3; // ldc_w
+        INSTRUCTION_LENGTHS[0x14] = 3; // ldc2_w
+        Arrays.fill(INSTRUCTION_LENGTHS, 0x15, 0x1a, 2); // iload .. aload
+        Arrays.fill(INSTRUCTION_LENGTHS, 0x36, 0x3b, 2); // istore .. astore
+        INSTRUCTION_LENGTHS[0x84] = 3; // iinc
+        Arrays.fill(INSTRUCTION_LENGTHS, 0x99, 0xa9, 3); // ifeq .. jsr
+        INSTRUCTION_LENGTHS[0xa9] = 2; // ret
+        Arrays.fill(INSTRUCTION_LENGTHS, 0xb2, 0xb9, 3); // getstatic .. invokestatic
+        INSTRUCTION_LENGTHS[0xb9] = 5; // invokeinterface
+        INSTRUCTION_LENGTHS[0xba] = 5; // invokedynamic
+        INSTRUCTION_LENGTHS[0xbb] = 3; // new
+        INSTRUCTION_LENGTHS[0xbc] = 2; // newarray
+        INSTRUCTION_LENGTHS[0xbd] = 3; // anewarray
+        INSTRUCTION_LENGTHS[0xc0] = 3; // checkcast
+        INSTRUCTION_LENGTHS[0xc1] = 3; // instanceof
+        INSTRUCTION_LENGTHS[0xc5] = 4; // multianewarray
+        INSTRUCTION_LENGTHS[0xc6] = 3; // ifnull
+        INSTRUCTION_LENGTHS[0xc7] = 3; // ifnonnull
+        INSTRUCTION_LENGTHS[0xc8] = 5; // goto_w
+        INSTRUCTION_LENGTHS[0xc9] = 5; // jsr_w
+    }
+
+    private NodeFactory factory;
+    private SelectionCriteria filterCriteria;
+
+    private Collection<DependencyListener> dependencyListeners = new CopyOnWriteArraySet<DependencyListener>();
+
+    private byte[] bytes;
+    private int[] entryOffsets = new int[0];
+    private String[] strings = new String[0];
+    private String[] classNames = new String[0];
+    private String[] featureNames = new String[0];
+    private Node current;
+
+    public BytecodeDependencyCollector() {
+        this(new NodeFactory());
+    }
+
+    public BytecodeDependencyCollector(NodeFactory factory) {
+        this(factory, new ComprehensiveSelectionCriteria());
+    }
+
+    public BytecodeDependencyCollector(NodeFactory factory, SelectionCriteria filterCriteria) {
+        this.factory = factory;
+        this.filterCriteria = filterCriteria;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    public void collect(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            collect(buffer.array(), buffer.arrayOffset() + buffer.position());
+        } else {
+            byte[] copy = new byte[buffer.remaining()];
+            buffer.duplicate().get(copy);
+            collect(copy, 0);
+        }
+    }
+
+    public void collect(byte[] bytes) throws IOException {
+        collect(bytes, 0);
+    }
+
+    /**
+     *  Extracts the dependencies of the classfile that starts at
+     *  <code>offset</code> in <code>bytes</code>.
+     *
+     *  @throws IOException if the bytes are not a classfile or if the
+     *      classfile is cut short.
+     */
+    public void collect(byte[] bytes, int offset) throws IOException {
+        this.bytes = bytes;
+        try {
+            if (readInt(offset) != MAGIC) {
+                throw new IOException("Not a classfile (bad magic number)");
+            }
+
+            int pos = readConstantPool(offset + 8);
+            visitClassfile(pos);
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new EOFException("Classfile is cut short");
+        } finally {
+            this.bytes = null;
+            this.current = null;
+        }
+    }
+
+    /**
+     *  Notes where each entry starts, without decoding anything yet.
+     *
+     *  @return where the constant pool ends.
+     */
+    private int readConstantPool(int pos) throws IOException {
+        int count = readUnsignedShort(pos);
+        pos += 2;
+
+        if (entryOffsets.length < count) {
+            entryOffsets = new int[count];
+            strings = new String[count];
+            classNames = new String[count];
+            featureNames = new String[count];
+        } else {
+            Arrays.fill(strings, 0, count, null);
+            Arrays.fill(classNames, 0, count, null);
+            Arrays.fill(featureNames, 0, count, null);
+        }
+
+        for (int i = 1; i < count; i++) {
+            entryOffsets[i] = pos;
+
+            int tag = bytes[pos];
+            switch (tag) {
+                case CONSTANT_Utf8:
+                    pos += 3 + readUnsignedShort(pos + 1);
+                    break;
+                case CONSTANT_Class:
+                case CONSTANT_String:
+                case CONSTANT_MethodType:
+                case CONSTANT_Module:
+                case CONSTANT_Package:
+                    pos += 3;
+                    break;
+                case CONSTANT_MethodHandle:
+                    pos += 4;
+                    break;
+                case CONSTANT_Integer:
+                case CONSTANT_Float:
+                case CONSTANT_Fieldref:
+                case CONSTANT_Methodref:
+                case CONSTANT_InterfaceMethodref:
+                case CONSTANT_NameAndType:
+                case CONSTANT_Dynamic:
+                case CONSTANT_InvokeDynamic:
+                    pos += 5;
+                    break;
+                case CONSTANT_Long:
+                case CONSTANT_Double:
+                    pos += 9;
+                    entryOffsets[++i] = -1;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " at entry " + i);
+            }
+        }
+
+        return pos;
+    }
+
+    private void visitClassfile(int pos) throws IOException {
+        String classname = getClassName(readUnsignedShort(pos + 2));
+        int superclassIndex = readUnsignedShort(pos + 4);
+        int interfaceCount = readUnsignedShort(pos + 6);
+        pos += 8;
+
+        Logger.getLogger(getClass()).debug("Collecting dependencies of " + classname);
+
+        ClassNode currentClass = getFactory().createClass(classname, true);
+        current = currentClass;
+
+        fireBeginClass(classname);
+
+        if (superclassIndex != 0) {
+            visitClass(superclassIndex);
+            currentClass.addParent(getFactory().createClass(getClassName(superclassIndex)));
+        }
+
+        for (int i = 0; i < interfaceCount; i++) {
+            int interfaceIndex = readUnsignedShort(pos);
+            visitClass(interfaceIndex);
+            currentClass.addParent(getFactory().createClass(getClassName(interfaceIndex)));
+            pos += 2;
+        }
+
+        int fieldCount = readUnsignedShort(pos);
+        pos += 2;
+        for (int i = 0; i < fieldCount; i++) {
+            current = getFactory().createFeature(classname + "." + getString(readUnsignedShort(pos + 2)), true);
+            processDescriptor(readUnsignedShort(pos + 4));
+
+            pos = visitAttributes(pos + 6);
+        }
+
+        int methodCount = readUnsignedShort(pos);
+        pos += 2;
+        for (int i = 0; i < methodCount; i++) {
+            String name = getString(readUnsignedShort(pos + 2));
+            String descriptor = getString(readUnsignedShort(pos + 4));
+
+            current = getFactory().createFeature(classname + "." + getMethodSignature(classname, name, descriptor), true);
+            processDescriptor(descriptor);
+
+            pos = visitAttributes(pos + 6);
+        }
+
+        current = getFactory().createClass(classname);
+        visitAttributes(pos);
+
+        fireEndClass(classname);
+    }
+
+    /**
+     *  @return where the attributes end.
+     */
+    private int visitAttributes(int pos) throws IOException {
+        int attributeCount = readUnsignedShort(pos);
+        pos += 2;
+
+        for (int i = 0; i < attributeCount; i++) {
+            int nameIndex = readUnsignedShort(pos);
+            int length = readInt(pos + 2);
+            pos += 6;
+
+            if (nameIndex > 0 && nameIndex < entryOffsets.length && entryOffsets[nameIndex] > 0 && bytes[entryOffsets[nameIndex]] == CONSTANT_Utf8) {
+                String name = getString(nameIndex);
+                if (name.equals("Code")) {
+                    visitCode(pos);
+                } else if (name.equals("Exceptions")) {
+                    visitExceptions(pos);
+                } else if (name.equals("RuntimeVisibleAnnotations") || name.equals("RuntimeInvisibleAnnotations")) {
+                    visitAnnotations(pos);
+                } else if (name.equals("RuntimeVisibleParameterAnnotations") || name.equals("RuntimeInvisibleParameterAnnotations")) {
+                    visitParameterAnnotations(pos);
+                } else if (name.equals("AnnotationDefault")) {
+                    visitElementValue(pos);
+                }
+            }
+
+            pos += length;
+        }
+
+        return pos;
+    }
+
+    private void visitCode(int pos) throws IOException {
+        int codeLength = readInt(pos + 4);
+        pos += 8;
+
+        visitInstructions(pos, codeLength);
+        pos += codeLength;
+
+        int exceptionTableLength = readUnsignedShort(pos);
+        pos += 2;
+        for (int i = 0; i < exceptionTableLength; i++) {
+            int catchTypeIndex = readUnsignedShort(pos + 6);
+            if (catchTypeIndex != 0) {
+                visitClass(catchTypeIndex);
+            }
+            pos += 8;
+        }
+
+        visitAttributes(pos);
+    }
+
+    /**
+     *  Only looks at the instructions that
+     *  {@link CodeDependencyCollector#visitInstruction(Instruction)}
+     *  looks at.
+     */
+    private void visitInstructions(int start, int length) {
+        int pc = 0;
+        while (pc < length) {
+            int pos = start + pc;
+            int opcode = bytes[pos] & 0xff;
+
+            switch (opcode) {
+                case 0x12: // ldc
+                    visitConstant(bytes[pos + 1] & 0xff);
+                    break;
+                case 0x13: // ldc_w
+                case 0xb2: // getstatic
+                case 0xb3: // putstatic
+                case 0xb4: // getfield
+                case 0xb5: // putfield
+                case 0xb6: // invokevirtual
+                case 0xb7: // invokespecial
+                case 0xb8: // invokestatic
+                case 0xb9: // invokeinterface
+                case 0xbd: // anewarray
+                case 0xc0: // checkcast
+                case 0xc1: // instanceof
+                case 0xc5: // multianewarray
+                    visitConstant(readUnsignedShort(pos + 1));
+                    break;
+                default:
+                    // Do nothing
+                    break;
+            }
+
+            pc += getInstructionLength(opcode, start, pc);
+        }
+    }
+
+    private int getInstructionLength(int opcode, int start, int pc) {
+        int result = INSTRUCTION_LENGTHS[opcode];
+
+        int padding;
+
+        switch (opcode) {
+            case 0xaa: // tableswitch
+                padding = 3 - (pc % 4);
+                int low = readInt(start + pc + padding + 5);
+                int high = readInt(start + pc + padding + 9);
+                result = 1 + padding + 12 + (high - low + 1) * 4;
+                break;
+
+            case 0xab: // lookupswitch
+                padding = 3 - (pc % 4);
+                int npairs = readInt(start + pc + padding + 5);
+                result = 1 + padding + 8 + npairs * 8;
+                break;
+
+            case 0xc4: // wide
+                if ((bytes[start + pc + 1] & 0xff) == 0x84 /* iinc */) {
+                    result = 6;
+                } else {
+                    result = 4;
+                }
+                break;
+
+            default:
+                // Do nothing
+                break;
+        }
+
+        return result;
+    }
+
+    private void visitConstant(int index) {
+        switch (bytes[entryOffsets[index]]) {
+            case CONSTANT_Class:
+                visitClass(index);
+                break;
+            case CONSTANT_Fieldref:
+                visitFieldRef(index);
+                break;
+            case CONSTANT_Methodref:
+            case CONSTANT_InterfaceMethodref:
+                visitMethodRef(index);
+                break;
+            default:
+                // Do nothing
+                break;
+        }
+    }
+
+    private void visitClass(int index) {
+        String classname = getClassName(index);
+
+        if (classname.startsWith("[")) {
+            processDescriptor(classname);
+        } else {
+            processClassName(classname);
+        }
+    }
+
+    private void visitFieldRef(int index) {
+        if (filterCriteria.isMatchingFeatures()) {
+            processFeatureName(getFeatureName(index));
+        }
+        processDescriptor(readUnsignedShort(entryOffsets[readUnsignedShort(entryOffsets[index] + 3)] + 3));
+    }
+
+    private void visitMethodRef(int index) {
+        int pos = entryOffsets[index];
+        int nameAndTypePos = entryOffsets[readUnsignedShort(pos + 3)];
+
+        if (bytes[pos] == CONSTANT_InterfaceMethodref || !getString(readUnsignedShort(nameAndTypePos + 1)).equals("<clinit>")) {
+            if (filterCriteria.isMatchingFeatures()) {
+                processFeatureName(getFeatureName(index));
+            }
+            processDescriptor(readUnsignedShort(nameAndTypePos + 3));
+        }
+    }
+
+    private void visitExceptions(int pos) {
+        int exceptionCount = readUnsignedShort(pos);
+        for (int i = 0; i < exceptionCount; i++) {
+            visitClass(readUnsignedShort(pos + 2 + i * 2));
+        }
+    }
+
+    private void visitParameterAnnotations(int pos) throws IOException {
+        int parameterCount = bytes[pos] & 0xff;
+        pos++;
+
+        for (int i = 0; i < parameterCount; i++) {
+            pos = visitAnnotations(pos);
+        }
+    }
+
+    /**
+     *  @return where the annotations end.
+     */
+    private int visitAnnotations(int pos) throws IOException {
+        int annotationCount = readUnsignedShort(pos);
+        pos += 2;
+
+        for (int i = 0; i < annotationCount; i++) {
+            pos = visitAnnotation(pos);
+        }
+
+        return pos;
+    }
+
+    /**
+     *  @return where the annotation ends.
+     */
+    private int visitAnnotation(int pos) throws IOException {
+        int typeIndex = readUnsignedShort(pos);
+        processClassName(typeIndex != 0 ? ClassNameHelper.convertClassName(getString(typeIndex)) : "");
+
+        int elementValuePairCount = readUnsignedShort(pos + 2);
+        pos += 4;
+
+        for (int i = 0; i < elementValuePairCount; i++) {
+            pos = visitElementValue(pos + 2);
+        }
+
+        return pos;
+    }
+
+    /**
+     *  @return where the element value ends.
+     */
+    private int visitElementValue(int pos) throws IOException {
+        char tag = (char) bytes[pos];
+        pos++;
+
+        switch (tag) {
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+            case 's':
+                pos += 2;
+                break;
+
+            case 'e':
+                if (filterCriteria.isMatchingFeatures()) {
+                    int typeNameIndex = readUnsignedShort(pos);
+                    String typeName = typeNameIndex != 0 ? DescriptorHelper.getType(getString(typeNameIndex)) : "";
+                    processFeatureName(typeName + "." + getString(readUnsignedShort(pos + 2)));
+                }
+                pos += 4;
+                break;
+
+            case 'c':
+                int classInfoIndex = readUnsignedShort(pos);
+                processClassName(classInfoIndex != 0 ? DescriptorHelper.convert(getString(classInfoIndex)) : "");
+                pos += 2;
+                break;
+
+            case '@':
+                pos = visitAnnotation(pos);
+                break;
+
+            case '[':
+                int valueCount = readUnsignedShort(pos);
+                pos += 2;
+                for (int i = 0; i < valueCount; i++) {
+                    pos = visitElementValue(pos);
+                }
+                break;
+
+            default:
+                throw new IOException("Unknown element value tag '" + tag + "'");
+        }
+
+        return pos;
+    }
+
+    private void processDescriptor(int index) {
+        if (filterCriteria.isMatchingClasses()) {
+            processDescriptor(getString(index));
+        }
+    }
+
+    private void processDescriptor(String str) {
+        int currentPos = 0;
+        int startPos;
+        int endPos;
+
+        while ((startPos = str.indexOf('L', currentPos)) != -1) {
+            if ((endPos = str.indexOf(';', startPos)) != -1) {
+                processClassName(ClassNameHelper.path2ClassName(str.substring(startPos + 1, endPos)));
+                currentPos = endPos + 1;
+            } else {
+                currentPos = startPos + 1;
+            }
+        }
+    }
+
+    private void processClassName(String classname) {
+        if (filterCriteria.isMatchingClasses() && filterCriteria.matchesClassName(classname)) {
+            Node other = getFactory().createClass(classname);
+            current.addDependency(other);
+            fireDependency(current, other);
+        }
+    }
+
+    private void processFeatureName(String signature) {
+        if (filterCriteria.isMatchingFeatures() && filterCriteria.matchesFeatureName(signature)) {
+            Node other = getFactory().createFeature(signature);
+            current.addDependency(other);
+            fireDependency(current, other);
+        }
+    }
+
+    /**
+     *  Same as <code>Method_info.getSignature()</code> and
+     *  <code>MethodRef_info.getSignature()</code>.
+     */
+    private static String getMethodSignature(String classname, String name, String descriptor) {
+        String result;
+
+        if (name.equals("<init>")) {
+            result = classname.substring(classname.lastIndexOf('.') + 1) + DescriptorHelper.getSignature(descriptor);
+        } else if (name.equals("<clinit>")) {
+            result = "static {}";
+        } else {
+            result = name + DescriptorHelper.getSignature(descriptor);
+        }
+
+        return result;
+    }
+
+    /**
+     *  Same as <code>FeatureRef_info.getFullSignature()</code>.
+     */
+    private String getFeatureName(int index) {
+        String result = featureNames[index];
+
+        if (result == null) {
+            int pos = entryOffsets[index];
+            String classname = getClassName(readUnsignedShort(pos + 1));
+            int nameAndTypePos = entryOffsets[readUnsignedShort(pos + 3)];
+            String name = getString(readUnsignedShort(nameAndTypePos + 1));
+
+            if (bytes[pos] == CONSTANT_Fieldref) {
+                result = classname + "." + name;
+            } else {
+                result = classname + "." + getMethodSignature(classname, name, getString(readUnsignedShort(nameAndTypePos + 3)));
+            }
+
+            featureNames[index] = result;
+        }
+
+        return result;
+    }
+
+    private String getClassName(int index) {
+        String result = classNames[index];
+
+        if (result == null) {
+            result = ClassNameHelper.convertClassName(getString(readUnsignedShort(entryOffsets[index] + 1)));
+            classNames[index] = result;
+        }
+
+        return result;
+    }
+
+    private String getString(int index) {
+        String result = strings[index];
+
+        if (result == null) {
+            int pos = entryOffsets[index];
+            result = decode(pos + 3, readUnsignedShort(pos + 1));
+            strings[index] = result;
+        }
+
+        return result;
+    }
+
+    /**
+     *  Decodes modified UTF-8, the way <code>UTF8_info</code> does.
+     */
+    private String decode(int start, int length) {
+        char[] chars = new char[length];
+        int nbChars = 0;
+
+        int pos = start;
+        int end = start + length;
+        while (pos < end) {
+            int c = bytes[pos] & 0xff;
+            switch (c >> 4) {
+                case 12: case 13:
+                    chars[nbChars++] = (char) (((c & 0x1F) << 6) | (bytes[pos + 1] & 0x3F));
+                    pos += 2;
+                    break;
+                case 14:
+                    chars[nbChars++] = (char) (((c & 0x0F) << 12) | ((bytes[pos + 1] & 0x3F) << 6) | (bytes[pos + 2] & 0x3F));
+                    pos += 3;
+                    break;
+                default:
+                    chars[nbChars++] = (char) c;
+                    pos++;
+                    break;
+            }
+        }
+
+        return new String(chars, 0, nbChars);
+    }
+
+    private int readUnsignedShort(int pos) {
+        return ((bytes[pos] & 0xff) << 8) | (bytes[pos + 1] & 0xff);
+    }
+
+    private int readInt(int pos) {
+        return ((bytes[pos] & 0xff) << 24) | ((bytes[pos + 1] & 0xff) << 16) | ((bytes[pos + 2] & 0xff) << 8) | (bytes[pos + 3] & 0xff);
+    }
+
+    public void addDependencyListener(DependencyListener listener) {
+        dependencyListeners.add(listener);
+    }
+
+    public void removeDependencyListener(DependencyListener listener) {
+        dependencyListeners.remove(listener);
+    }
+
+    protected void fireBeginClass(String classname) {
+        if (!dependencyListeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, classname);
+
+            for (DependencyListener listener : dependencyListeners) {
+                listener.beginClass(event);
+            }
+        }
+    }
+
+    protected void fireDependency(Node dependent, Node dependable) {
+        if (!dependencyListeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, dependent, dependable);
+
+            for (DependencyListener listener : dependencyListeners) {
+                listener.dependency(event);
+            }
+        }
+    }
+
+    protected void fireEndClass(String classname) {
+        if (!dependencyListeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, classname);
+
+            for (DependencyListener listener : dependencyListeners) {
+                listener.endClass(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import org.apache.log4j.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  Goes through JAR files, Zip files, and directories like the other
+ *  loaders, but hands the bytes of each <code>.class</code> file to a
+ *  {@link BytecodeDependencyCollector} instead of parsing them into a
+ *  {@link Classfile}.  Listeners still get all the load events, but
+ *  the end of classfile events have no classfile in them.
+ *
+ *  <p>It reads classfiles one at a time on the calling thread, no
+ *  matter the thread count.</p>
+ */
+public class BytecodeDependencyLoader extends ClassfileLoaderEventSource {
+    private BytecodeDependencyCollector collector;
+
+    public BytecodeDependencyLoader(BytecodeDependencyCollector collector) {
+        super(null);
+
+        this.collector = collector;
+    }
+
+    public BytecodeDependencyLoader(BytecodeDependencyCollector collector, ClassfileLoaderDispatcher dispatcher) {
+        super(null, dispatcher);
+
+        this.collector = collector;
+    }
+
+    public BytecodeDependencyCollector getCollector() {
+        return collector;
+    }
+
+    public Classfile getClassfile(String name) {
+        return null;
+    }
+
+    public Collection<Classfile> getAllClassfiles() {
+        return Collections.emptyList();
+    }
+
+    public Collection<String> getAllClassNames() {
+        return Collections.emptyList();
+    }
+
+    protected void loadClassfile(String filename, InputStream in) {
+        try {
+            fireBeginClassfile(filename);
+            if (in instanceof ByteBufferInputStream) {
+                getCollector().collect(((ByteBufferInputStream) in).getBuffer());
+            } else {
+                getCollector().collect(readBytes(in));
+            }
+            fireEndClassfile(filename, null);
+        } catch (IOException ex) {
+            Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
+        }
+    }
+
+    protected Classfile parse(DataInput in) throws IOException {
+        return null;
+    }
+}
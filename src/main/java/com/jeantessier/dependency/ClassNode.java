@@ -36,10 +36,10 @@ import java.util.*;
 
 public class ClassNode extends Node {
     private PackageNode packageNode;
-    private Collection<FeatureNode> features = new HashSet<FeatureNode>();
+    private Collection<FeatureNode> features = new NodeSet<FeatureNode>();
 
-    private Collection<ClassNode> parents = new HashSet<ClassNode>();
-    private Collection<ClassNode> children = new HashSet<ClassNode>();
+    private Collection<ClassNode> parents = new NodeSet<ClassNode>();
+    private Collection<ClassNode> children = new NodeSet<ClassNode>();
 
     public ClassNode(PackageNode packageNode, String name, boolean concrete) {
         super(name, concrete);
@@ -67,11 +67,15 @@ public class ClassNode extends Node {
     }
 
     public void addFeature(FeatureNode node) {
-        features.add(node);
+        synchronized (features) {
+            features.add(node);
+        }
     }
 
     public void removeFeature(FeatureNode node) {
-        features.remove(node);
+        synchronized (features) {
+            features.remove(node);
+        }
     }
 
     public Collection<FeatureNode> getFeatures() {
@@ -95,8 +99,12 @@ public class ClassNode extends Node {
     }
 
     public void addParent(ClassNode parentClass) {
-        parents.add(parentClass);
-        parentClass.children.add(this);
+        synchronized (parents) {
+            parents.add(parentClass);
+        }
+        synchronized (parentClass.children) {
+            parentClass.children.add(this);
+        }
     }
 
     public Collection<ClassNode> getParents() {
@@ -43,6 +43,10 @@ public class ClosureInboundSelector extends ClosureLayerSelector {
         super(factory, coverage);
     }
 
+    protected ClosureLayerSelector createPartialSelector(NodeFactory factory, Collection<? extends Node> coverage) {
+        return new ClosureInboundSelector(factory, coverage);
+    }
+
     public void visitPackageNode(PackageNode node) {
         super.visitPackageNode(node);
 
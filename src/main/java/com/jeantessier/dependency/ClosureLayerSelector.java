@@ -63,6 +63,17 @@ public abstract class ClosureLayerSelector extends ClosureSelector {
         this.coverage = coverage;
     }
     
+    /**
+     *  Creates a selector that follows the same dependencies as this
+     *  one, so {@link TransitiveClosureEngine} can expand part of a
+     *  layer with it on another thread.  Returns <code>null</code> if
+     *  this selector cannot be split, in which case the engine expands
+     *  the whole layer with this selector.
+     */
+    protected ClosureLayerSelector createPartialSelector(NodeFactory factory, Collection<? extends Node> coverage) {
+        return null;
+    }
+
     public void visitPackageNode(PackageNode node) {
         currentNode = getFactory().createPackage(node.getName(), node.isConfirmed());
     }
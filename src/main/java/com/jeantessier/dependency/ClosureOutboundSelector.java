@@ -43,6 +43,10 @@ public class ClosureOutboundSelector extends ClosureLayerSelector {
         super(factory, coverage);
     }
 
+    protected ClosureLayerSelector createPartialSelector(NodeFactory factory, Collection<? extends Node> coverage) {
+        return new ClosureOutboundSelector(factory, coverage);
+    }
+
     public void visitPackageNode(PackageNode node) {
         super.visitPackageNode(node);
 
@@ -33,6 +33,7 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.log4j.*;
 
@@ -49,11 +50,24 @@ import com.jeantessier.classreader.*;
  * </ul>
  */
 public class CodeDependencyCollector extends CollectorBase {
+    /**
+     *  Attributes where this collector finds dependencies.  Loaders can
+     *  skip all others.
+     */
+    public static final Collection<AttributeType> ATTRIBUTE_TYPES = Collections.unmodifiableSet(EnumSet.of(
+            AttributeType.CODE,
+            AttributeType.EXCEPTIONS,
+            AttributeType.RUNTIME_VISIBLE_ANNOTATIONS,
+            AttributeType.RUNTIME_INVISIBLE_ANNOTATIONS,
+            AttributeType.RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS,
+            AttributeType.RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS,
+            AttributeType.ANNOTATION_DEFAULT));
+
     private NodeFactory factory;
     private SelectionCriteria filterCriteria;
 
     private Node current;
-    private HashSet<DependencyListener> dependencyListeners = new HashSet<DependencyListener>();
+    private Collection<DependencyListener> dependencyListeners = new CopyOnWriteArraySet<DependencyListener>();
 
     public CodeDependencyCollector() {
         this(new NodeFactory());
@@ -331,26 +345,17 @@ public class CodeDependencyCollector extends CollectorBase {
     }
 
     public void addDependencyListener(DependencyListener listener) {
-        synchronized(dependencyListeners) {
-            dependencyListeners.add(listener);
-        }
+        dependencyListeners.add(listener);
     }
 
     public void removeDependencyListener(DependencyListener listener) {
-        synchronized(dependencyListeners) {
-            dependencyListeners.remove(listener);
-        }
+        dependencyListeners.remove(listener);
     }
 
     protected void fireBeginSession() {
         DependencyEvent event = new DependencyEvent(this);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.beginSession(event);
         }
     }
@@ -358,38 +363,25 @@ public class CodeDependencyCollector extends CollectorBase {
     protected void fireBeginClass(String classname) {
         DependencyEvent event = new DependencyEvent(this, classname);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.beginClass(event);
         }
     }
 
     protected void fireDependency(Node dependent, Node dependable) {
-        DependencyEvent event = new DependencyEvent(this, dependent, dependable);
-
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
+        if (!dependencyListeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, dependent, dependable);
 
-        for (DependencyListener listener : listeners) {
-            listener.dependency(event);
+            for (DependencyListener listener : dependencyListeners) {
+                listener.dependency(event);
+            }
         }
     }
 
     protected void fireEndClass(String classname) {
         DependencyEvent event = new DependencyEvent(this, classname);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.endClass(event);
         }
     }
@@ -397,12 +389,7 @@ public class CodeDependencyCollector extends CollectorBase {
     protected void fireEndSession() {
         DependencyEvent event = new DependencyEvent(this);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.endSession(event);
         }
     }
@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.concurrent.*;
+
+/**
+ *  <p>A {@link NodeFactory} that several threads can use at the same
+ *  time, for instance one {@link CodeDependencyCollector} per thread
+ *  all feeding the same graph.</p>
+ *
+ *  <p>Nodes live in concurrent maps, so creating a node, or confirming
+ *  an existing one, is atomic: every thread gets the same instance for
+ *  a given name.  Adding dependencies between nodes is already safe in
+ *  {@link Node}.  Unlike the maps of a plain {@link NodeFactory}, the
+ *  concurrent maps keep the full name of every node as a key, so they
+ *  take more memory.</p>
+ *
+ *  <p>Reading the graph, with visitors or printers, should wait until
+ *  all the threads that are building it are done.</p>
+ */
+public class ConcurrentNodeFactory extends NodeFactory {
+    public ConcurrentNodeFactory() {
+        super(new ConcurrentHashMap<String, PackageNode>(), new ConcurrentHashMap<String, ClassNode>(), new ConcurrentHashMap<String, FeatureNode>());
+    }
+}
@@ -37,12 +37,36 @@ import java.util.*;
 import org.apache.log4j.*;
 
 /**
- * TODO Class comment
+ *  <p>Finds the elementary cycles that go through the nodes in scope.
+ *  A cycle leaves one of these nodes through one of its outbound
+ *  dependencies and comes back to it through dependencies or from a
+ *  package to its classes or from a class to its features.</p>
+ *
+ *  <p>The traversal only collects the nodes in scope.  The search
+ *  happens when you call {@link #getCycles()}: it first splits the
+ *  graph into strongly connected components (Tarjan) and then lists
+ *  the elementary cycles within each component (Johnson), so it does
+ *  not walk paths that cannot come back to where they started.</p>
  */
 public class CycleDetector extends VisitorBase {
-    private LinkedList<Node> currentPath = new LinkedList<Node>();
     private Collection<Cycle> cycles = new TreeSet<Cycle>(new CycleComparator());
     private int maximumCycleLength = Integer.MAX_VALUE;
+    private int maximumCycleCount = Integer.MAX_VALUE;
+
+    private Map<Node, Collection<? extends Node>> startNodes = new LinkedHashMap<Node, Collection<? extends Node>>();
+    private boolean searchPending = false;
+
+    // The graph under search, with the start nodes first
+    private List<Node> nodes;
+    private List<Collection<? extends Node>> children;
+    private Map<Node, Integer> indices;
+    private int[][] successors;
+    private boolean[][] dependencies;
+
+    // Successors of the node being expanded, while building the graph
+    private List<Integer> currentSuccessors;
+    private List<Boolean> currentDependencies;
+    private boolean followingDependencies;
 
     public CycleDetector() {
     }
@@ -52,6 +76,11 @@ public class CycleDetector extends VisitorBase {
     }
 
     public Collection<Cycle> getCycles() {
+        if (searchPending) {
+            findCycles();
+            searchPending = false;
+        }
+
         return cycles;
     }
 
@@ -61,101 +90,365 @@ public class CycleDetector extends VisitorBase {
 
     public void setMaximumCycleLength(int maximumCycleLength) {
         this.maximumCycleLength = maximumCycleLength;
+        searchPending = true;
     }
 
-    protected void preprocessPackageNode(PackageNode node) {
-        super.preprocessPackageNode(node);
+    public int getMaximumCycleCount() {
+        return maximumCycleCount;
+    }
 
-        pushNodeOnCurrentPath(node);
+    /**
+     *  Stops the search once it has found this many cycles.  Which
+     *  cycles make the cut depends on the order of the nodes.
+     */
+    public void setMaximumCycleCount(int maximumCycleCount) {
+        this.maximumCycleCount = maximumCycleCount;
+        searchPending = true;
     }
 
-    protected void preprocessAfterDependenciesPackageNode(PackageNode node) {
-        super.preprocessAfterDependenciesPackageNode(node);
+    protected void preprocessPackageNode(PackageNode node) {
+        super.preprocessPackageNode(node);
 
-        popNodeFromCurrentPath(node);
+        if (getStrategy().isInFilter(node)) {
+            addStartNode(node, node.getClasses());
+        }
     }
 
     public void visitOutboundPackageNode(PackageNode node) {
         super.visitOutboundPackageNode(node);
 
         if (getStrategy().isInFilter(node)) {
-            if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
-                addCycle();
-            } else if (!currentPath.contains(node)){
-                pushNodeOnCurrentPath(node);
-                traverseOutbound(node.getOutboundDependencies());
-                traverseOutbound(node.getClasses());
-                popNodeFromCurrentPath(node);
-            }
+            addSuccessor(node, node.getClasses());
         }
     }
 
     protected void preprocessClassNode(ClassNode node) {
         super.preprocessClassNode(node);
 
-        pushNodeOnCurrentPath(node);
-    }
-
-    protected void preprocessAfterDependenciesClassNode(ClassNode node) {
-        super.preprocessAfterDependenciesClassNode(node);
-
-        popNodeFromCurrentPath(node);
+        if (getStrategy().isInFilter(node)) {
+            addStartNode(node, node.getFeatures());
+        }
     }
 
     public void visitOutboundClassNode(ClassNode node) {
         super.visitOutboundClassNode(node);
 
         if (getStrategy().isInFilter(node)) {
-            if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
-                addCycle();
-            } else if (!currentPath.contains(node)){
-                pushNodeOnCurrentPath(node);
-                traverseOutbound(node.getOutboundDependencies());
-                traverseOutbound(node.getFeatures());
-                popNodeFromCurrentPath(node);
-            }
+            addSuccessor(node, node.getFeatures());
         }
     }
 
     protected void preprocessFeatureNode(FeatureNode node) {
         super.preprocessFeatureNode(node);
 
-        pushNodeOnCurrentPath(node);
-    }
-
-    protected void postprocessFeatureNode(FeatureNode node) {
-        super.postprocessFeatureNode(node);
-
-        popNodeFromCurrentPath(node);
+        if (getStrategy().isInFilter(node)) {
+            addStartNode(node, Collections.<Node>emptySet());
+        }
     }
 
     public void visitOutboundFeatureNode(FeatureNode node) {
         super.visitOutboundFeatureNode(node);
 
         if (getStrategy().isInFilter(node)) {
-            if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
-                addCycle();
-            } else if (!currentPath.contains(node)){
-                pushNodeOnCurrentPath(node);
-                traverseOutbound(node.getOutboundDependencies());
-                popNodeFromCurrentPath(node);
+            addSuccessor(node, Collections.<Node>emptySet());
+        }
+    }
+
+    private void addStartNode(Node node, Collection<? extends Node> nodeChildren) {
+        if (!startNodes.containsKey(node)) {
+            startNodes.put(node, nodeChildren);
+            searchPending = true;
+        }
+    }
+
+    private void addSuccessor(Node node, Collection<? extends Node> nodeChildren) {
+        if (currentSuccessors != null) {
+            int index = indexOf(node, nodeChildren);
+            int position = currentSuccessors.indexOf(index);
+            if (position == -1) {
+                currentSuccessors.add(index);
+                currentDependencies.add(followingDependencies);
+            } else if (followingDependencies) {
+                currentDependencies.set(position, true);
+            }
+        }
+    }
+
+    private int indexOf(Node node, Collection<? extends Node> nodeChildren) {
+        Integer result = indices.get(node);
+
+        if (result == null) {
+            result = nodes.size();
+            indices.put(node, result);
+            nodes.add(node);
+            children.add(nodeChildren);
+        }
+
+        return result;
+    }
+
+    private void findCycles() {
+        cycles.clear();
+
+        buildGraph();
+
+        int[] components = findStronglyConnectedComponents();
+        int[] componentSizes = new int[nodes.size()];
+        for (int component : components) {
+            componentSizes[component]++;
+        }
+
+        for (int start = 0; start < startNodes.size() && cycles.size() < getMaximumCycleCount(); start++) {
+            int depthLimit = Math.min(getMaximumCycleLength(), componentSizes[components[start]]);
+            if (depthLimit > 0) {
+                findCyclesThrough(start, components, depthLimit);
+            }
+        }
+
+        nodes = null;
+        children = null;
+        indices = null;
+        successors = null;
+        dependencies = null;
+    }
+
+    /**
+     *  Walks out from the start nodes with this visitor's own
+     *  callbacks, so the strategy's filter and order apply the same way
+     *  they do to the rest of the traversal.
+     */
+    private void buildGraph() {
+        nodes = new ArrayList<Node>();
+        children = new ArrayList<Collection<? extends Node>>();
+        indices = new HashMap<Node, Integer>();
+
+        for (Map.Entry<Node, Collection<? extends Node>> entry : startNodes.entrySet()) {
+            indexOf(entry.getKey(), entry.getValue());
+        }
+
+        List<int[]> allSuccessors = new ArrayList<int[]>();
+        List<boolean[]> allDependencies = new ArrayList<boolean[]>();
+        for (int i = 0; i < nodes.size(); i++) {
+            currentSuccessors = new ArrayList<Integer>();
+            currentDependencies = new ArrayList<Boolean>();
+
+            followingDependencies = true;
+            traverseOutbound(nodes.get(i).getOutboundDependencies());
+            followingDependencies = false;
+            traverseOutbound(children.get(i));
+
+            int[] nodeSuccessors = new int[currentSuccessors.size()];
+            boolean[] nodeDependencies = new boolean[currentSuccessors.size()];
+            for (int j = 0; j < nodeSuccessors.length; j++) {
+                nodeSuccessors[j] = currentSuccessors.get(j);
+                nodeDependencies[j] = currentDependencies.get(j);
+            }
+            allSuccessors.add(nodeSuccessors);
+            allDependencies.add(nodeDependencies);
+        }
+
+        currentSuccessors = null;
+        currentDependencies = null;
+
+        successors = allSuccessors.toArray(new int[allSuccessors.size()][]);
+        dependencies = allDependencies.toArray(new boolean[allDependencies.size()][]);
+
+        Logger.getLogger(getClass()).debug("Searching for cycles through " + startNodes.size() + " nodes in a graph of " + nodes.size() + " nodes");
+    }
+
+    /**
+     *  Tarjan's algorithm, with an explicit stack so that long chains
+     *  of dependencies do not overflow the call stack.
+     *
+     *  @return the component number of each node
+     */
+    private int[] findStronglyConnectedComponents() {
+        int size = nodes.size();
+
+        int[] components = new int[size];
+        int[] order = new int[size];
+        int[] lowLinks = new int[size];
+        boolean[] onStack = new boolean[size];
+        Arrays.fill(order, -1);
+
+        int[] stack = new int[size];
+        int stackSize = 0;
+
+        int[] callStack = new int[size];
+        int[] callPositions = new int[size];
+        int callDepth = 0;
+
+        int nextOrder = 0;
+        int nextComponent = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (order[root] != -1) {
+                continue;
+            }
+
+            order[root] = lowLinks[root] = nextOrder++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[callDepth] = root;
+            callPositions[callDepth] = 0;
+            callDepth++;
+
+            while (callDepth > 0) {
+                int node = callStack[callDepth - 1];
+
+                if (callPositions[callDepth - 1] < successors[node].length) {
+                    int successor = successors[node][callPositions[callDepth - 1]++];
+
+                    if (order[successor] == -1) {
+                        order[successor] = lowLinks[successor] = nextOrder++;
+                        stack[stackSize++] = successor;
+                        onStack[successor] = true;
+                        callStack[callDepth] = successor;
+                        callPositions[callDepth] = 0;
+                        callDepth++;
+                    } else if (onStack[successor]) {
+                        lowLinks[node] = Math.min(lowLinks[node], order[successor]);
+                    }
+                } else {
+                    callDepth--;
+
+                    if (lowLinks[node] == order[node]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            components[member] = nextComponent;
+                        } while (member != node);
+                        nextComponent++;
+                    }
+
+                    if (callDepth > 0) {
+                        int caller = callStack[callDepth - 1];
+                        lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[node]);
+                    }
+                }
             }
         }
+
+        return components;
     }
 
-    private void addCycle() {
-        Cycle cycle = new Cycle(currentPath);
-        cycles.add(cycle);
-        Logger.getLogger(getClass()).debug("Found cycle " + cycle);
+    /**
+     *  Johnson's circuit search for the cycles whose lowest node is
+     *  <code>start</code>, with an explicit stack.  Only start nodes
+     *  can be the lowest node of a cycle we report, since they come
+     *  first.
+     *
+     *  <p>Johnson blocks a node once it knows the node cannot get back
+     *  to <code>start</code>.  When the maximum cycle length cuts the
+     *  search short, we do not know that, so we treat the node as if it
+     *  had found a cycle and leave it unblocked.</p>
+     */
+    private void findCyclesThrough(int start, int[] components, int depthLimit) {
+        Map<Integer, Set<Integer>> blockers = new HashMap<Integer, Set<Integer>>();
+        Set<Integer> blocked = new HashSet<Integer>();
+
+        int[] path = new int[depthLimit];
+        int[] positions = new int[depthLimit];
+        boolean[] pathDependencies = new boolean[depthLimit];
+        boolean[] found = new boolean[depthLimit];
+        int depth = 0;
+
+        path[depth] = start;
+        positions[depth] = 0;
+        found[depth] = false;
+        blocked.add(start);
+        depth++;
+
+        while (depth > 0) {
+            int node = path[depth - 1];
+
+            if (positions[depth - 1] < successors[node].length) {
+                int position = positions[depth - 1]++;
+                int successor = successors[node][position];
+
+                if (successor < start || components[successor] != components[start]) {
+                    continue;
+                }
+
+                pathDependencies[depth - 1] = dependencies[node][position];
+
+                if (successor == start) {
+                    addCycle(path, pathDependencies, depth);
+                    if (cycles.size() >= getMaximumCycleCount()) {
+                        return;
+                    }
+                    found[depth - 1] = true;
+                } else if (!blocked.contains(successor)) {
+                    if (depth < depthLimit) {
+                        path[depth] = successor;
+                        positions[depth] = 0;
+                        found[depth] = false;
+                        blocked.add(successor);
+                        depth++;
+                    } else {
+                        found[depth - 1] = true;
+                    }
+                }
+            } else {
+                depth--;
+
+                if (found[depth]) {
+                    unblock(node, blocked, blockers);
+                    if (depth > 0) {
+                        found[depth - 1] = true;
+                    }
+                } else {
+                    for (int successor : successors[node]) {
+                        if (successor >= start && components[successor] == components[start]) {
+                            Set<Integer> nodeBlockers = blockers.get(successor);
+                            if (nodeBlockers == null) {
+                                nodeBlockers = new HashSet<Integer>();
+                                blockers.put(successor, nodeBlockers);
+                            }
+                            nodeBlockers.add(node);
+                        }
+                    }
+                }
+            }
+        }
     }
 
-    private void pushNodeOnCurrentPath(Node node) {
-        currentPath.addLast(node);
-        Logger.getLogger(getClass()).debug("Pushed " + node + " on currentPath: " + currentPath);
+    private void unblock(int node, Set<Integer> blocked, Map<Integer, Set<Integer>> blockers) {
+        LinkedList<Integer> pending = new LinkedList<Integer>();
+        pending.add(node);
+
+        while (!pending.isEmpty()) {
+            Integer current = pending.removeFirst();
+            if (blocked.remove(current)) {
+                Set<Integer> currentBlockers = blockers.remove(current);
+                if (currentBlockers != null) {
+                    pending.addAll(currentBlockers);
+                }
+            }
+        }
     }
 
-    private void popNodeFromCurrentPath(Node node) {
-        Node popedNode = currentPath.removeLast();
-        Logger.getLogger(getClass()).debug("Popped " + node + " (" + popedNode + ") from currentPath: " + currentPath);
+    /**
+     *  A cycle counts if it leaves one of the start nodes through one
+     *  of its dependencies, and not only from a package to a class or
+     *  from a class to a feature.
+     */
+    private void addCycle(int[] path, boolean[] pathDependencies, int length) {
+        boolean leavesStartNode = false;
+        for (int i = 0; !leavesStartNode && i < length; i++) {
+            leavesStartNode = path[i] < startNodes.size() && pathDependencies[i];
+        }
+
+        if (leavesStartNode) {
+            List<Node> cyclePath = new ArrayList<Node>(length);
+            for (int i = 0; i < length; i++) {
+                cyclePath.add(nodes.get(path[i]));
+            }
+
+            Cycle cycle = new Cycle(cyclePath);
+            cycles.add(cycle);
+            Logger.getLogger(getClass()).debug("Found cycle " + cycle);
+        }
     }
 }
@@ -32,12 +32,55 @@
 
 package com.jeantessier.dependency;
 
+/**
+ *  <p>Features only keep the part of their name that comes after the
+ *  name of their class, since large graphs have many features and
+ *  their names are mostly their class's name.  {@link #getName()}
+ *  builds the full name each time, and {@link NodeFactory} finds
+ *  features without building it.</p>
+ */
 public class FeatureNode extends Node {
     private ClassNode parent;
+    private boolean shortened;
+    private int hash;
 
     public FeatureNode(ClassNode parent, String name, boolean concrete) {
-        super(name, concrete);
+        super(isPrefixedBy(name, parent) ? name.substring(parent.getName().length() + 1) : name, concrete);
         this.parent = parent;
+        this.shortened = isPrefixedBy(name, parent);
+        this.hash = name.hashCode();
+    }
+
+    private static boolean isPrefixedBy(String name, ClassNode parent) {
+        String parentName = parent.getName();
+        return parentName.length() > 0 && name.length() > parentName.length() && name.charAt(parentName.length()) == '.' && name.startsWith(parentName);
+    }
+
+    public String getName() {
+        String result = super.getName();
+
+        if (shortened) {
+            result = getClassNode().getName() + "." + result;
+        }
+
+        return result;
+    }
+
+    boolean hasName(String name) {
+        boolean result;
+
+        if (shortened) {
+            String parentName = getClassNode().getName();
+            String localName = super.getName();
+            result = name.length() == parentName.length() + 1 + localName.length() &&
+                name.endsWith(localName) &&
+                name.charAt(parentName.length()) == '.' &&
+                name.startsWith(parentName);
+        } else {
+            result = super.getName().equals(name);
+        }
+
+        return result;
     }
 
     // Only to be used by NodeFactory and DeletingVisitor
@@ -69,6 +112,34 @@ public class FeatureNode extends Node {
     }
 
     public String getSimpleName() {
-        return getName().substring(getClassNode().getName().length() + 1);
+        String result;
+
+        if (shortened) {
+            result = super.getName();
+        } else {
+            result = getName().substring(getClassNode().getName().length() + 1);
+        }
+
+        return result;
+    }
+
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     *  Features of the same class compare by the part of their names
+     *  that they keep, which gives the same order as their full names.
+     */
+    public int compareTo(Object object) {
+        int result;
+
+        if (object instanceof FeatureNode && ((FeatureNode) object).getClassNode() == getClassNode() && ((FeatureNode) object).shortened && shortened) {
+            result = super.getName().compareTo(((FeatureNode) object).getSimpleName());
+        } else {
+            result = super.compareTo(object);
+        }
+
+        return result;
     }
 }
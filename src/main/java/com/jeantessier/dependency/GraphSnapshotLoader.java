@@ -0,0 +1,381 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.log4j.*;
+
+/**
+ *  Reads graphs written by {@link GraphSnapshotWriter} into a
+ *  {@link NodeFactory}, building nodes and dependencies as it reads
+ *  them.  If the factory already has nodes, the graphs are merged, just
+ *  like {@link NodeLoader} does.  Given a {@link LoadingScope}, it only
+ *  builds the nodes and dependencies that a copy with the same scope
+ *  and filter can use, like {@link NodeHandler} does.
+ */
+public class GraphSnapshotLoader {
+    private static final int STRING_CHUNK_SIZE = 8192;
+
+    private NodeFactory factory;
+    private LoadingScope scope;
+
+    private Collection<DependencyListener> dependencyListeners = new CopyOnWriteArraySet<DependencyListener>();
+
+    public GraphSnapshotLoader() {
+        this(new NodeFactory());
+    }
+
+    public GraphSnapshotLoader(NodeFactory factory) {
+        this(factory, null);
+    }
+
+    /**
+     *  @param scope what parts of the graph to load, or <code>null</code>
+     *               to load all of it
+     */
+    public GraphSnapshotLoader(NodeFactory factory, LoadingScope scope) {
+        this.factory = factory;
+        this.scope = scope;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     *  Checks if a stream starts like a graph snapshot, without
+     *  consuming anything from it.
+     *
+     *  @param in a stream that supports <code>mark()</code>
+     */
+    public static boolean isSnapshot(InputStream in) throws IOException {
+        byte[] header = new byte[GraphSnapshotWriter.MAGIC.length];
+
+        in.mark(header.length);
+        int length = 0;
+        int bytesRead = 0;
+        while (length < header.length && (bytesRead = in.read(header, length, header.length - length)) != -1) {
+            length += bytesRead;
+        }
+        in.reset();
+
+        return Arrays.equals(header, GraphSnapshotWriter.MAGIC);
+    }
+
+    public NodeFactory load(String filename) throws IOException {
+        NodeFactory result;
+
+        InputStream in = new FileInputStream(filename);
+        try {
+            result = load(in);
+        } finally {
+            in.close();
+        }
+
+        return result;
+    }
+
+    public NodeFactory load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        byte[] header = new byte[GraphSnapshotWriter.MAGIC.length];
+        data.readFully(header);
+        if (!Arrays.equals(header, GraphSnapshotWriter.MAGIC)) {
+            throw new IOException("Not a dependency graph snapshot");
+        }
+
+        Collection<DependencyListener> listeners = new ArrayList<DependencyListener>(dependencyListeners);
+
+        List<String> strings = new ArrayList<String>();
+        List<NodeRecord> records = new ArrayList<NodeRecord>();
+        List<Node> nodes = new ArrayList<Node>();
+
+        fireBeginSession(listeners);
+
+        int tag;
+        while ((tag = data.readUnsignedByte()) != GraphSnapshotWriter.END) {
+            switch (tag) {
+                case GraphSnapshotWriter.STRING:
+                    strings.add(readString(data));
+                    break;
+
+                case GraphSnapshotWriter.PACKAGE:
+                    String packageName = strings.get(readId(data, strings, "name"));
+                    addNode(records, nodes, new NodeRecord(tag, packageName, -1, data.readBoolean()));
+                    break;
+
+                case GraphSnapshotWriter.CLASS:
+                    int packageId = readParentId(data, records, GraphSnapshotWriter.PACKAGE);
+                    String className = getName(records.get(packageId), strings.get(readId(data, strings, "name")));
+                    addNode(records, nodes, new NodeRecord(tag, className, packageId, data.readBoolean()));
+                    fireBeginClass(listeners, className);
+                    break;
+
+                case GraphSnapshotWriter.FEATURE:
+                    int classId = readParentId(data, records, GraphSnapshotWriter.CLASS);
+                    String featureName = getName(records.get(classId), strings.get(readId(data, strings, "name")));
+                    addNode(records, nodes, new NodeRecord(tag, featureName, classId, data.readBoolean()));
+                    break;
+
+                case GraphSnapshotWriter.OUTBOUND:
+                    int dependentId = readId(data, records, "node");
+                    NodeRecord dependentRecord = records.get(dependentId);
+                    int count = readVarint(data);
+                    int id = 0;
+                    for (int i=0; i<count; i++) {
+                        id = checkId(id + readVarint(data), records, "node");
+                        NodeRecord dependableRecord = records.get(id);
+                        if ((dependentRecord.covered && dependableRecord.inFilter) || (dependableRecord.covered && dependentRecord.inFilter)) {
+                            Node dependent = getNode(records, nodes, dependentId);
+                            Node dependable = getNode(records, nodes, id);
+                            dependent.addDependency(dependable);
+                            fireDependency(listeners, dependent, dependable);
+                        }
+                    }
+                    break;
+
+                default:
+                    throw new IOException("Unknown record type " + tag + " in dependency graph snapshot");
+            }
+        }
+
+        fireEndSession(listeners);
+
+        Logger.getLogger(getClass()).debug("Read " + records.size() + " node(s) and " + strings.size() + " name(s)");
+
+        return getFactory();
+    }
+
+    private void addNode(List<NodeRecord> records, List<Node> nodes, NodeRecord record) {
+        boolean inScope = true;
+
+        if (scope != null) {
+            switch (record.type) {
+                case GraphSnapshotWriter.PACKAGE:
+                    inScope = scope.isPackageInScope(record.name);
+                    record.covered = scope.isPackageCovered(record.name);
+                    record.inFilter = scope.isPackageInFilter(record.name);
+                    break;
+                case GraphSnapshotWriter.CLASS:
+                    inScope = scope.isClassInScope(record.name);
+                    record.covered = scope.isClassCovered(record.name);
+                    record.inFilter = scope.isClassInFilter(record.name);
+                    break;
+                case GraphSnapshotWriter.FEATURE:
+                    inScope = scope.isFeatureInScope(record.name);
+                    record.covered = scope.isFeatureCovered(record.name);
+                    record.inFilter = scope.isFeatureInFilter(record.name);
+                    break;
+            }
+        }
+
+        records.add(record);
+        nodes.add(null);
+
+        if (inScope) {
+            getNode(records, nodes, records.size() - 1);
+        }
+    }
+
+    /**
+     *  Creates nodes on demand, parents first, so each of them gets its
+     *  own confirmation and not that of the child that needed it.
+     */
+    private Node getNode(List<NodeRecord> records, List<Node> nodes, int id) {
+        Node result = nodes.get(id);
+
+        if (result == null) {
+            NodeRecord record = records.get(id);
+            if (record.parentId != -1) {
+                getNode(records, nodes, record.parentId);
+            }
+
+            switch (record.type) {
+                case GraphSnapshotWriter.PACKAGE:
+                    result = getFactory().createPackage(record.name, record.confirmed);
+                    break;
+                case GraphSnapshotWriter.CLASS:
+                    result = getFactory().createClass(record.name, record.confirmed);
+                    break;
+                case GraphSnapshotWriter.FEATURE:
+                    result = getFactory().createFeature(record.name, record.confirmed);
+                    break;
+            }
+
+            nodes.set(id, result);
+        }
+
+        return result;
+    }
+
+    public void addDependencyListener(DependencyListener listener) {
+        dependencyListeners.add(listener);
+    }
+
+    public void removeDependencyListener(DependencyListener listener) {
+        dependencyListeners.remove(listener);
+    }
+
+    protected void fireBeginSession(Collection<DependencyListener> listeners) {
+        DependencyEvent event = new DependencyEvent(this);
+        for (DependencyListener listener : listeners) {
+            listener.beginSession(event);
+        }
+    }
+
+    protected void fireBeginClass(Collection<DependencyListener> listeners, String classname) {
+        if (!listeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, classname);
+            for (DependencyListener listener : listeners) {
+                listener.beginClass(event);
+            }
+        }
+    }
+
+    protected void fireDependency(Collection<DependencyListener> listeners, Node dependent, Node dependable) {
+        if (!listeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, dependent, dependable);
+            for (DependencyListener listener : listeners) {
+                listener.dependency(event);
+            }
+        }
+    }
+
+    protected void fireEndSession(Collection<DependencyListener> listeners) {
+        DependencyEvent event = new DependencyEvent(this);
+        for (DependencyListener listener : listeners) {
+            listener.endSession(event);
+        }
+    }
+
+    private static String getName(NodeRecord parent, String simpleName) {
+        String result = simpleName;
+
+        if (parent.name.length() > 0) {
+            result = parent.name + "." + simpleName;
+        }
+
+        return result;
+    }
+
+    /**
+     *  Reads the string in chunks, so a corrupt length fails on the end
+     *  of the stream instead of allocating a huge buffer up front.
+     */
+    private static String readString(DataInput in) throws IOException {
+        int length = readVarint(in);
+        if (length < 0) {
+            throw new IOException("Malformed name length in dependency graph snapshot");
+        }
+
+        byte[] bytes;
+        if (length <= STRING_CHUNK_SIZE) {
+            bytes = new byte[length];
+            in.readFully(bytes);
+        } else {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(STRING_CHUNK_SIZE);
+            byte[] chunk = new byte[STRING_CHUNK_SIZE];
+            for (int remaining = length; remaining > 0; remaining -= chunk.length) {
+                int chunkLength = Math.min(remaining, chunk.length);
+                in.readFully(chunk, 0, chunkLength);
+                buffer.write(chunk, 0, chunkLength);
+            }
+            bytes = buffer.toByteArray();
+        }
+
+        return new String(bytes, "UTF-8");
+    }
+
+    private static int readParentId(DataInput in, List<NodeRecord> records, int parentType) throws IOException {
+        int result = readId(in, records, "parent");
+
+        if (records.get(result).type != parentType) {
+            throw new IOException("Malformed parent in dependency graph snapshot");
+        }
+
+        return result;
+    }
+
+    private static int readId(DataInput in, List<?> table, String kind) throws IOException {
+        return checkId(readVarint(in), table, kind);
+    }
+
+    private static int checkId(int id, List<?> table, String kind) throws IOException {
+        if (id < 0 || id >= table.size()) {
+            throw new IOException("Malformed " + kind + " id in dependency graph snapshot");
+        }
+
+        return id;
+    }
+
+    private static int readVarint(DataInput in) throws IOException {
+        int result = 0;
+
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 28) {
+                throw new IOException("Malformed number in dependency graph snapshot");
+            }
+            b = in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return result;
+    }
+
+    /**
+     *  What the file says about a node, until the node is needed.
+     *  Without a scope, every node is covered and in the filter.
+     */
+    private static class NodeRecord {
+        final int type;
+        final String name;
+        final int parentId;
+        final boolean confirmed;
+
+        boolean covered = true;
+        boolean inFilter = true;
+
+        NodeRecord(int type, String name, int parentId, boolean confirmed) {
+            this.type = type;
+            this.name = name;
+            this.parentId = parentId;
+            this.confirmed = confirmed;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ *  <p>Writes a dependency graph in a compact binary form that
+ *  {@link GraphSnapshotLoader} can read back much faster than
+ *  {@link NodeLoader} can read the equivalent XML.</p>
+ *
+ *  <p>The file starts with {@link #MAGIC} followed by a stream of
+ *  records, each starting with a tag byte.  Numbers are unsigned
+ *  varints.  Strings are defined once, in a <code>STRING</code> record,
+ *  the first time they are needed, and then referred to by their
+ *  position in the string table.  Nodes get integer IDs in the order
+ *  they are defined.  Classes and features are stored as the ID of their
+ *  parent plus their simple name, so common names like
+ *  <code>toString()</code> are only stored once.  Edges are stored per
+ *  node as a sorted, delta-encoded list of the IDs of its outbound
+ *  dependencies; inbound dependencies are their mirror image.</p>
+ *
+ *  <p>Every record only refers to strings and nodes defined before it,
+ *  so the loader can build the graph as it reads.</p>
+ */
+public class GraphSnapshotWriter {
+    public static final String FILE_EXTENSION = ".dfg";
+
+    static final byte[] MAGIC = {'D', 'F', 'G', 1};
+
+    static final int END = 0;
+    static final int STRING = 1;
+    static final int PACKAGE = 2;
+    static final int CLASS = 3;
+    static final int FEATURE = 4;
+    static final int OUTBOUND = 5;
+
+    private static final int CONFIRMED = 1;
+
+    private static final Comparator<Node> NODE_ORDER = new Comparator<Node>() {
+        public int compare(Node node1, Node node2) {
+            return node1.compareTo(node2);
+        }
+    };
+
+    private DataOutputStream out;
+
+    private Map<String, Integer> stringIds = new HashMap<String, Integer>();
+    private Map<Node, Integer> nodeIds = new HashMap<Node, Integer>();
+
+    public GraphSnapshotWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    /**
+     *  Writes the given nodes, along with the classes and features they
+     *  contain and their outbound dependencies.  Nodes at the other end
+     *  of these dependencies are written too, but not their own
+     *  dependencies.  Flushes, but does not close, the underlying
+     *  stream.
+     */
+    public void write(Collection<? extends Node> nodes) throws IOException {
+        out.write(MAGIC);
+
+        List<Node> selectedNodes = new ArrayList<Node>();
+        for (Node node : sort(nodes)) {
+            collect(node, selectedNodes);
+        }
+
+        for (Node node : selectedNodes) {
+            define(node);
+        }
+
+        for (Node node : selectedNodes) {
+            writeOutbound(node);
+        }
+
+        out.writeByte(END);
+        out.flush();
+    }
+
+    private void collect(Node node, List<Node> selectedNodes) {
+        selectedNodes.add(node);
+
+        if (node instanceof PackageNode) {
+            for (ClassNode classNode : sort(((PackageNode) node).getClasses())) {
+                collect(classNode, selectedNodes);
+            }
+        } else if (node instanceof ClassNode) {
+            for (FeatureNode featureNode : sort(((ClassNode) node).getFeatures())) {
+                collect(featureNode, selectedNodes);
+            }
+        }
+    }
+
+    private int define(Node node) throws IOException {
+        Integer result = nodeIds.get(node);
+
+        if (result == null) {
+            if (node instanceof PackageNode) {
+                int nameId = defineString(node.getName());
+                out.writeByte(PACKAGE);
+                writeVarint(nameId);
+            } else if (node instanceof ClassNode) {
+                int parentId = define(((ClassNode) node).getPackageNode());
+                int nameId = defineString(((ClassNode) node).getSimpleName());
+                out.writeByte(CLASS);
+                writeVarint(parentId);
+                writeVarint(nameId);
+            } else {
+                ClassNode parent = ((FeatureNode) node).getClassNode();
+                int parentId = define(parent);
+                int nameId = defineString(parent.getName().length() > 0 ? ((FeatureNode) node).getSimpleName() : node.getName());
+                out.writeByte(FEATURE);
+                writeVarint(parentId);
+                writeVarint(nameId);
+            }
+            out.writeByte(node.isConfirmed() ? CONFIRMED : 0);
+
+            result = nodeIds.size();
+            nodeIds.put(node, result);
+        }
+
+        return result;
+    }
+
+    private int defineString(String s) throws IOException {
+        Integer result = stringIds.get(s);
+
+        if (result == null) {
+            byte[] bytes = s.getBytes("UTF-8");
+            out.writeByte(STRING);
+            writeVarint(bytes.length);
+            out.write(bytes);
+
+            result = stringIds.size();
+            stringIds.put(s, result);
+        }
+
+        return result;
+    }
+
+    private void writeOutbound(Node node) throws IOException {
+        Collection<Node> dependencies = node.getOutboundDependencies();
+        if (!dependencies.isEmpty()) {
+            int[] ids = new int[dependencies.size()];
+            int i = 0;
+            for (Node dependency : dependencies) {
+                ids[i++] = define(dependency);
+            }
+            Arrays.sort(ids);
+
+            out.writeByte(OUTBOUND);
+            writeVarint(nodeIds.get(node));
+            writeVarint(ids.length);
+            int previous = 0;
+            for (int id : ids) {
+                writeVarint(id - previous);
+                previous = id;
+            }
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static <T extends Node> List<T> sort(Collection<? extends T> nodes) {
+        List<T> result = new ArrayList<T>(nodes);
+        Collections.sort(result, NODE_ORDER);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+/**
+ *  <p>Tells loaders which parts of a graph a {@link GraphCopier} or
+ *  {@link GraphSummarizer} with the same scope and filter criteria can
+ *  possibly use, so they can leave the rest out of the
+ *  {@link NodeFactory}.  The decisions only look at node names, which
+ *  is all a loader has before it creates a node.</p>
+ *
+ *  <p>A node is in scope if the copier will copy it into its scope
+ *  factory.  Loaders create these nodes even when they have no
+ *  dependencies, so they still show up in reports.</p>
+ *
+ *  <p>A node is covered if its dependencies end up on some node in
+ *  scope, either the node itself or, when the summarizer rolls them
+ *  up, its class or package.  A dependency is worth loading only if
+ *  one end is covered and the other end passes the filter.  Loaders
+ *  create the nodes at both ends of the dependencies they keep, and
+ *  nothing else.</p>
+ *
+ *  <p>The answers err on the side of keeping too much, so the copy of a
+ *  partial graph is the same as the copy of the whole graph.  Tools
+ *  that look at the whole graph, like <code>LinkMaximizer</code>,
+ *  <code>LinkMinimizer</code>, or transitive closures, cannot use
+ *  this.</p>
+ */
+public class LoadingScope {
+    private final SelectionCriteria scopeCriteria;
+    private final SelectionCriteria filterCriteria;
+
+    public LoadingScope(SelectionCriteria scopeCriteria, SelectionCriteria filterCriteria) {
+        this.scopeCriteria = scopeCriteria;
+        this.filterCriteria = filterCriteria;
+    }
+
+    public SelectionCriteria getScopeCriteria() {
+        return scopeCriteria;
+    }
+
+    public SelectionCriteria getFilterCriteria() {
+        return filterCriteria;
+    }
+
+    public boolean isPackageInScope(String name) {
+        return scopeCriteria.isMatchingPackages() && scopeCriteria.matchesPackageName(name);
+    }
+
+    public boolean isClassInScope(String name) {
+        return scopeCriteria.isMatchingClasses() && scopeCriteria.matchesClassName(name);
+    }
+
+    public boolean isFeatureInScope(String name) {
+        return scopeCriteria.isMatchingFeatures() && scopeCriteria.matchesFeatureName(name);
+    }
+
+    public boolean isPackageCovered(String name) {
+        return isPackageInScope(name);
+    }
+
+    public boolean isClassCovered(String name) {
+        return scopeCriteria.matchesClassName(name) && (scopeCriteria.isMatchingClasses() || isPackageInScope(NodeFactory.getPackageName(name)));
+    }
+
+    public boolean isFeatureCovered(String name) {
+        boolean result = scopeCriteria.matchesFeatureName(name);
+
+        if (result && !scopeCriteria.isMatchingFeatures()) {
+            String className = NodeFactory.getParentName(name);
+            result = isClassInScope(className) || isPackageInScope(NodeFactory.getPackageName(className));
+        }
+
+        return result;
+    }
+
+    public boolean isPackageInFilter(String name) {
+        return filterCriteria.matchesPackageName(name);
+    }
+
+    public boolean isClassInFilter(String name) {
+        return filterCriteria.matchesClassName(name);
+    }
+
+    public boolean isFeatureInFilter(String name) {
+        return filterCriteria.matchesFeatureName(name);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+/**
+ *  <p>Symbol table that turns characters into node names, returning
+ *  the same <code>String</code> instance every time it sees the same
+ *  characters.  The characters are looked up in place, so a name that
+ *  is already in the table costs no allocation at all.</p>
+ *
+ *  <p>A graph file mentions each name many times, once where the node
+ *  is declared and once for every dependency on it.  Sharing the
+ *  instance also means the <code>NodeFactory</code> maps find it with
+ *  its cached hash code and an identity check.</p>
+ */
+class NameTable {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public String intern(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int mask = names.length - 1;
+        int position = spread(hash) & mask;
+        String result = names[position];
+        while (result != null && !matches(result, hash, chars, offset, length)) {
+            position = (position + 1) & mask;
+            result = names[position];
+        }
+
+        if (result == null) {
+            result = new String(chars, offset, length);
+            names[position] = result;
+            size++;
+
+            if (size * 2 > names.length) {
+                grow();
+            }
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        names = new String[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, int hash, char[] chars, int offset, int length) {
+        boolean result = name.hashCode() == hash && name.length() == length;
+
+        for (int i = 0; result && i < length; i++) {
+            result = name.charAt(i) == chars[offset + i];
+        }
+
+        return result;
+    }
+
+    private void grow() {
+        String[] oldNames = names;
+        names = new String[oldNames.length * 2];
+
+        int mask = names.length - 1;
+        for (String name : oldNames) {
+            if (name != null) {
+                int position = spread(name.hashCode()) & mask;
+                while (names[position] != null) {
+                    position = (position + 1) & mask;
+                }
+                names[position] = name;
+            }
+        }
+    }
+}
@@ -38,8 +38,8 @@ public abstract class Node implements Comparable {
     private String  name      = "";
     private boolean confirmed = false;
     
-    private Collection<Node> inbound  = new HashSet<Node>();
-    private Collection<Node> outbound = new HashSet<Node>();
+    private Collection<Node> inbound  = new NodeSet<Node>();
+    private Collection<Node> outbound = new NodeSet<Node>();
 
     public Node(String name, boolean confirmed) {
         this.name      = name;
@@ -50,6 +50,15 @@ public abstract class Node implements Comparable {
         return name;
     }
 
+    /**
+     *  Checks the name without necessarily building it.
+     *
+     *  @see NodeMap
+     */
+    boolean hasName(String name) {
+        return getName().equals(name);
+    }
+
     public boolean isConfirmed() {
         return confirmed;
     }
@@ -63,10 +72,21 @@ public abstract class Node implements Comparable {
         return !equals(node);
     }
     
+    /**
+     *  Safe to call from multiple threads while building a graph.  Each
+     *  edge set is locked on its own, one at a time, so two threads
+     *  adding opposite dependencies cannot deadlock.
+     *
+     *  @see ConcurrentNodeFactory
+     */
     public void addDependency(Node node) {
         if (canAddDependencyTo(node) && node.canAddDependencyTo(this)) {
-            outbound.add(node);
-            node.inbound.add(this);
+            synchronized (outbound) {
+                outbound.add(node);
+            }
+            synchronized (node.inbound) {
+                node.inbound.add(this);
+            }
         }
     }
 
@@ -77,8 +97,12 @@ public abstract class Node implements Comparable {
     }
 
     public void removeDependency(Node node) {
-        outbound.remove(node);
-        node.inbound.remove(this);
+        synchronized (outbound) {
+            outbound.remove(node);
+        }
+        synchronized (node.inbound) {
+            node.inbound.remove(this);
+        }
     }
 
     public void removeDependencies(Collection<? extends Node> nodes) {
@@ -112,7 +136,7 @@ public abstract class Node implements Comparable {
             result = false;
         } else {
             Node other = (Node) object;
-            result = compareTo(other) == 0;
+            result = hashCode() == other.hashCode() && compareTo(other) == 0;
         }
 
         return result;
@@ -35,28 +35,43 @@ package com.jeantessier.dependency;
 import java.util.*;
 
 import org.apache.log4j.*;
-import org.apache.oro.text.perl.*;
 
 public class NodeFactory {
-    private static final Perl5Util perl = new Perl5Util();
+    private Map<String, PackageNode> packages;
+    private Map<String, ClassNode> classes;
+    private Map<String, FeatureNode> features;
 
-    private Map<String, PackageNode> packages = new HashMap<String, PackageNode>();
-    private Map<String, ClassNode> classes = new HashMap<String, ClassNode>();
-    private Map<String, FeatureNode> features = new HashMap<String, FeatureNode>();
+    public NodeFactory() {
+        this(new NodeMap<PackageNode>(), new NodeMap<ClassNode>(), new NodeMap<FeatureNode>());
+    }
+
+    /**
+     *  Lets subclasses pick the maps that hold the nodes.  The create
+     *  methods only add nodes with {@link Map#putIfAbsent}, so
+     *  concurrent maps make creation atomic.
+     *
+     *  @see ConcurrentNodeFactory
+     */
+    protected NodeFactory(Map<String, PackageNode> packages, Map<String, ClassNode> classes, Map<String, FeatureNode> features) {
+        this.packages = packages;
+        this.classes = classes;
+        this.features = features;
+    }
 
     public PackageNode createPackage(String packageName) {
         return createPackage(packageName, false);
     }
     
     public PackageNode createPackage(String packageName, boolean confirmed) {
-        Logger.getLogger(getClass()).debug("Create package \"" + packageName + "\"");
-
         PackageNode result = packages.get(packageName);
 
         if (result == null) {
-            result = new PackageNode(packageName, confirmed);
-            packages.put(packageName, result);
-            Logger.getLogger(getClass()).debug("Added package \"" + packageName + "\"");
+            PackageNode newNode = new PackageNode(packageName, confirmed);
+            result = packages.putIfAbsent(packageName, newNode);
+            if (result == null) {
+                result = newNode;
+                Logger.getLogger(getClass()).debug("Added package \"" + packageName + "\"");
+            }
         }
 
         if (confirmed && !result.isConfirmed()) {
@@ -83,21 +98,17 @@ public class NodeFactory {
     }
     
     public ClassNode createClass(String className, boolean confirmed) {
-        Logger.getLogger(getClass()).debug("Create class \"" + className + "\"");
-
         ClassNode result = classes.get(className);
 
         if (result == null) {
-            String packageName = "";
-            int pos = className.lastIndexOf('.');
-            if (pos != -1) {
-                packageName = className.substring(0, pos);
+            PackageNode parent = createPackage(getPackageName(className), confirmed);
+            ClassNode newNode = new ClassNode(parent, className, confirmed);
+            result = classes.putIfAbsent(className, newNode);
+            if (result == null) {
+                result = newNode;
+                parent.addClass(result);
+                Logger.getLogger(getClass()).debug("Added class \"" + className + "\"");
             }
-            PackageNode parent = createPackage(packageName, confirmed);
-            result = new ClassNode(parent, className, confirmed);
-            parent.addClass(result);
-            classes.put(className, result);
-            Logger.getLogger(getClass()).debug("Added class \"" + className + "\"");
         }
 
         if (confirmed && !result.isConfirmed()) {
@@ -125,26 +136,17 @@ public class NodeFactory {
     }
     
     public FeatureNode createFeature(String featureName, boolean confirmed) {
-        Logger.getLogger(getClass()).debug("Create feature \"" + featureName + "\"");
-
         FeatureNode result = features.get(featureName);
 
         if (result == null) {
-            String parentName;
-
-            if (perl.match("/^(.*)\\.[^\\.]*\\(.*\\)$/", featureName)) {
-                parentName = perl.group(1);
-            } else if (perl.match("/^(.*)\\.[^\\.]*$/", featureName)) {
-                parentName = perl.group(1);
-            } else {
-                parentName = "";
+            ClassNode parent = createClass(getParentName(featureName), confirmed);
+            FeatureNode newNode = new FeatureNode(parent, featureName, confirmed);
+            result = features.putIfAbsent(featureName, newNode);
+            if (result == null) {
+                result = newNode;
+                parent.addFeature(result);
+                Logger.getLogger(getClass()).debug("Added feature \"" + featureName + "\"");
             }
-
-            ClassNode parent = createClass(parentName, confirmed);
-            result = new FeatureNode(parent, featureName, confirmed);
-            parent.addFeature(result);
-            features.put(featureName, result);
-            Logger.getLogger(getClass()).debug("Added feature \"" + featureName + "\"");
         }
 
         if (confirmed && !result.isConfirmed()) {
@@ -155,6 +157,66 @@ public class NodeFactory {
         return result;
     }
     
+    /**
+     *  Finds the name of the package that holds a class: everything
+     *  before the last dot, or "" if there is no dot.
+     */
+    static String getPackageName(String className) {
+        String result = "";
+
+        int pos = className.lastIndexOf('.');
+        if (pos != -1) {
+            result = className.substring(0, pos);
+        }
+
+        return result;
+    }
+
+    /**
+     *  <p>Finds the name of the class that declares a feature.  For
+     *  methods, this is everything before the last dot ahead of the
+     *  opening parenthesis, so dots in parameter types do not count.
+     *  For fields, it is everything before the last dot.  Features
+     *  without a dot are in the class named "".</p>
+     *
+     *  <p>Returns the same results as the regular expressions
+     *  <code>/^(.*)\.[^\.]*\(.*\)$/</code> and
+     *  <code>/^(.*)\.[^\.]*$/</code> that it replaces, without
+     *  allocating anything but the resulting substring.</p>
+     */
+    static String getParentName(String featureName) {
+        int pos = -1;
+
+        int length = featureName.length();
+        if (length > 0 && featureName.charAt(length - 1) == ')') {
+            // Walk back to the nearest dot that is followed by an
+            // opening parenthesis, with no other dot in between.
+            boolean parenthesisSeen = false;
+            for (int i = length - 2; pos == -1 && i >= 0; i--) {
+                char c = featureName.charAt(i);
+                if (c == '(') {
+                    parenthesisSeen = true;
+                } else if (c == '.') {
+                    if (parenthesisSeen) {
+                        pos = i;
+                    }
+                    parenthesisSeen = false;
+                }
+            }
+        }
+
+        if (pos == -1) {
+            pos = featureName.lastIndexOf('.');
+        }
+
+        String result = "";
+        if (pos != -1) {
+            result = featureName.substring(0, pos);
+        }
+
+        return result;
+    }
+
     // Only to be used by DeletingVisitor
     void deleteFeature(FeatureNode node) {
         Logger.getLogger(getClass()).debug("Delete feature \"" + node + "\"");
@@ -166,4 +228,63 @@ public class NodeFactory {
     public Map<String, FeatureNode> getFeatures() {
         return Collections.unmodifiableMap(features);
     }
+
+    /**
+     *  <p>Adds all the nodes and dependencies of another factory to
+     *  this one, as if both had been loaded into the same factory.
+     *  Nodes that are confirmed in either factory end up confirmed.
+     *  Nodes in this factory keep the names of the other factory's
+     *  nodes, so the strings are not copied.</p>
+     *
+     *  <p>The other factory must not change while this runs.</p>
+     */
+    public void merge(NodeFactory other) {
+        for (PackageNode node : other.packages.values()) {
+            createPackage(node.getName(), node.isConfirmed());
+        }
+
+        for (ClassNode node : other.classes.values()) {
+            createClass(node.getName(), node.isConfirmed());
+        }
+
+        for (FeatureNode node : other.features.values()) {
+            createFeature(node.getName(), node.isConfirmed());
+        }
+
+        mergeDependencies(other.packages.values(), packages);
+        mergeDependencies(other.classes.values(), classes);
+        mergeDependencies(other.features.values(), features);
+    }
+
+    private void mergeDependencies(Collection<? extends Node> otherNodes, Map<String, ? extends Node> nodes) {
+        for (Node otherNode : otherNodes) {
+            Node node = nodes.get(otherNode.getName());
+            for (Node otherDependency : otherNode.getOutboundDependencies()) {
+                node.addDependency(getMergedNode(otherDependency));
+            }
+        }
+    }
+
+    private Node getMergedNode(Node otherNode) {
+        Node result;
+
+        if (otherNode instanceof PackageNode) {
+            result = createPackage(otherNode.getName(), otherNode.isConfirmed());
+        } else if (otherNode instanceof ClassNode) {
+            result = createClass(otherNode.getName(), otherNode.isConfirmed());
+        } else {
+            result = createFeature(otherNode.getName(), otherNode.isConfirmed());
+        }
+
+        return result;
+    }
+
+    // Only to be used by StreamingXMLPrinter
+    void clear() {
+        Logger.getLogger(getClass()).debug("Clear all nodes");
+
+        packages.clear();
+        classes.clear();
+        features.clear();
+    }
 }
@@ -33,165 +33,360 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.log4j.*;
 import org.xml.sax.*;
 import org.xml.sax.helpers.*;
 
+/**
+ *  <p>Builds a graph from the SAX events of an XML graph file.</p>
+ *
+ *  <p>Given a {@link LoadingScope}, it only builds the parts of the
+ *  graph that a copy with the same scope and filter can use.  Nodes in
+ *  scope and dependencies that touch a covered node are kept, with the
+ *  nodes at both ends; everything else is skipped as it is read.</p>
+ */
 public class NodeHandler extends DefaultHandler {
     private static final int PACKAGE = 1;
     private static final int CLASS   = 2;
     private static final int FEATURE = 3;
 
     private NodeFactory  factory;
+    private LoadingScope scope;
 
     private int          currentNodeType;
     private int          currentDependencyType;
-    private Attributes   currentDependencyAttributes;
+    private boolean      currentDependencyConfirmed;
     private Node         currentNode;
-    private Attributes   currentPackageAttributes;
-    private Attributes   currentClassAttributes;
-    private Attributes   currentFeatureAttributes;
-    private StringBuffer currentName = new StringBuffer();
+    private boolean      currentPackageConfirmed;
+    private boolean      currentClassConfirmed;
+    private boolean      currentFeatureConfirmed;
+
+    // With a scope, the current node is only created when it is needed
+    private String       currentNodeName;
+    private boolean      currentNodeConfirmed;
+    private boolean      currentNodeCovered;
+    private boolean      currentNodeInFilter;
+    private Set<String>  skippedConfirmedPackages = new HashSet<String>();
+    private Set<String>  skippedConfirmedClasses = new HashSet<String>();
+    private Set<String>  skippedConfirmedFeatures = new HashSet<String>();
+
+    // Text of the current element, turned into a shared name by names
+    private char[]       currentText = new char[256];
+    private int          currentTextLength;
+    private NameTable    names = new NameTable();
 
-    private HashSet<DependencyListener> dependencyListeners = new HashSet<DependencyListener>();
+    private boolean      debug;
+
+    private Collection<DependencyListener> dependencyListeners = new CopyOnWriteArraySet<DependencyListener>();
 
     public NodeHandler() {
         this(new NodeFactory());
     }
 
     public NodeHandler(NodeFactory factory) {
+        this(factory, null);
+    }
+
+    /**
+     *  @param scope what parts of the graph to keep, or <code>null</code>
+     *               to keep all of it
+     */
+    public NodeHandler(NodeFactory factory, LoadingScope scope) {
         this.factory = factory;
+        this.scope = scope;
     }
 
     public NodeFactory getFactory() {
         return factory;
     }
 
+    public void startDocument() throws SAXException {
+        debug = Logger.getLogger(getClass()).isDebugEnabled();
+    }
+
+    public void endDocument() throws SAXException {
+        confirmSkippedNodes();
+
+        Logger.getLogger(getClass()).debug("Read " + names.size() + " distinct names");
+        names.clear();
+    }
+
     public void startElement(String namespaceURI, String localName, String qName, Attributes atts) throws SAXException {
-        Logger.getLogger(getClass()).debug("qName = " + qName);
+        if (debug) {
+            Logger.getLogger(getClass()).debug("qName = " + qName);
 
-        for (int i=0; i<atts.getLength(); i++) {
-            Logger.getLogger(getClass()).debug("    " + atts.getQName(i) + ": " + atts.getValue(i));
+            for (int i=0; i<atts.getLength(); i++) {
+                Logger.getLogger(getClass()).debug("    " + atts.getQName(i) + ": " + atts.getValue(i));
+            }
         }
 
-        currentName.delete(0, currentName.length());
+        currentTextLength = 0;
 
         if ("dependencies".equals(qName)) {
             fireBeginSession();
         } else if ("package".equals(qName)) {
             currentNodeType = PACKAGE;
-            currentPackageAttributes = new AttributesImpl(atts);
+            currentPackageConfirmed = isConfirmed(atts);
         } else if ("class".equals(qName)) {
             currentNodeType = CLASS;
-            currentClassAttributes = new AttributesImpl(atts);
+            currentClassConfirmed = isConfirmed(atts);
         } else if ("feature".equals(qName)) {
             currentNodeType = FEATURE;
-            currentFeatureAttributes = new AttributesImpl(atts);
+            currentFeatureConfirmed = isConfirmed(atts);
         } else if ("inbound".equals(qName) || "outbound".equals(qName)) {
-            if ("package".equals(atts.getValue("type"))) {
+            String type = atts.getValue("type");
+            if ("package".equals(type)) {
                 currentDependencyType = PACKAGE;
-            } else if ("class".equals(atts.getValue("type"))) {
+            } else if ("class".equals(type)) {
                 currentDependencyType = CLASS;
-            } else if ("feature".equals(atts.getValue("type"))) {
+            } else if ("feature".equals(type)) {
                 currentDependencyType = FEATURE;
             }
-            currentDependencyAttributes = new AttributesImpl(atts);
+            currentDependencyConfirmed = isConfirmed(atts);
         }
 
-        Logger.getLogger(getClass()).debug("    current node type: " + currentNodeType);
-        Logger.getLogger(getClass()).debug("    current dependency type: " + currentDependencyType);
+        if (debug) {
+            Logger.getLogger(getClass()).debug("    current node type: " + currentNodeType);
+            Logger.getLogger(getClass()).debug("    current dependency type: " + currentDependencyType);
+        }
     }
 
     public void endElement(String namespaceURI, String localName, String qName) throws SAXException {
-        Logger.getLogger(getClass()).debug("qName = " + qName);
+        if (debug) {
+            Logger.getLogger(getClass()).debug("qName = " + qName);
+        }
 
         if ("dependencies".equals(qName)) {
             fireEndSession();
         } else if ("name".equals(qName)) {
-            Logger.getLogger(getClass()).debug("    Processing <name> tag:");
-            Logger.getLogger(getClass()).debug("        current name: " + currentName);
-            Logger.getLogger(getClass()).debug("        current node type: " + currentNodeType);
+            String currentName = getCurrentName();
+
+            if (debug) {
+                Logger.getLogger(getClass()).debug("    Processing <name> tag:");
+                Logger.getLogger(getClass()).debug("        current name: " + currentName);
+                Logger.getLogger(getClass()).debug("        current node type: " + currentNodeType);
+            }
 
             switch (currentNodeType) {
                 case PACKAGE:
-                    currentNode = getFactory().createPackage(currentName.toString(), isConfirmed(currentPackageAttributes));
+                    currentNodeConfirmed = currentPackageConfirmed;
                     break;
                 case CLASS:
-                    currentNode = getFactory().createClass(currentName.toString(), isConfirmed(currentClassAttributes));
-                    fireBeginClass(currentNode.getName());
+                    currentNodeConfirmed = currentClassConfirmed;
+                    fireBeginClass(currentName);
                     break;
                 case FEATURE:
-                    currentNode = getFactory().createFeature(currentName.toString(), isConfirmed(currentFeatureAttributes));
+                    currentNodeConfirmed = currentFeatureConfirmed;
                     break;
             }
-        } else if ("outbound".equals(qName)) {
-            Logger.getLogger(getClass()).debug("    Processing <outbound> tag:");
-            Logger.getLogger(getClass()).debug("        current_name: " + currentName);
-            Logger.getLogger(getClass()).debug("        current_dependency_type: " + currentDependencyType);
 
-            Node other = null;
-            switch (currentDependencyType) {
-                case PACKAGE:
-                    other = getFactory().createPackage(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                    break;
-                case CLASS:
-                    other = getFactory().createClass(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                    break;
-                case FEATURE:
-                    other = getFactory().createFeature(currentName.toString(), isConfirmed(currentDependencyAttributes));
-                    break;
+            currentNodeName = currentName;
+            if (scope == null) {
+                currentNode = createNode(currentNodeType, currentName, currentNodeConfirmed);
+            } else {
+                startScopedNode();
+            }
+        } else if ("outbound".equals(qName)) {
+            String otherName = getCurrentName();
+            if (scope == null || isDependencyInScope(otherName)) {
+                Node current = getCurrentNode();
+                Node other = createDependencyNode("outbound", otherName);
+                current.addDependency(other);
+                fireDependency(current, other);
+            } else if (isDependencyNodeInScope(otherName)) {
+                createDependencyNode("outbound", otherName);
             }
-            currentNode.addDependency(other);
-            fireDependency(currentNode, other);
         } else if ("inbound".equals(qName)) {
-            Logger.getLogger(getClass()).debug("    Processing <inbound> tag:");
-            Logger.getLogger(getClass()).debug("        current_name: " + currentName);
-            Logger.getLogger(getClass()).debug("        current_dependency_type: " + currentDependencyType);
+            String otherName = getCurrentName();
+            if (scope == null || isDependencyInScope(otherName)) {
+                Node current = getCurrentNode();
+                Node other = createDependencyNode("inbound", otherName);
+                other.addDependency(current);
+                fireDependency(other, current);
+            } else if (isDependencyNodeInScope(otherName)) {
+                createDependencyNode("inbound", otherName);
+            }
+        }
+    }
 
-            Node other = null;
+    private void startScopedNode() {
+        boolean inScope = false;
+
+        switch (currentNodeType) {
+            case PACKAGE:
+                inScope = scope.isPackageInScope(currentNodeName);
+                currentNodeCovered = scope.isPackageCovered(currentNodeName);
+                currentNodeInFilter = scope.isPackageInFilter(currentNodeName);
+                if (!inScope && currentNodeConfirmed) {
+                    skippedConfirmedPackages.add(currentNodeName);
+                }
+                break;
+            case CLASS:
+                inScope = scope.isClassInScope(currentNodeName);
+                currentNodeCovered = scope.isClassCovered(currentNodeName);
+                currentNodeInFilter = scope.isClassInFilter(currentNodeName);
+                if (!inScope && currentNodeConfirmed) {
+                    skippedConfirmedClasses.add(currentNodeName);
+                }
+                break;
+            case FEATURE:
+                inScope = scope.isFeatureInScope(currentNodeName);
+                currentNodeCovered = scope.isFeatureCovered(currentNodeName);
+                currentNodeInFilter = scope.isFeatureInFilter(currentNodeName);
+                if (!inScope && currentNodeConfirmed) {
+                    skippedConfirmedFeatures.add(currentNodeName);
+                }
+                break;
+        }
+
+        if (inScope) {
+            currentNode = createNode(currentNodeType, currentNodeName, currentNodeConfirmed);
+        } else {
+            currentNode = null;
+        }
+    }
+
+    private boolean isDependencyInScope(String otherName) {
+        boolean result = false;
+
+        if (currentNodeCovered || currentNodeInFilter) {
             switch (currentDependencyType) {
                 case PACKAGE:
-                    other = getFactory().createPackage(currentName.toString(), isConfirmed(currentDependencyAttributes));
+                    result = (currentNodeCovered && scope.isPackageInFilter(otherName)) || (currentNodeInFilter && scope.isPackageCovered(otherName));
                     break;
                 case CLASS:
-                    other = getFactory().createClass(currentName.toString(), isConfirmed(currentDependencyAttributes));
+                    result = (currentNodeCovered && scope.isClassInFilter(otherName)) || (currentNodeInFilter && scope.isClassCovered(otherName));
                     break;
                 case FEATURE:
-                    other = getFactory().createFeature(currentName.toString(), isConfirmed(currentDependencyAttributes));
+                    result = (currentNodeCovered && scope.isFeatureInFilter(otherName)) || (currentNodeInFilter && scope.isFeatureCovered(otherName));
                     break;
             }
-            other.addDependency(currentNode);
-            fireDependency(other, currentNode);
         }
+
+        return result;
+    }
+
+    /**
+     *  Files that only list outbound dependencies, like those from
+     *  <code>StreamingXMLPrinter</code>, have no element for nodes that
+     *  are only ever the target of a dependency.
+     */
+    private boolean isDependencyNodeInScope(String otherName) {
+        boolean result = false;
+
+        switch (currentDependencyType) {
+            case PACKAGE:
+                result = scope.isPackageInScope(otherName);
+                break;
+            case CLASS:
+                result = scope.isClassInScope(otherName);
+                break;
+            case FEATURE:
+                result = scope.isFeatureInScope(otherName);
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     *  Nodes that only came in as the target of a dependency, or as
+     *  parents of such nodes, got their confirmation from that
+     *  dependency.  Their own elements may have said more, especially
+     *  in files from <code>StreamingXMLPrinter</code>, which writes
+     *  dependencies before it knows their targets.
+     */
+    private void confirmSkippedNodes() {
+        for (String name : skippedConfirmedPackages) {
+            if (getFactory().getPackages().containsKey(name)) {
+                getFactory().createPackage(name, true);
+            }
+        }
+        skippedConfirmedPackages.clear();
+
+        for (String name : skippedConfirmedClasses) {
+            if (getFactory().getClasses().containsKey(name)) {
+                getFactory().createClass(name, true);
+            }
+        }
+        skippedConfirmedClasses.clear();
+
+        for (String name : skippedConfirmedFeatures) {
+            if (getFactory().getFeatures().containsKey(name)) {
+                getFactory().createFeature(name, true);
+            }
+        }
+        skippedConfirmedFeatures.clear();
+    }
+
+    private Node getCurrentNode() {
+        if (currentNode == null) {
+            currentNode = createNode(currentNodeType, currentNodeName, currentNodeConfirmed);
+        }
+
+        return currentNode;
+    }
+
+    private Node createDependencyNode(String tag, String name) {
+        if (debug) {
+            Logger.getLogger(getClass()).debug("    Processing <" + tag + "> tag:");
+            Logger.getLogger(getClass()).debug("        current_name: " + name);
+            Logger.getLogger(getClass()).debug("        current_dependency_type: " + currentDependencyType);
+        }
+
+        return createNode(currentDependencyType, name, currentDependencyConfirmed);
+    }
+
+    private Node createNode(int type, String name, boolean confirmed) {
+        Node result = null;
+
+        switch (type) {
+            case PACKAGE:
+                result = getFactory().createPackage(name, confirmed);
+                break;
+            case CLASS:
+                result = getFactory().createClass(name, confirmed);
+                break;
+            case FEATURE:
+                result = getFactory().createFeature(name, confirmed);
+                break;
+        }
+
+        return result;
+    }
+
+    private String getCurrentName() {
+        return names.intern(currentText, 0, currentTextLength);
     }
 
     public void characters(char[] ch, int start, int length) throws SAXException {
-        currentName.append(ch, start, length);
-        Logger.getLogger(getClass()).debug("characters: \"" + new String(ch, start, length) + "\"");
+        if (currentTextLength + length > currentText.length) {
+            char[] newText = new char[Math.max(currentText.length * 2, currentTextLength + length)];
+            System.arraycopy(currentText, 0, newText, 0, currentTextLength);
+            currentText = newText;
+        }
+        System.arraycopy(ch, start, currentText, currentTextLength, length);
+        currentTextLength += length;
+
+        if (debug) {
+            Logger.getLogger(getClass()).debug("characters: \"" + new String(ch, start, length) + "\"");
+        }
     }
 
     public void addDependencyListener(DependencyListener listener) {
-        synchronized(dependencyListeners) {
-            dependencyListeners.add(listener);
-        }
+        dependencyListeners.add(listener);
     }
 
     public void removeDependencyListener(DependencyListener listener) {
-        synchronized(dependencyListeners) {
-            dependencyListeners.remove(listener);
-        }
+        dependencyListeners.remove(listener);
     }
 
     protected void fireBeginSession() {
         DependencyEvent event = new DependencyEvent(this);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.beginSession(event);
         }
     }
@@ -199,38 +394,25 @@ public class NodeHandler extends DefaultHandler {
     protected void fireBeginClass(String classname) {
         DependencyEvent event = new DependencyEvent(this, classname);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.beginClass(event);
         }
     }
 
     protected void fireDependency(Node dependent, Node dependable) {
-        DependencyEvent event = new DependencyEvent(this, dependent, dependable);
-
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
+        if (!dependencyListeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, dependent, dependable);
 
-        for (DependencyListener listener : listeners) {
-            listener.dependency(event);
+            for (DependencyListener listener : dependencyListeners) {
+                listener.dependency(event);
+            }
         }
     }
 
     protected void fireEndClass(String classname) {
         DependencyEvent event = new DependencyEvent(this, classname);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.endClass(event);
         }
     }
@@ -238,17 +420,13 @@ public class NodeHandler extends DefaultHandler {
     protected void fireEndSession() {
         DependencyEvent event = new DependencyEvent(this);
 
-        HashSet<DependencyListener> listeners;
-        synchronized(dependencyListeners) {
-            listeners = (HashSet<DependencyListener>) dependencyListeners.clone();
-        }
-
-        for (DependencyListener listener : listeners) {
+        for (DependencyListener listener : dependencyListeners) {
             listener.endSession(event);
         }
     }
 
     private boolean isConfirmed(Attributes atts) {
-        return atts.getValue("confirmed") == null || "yes".equalsIgnoreCase(atts.getValue("confirmed"));
+        String confirmed = atts.getValue("confirmed");
+        return confirmed == null || "yes".equalsIgnoreCase(confirmed);
     }
 }
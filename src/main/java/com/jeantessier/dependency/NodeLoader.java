@@ -58,7 +58,16 @@ public class NodeLoader {
     }
 
     public NodeLoader(NodeFactory factory, boolean validate) {
-        this.handler  = new NodeHandler(factory);
+        this(factory, validate, null);
+    }
+
+    /**
+     *  @param scope what parts of the graph to load, or <code>null</code>
+     *               to load all of it
+     *  @see NodeHandler
+     */
+    public NodeLoader(NodeFactory factory, boolean validate, LoadingScope scope) {
+        this.handler  = new NodeHandler(factory, scope);
         this.validate = validate;
     }
 
@@ -0,0 +1,267 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Map from names to nodes that {@link NodeFactory} uses to find
+ *  nodes by name.</p>
+ *
+ *  <p>It keeps no keys and no entries of its own, just the nodes in an
+ *  open-addressing table.  Lookups compare the name they are given
+ *  with the name of each candidate node through
+ *  {@link Node#hasName(String)}, so nodes that keep their names in
+ *  pieces, like {@link FeatureNode}, never have to build them.  Only
+ *  iterating over the keys or entries builds names.</p>
+ *
+ *  <p>Every key must be the name of the node it maps to.  This class is
+ *  not thread-safe.</p>
+ */
+class NodeMap<N extends Node> extends AbstractMap<String, N> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Node[] nodes = new Node[INITIAL_CAPACITY];
+    private int size = 0;
+    private int modifications = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public N get(Object key) {
+        N result = null;
+
+        if (key instanceof String) {
+            int position = positionOf((String) key);
+            if (position != -1) {
+                result = node(position);
+            }
+        }
+
+        return result;
+    }
+
+    public N put(String key, N node) {
+        N result = remove(key);
+        putIfAbsent(key, node);
+        return result;
+    }
+
+    public N putIfAbsent(String key, N node) {
+        if (!node.hasName(key)) {
+            throw new IllegalArgumentException("Key \"" + key + "\" is not the name of node \"" + node + "\"");
+        }
+
+        N result = get(key);
+
+        if (result == null) {
+            int mask = nodes.length - 1;
+            int position = spread(node.hashCode()) & mask;
+            while (nodes[position] != null) {
+                position = (position + 1) & mask;
+            }
+            nodes[position] = node;
+            size++;
+            modifications++;
+
+            if (size * 2 > nodes.length) {
+                resize(nodes.length * 2);
+            }
+        }
+
+        return result;
+    }
+
+    public N remove(Object key) {
+        N result = null;
+
+        if (key instanceof String) {
+            int position = positionOf((String) key);
+            if (position != -1) {
+                result = node(position);
+                removeAt(position);
+            }
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        nodes = new Node[INITIAL_CAPACITY];
+        size = 0;
+        modifications++;
+    }
+
+    public Collection<N> values() {
+        return new AbstractCollection<N>() {
+            public int size() {
+                return size;
+            }
+
+            public Iterator<N> iterator() {
+                return new NodeIterator<N>() {
+                    protected N get(Node node) {
+                        return NodeMap.this.node(node);
+                    }
+                };
+            }
+        };
+    }
+
+    public Set<Map.Entry<String, N>> entrySet() {
+        return new AbstractSet<Map.Entry<String, N>>() {
+            public int size() {
+                return size;
+            }
+
+            public Iterator<Map.Entry<String, N>> iterator() {
+                return new NodeIterator<Map.Entry<String, N>>() {
+                    protected Map.Entry<String, N> get(Node node) {
+                        return new AbstractMap.SimpleImmutableEntry<String, N>(node.getName(), NodeMap.this.node(node));
+                    }
+                };
+            }
+        };
+    }
+
+    private int positionOf(String name) {
+        int hash = name.hashCode();
+
+        int mask = nodes.length - 1;
+        int position = spread(hash) & mask;
+        while (nodes[position] != null) {
+            Node node = nodes[position];
+            if (node.hashCode() == hash && node.hasName(name)) {
+                return position;
+            }
+            position = (position + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     *  Shifts back the nodes that follow in the same run, so lookups
+     *  never stop at the hole.
+     */
+    private void removeAt(int position) {
+        int mask = nodes.length - 1;
+
+        int hole = position;
+        int next = (hole + 1) & mask;
+        while (nodes[next] != null) {
+            int home = spread(nodes[next].hashCode()) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                nodes[hole] = nodes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        nodes[hole] = null;
+        size--;
+        modifications++;
+    }
+
+    private void resize(int capacity) {
+        Node[] oldNodes = nodes;
+        nodes = new Node[capacity];
+
+        int mask = nodes.length - 1;
+        for (Node node : oldNodes) {
+            if (node != null) {
+                int position = spread(node.hashCode()) & mask;
+                while (nodes[position] != null) {
+                    position = (position + 1) & mask;
+                }
+                nodes[position] = node;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private N node(int position) {
+        return (N) nodes[position];
+    }
+
+    @SuppressWarnings("unchecked")
+    private N node(Node node) {
+        return (N) node;
+    }
+
+    /**
+     *  Walks the table.  Removing through the iterator is not
+     *  supported, since it would move nodes that are yet to come.
+     */
+    private abstract class NodeIterator<T> implements Iterator<T> {
+        private int expectedModifications = modifications;
+        private int position = -1;
+        private int seen = 0;
+
+        public boolean hasNext() {
+            return seen < size;
+        }
+
+        public T next() {
+            if (modifications != expectedModifications) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (seen >= size) {
+                throw new NoSuchElementException();
+            }
+
+            do {
+                position++;
+            } while (nodes[position] == null);
+            seen++;
+
+            return get(nodes[position]);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        protected abstract T get(Node node);
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Compact set of nodes used for the edges and children of
+ *  {@link Node} and its subclasses.</p>
+ *
+ *  <p>Most nodes in a large graph have no edges, or only a few, and a
+ *  {@link HashSet} costs well over a hundred bytes even when empty, plus
+ *  a map entry per element.  This set keeps its elements in a single
+ *  array, allocated on the first insertion, and looks them up with a
+ *  linear scan.  Once it grows past {@link #INDEX_THRESHOLD} elements, it
+ *  adds an open-addressing index of <code>int</code> positions into that
+ *  array so lookups stay constant time for the few very large nodes.</p>
+ *
+ *  <p>Removing an element moves the last one into its place, so the
+ *  iteration order is not stable across removals, just like with
+ *  {@link HashSet}.  This class is not thread-safe; {@link Node} locks
+ *  each set itself.</p>
+ */
+class NodeSet<T extends Node> extends AbstractSet<T> {
+    static final int INDEX_THRESHOLD = 8;
+
+    private static final int INITIAL_CAPACITY = 2;
+    private static final int EMPTY = -1;
+
+    private Object[] elements;
+    private int size;
+
+    private int[] index;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Object object) {
+        return object instanceof Node && positionOf(object) >= 0;
+    }
+
+    public boolean add(T node) {
+        if (node == null) {
+            throw new NullPointerException();
+        }
+
+        if (positionOf(node) >= 0) {
+            return false;
+        }
+
+        if (elements == null) {
+            elements = new Object[INITIAL_CAPACITY];
+        } else if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size + (size >> 1) + 1);
+        }
+
+        elements[size] = node;
+        if (index != null) {
+            if (2 * (size + 1) > index.length) {
+                rebuildIndex(size + 1);
+            } else {
+                insertIntoIndex(node, size);
+            }
+        } else if (size + 1 > INDEX_THRESHOLD) {
+            rebuildIndex(size + 1);
+        }
+        size++;
+
+        return true;
+    }
+
+    public boolean remove(Object object) {
+        if (!(object instanceof Node)) {
+            return false;
+        }
+
+        int position = positionOf(object);
+        if (position < 0) {
+            return false;
+        }
+
+        removeAt(position);
+        return true;
+    }
+
+    public void clear() {
+        elements = null;
+        index = null;
+        size = 0;
+    }
+
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int cursor = 0;
+            private int last = -1;
+
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            public T next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                last = cursor++;
+                return element(last);
+            }
+
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+
+                // The last element moves into the freed slot, so it
+                // has to be visited from there.
+                removeAt(last);
+                cursor = last;
+                last = -1;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int position) {
+        return (T) elements[position];
+    }
+
+    private int positionOf(Object object) {
+        if (size == 0) {
+            return -1;
+        }
+
+        if (index != null) {
+            int mask = index.length - 1;
+            for (int slot = hash(object) & mask; index[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (object.equals(elements[index[slot]])) {
+                    return index[slot];
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (object.equals(elements[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private void removeAt(int position) {
+        int lastPosition = size - 1;
+
+        if (index != null) {
+            removeFromIndex(position);
+            if (position != lastPosition) {
+                moveInIndex(lastPosition, position);
+            }
+        }
+
+        elements[position] = elements[lastPosition];
+        elements[lastPosition] = null;
+        size--;
+
+        if (size == 0) {
+            clear();
+        }
+    }
+
+    private void rebuildIndex(int count) {
+        int capacity = Integer.highestOneBit(count) << 2;
+        index = new int[capacity];
+        Arrays.fill(index, EMPTY);
+        for (int i = 0; i < count; i++) {
+            insertIntoIndex(elements[i], i);
+        }
+    }
+
+    private void insertIntoIndex(Object node, int position) {
+        int mask = index.length - 1;
+        int slot = hash(node) & mask;
+        while (index[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position;
+    }
+
+    private int slotOf(int position) {
+        int mask = index.length - 1;
+        int slot = hash(elements[position]) & mask;
+        while (index[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void moveInIndex(int from, int to) {
+        index[slotOf(from)] = to;
+    }
+
+    /**
+     *  Backward-shift deletion, so lookups never need tombstones.
+     */
+    private void removeFromIndex(int position) {
+        int mask = index.length - 1;
+        int hole = slotOf(position);
+        index[hole] = EMPTY;
+
+        for (int slot = (hole + 1) & mask; index[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = hash(elements[index[slot]]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                index[hole] = index[slot];
+                index[slot] = EMPTY;
+                hole = slot;
+            }
+        }
+    }
+
+    private static int hash(Object object) {
+        int h = object.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -35,7 +35,7 @@ package com.jeantessier.dependency;
 import java.util.*;
 
 public class PackageNode extends Node {
-    private Collection<ClassNode> classes = new HashSet<ClassNode>();
+    private Collection<ClassNode> classes = new NodeSet<ClassNode>();
 
     public PackageNode(String name, boolean concrete) {
         super(name, concrete);
@@ -52,11 +52,15 @@ public class PackageNode extends Node {
     }
 
     public void addClass(ClassNode node) {
-        classes.add(node);
+        synchronized (classes) {
+            classes.add(node);
+        }
     }
 
     public void removeClass(ClassNode node) {
-        classes.remove(node);
+        synchronized (classes) {
+            classes.remove(node);
+        }
     }
     
     public Collection<ClassNode> getClasses() {
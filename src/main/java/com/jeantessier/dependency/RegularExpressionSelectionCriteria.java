@@ -34,14 +34,19 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.oro.text.perl.*;
 import org.apache.oro.text.*;
 
 import com.jeantessier.text.*;
 
+/**
+ *  <p>Selects nodes whose names match Perl-style regular expressions.</p>
+ *
+ *  <p>The global and node-specific expressions are compiled together into
+ *  a {@link RegularExpressionSet} the first time they are needed, and
+ *  compiled again only after one of the setters changes them.  Changing
+ *  a list returned by one of the getters in place is not noticed.</p>
+ */
 public class RegularExpressionSelectionCriteria implements SelectionCriteria {
-    private Perl5Util perl = new Perl5Util(new MaximumCapacityPatternCache());
-
     private List<String> globalIncludes = new LinkedList<String>();
     private List<String> globalExcludes = new LinkedList<String>();
     private boolean matchingPackages = true;
@@ -53,6 +58,13 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
     private boolean matchingFeatures = true;
     private List<String> featureIncludes = new LinkedList<String>();
     private List<String> featureExcludes = new LinkedList<String>();
+
+    private volatile RegularExpressionSet compiledPackageIncludes;
+    private volatile RegularExpressionSet compiledPackageExcludes;
+    private volatile RegularExpressionSet compiledClassIncludes;
+    private volatile RegularExpressionSet compiledClassExcludes;
+    private volatile RegularExpressionSet compiledFeatureIncludes;
+    private volatile RegularExpressionSet compiledFeatureExcludes;
     
     public RegularExpressionSelectionCriteria() {
         // Do nothing
@@ -72,6 +84,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
     
     public void setGlobalIncludes(List<String> globalIncludes) {
         this.globalIncludes = globalIncludes;
+        resetCompiledExpressions();
     }
 
     public List<String> getGlobalExcludes() {
@@ -84,6 +97,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
 
     public void setGlobalExcludes(List<String> globalExcludes) {
         this.globalExcludes = globalExcludes;
+        resetCompiledExpressions();
     }
 
     public boolean isMatchingPackages() {
@@ -104,6 +118,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
 
     public void setPackageIncludes(List<String> packageIncludes) {
         this.packageIncludes = packageIncludes;
+        compiledPackageIncludes = null;
     }
 
     public List<String> getPackageExcludes() {
@@ -116,6 +131,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
 
     public void setPackageExcludes(List<String> packageExcludes) {
         this.packageExcludes = packageExcludes;
+        compiledPackageExcludes = null;
     }
 
     public boolean isMatchingClasses() {
@@ -136,6 +152,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
 
     public void setClassIncludes(List<String> classIncludes) {
         this.classIncludes = classIncludes;
+        compiledClassIncludes = null;
     }
 
     public List<String> getClassExcludes() {
@@ -148,6 +165,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
 
     public void setClassExcludes(List<String> classExcludes) {
         this.classExcludes = classExcludes;
+        compiledClassExcludes = null;
     }
 
     public boolean isMatchingFeatures() {
@@ -168,6 +186,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
 
     public void setFeatureIncludes(List<String> featureIncludes) {
         this.featureIncludes = featureIncludes;
+        compiledFeatureIncludes = null;
     }
 
     public List<String> getFeatureExcludes() {
@@ -180,6 +199,7 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
 
     public void setFeatureExcludes(List<String> featureExcludes) {
         this.featureExcludes = featureExcludes;
+        compiledFeatureExcludes = null;
     }
 
     public boolean matches(PackageNode node) {
@@ -195,44 +215,93 @@ public class RegularExpressionSelectionCriteria implements SelectionCriteria {
     }
 
     public boolean matchesPackageName(String name) {
-        return matches(getGlobalIncludes(), getPackageIncludes(), name) &&
-            !matches(getGlobalExcludes(), getPackageExcludes(), name);
+        return getCompiledPackageIncludes().matches(name) && !getCompiledPackageExcludes().matches(name);
     }
 
     public boolean matchesClassName(String name) {
-        return matches(getGlobalIncludes(), getClassIncludes(), name) &&
-            !matches(getGlobalExcludes(), getClassExcludes(), name);
+        return getCompiledClassIncludes().matches(name) && !getCompiledClassExcludes().matches(name);
     }
 
     public boolean matchesFeatureName(String name) {
-        return matches(getGlobalIncludes(), getFeatureIncludes(), name) &&
-            !matches(getGlobalExcludes(), getFeatureExcludes(), name);
-    }
-
-    private boolean matches(List<String> globalRegularExpressions, List<String> regularExpressions, String name) {
-        boolean  found = false;
-        Iterator<String> i;
-
-        i = globalRegularExpressions.iterator();
-        while (!found && i.hasNext()) {
-            String regex = i.next();
-            try {
-                found = perl.match(regex, name);
-            } catch (MalformedCachePatternException ex) {
-                throw new MatchException(regex, ex);
-            }
+        return getCompiledFeatureIncludes().matches(name) && !getCompiledFeatureExcludes().matches(name);
+    }
+
+    private RegularExpressionSet getCompiledPackageIncludes() {
+        RegularExpressionSet result = compiledPackageIncludes;
+        if (result == null) {
+            compiledPackageIncludes = result = compile(getGlobalIncludes(), getPackageIncludes());
         }
+        return result;
+    }
 
-        i = regularExpressions.iterator();
-        while (!found && i.hasNext()) {
-            String regex = i.next();
-            try {
-                found = perl.match(regex, name);
-            } catch (MalformedCachePatternException ex) {
-                throw new MatchException(regex, ex);
-            }
+    private RegularExpressionSet getCompiledPackageExcludes() {
+        RegularExpressionSet result = compiledPackageExcludes;
+        if (result == null) {
+            compiledPackageExcludes = result = compile(getGlobalExcludes(), getPackageExcludes());
         }
+        return result;
+    }
 
-        return found;
+    private RegularExpressionSet getCompiledClassIncludes() {
+        RegularExpressionSet result = compiledClassIncludes;
+        if (result == null) {
+            compiledClassIncludes = result = compile(getGlobalIncludes(), getClassIncludes());
+        }
+        return result;
+    }
+
+    private RegularExpressionSet getCompiledClassExcludes() {
+        RegularExpressionSet result = compiledClassExcludes;
+        if (result == null) {
+            compiledClassExcludes = result = compile(getGlobalExcludes(), getClassExcludes());
+        }
+        return result;
+    }
+
+    private RegularExpressionSet getCompiledFeatureIncludes() {
+        RegularExpressionSet result = compiledFeatureIncludes;
+        if (result == null) {
+            compiledFeatureIncludes = result = compile(getGlobalIncludes(), getFeatureIncludes());
+        }
+        return result;
+    }
+
+    private RegularExpressionSet getCompiledFeatureExcludes() {
+        RegularExpressionSet result = compiledFeatureExcludes;
+        if (result == null) {
+            compiledFeatureExcludes = result = compile(getGlobalExcludes(), getFeatureExcludes());
+        }
+        return result;
+    }
+
+    private void resetCompiledExpressions() {
+        compiledPackageIncludes = null;
+        compiledPackageExcludes = null;
+        compiledClassIncludes = null;
+        compiledClassExcludes = null;
+        compiledFeatureIncludes = null;
+        compiledFeatureExcludes = null;
+    }
+
+    private RegularExpressionSet compile(List<String> globalRegularExpressions, List<String> regularExpressions) {
+        RegularExpressionSet result = new RegularExpressionSet();
+
+        for (String regex : globalRegularExpressions) {
+            add(result, regex);
+        }
+
+        for (String regex : regularExpressions) {
+            add(result, regex);
+        }
+
+        return result;
+    }
+
+    private void add(RegularExpressionSet set, String regex) {
+        try {
+            set.add(regex);
+        } catch (MalformedCachePatternException ex) {
+            throw new MatchException(regex, ex);
+        }
     }
 }
@@ -0,0 +1,124 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+
+/**
+ *  <p>Writes the dependencies of each class as soon as
+ *  {@link CodeDependencyCollector} is done with it, and then empties
+ *  the collector's {@link NodeFactory}, so memory use does not grow
+ *  with the size of the codebase.  Register it as a
+ *  {@link DependencyListener} on the collector and call
+ *  {@link #finish()} once all the classes are in.</p>
+ *
+ *  <p>The output is a regular dependency graph document, except that
+ *  a package appears once for every class in it and that it only
+ *  lists outbound dependencies.  {@link NodeLoader} merges the
+ *  repeated packages and rebuilds the inbound dependencies, so it
+ *  loads the same graph as if {@link XMLPrinter} had printed it.</p>
+ *
+ *  <p>There is no complete graph at any point, so this cannot be
+ *  combined with {@link LinkMaximizer} or {@link LinkMinimizer}.</p>
+ */
+public class StreamingXMLPrinter extends XMLPrinter implements DependencyListener {
+    private NodeFactory factory;
+
+    private boolean started = false;
+    private boolean finished = false;
+
+    public StreamingXMLPrinter(NodeFactory factory, PrintWriter out) {
+        this(factory, out, DEFAULT_ENCODING, DEFAULT_DTD_PREFIX);
+    }
+
+    public StreamingXMLPrinter(NodeFactory factory, PrintWriter out, String encoding, String dtdPrefix) {
+        super(out, encoding, dtdPrefix);
+
+        this.factory = factory;
+
+        setShowInbounds(false);
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    public void beginSession(DependencyEvent event) {
+        start();
+    }
+
+    public void beginClass(DependencyEvent event) {
+        // Do nothing
+    }
+
+    public void dependency(DependencyEvent event) {
+        // Do nothing
+    }
+
+    public void endClass(DependencyEvent event) {
+        start();
+
+        ClassNode node = getFactory().getClasses().get(event.getClassName());
+
+        if (node != null) {
+            preprocessPackageNode(node.getPackageNode());
+            node.accept(this);
+            postprocessPackageNode(node.getPackageNode());
+        }
+
+        getFactory().clear();
+    }
+
+    public void endSession(DependencyEvent event) {
+        finish();
+    }
+
+    /**
+     *  Closes the document.  Calling it again does nothing.
+     */
+    public void finish() {
+        start();
+
+        if (!finished) {
+            finished = true;
+            endDependencies();
+        }
+    }
+
+    private void start() {
+        if (!started) {
+            started = true;
+            beginDependencies();
+        }
+    }
+}
@@ -52,6 +52,8 @@ public class TransitiveClosure {
     private SelectionCriteria stopCriteria;
 
     private NodeFactory factory = new NodeFactory();
+
+    private int threadCount = TransitiveClosureEngine.DEFAULT_THREAD_COUNT;
     
     public TransitiveClosure(SelectionCriteria startCriteria, SelectionCriteria stopCriteria) {
         this.startCriteria = startCriteria;
@@ -70,6 +72,27 @@ public class TransitiveClosure {
         this.maximumOutboundDepth = maximumOutboundDepth;
     }
 
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     *  Number of threads expanding each layer of the closure.  With
+     *  more than one, the closure goes in a {@link ConcurrentNodeFactory},
+     *  so call this before {@link #traverseNodes(Collection)}.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1, not " + threadCount);
+        }
+
+        this.threadCount = threadCount;
+
+        if (threadCount > 1 && !(factory instanceof ConcurrentNodeFactory)) {
+            factory = new ConcurrentNodeFactory();
+        }
+    }
+
     public void traverseNodes(Collection<? extends Node> nodes) {
         if (maximumInboundDepth != DO_NOT_FOLLOW) {
             compute(nodes, maximumInboundDepth, new ClosureInboundSelector());
@@ -82,6 +105,7 @@ public class TransitiveClosure {
 
     private void compute(Collection<? extends Node> nodes, long depth, ClosureLayerSelector layerSelector) {
         TransitiveClosureEngine engine = new TransitiveClosureEngine(factory, nodes, startCriteria, stopCriteria, layerSelector);
+        engine.setThreadCount(getThreadCount());
 
         if (depth == UNBOUNDED_DEPTH) {
             engine.computeAllLayers();
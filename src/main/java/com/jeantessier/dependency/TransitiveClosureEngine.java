@@ -33,8 +33,30 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
+import org.apache.log4j.*;
+
+/**
+ *  <p>Computes a transitive closure one layer at a time, starting from
+ *  the nodes that match the start criteria.  Each layer holds the
+ *  nodes that are one step away from the previous layer and were not
+ *  in any earlier layer.</p>
+ *
+ *  <p>With a thread count greater than one, the engine splits the
+ *  previous layer into chunks and expands them on a pool of worker
+ *  threads.  Each worker uses its own layer selector, from {@link
+ *  ClosureLayerSelector#createPartialSelector}, and they all add copies
+ *  to the same factory, so the engine needs a {@link
+ *  ConcurrentNodeFactory} to run on more than one thread.  Selectors
+ *  that cannot be split expand each layer on the calling thread.  The
+ *  layers are the same as with a single thread.</p>
+ */
 public class TransitiveClosureEngine {
+    public static final int DEFAULT_THREAD_COUNT = 1;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
     private NodeFactory factory;
     private ClosureLayerSelector layerSelector;
     private ClosureStopSelector stopSelector;
@@ -42,6 +64,8 @@ public class TransitiveClosureEngine {
     private Collection<Node> coverage = new HashSet<Node>();
     private LinkedList<Collection<? extends Node>> selections = new LinkedList<Collection<? extends Node>>();
     private LinkedList<Collection<? extends Node>> layers = new LinkedList<Collection<? extends Node>>();
+
+    private int threadCount = DEFAULT_THREAD_COUNT;
     
     public TransitiveClosureEngine(Collection<? extends Node> packages, SelectionCriteria startCriteria, SelectionCriteria stopCriteria, ClosureLayerSelector layerSelector) {
         this(new NodeFactory(), packages, startCriteria, stopCriteria, layerSelector);
@@ -70,6 +94,27 @@ public class TransitiveClosureEngine {
         return factory;
     }
 
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     *  Number of threads expanding each new layer.  The default of one
+     *  does everything on the calling thread.  More than one requires
+     *  a {@link ConcurrentNodeFactory}.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1, not " + threadCount);
+        }
+
+        if (threadCount > 1 && !(getFactory() instanceof ConcurrentNodeFactory)) {
+            throw new IllegalStateException("Cannot use " + threadCount + " threads with a " + getFactory().getClass().getName() + ", it needs a " + ConcurrentNodeFactory.class.getName());
+        }
+
+        this.threadCount = threadCount;
+    }
+
     public int getNbLayers() {
         return layers.size();
     }
@@ -93,7 +138,11 @@ public class TransitiveClosureEngine {
     public void computeNextLayer() {
         if (!stopSelector.isDone()) {
             layerSelector.reset();
-            layerSelector.traverseNodes(selections.getLast());
+            if (getThreadCount() == 1 || selections.getLast().size() < 2) {
+                layerSelector.traverseNodes(selections.getLast());
+            } else {
+                traverseNodesInParallel(new ArrayList<Node>(selections.getLast()));
+            }
 
             stopSelector.traverseNodes(layerSelector.getCopiedNodes());
             if (!layerSelector.getCopiedNodes().isEmpty()) {
@@ -107,4 +156,59 @@ public class TransitiveClosureEngine {
         selections.add(selector.getSelectedNodes());
         layers.add(selector.getCopiedNodes());
     }
+
+    /**
+     *  Coverage does not change until the whole layer is done, so each
+     *  chunk can be expanded on its own and their results combined
+     *  into the main layer selector.
+     */
+    private void traverseNodesInParallel(List<Node> nodes) {
+        int nbChunks = Math.min(nodes.size(), getThreadCount() * CHUNKS_PER_THREAD);
+
+        List<ClosureLayerSelector> chunkSelectors = new ArrayList<ClosureLayerSelector>(nbChunks);
+        for (int i = 0; i < nbChunks; i++) {
+            ClosureLayerSelector selector = layerSelector.createPartialSelector(factory, coverage);
+            if (selector == null) {
+                Logger.getLogger(getClass()).debug(layerSelector.getClass().getName() + " cannot be split, expanding layer of " + nodes.size() + " nodes on a single thread");
+                layerSelector.traverseNodes(nodes);
+                return;
+            }
+            chunkSelectors.add(selector);
+        }
+
+        Logger.getLogger(getClass()).debug("Expanding layer of " + nodes.size() + " nodes in " + nbChunks + " chunks with " + getThreadCount() + " threads");
+
+        ExecutorService executor = Executors.newFixedThreadPool(getThreadCount());
+        try {
+            List<Future<ClosureLayerSelector>> partialSelectors = new ArrayList<Future<ClosureLayerSelector>>(nbChunks);
+            for (int i = 0; i < nbChunks; i++) {
+                final Collection<Node> chunk = nodes.subList(i * nodes.size() / nbChunks, (i + 1) * nodes.size() / nbChunks);
+                final ClosureLayerSelector selector = chunkSelectors.get(i);
+                partialSelectors.add(executor.submit(new Callable<ClosureLayerSelector>() {
+                    public ClosureLayerSelector call() {
+                        selector.traverseNodes(chunk);
+                        return selector;
+                    }
+                }));
+            }
+
+            for (Future<ClosureLayerSelector> partialSelector : partialSelectors) {
+                layerSelector.getSelectedNodes().addAll(partialSelector.get().getSelectedNodes());
+                layerSelector.getCopiedNodes().addAll(partialSelector.get().getCopiedNodes());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while computing layer", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            } else {
+                throw new RuntimeException(ex.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -72,16 +72,24 @@ public class XMLPrinter extends Printer {
         if (atTopLevel) {
             super.traverseNodes(nodes);
         } else {
-            atTopLevel = true;
-            indent().append("<dependencies>").eol();
-            raiseIndent();
+            beginDependencies();
             super.traverseNodes(nodes);
-            lowerIndent();
-            indent().append("</dependencies>").eol();
-            atTopLevel = false;
+            endDependencies();
         }
     }
 
+    protected void beginDependencies() {
+        atTopLevel = true;
+        indent().append("<dependencies>").eol();
+        raiseIndent();
+    }
+
+    protected void endDependencies() {
+        lowerIndent();
+        indent().append("</dependencies>").eol();
+        atTopLevel = false;
+    }
+
     protected void preprocessPackageNode(PackageNode node) {
         super.preprocessPackageNode(node);
 
@@ -58,6 +58,7 @@ public class DependencyCycles extends GraphTask {
     private Path startExcludesList;
 
     private String  maximumCycleLenth  = "";
+    private String  maximumCycleCount  = "";
 
     private boolean xml = false;
     private String encoding = XMLPrinter.DEFAULT_ENCODING;
@@ -160,6 +161,14 @@ public class DependencyCycles extends GraphTask {
         this.maximumCycleLenth = maximumCycleLenth;
     }
 
+    public String getMaximumcyclecount() {
+        return maximumCycleCount;
+    }
+
+    public void setMaximumcyclecount(String maximumCycleCount) {
+        this.maximumCycleCount = maximumCycleCount;
+    }
+
     public boolean getXml() {
         return xml;
     }
@@ -225,6 +234,10 @@ public class DependencyCycles extends GraphTask {
                 detector.setMaximumCycleLength(Integer.parseInt(getMaximumcyclelength()));
             }
 
+            if (getMaximumcyclecount() != null && getMaximumcyclecount().length() > 0) {
+                detector.setMaximumCycleCount(Integer.parseInt(getMaximumcyclecount()));
+            }
+
             detector.traverseNodes(factory.getPackages().values());
 
             log("Saving dependency cycles to " + getDestfile().getAbsolutePath());
@@ -269,7 +269,7 @@ public class DependencyExtractor extends Task {
         NodeFactory factory = new NodeFactory();
         CodeDependencyCollector collector = new CodeDependencyCollector(factory, getFilterCriteria());
         
-        ClassfileLoader loader = new TransientClassfileLoader();
+        ClassfileLoader loader = new TransientClassfileLoader(CodeDependencyCollector.ATTRIBUTE_TYPES);
         loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
         loader.addLoadListener(verboseListener);
         loader.load(Arrays.asList(getPath().list()));
@@ -201,7 +201,7 @@ public class ListSymbols extends Task {
 
         SymbolGatherer gatherer = new SymbolGatherer(createStrategy());
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        ClassfileLoader loader = new TransientClassfileLoader(SymbolGatherer.ATTRIBUTE_TYPES);
         loader.addLoadListener(new LoadListenerVisitorAdapter(gatherer));
         loader.addLoadListener(verboseListener);
         loader.load(Arrays.asList(getPath().list()));
@@ -156,6 +156,11 @@ public abstract class Command {
             for (CommandLineException exception : exceptions) {
                 result = false;
                 Logger.getLogger(getClass()).error(exception);
+                out.println(exception.getMessage());
+            }
+
+            if (!result) {
+                showError(out);
             }
         }
 
@@ -182,6 +187,26 @@ public abstract class Command {
         return exceptions;
     }
 
+    /**
+     *  Checks that <code>-threads</code>, if present, is a positive number.
+     */
+    protected Collection<CommandLineException> validateCommandLineForThreads() {
+        Collection<CommandLineException> exceptions = new ArrayList<CommandLineException>();
+
+        if (getCommandLine().isPresent("threads")) {
+            String value = getCommandLine().getSingleSwitch("threads");
+            try {
+                if (Integer.parseInt(value) < 1) {
+                    exceptions.add(new CommandLineException("-threads must be at least 1, not " + value));
+                }
+            } catch (NumberFormatException ex) {
+                exceptions.add(new CommandLineException("-threads must be a number, not \"" + value + "\""));
+            }
+        }
+
+        return exceptions;
+    }
+
     private void process() throws Exception {
         startProcessing();
         doProcessing();
@@ -69,6 +69,8 @@ public class DependencyClosure extends DependencyGraphCommand {
             selector.setMaximumOutboundDepth(TransitiveClosure.UNBOUNDED_DEPTH);
         }
 
+        selector.setThreadCount(getThreadCount());
+
         selector.traverseNodes(loadGraph().getPackages().values());
 
         getVerboseListener().print("Printing the graph ...");
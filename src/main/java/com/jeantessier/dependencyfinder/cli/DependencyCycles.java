@@ -45,6 +45,7 @@ public class DependencyCycles extends DependencyGraphCommand {
         populateCommandLineSwitchesForStartCondition();
 
         getCommandLine().addSingleValueSwitch("maximum-cycle-length");
+        getCommandLine().addSingleValueSwitch("maximum-cycle-count");
 
         getCommandLine().addToggleSwitch("xml");
     }
@@ -64,6 +65,10 @@ public class DependencyCycles extends DependencyGraphCommand {
             detector.setMaximumCycleLength(Integer.parseInt(getCommandLine().getSingleSwitch("maximum-cycle-length")));
         }
 
+        if (getCommandLine().isPresent("maximum-cycle-count")) {
+            detector.setMaximumCycleCount(Integer.parseInt(getCommandLine().getSingleSwitch("maximum-cycle-count")));
+        }
+
         detector.traverseNodes(loadGraph().getPackages().values());
 
         getVerboseListener().print("Printing the graph ...");
@@ -32,6 +32,7 @@
 
 package com.jeantessier.dependencyfinder.cli;
 
+import java.io.*;
 import java.util.*;
 
 import com.jeantessier.classreader.*;
@@ -47,31 +48,94 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
         getCommandLine().addToggleSwitch("maximize");
         getCommandLine().addToggleSwitch("minimize");
 
+        getCommandLine().addSingleValueSwitch("threads");
+
         getCommandLine().addToggleSwitch("xml");
+        getCommandLine().addToggleSwitch("binary");
+
+        getCommandLine().addToggleSwitch("incremental");
+        getCommandLine().addToggleSwitch("stream");
+        getCommandLine().addToggleSwitch("fast");
     }
 
     protected Collection<CommandLineException> parseCommandLine(String[] args) {
         Collection<CommandLineException> exceptions = super.parseCommandLine(args);
 
         exceptions.addAll(validateCommandLineForFiltering());
+        exceptions.addAll(validateCommandLineForThreads());
 
         if (getCommandLine().getToggleSwitch("maximize") && getCommandLine().getToggleSwitch("minimize")) {
             exceptions.add(new CommandLineException("Only one of -maximize or -minimize is allowed"));
         }
 
+        if (getCommandLine().getToggleSwitch("xml") && getCommandLine().getToggleSwitch("binary")) {
+            exceptions.add(new CommandLineException("Only one of -xml or -binary is allowed"));
+        }
+
+        if (getCommandLine().getToggleSwitch("incremental")) {
+            if (!getCommandLine().isPresent("out")) {
+                exceptions.add(new CommandLineException("-incremental requires -out"));
+            }
+
+            if (!getCommandLine().getToggleSwitch("xml") && !getCommandLine().getToggleSwitch("binary")) {
+                exceptions.add(new CommandLineException("-incremental requires one of -xml or -binary"));
+            }
+
+            if (getCommandLine().getToggleSwitch("maximize") || getCommandLine().getToggleSwitch("minimize")) {
+                exceptions.add(new CommandLineException("-incremental cannot be used with -maximize or -minimize"));
+            }
+        }
+
+        if (getCommandLine().getToggleSwitch("stream")) {
+            if (!getCommandLine().getToggleSwitch("xml")) {
+                exceptions.add(new CommandLineException("-stream requires -xml"));
+            }
+
+            if (getCommandLine().getToggleSwitch("incremental")) {
+                exceptions.add(new CommandLineException("-stream cannot be used with -incremental"));
+            }
+
+            if (getCommandLine().getToggleSwitch("maximize") || getCommandLine().getToggleSwitch("minimize")) {
+                exceptions.add(new CommandLineException("-stream cannot be used with -maximize or -minimize"));
+            }
+        }
+
+        if (getCommandLine().getToggleSwitch("fast")) {
+            if (getCommandLine().getToggleSwitch("incremental")) {
+                exceptions.add(new CommandLineException("-fast cannot be used with -incremental"));
+            }
+
+            if (getCommandLine().isPresent("threads")) {
+                exceptions.add(new CommandLineException("-fast cannot be used with -threads"));
+            }
+        }
+
         return exceptions;
     }
 
     protected void doProcessing() throws Exception {
+        if (getCommandLine().getToggleSwitch("stream")) {
+            extractStreaming();
+        } else {
+            extractGraph();
+        }
+    }
+
+    private void extractGraph() throws Exception {
         SelectionCriteria filterCriteria = getFilterCriteria();
 
         NodeFactory factory = new NodeFactory();
-        CodeDependencyCollector collector = new CodeDependencyCollector(factory, filterCriteria);
 
-        ClassfileLoader loader = new TransientClassfileLoader();
-        loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
-        loader.addLoadListener(getVerboseListener());
-        loader.load(getCommandLine().getParameters());
+        ClassfileIndex index = null;
+        if (getCommandLine().getToggleSwitch("incremental")) {
+            index = extractIncrementally(factory, new CodeDependencyCollector(factory, filterCriteria));
+        } else if (getCommandLine().getToggleSwitch("fast")) {
+            load(new BytecodeDependencyLoader(new BytecodeDependencyCollector(factory, filterCriteria)));
+        } else {
+            TransientClassfileLoader loader = new TransientClassfileLoader(CodeDependencyCollector.ATTRIBUTE_TYPES);
+            loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(factory, filterCriteria)));
+            load(loader);
+        }
 
         if (getCommandLine().getToggleSwitch("minimize")) {
             LinkMinimizer minimizer = new LinkMinimizer();
@@ -81,6 +145,118 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
             maximizer.traverseNodes(factory.getPackages().values());
         }
 
+        if (getCommandLine().getToggleSwitch("binary")) {
+            writeSnapshot(factory);
+        } else {
+            printGraph(factory);
+        }
+
+        if (index != null) {
+            saveIndex(index);
+        }
+    }
+
+    /**
+     *  Writes each class as soon as it is parsed instead of building
+     *  the whole graph first.
+     */
+    private void extractStreaming() throws IOException {
+        NodeFactory factory = new NodeFactory();
+
+        StreamingXMLPrinter printer = new StreamingXMLPrinter(factory, getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+        if (getCommandLine().isPresent("indent-text")) {
+            printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
+        }
+
+        if (getCommandLine().getToggleSwitch("fast")) {
+            BytecodeDependencyCollector collector = new BytecodeDependencyCollector(factory, getFilterCriteria());
+            collector.addDependencyListener(printer);
+            load(new BytecodeDependencyLoader(collector));
+        } else {
+            CodeDependencyCollector collector = new CodeDependencyCollector(factory, getFilterCriteria());
+            collector.addDependencyListener(printer);
+
+            TransientClassfileLoader loader = new TransientClassfileLoader(CodeDependencyCollector.ATTRIBUTE_TYPES);
+            loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+            load(loader);
+        }
+
+        printer.finish();
+    }
+
+    private void load(ClassfileLoaderEventSource loader) {
+        if (getCommandLine().isPresent("threads")) {
+            loader.setThreadCount(Integer.parseInt(getCommandLine().getSingleSwitch("threads")));
+        }
+        loader.addLoadListener(getVerboseListener());
+        loader.load(getCommandLine().getParameters());
+    }
+
+    /**
+     *  Starts from the graph left by the previous run in the output file
+     *  and only parses the classfiles that changed since then.  The
+     *  digests from that run are in a sidecar file next to the graph.
+     */
+    private ClassfileIndex extractIncrementally(NodeFactory factory, CodeDependencyCollector collector) throws Exception {
+        String graphFilename = getCommandLine().getSingleSwitch("out");
+        String indexFilename = graphFilename + ClassfileIndex.FILE_EXTENSION;
+
+        ClassfileIndex previousIndex = new ClassfileIndex();
+        if (new File(graphFilename).exists() && new File(indexFilename).exists()) {
+            loadPreviousGraph(factory, graphFilename);
+            previousIndex.load(indexFilename);
+        }
+
+        IncrementalClassfileLoader loader = new IncrementalClassfileLoader(previousIndex.getDigests(), CodeDependencyCollector.ATTRIBUTE_TYPES);
+        Monitor monitor = new Monitor(collector, new DeletingVisitor(factory));
+        monitor.restore(previousIndex.getClassNames());
+        loader.addLoadListener(monitor);
+        load(loader);
+
+        getVerboseListener().print("Skipped " + loader.getNbSkippedClassfiles() + " unchanged classfile(s).");
+
+        return new ClassfileIndex(loader.getDigests(), monitor.getClassNamesByFile());
+    }
+
+    private void loadPreviousGraph(NodeFactory factory, String filename) throws Exception {
+        getVerboseListener().print("Reading previous graph from " + filename);
+
+        InputStream in = new BufferedInputStream(new FileInputStream(filename));
+        try {
+            if (GraphSnapshotLoader.isSnapshot(in)) {
+                new GraphSnapshotLoader(factory).load(in);
+            } else {
+                new NodeLoader(factory).load(in);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private void saveIndex(ClassfileIndex index) throws IOException {
+        String indexFilename = getCommandLine().getSingleSwitch("out") + ClassfileIndex.FILE_EXTENSION;
+
+        getVerboseListener().print("Writing the classfile index to " + indexFilename);
+
+        index.save(indexFilename);
+    }
+
+    private void writeSnapshot(NodeFactory factory) throws IOException {
+        getVerboseListener().print("Writing the graph snapshot ...");
+
+        if (getCommandLine().isPresent("out")) {
+            OutputStream out = new FileOutputStream(getCommandLine().getSingleSwitch("out"));
+            try {
+                new GraphSnapshotWriter(out).write(factory.getPackages().values());
+            } finally {
+                out.close();
+            }
+        } else {
+            new GraphSnapshotWriter(System.out).write(factory.getPackages().values());
+        }
+    }
+
+    private void printGraph(NodeFactory factory) throws IOException {
         getVerboseListener().print("Printing the graph ...");
 
         com.jeantessier.dependency.Printer printer;
@@ -33,10 +33,13 @@
 package com.jeantessier.dependencyfinder.cli;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 import javax.xml.parsers.*;
 
 import org.xml.sax.*;
 
+import com.jeantessier.commandline.*;
 import com.jeantessier.dependency.*;
 
 /**
@@ -47,6 +50,33 @@ public abstract class DependencyGraphCommand extends Command {
         super.populateCommandLineSwitches();
 
         getCommandLine().addToggleSwitch("validate");
+        getCommandLine().addSingleValueSwitch("threads");
+    }
+
+    protected Collection<CommandLineException> parseCommandLine(String[] args) {
+        Collection<CommandLineException> exceptions = super.parseCommandLine(args);
+
+        exceptions.addAll(validateCommandLineForThreads());
+
+        return exceptions;
+    }
+
+    protected int getThreadCount() {
+        int result = 1;
+
+        if (getCommandLine().isPresent("threads")) {
+            result = Integer.parseInt(getCommandLine().getSingleSwitch("threads"));
+        }
+
+        return result;
+    }
+
+    /**
+     *  Which parts of the graph files the command needs.  The default
+     *  is <code>null</code>, for the whole graph.
+     */
+    protected LoadingScope getLoadingScope() {
+        return null;
     }
 
     protected void showSpecificUsage(PrintStream out) {
@@ -67,33 +97,150 @@ public abstract class DependencyGraphCommand extends Command {
         return result;
     }
 
-    private void loadGraphFromSystemIn(NodeFactory factory) throws IOException, SAXException, ParserConfigurationException {
+    protected void loadGraphFromSystemIn(NodeFactory factory) throws IOException, SAXException, ParserConfigurationException {
         getVerboseListener().print("Reading from standard input");
 
-        NodeLoader loader = new NodeLoader(factory, getCommandLine().getToggleSwitch("validate"));
-        loader.addDependencyListener(getVerboseListener());
-        loader.load(System.in);
+        InputStream in = new BufferedInputStream(System.in);
+        if (GraphSnapshotLoader.isSnapshot(in)) {
+            GraphSnapshotLoader loader = new GraphSnapshotLoader(factory, getLoadingScope());
+            loader.addDependencyListener(getVerboseListener());
+            loader.load(in);
+        } else {
+            NodeLoader loader = new NodeLoader(factory, getCommandLine().getToggleSwitch("validate"), getLoadingScope());
+            loader.addDependencyListener(getVerboseListener());
+            loader.load(in);
+        }
 
         getVerboseListener().print("Read from standard input.");
     }
 
-    private void loadGraphFromFiles(NodeFactory factory) throws IOException, SAXException, ParserConfigurationException {
-        for (String filename : getCommandLine().getParameters()) {
-            if (filename.endsWith(".xml")) {
+    private void loadGraphFromFiles(final NodeFactory factory) throws IOException, SAXException, ParserConfigurationException {
+        List<String> filenames = getGraphFilenames();
+
+        if (getThreadCount() == 1 || filenames.size() < 2) {
+            for (String filename : filenames) {
                 loadGraphFromFile(factory, filename);
+            }
+        } else {
+            loadGraphsInParallel(filenames, new GraphReceiver() {
+                public void receive(String filename, NodeFactory graph) {
+                    factory.merge(graph);
+                }
+            });
+        }
+    }
+
+    /**
+     *  The parameters that name graph files, either XML or snapshots.
+     *  Other parameters are skipped with a message.
+     */
+    protected List<String> getGraphFilenames() {
+        List<String> result = new ArrayList<String>();
+
+        for (String filename : getCommandLine().getParameters()) {
+            if (filename.endsWith(".xml") || filename.endsWith(GraphSnapshotWriter.FILE_EXTENSION)) {
+                result.add(filename);
             } else {
                 getVerboseListener().print("Skipping \"" + filename + "\".");
             }
         }
+
+        return result;
     }
 
-    private void loadGraphFromFile(NodeFactory factory, String filename) throws IOException, SAXException, ParserConfigurationException {
+    protected void loadGraphFromFile(NodeFactory factory, String filename) throws IOException, SAXException, ParserConfigurationException {
         getVerboseListener().print("Reading " + filename);
 
-        NodeLoader loader = new NodeLoader(factory, getCommandLine().getToggleSwitch("validate"));
-        loader.addDependencyListener(getVerboseListener());
-        loader.load(filename);
+        if (filename.endsWith(".xml")) {
+            NodeLoader loader = new NodeLoader(factory, getCommandLine().getToggleSwitch("validate"), getLoadingScope());
+            loader.addDependencyListener(getVerboseListener());
+            loader.load(filename);
+        } else {
+            GraphSnapshotLoader loader = new GraphSnapshotLoader(factory, getLoadingScope());
+            loader.addDependencyListener(getVerboseListener());
+            loader.load(filename);
+        }
 
         getVerboseListener().print("Read \"" + filename + "\".");
     }
+
+    /**
+     *  Parses each file into a factory of its own on a pool of worker
+     *  threads and hands them to the receiver, in the order of the
+     *  files on the command line, as they become available.  At most
+     *  two files per thread are in flight at any time, and each graph
+     *  is let go of as soon as the receiver is done with it.
+     */
+    protected void loadGraphsInParallel(List<String> filenames, GraphReceiver receiver) throws IOException, SAXException, ParserConfigurationException {
+        getVerboseListener().print("Reading " + filenames.size() + " files with " + getThreadCount() + " threads");
+
+        int maxPendingGraphs = 2 * getThreadCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(getThreadCount());
+        try {
+            Iterator<String> toSubmit = filenames.iterator();
+            Iterator<String> toReceive = filenames.iterator();
+            LinkedList<Future<NodeFactory>> pendingGraphs = new LinkedList<Future<NodeFactory>>();
+
+            while (pendingGraphs.size() < maxPendingGraphs && toSubmit.hasNext()) {
+                pendingGraphs.addLast(submitGraph(executor, toSubmit.next()));
+            }
+
+            while (!pendingGraphs.isEmpty()) {
+                String filename = toReceive.next();
+                receiver.receive(filename, pendingGraphs.removeFirst().get());
+                getVerboseListener().print("Read \"" + filename + "\".");
+
+                if (toSubmit.hasNext()) {
+                    pendingGraphs.addLast(submitGraph(executor, toSubmit.next()));
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading graphs", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            } else if (ex.getCause() instanceof SAXException) {
+                throw (SAXException) ex.getCause();
+            } else if (ex.getCause() instanceof ParserConfigurationException) {
+                throw (ParserConfigurationException) ex.getCause();
+            } else if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            } else {
+                throw new RuntimeException(ex.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Future<NodeFactory> submitGraph(ExecutorService executor, final String filename) {
+        final boolean validate = getCommandLine().getToggleSwitch("validate");
+        final LoadingScope scope = getLoadingScope();
+
+        return executor.submit(new Callable<NodeFactory>() {
+            public NodeFactory call() throws Exception {
+                NodeFactory result;
+
+                if (filename.endsWith(".xml")) {
+                    result = new NodeLoader(new NodeFactory(), validate, scope).load(filename);
+                } else {
+                    result = new GraphSnapshotLoader(new NodeFactory(), scope).load(filename);
+                }
+
+                return result;
+            }
+        });
+    }
+
+    /**
+     *  Gets the graphs read by {@link #loadGraphsInParallel}, one file
+     *  at a time.
+     */
+    protected interface GraphReceiver {
+        public void receive(String filename, NodeFactory graph);
+    }
 }
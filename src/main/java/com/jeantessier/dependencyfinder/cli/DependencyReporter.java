@@ -46,6 +46,8 @@ import com.jeantessier.dependency.TextPrinter;
 import com.jeantessier.dependency.Visitor;
 
 public class DependencyReporter extends DependencyGraphCommand {
+    private LoadingScope loadingScope;
+
     protected void populateCommandLineSwitches() {
         super.populateCommandLineSwitches();
         populateCommandLineSwitchesForXMLOutput(XMLPrinter.DEFAULT_ENCODING, XMLPrinter.DEFAULT_DTD_PREFIX, XMLPrinter.DEFAULT_INDENT_TEXT);
@@ -87,6 +89,12 @@ public class DependencyReporter extends DependencyGraphCommand {
         SelectionCriteria scopeCriteria = getScopeCriteria();
         SelectionCriteria filterCriteria = getFilterCriteria();
 
+        // Unless it has to add or remove links first, the report only
+        // needs the parts of the graph files that touch its scope.
+        if (!getCommandLine().getToggleSwitch("maximize") && !getCommandLine().getToggleSwitch("minimize")) {
+            loadingScope = new LoadingScope(scopeCriteria, filterCriteria);
+        }
+
         GraphCopier copier;
         if (getCommandLine().getToggleSwitch("copy-only") || getCommandLine().getToggleSwitch("maximize")) {
             copier = new GraphCopier(new SelectiveTraversalStrategy(scopeCriteria, filterCriteria));
@@ -117,6 +125,10 @@ public class DependencyReporter extends DependencyGraphCommand {
         printer.traverseNodes(copier.getScopeFactory().getPackages().values());
     }
 
+    protected LoadingScope getLoadingScope() {
+        return loadingScope;
+    }
+
     private void copyGraph(Visitor copier) throws IOException, SAXException, ParserConfigurationException {
         if (getCommandLine().getParameters().isEmpty()) {
             copyGraphFromSystemIn(copier);
@@ -126,17 +138,26 @@ public class DependencyReporter extends DependencyGraphCommand {
     }
 
     private void copyGraphFromSystemIn(Visitor copier) throws IOException, ParserConfigurationException, SAXException {
-        copyGraph(copier, loadGraphFromSystemIn());
+        NodeFactory factory = new NodeFactory();
+        loadGraphFromSystemIn(factory);
+        copyGraph(copier, factory.getPackages().values());
     }
 
-    private void copyGraphFromFiles(Visitor copier) throws IOException, SAXException, ParserConfigurationException {
-        for (String filename : getCommandLine().getParameters()) {
-            if (filename.endsWith(".xml")) {
-                copyGraph(copier, loadGraphFromFile(filename));
-            } else {
-                getVerboseListener().print("Skipping \"" + filename + "\".");
-            }
+    private void copyGraphFromFiles(final Visitor copier) throws IOException, SAXException, ParserConfigurationException {
+        List<String> filenames = getGraphFilenames();
 
+        if (getThreadCount() == 1 || filenames.size() < 2) {
+            for (String filename : filenames) {
+                NodeFactory factory = new NodeFactory();
+                loadGraphFromFile(factory, filename);
+                copyGraph(copier, factory.getPackages().values());
+            }
+        } else {
+            loadGraphsInParallel(filenames, new GraphReceiver() {
+                public void receive(String filename, NodeFactory graph) {
+                    copyGraph(copier, graph.getPackages().values());
+                }
+            });
         }
     }
 
@@ -150,34 +171,6 @@ public class DependencyReporter extends DependencyGraphCommand {
         copier.traverseNodes(packages);
     }
 
-    private Collection<PackageNode> loadGraphFromSystemIn() throws IOException, SAXException, ParserConfigurationException {
-        Collection<PackageNode> packages;
-
-        getVerboseListener().print("Reading from standard input");
-
-        NodeLoader loader = new NodeLoader(getCommandLine().getToggleSwitch("validate"));
-        loader.addDependencyListener(getVerboseListener());
-        packages = loader.load(System.in).getPackages().values();
-
-        getVerboseListener().print("Read from standard input.");
-
-        return packages;
-    }
-
-    private Collection<PackageNode> loadGraphFromFile(String filename) throws IOException, SAXException, ParserConfigurationException {
-        Collection<PackageNode> packages;
-
-        getVerboseListener().print("Reading " + filename);
-
-        NodeLoader loader = new NodeLoader(getCommandLine().getToggleSwitch("validate"));
-        loader.addDependencyListener(getVerboseListener());
-        packages = loader.load(filename).getPackages().values();
-
-        getVerboseListener().print("Read \"" + filename + "\".");
-
-        return packages;
-    }
-
     public static void main(String[] args) throws Exception {
         new DependencyReporter().run(args);
     }
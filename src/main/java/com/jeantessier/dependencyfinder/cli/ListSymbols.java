@@ -99,7 +99,7 @@ public class ListSymbols extends DirectoryExplorerCommand {
 
         SymbolGatherer gatherer = new SymbolGatherer(gathererStrategy);
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        ClassfileLoader loader = new TransientClassfileLoader(SymbolGatherer.ATTRIBUTE_TYPES);
         loader.addLoadListener(new LoadListenerVisitorAdapter(gatherer));
         loader.addLoadListener(getVerboseListener());
         loader.load(getCommandLine().getParameters());
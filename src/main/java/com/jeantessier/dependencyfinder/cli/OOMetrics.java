@@ -67,6 +67,7 @@ public class OOMetrics extends DirectoryExplorerCommand {
         getCommandLine().addToggleSwitch("show-empty-metrics");
         getCommandLine().addToggleSwitch("show-hidden-measurements");
         getCommandLine().addSingleValueSwitch("sort", DEFAULT_SORT);
+        getCommandLine().addSingleValueSwitch("threads");
         getCommandLine().addToggleSwitch("expand");
         getCommandLine().addToggleSwitch("reverse");
         getCommandLine().addToggleSwitch("enable-cross-class-measurements");
@@ -75,6 +76,8 @@ public class OOMetrics extends DirectoryExplorerCommand {
     protected Collection<CommandLineException> parseCommandLine(String[] args) {
         Collection<CommandLineException> exceptions = super.parseCommandLine(args);
 
+        exceptions.addAll(validateCommandLineForThreads());
+
         if (!getCommandLine().isPresent("project") && !getCommandLine().isPresent("groups") && !getCommandLine().isPresent("classes") && !getCommandLine().isPresent("methods")) {
             getCommandLine().getSwitch("project").setValue(true);
             getCommandLine().getSwitch("groups").setValue(true);
@@ -122,16 +125,43 @@ public class OOMetrics extends DirectoryExplorerCommand {
         }
         gatherer.addMetricsListener(getVerboseListener());
 
+        int threadCount = com.jeantessier.metrics.MetricsGatherer.DEFAULT_THREAD_COUNT;
+        if (getCommandLine().isPresent("threads")) {
+            threadCount = Integer.parseInt(getCommandLine().getSingleSwitch("threads"));
+        }
+        gatherer.setThreadCount(threadCount);
+
         if (getCommandLine().isPresent("enable-cross-class-measurements")) {
             Logger.getLogger(OOMetrics.class).debug("Reading in all classes ...");
             getVerboseListener().print("Reading in all classes ...");
-            ClassfileLoader loader = new AggregatingClassfileLoader();
+            ClassfileLoaderEventSource loader = new AggregatingClassfileLoader();
+            loader.setThreadCount(threadCount);
             loader.addLoadListener(getVerboseListener());
             loader.load(getCommandLine().getParameters());
 
             Logger.getLogger(OOMetrics.class).debug("Computing metrics ...");
             getVerboseListener().print("Computing metrics ...");
             gatherer.visitClassfiles(loader.getAllClassfiles());
+        } else if (threadCount > 1) {
+            final Collection<Classfile> classfiles = new ArrayList<Classfile>();
+            ClassfileLoaderEventSource loader = new TransientClassfileLoader();
+            loader.setThreadCount(threadCount);
+            loader.addLoadListener(getVerboseListener());
+            loader.addLoadListener(new LoadAdapter() {
+                public void endClassfile(LoadEvent event) {
+                    if (event.getClassfile() != null) {
+                        classfiles.add(event.getClassfile());
+                    }
+                }
+            });
+
+            Logger.getLogger(OOMetrics.class).debug("Reading classes ...");
+            getVerboseListener().print("Reading classes ...");
+            loader.load(getCommandLine().getParameters());
+
+            Logger.getLogger(OOMetrics.class).debug("Computing metrics ...");
+            getVerboseListener().print("Computing metrics ...");
+            gatherer.visitClassfiles(classfiles);
         } else {
             ClassfileLoader loader = new TransientClassfileLoader();
             loader.addLoadListener(getVerboseListener());
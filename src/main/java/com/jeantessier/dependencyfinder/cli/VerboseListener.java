@@ -103,7 +103,11 @@ public class VerboseListener extends VerboseListenerBase implements DependencyLi
         super.endClassfile(event);
 
         getWriter().print("Loading ");
-        getWriter().print(event.getClassfile());
+        if (event.getClassfile() != null) {
+            getWriter().print(event.getClassfile());
+        } else {
+            getWriter().print(event.getFilename());
+        }
         getWriter().print(" ...");
         getWriter().println();
         getWriter().flush();
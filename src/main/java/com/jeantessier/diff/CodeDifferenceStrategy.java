@@ -81,8 +81,8 @@ public class CodeDifferenceStrategy implements DifferenceStrategy {
         if (oldCode != null && newCode != null) {
             result = oldCode.getCode().length != newCode.getCode().length;
 
-            Iterator<Instruction> oldIterator = oldCode.iterator();
-            Iterator<Instruction> newIterator = newCode.iterator();
+            Iterator<Instruction> oldIterator = oldCode.instructionCursor();
+            Iterator<Instruction> newIterator = newCode.instructionCursor();
 
             while (!result && oldIterator.hasNext() && newIterator.hasNext()) {
                 Instruction oldInstruction = oldIterator.next();
@@ -36,16 +36,19 @@ import java.io.*;
 import java.util.*;
 
 import org.apache.log4j.*;
+import org.apache.oro.text.regex.*;
+
+import com.jeantessier.text.*;
 
 /**
  *  <p>Base class that accumulates entries, filtering with regular
  *  expressions.  If no regular expressions are given, matches
  *  everything for the given measurement, which must implement
  *  the <code>CollectionMeasurement</code> interface.  Regular
- *  expressions matching using <code>Perl5Util</code> from
- *  Jakarta-ORO.  This measurement will use
- *  <code>Perl5Util.group(1)</code> if not null, otherwise the
- *  full string.</p>
+ *  expressions matching using Perl5 patterns from Jakarta-ORO,
+ *  compiled once per descriptor.  This measurement will use
+ *  <code>group(1)</code> if not null, otherwise the full
+ *  string.</p>
  *
  *  <p>This is the syntax for initializing this type of
  *  measurement:</p>
@@ -58,32 +61,58 @@ import org.apache.log4j.*;
  *  </pre>
  */
 public abstract class AccumulatorMeasurement extends MeasurementBase implements CollectionMeasurement {
-    private Map<String, Collection<String>> terms  = new HashMap<String, Collection<String>>();
+    private static final java.util.regex.Pattern LINE_FORMAT = java.util.regex.Pattern.compile("^\\s*(\\S+)\\s*(.*)");
+
+    private Map<String, Collection<Pattern>> terms;
     private Collection<String> values = new TreeSet<String>();
 
     public AccumulatorMeasurement(MeasurementDescriptor descriptor, Metrics context, String initText) {
         super(descriptor, context, initText);
 
+        terms = getCompiledTerms(initText);
+        if (terms == null) {
+            terms = compileTerms(initText);
+            setCompiledInitText(initText, terms);
+            logTerms(initText);
+        }
+    }
+
+    /**
+     *  The descriptor caches the compiled init text as a plain Object,
+     *  but only ever holds what {@link #compileTerms} returned for it.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Collection<Pattern>> getCompiledTerms(String initText) {
+        return (Map<String, Collection<Pattern>>) getCompiledInitText(initText);
+    }
+
+    /**
+     *  Compiles the regular expressions once, so that instances can
+     *  share them and match from many threads at the same time, each
+     *  with its own matcher.
+     */
+    private Map<String, Collection<Pattern>> compileTerms(String initText) {
+        Map<String, Collection<Pattern>> result = new HashMap<String, Collection<Pattern>>();
+
         if (initText != null) {
             try {
                 BufferedReader in   = new BufferedReader(new StringReader(initText));
                 String         line;
                 
                 while ((line = in.readLine()) != null) {
-                    synchronized (perl()) {
-                        if (perl().match("/^\\s*(\\S+)\\s*(.*)/", line)) {
-                            String name = perl().group(1);
-                            String re   = perl().group(2);
-
-                            Collection<String> res = terms.get(name);
-                            if (res == null) {
-                                res = new ArrayList<String>();
-                                terms.put(name, res);
-                            }
-
-                            if (re != null && re.length() > 0) {
-                                res.add(re);
-                            }
+                    java.util.regex.Matcher matcher = LINE_FORMAT.matcher(line);
+                    if (matcher.find()) {
+                        String name = matcher.group(1);
+                        String re   = matcher.group(2);
+
+                        Collection<Pattern> res = result.get(name);
+                        if (res == null) {
+                            res = new ArrayList<Pattern>();
+                            result.put(name, res);
+                        }
+
+                        if (re != null && re.length() > 0) {
+                            res.add(Perl5Expression.compile(re));
                         }
                     }
                 }
@@ -91,22 +120,22 @@ public abstract class AccumulatorMeasurement extends MeasurementBase implements
                 in.close();
             } catch (Exception ex) {
                 Logger.getLogger(getClass()).debug("Cannot initialize with \"" + initText + "\"", ex);
-                terms.clear();
+                result.clear();
             }
         }
 
-        logTerms(initText);
+        return Collections.unmodifiableMap(result);
     }
 
     private void logTerms(String initText) {
         Logger.getLogger(getClass()).debug("Initialize with\n" + initText);
         Logger.getLogger(getClass()).debug("Terms:");
 
-        for (Map.Entry<String, Collection<String>> entry : terms.entrySet()) {
+        for (Map.Entry<String, Collection<Pattern>> entry : terms.entrySet()) {
             Logger.getLogger(getClass()).debug("\t" + entry.getKey());
 
-            for (String s : entry.getValue()) {
-                Logger.getLogger(getClass()).debug("\t\t" + s);
+            for (Pattern re : entry.getValue()) {
+                Logger.getLogger(getClass()).debug("\t\t" + re.getPattern());
             }
         }
     }
@@ -138,9 +167,9 @@ public abstract class AccumulatorMeasurement extends MeasurementBase implements
     protected abstract void populateValues();
 
     protected void filterMetrics(Metrics metrics) {
-        for (Map.Entry<String, Collection<String>> entry : terms.entrySet()) {
+        for (Map.Entry<String, Collection<Pattern>> entry : terms.entrySet()) {
             String name = entry.getKey();
-            Collection<String> res = entry.getValue();
+            Collection<Pattern> res = entry.getValue();
 
             Measurement measurement = metrics.getMeasurement(name);
             if (measurement instanceof CollectionMeasurement) {
@@ -149,7 +178,7 @@ public abstract class AccumulatorMeasurement extends MeasurementBase implements
         }
     }
     
-    private void filterMeasurement(CollectionMeasurement measurement, Collection<String> res) {
+    private void filterMeasurement(CollectionMeasurement measurement, Collection<Pattern> res) {
         if (res.isEmpty()) {
             values.addAll(measurement.getValues());
         } else {
@@ -159,25 +188,25 @@ public abstract class AccumulatorMeasurement extends MeasurementBase implements
         }
     }
     
-    private void filterElement(String element, Collection<String> res) {
+    private void filterElement(String element, Collection<Pattern> res) {
         boolean found = false;
-        Iterator<String> i = res.iterator();
+        Iterator<Pattern> i = res.iterator();
         while (!found && i.hasNext()) {
             found = evaluateRE(i.next(), element);
         }
     }
     
-    private boolean evaluateRE(String re, String element) {
+    private boolean evaluateRE(Pattern re, String element) {
         boolean result = false;
 
-        synchronized (perl()) {
-            if (perl().match(re, element)) {
-                result = true;
-                if (perl().group(1) != null) {
-                    values.add(perl().group(1));
-                } else {
-                    values.add(element);
-                }
+        Perl5Matcher matcher = Perl5Expression.matcher();
+        if (matcher.contains(element, re)) {
+            result = true;
+            MatchResult match = matcher.getMatch();
+            if (match.groups() > 1 && match.group(1) != null) {
+                values.add(match.group(1));
+            } else {
+                values.add(element);
             }
         }
 
@@ -46,6 +46,7 @@ package com.jeantessier.metrics;
  *  </pre>
  */
 public class CounterMeasurement extends MeasurementBase {
+    private double initialValue;
     private double value;
 
     public CounterMeasurement(MeasurementDescriptor descriptor, Metrics context, String initText) {
@@ -58,6 +59,8 @@ public class CounterMeasurement extends MeasurementBase {
         } catch (NumberFormatException ex) {
             value = 0;
         }
+
+        initialValue = value;
     }
 
     public void add(Object object) {
@@ -70,6 +73,16 @@ public class CounterMeasurement extends MeasurementBase {
         setEmpty(false);
     }
 
+    /**
+     *  Adds what the other counter counted, without its initial
+     *  value.  Used to combine metrics that were gathered separately.
+     */
+    void merge(CounterMeasurement other) {
+        if (!other.isEmpty()) {
+            add(other.value - other.initialValue);
+        }
+    }
+
     public void accept(MeasurementVisitor visitor) {
         visitor.visitCounterMeasurement(this);
     }
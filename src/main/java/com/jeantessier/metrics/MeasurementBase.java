@@ -32,17 +32,26 @@
 
 package com.jeantessier.metrics;
 
-import org.apache.oro.text.perl.*;
-
-import com.jeantessier.text.*;
+import java.util.regex.*;
 
 public abstract class MeasurementBase implements Measurement {
-    private static final Perl5Util perl = new Perl5Util(new MaximumCapacityPatternCache());
+    private static final Pattern DISPOSE_SUFFIX = Pattern.compile("(.*)\\s+(dispose_\\w+)$", Pattern.CASE_INSENSITIVE);
 
-    protected static Perl5Util perl() {
-        return perl;
+    /**
+     *  Looks for a trailing <code>DISPOSE_x</code> on a measurement
+     *  name.  Unlike the <code>Perl5Util</code> this used to go
+     *  through, the result is local to the caller and needs no
+     *  locking.
+     *
+     *  @return a match with the name in group 1 and the dispose
+     *          text in group 2, or <code>null</code> if there is
+     *          no dispose text.
+     */
+    protected static Matcher matchDispose(String name) {
+        Matcher result = DISPOSE_SUFFIX.matcher(name);
+        return result.find() ? result : null;
     }
-    
+
     private MeasurementDescriptor descriptor = null;
     private Metrics context = null;
 
@@ -143,6 +152,42 @@ public abstract class MeasurementBase implements Measurement {
         // Do nothing
     }
 
+    /**
+     *  Returns what a previous instance from the same descriptor
+     *  parsed out of this same init text, so instances can share
+     *  immutable parsing results instead of redoing the work for
+     *  every single <code>Metrics</code>.
+     *
+     *  @return the shared parsing result, or <code>null</code> if
+     *          there is none yet or this instance's init text or
+     *          class do not match its descriptor's.
+     */
+    protected Object getCompiledInitText(String initText) {
+        Object result = null;
+
+        if (isDescribedBy(initText)) {
+            result = getDescriptor().getCompiledInitText();
+        }
+
+        return result;
+    }
+
+    /**
+     *  Offers an immutable parsing result of the init text to other
+     *  instances from the same descriptor.
+     */
+    protected void setCompiledInitText(String initText, Object compiledInitText) {
+        if (isDescribedBy(initText)) {
+            getDescriptor().setCompiledInitText(compiledInitText);
+        }
+    }
+
+    private boolean isDescribedBy(String initText) {
+        return getDescriptor() != null &&
+            getClass().equals(getDescriptor().getClassFor()) &&
+            initText != null && initText.equals(getDescriptor().getInitText());
+    }
+
     protected abstract double compute();
 
     public String toString() {
@@ -46,6 +46,8 @@ public class MeasurementDescriptor {
     private boolean    visible        = true;
     private boolean    cached         = true;
 
+    private volatile Object compiledInitText = null;
+
     public String getShortName() {
         return shortName;
     }
@@ -69,6 +71,7 @@ public class MeasurementDescriptor {
     public void setClassFor(Class classFor) {
         if (classFor != null) {
             this.classFor = classFor;
+            this.compiledInitText = null;
         } else {
             throw new IllegalArgumentException("class cannot be null");
         }
@@ -76,6 +79,7 @@ public class MeasurementDescriptor {
 
     public void getClassForByName(String className) throws ClassNotFoundException {
         this.classFor = Class.forName(className);
+        this.compiledInitText = null;
     }
 
     public String getInitText() {
@@ -84,6 +88,19 @@ public class MeasurementDescriptor {
 
     public void setInitText(String initText) {
         this.initText = initText;
+        this.compiledInitText = null;
+    }
+
+    /**
+     *  Parsed form of the init text, shared between the
+     *  measurements created from this descriptor.
+     */
+    Object getCompiledInitText() {
+        return compiledInitText;
+    }
+
+    void setCompiledInitText(Object compiledInitText) {
+        this.compiledInitText = compiledInitText;
     }
 
     public Comparable getLowerThreshold() {
@@ -71,6 +71,10 @@ public class Metrics {
         return parent;
     }
 
+    void setParent(Metrics parent) {
+        this.parent = parent;
+    }
+
     /**
      *  @return The name of the element being measured
      *          (e.g., class name, method name).
@@ -166,6 +170,28 @@ public class Metrics {
         return Collections.unmodifiableCollection(submetrics.values());
     }
 
+    void clearSubMetrics() {
+        submetrics.clear();
+    }
+
+    /**
+     *  Adds the values that the other metrics accumulated to the
+     *  measurements of the same name in this one.  Measurements that
+     *  are computed from others need nothing, they will pick up the
+     *  merged values.
+     */
+    void mergeMeasurements(Metrics other) {
+        for (Map.Entry<String, Measurement> entry : other.measurements.entrySet()) {
+            Measurement measurement = measurements.get(entry.getKey());
+
+            if (measurement instanceof CounterMeasurement && entry.getValue() instanceof CounterMeasurement) {
+                ((CounterMeasurement) measurement).merge((CounterMeasurement) entry.getValue());
+            } else if (measurement instanceof NameListMeasurement && entry.getValue() instanceof NameListMeasurement) {
+                ((NameListMeasurement) measurement).merge((NameListMeasurement) entry.getValue());
+            }
+        }
+    }
+
     public boolean isEmpty() {
         boolean result = true;
 
@@ -34,12 +34,14 @@ package com.jeantessier.metrics;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.regex.*;
 
 import org.apache.log4j.*;
-import org.apache.oro.text.perl.*;
 
 public class MetricsFactory {
-    private static final Perl5Util perl = new Perl5Util();
+    private static final Pattern METHOD_NAME = Pattern.compile("^(.*)\\.([^\\.]*)\\(.*\\)$");
+    private static final Pattern STATIC_INITIALIZER_NAME = Pattern.compile("^(.*)\\.(static) \\{\\}$");
+    private static final Pattern FIELD_NAME = Pattern.compile("^(.*)\\.([\\^.]*)$");
 
     private String               projectName;
     private MetricsConfiguration configuration;
@@ -55,12 +57,27 @@ public class MetricsFactory {
     private Map<String, Metrics> includedMethods  = new HashMap<String, Metrics>();
 
     private WordCounter counter = new WordCounter();
+
+    private boolean partial = false;
     
     public MetricsFactory(String projectName, MetricsConfiguration configuration) {
         this.projectName   = projectName;
         this.configuration = configuration;
     }
 
+    /**
+     *  Creates an empty factory with the same project name and
+     *  configuration, to gather metrics for some of the classes
+     *  and {@link #merge(MetricsFactory) merge} them back into this
+     *  one.  Partial factories leave out the measurements that come
+     *  from names alone, the merge adds those only once.
+     */
+    MetricsFactory createPartialFactory() {
+        MetricsFactory result = new MetricsFactory(getProjectName(), getConfiguration());
+        result.partial = true;
+        return result;
+    }
+
     public String getProjectName() {
         return projectName;
     }
@@ -128,7 +145,9 @@ public class MetricsFactory {
         Metrics result         = new Metrics(projectMetrics, name);
 
         populateMetrics(result, getConfiguration().getGroupMeasurements());
-        initializeGroupMetrics(name, result);
+        if (!partial) {
+            initializeGroupMetrics(name, result);
+        }
 
         return result;
     }
@@ -185,16 +204,21 @@ public class MetricsFactory {
         if (pos != -1) {
             packageName = name.substring(0, pos);
         }
-        String className = name.substring(pos + 1);
         Metrics packageMetrics = createGroupMetrics(packageName);
         Metrics result         = new Metrics(packageMetrics, name);
         
         populateMetrics(result, getConfiguration().getClassMeasurements());
-        initializeClassMetrics(className, result);
+        if (!partial) {
+            initializeClassMetrics(getClassName(name), result);
+        }
 
         return result;
     }
 
+    private static String getClassName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
     private void initializeClassMetrics(String className, Metrics metrics) {
         computeClassNameCharacterCount(className, metrics);
         computeClassNameWordCount(className, metrics);
@@ -249,23 +273,52 @@ public class MetricsFactory {
 
     private Metrics buildMethodMetrics(String name) {
         String className = "";
-        String featureName = "";
-        if (perl.match("/^(.*)\\.([^\\.]*)\\(.*\\)$/", name)) {
-            className = perl.group(1);
-            featureName = perl.group(2);
-        } else if (perl.match("/^(.*)\\.(static) {}$/", name)) {
-            className = perl.group(1);
-            featureName = perl.group(2);
-        } else if (perl.match("/^(.*)\\.([\\^.]*)$/", name)) {
-            className = perl.group(1);
-            featureName = perl.group(2);
+        Matcher matcher = matchMethodName(name);
+        if (matcher != null) {
+            className = matcher.group(1);
         }
         Metrics classMetrics = createClassMetrics(className);
         Metrics result       = new Metrics(classMetrics, name);
         classMetrics.addSubMetrics(result);
 
         populateMetrics(result, getConfiguration().getMethodMeasurements());
-        initializeMethodMetrics(featureName, result);
+        if (!partial) {
+            initializeMethodMetrics(getFeatureName(name), result);
+        }
+
+        return result;
+    }
+
+    /**
+     *  @return a match with the class name in group 1 and the
+     *          feature name in group 2, or <code>null</code>.
+     */
+    private static Matcher matchMethodName(String name) {
+        Matcher result = METHOD_NAME.matcher(name);
+        if (result.find()) {
+            return result;
+        }
+
+        result = STATIC_INITIALIZER_NAME.matcher(name);
+        if (result.find()) {
+            return result;
+        }
+
+        result = FIELD_NAME.matcher(name);
+        if (result.find()) {
+            return result;
+        }
+
+        return null;
+    }
+
+    private static String getFeatureName(String name) {
+        String result = "";
+
+        Matcher matcher = matchMethodName(name);
+        if (matcher != null) {
+            result = matcher.group(2);
+        }
 
         return result;
     }
@@ -317,6 +370,87 @@ public class MetricsFactory {
         includedMethods.clear();
     }
     
+    /**
+     *  Moves the metrics from a partial factory into this one.  Metrics
+     *  this factory does not have yet are taken over as is, the others
+     *  have their counters and name lists added to the ones here.
+     *  Merging the partial factories in the order of their classes
+     *  gives the same name lists as gathering everything in one
+     *  factory.  The partial factory cannot be used afterwards.
+     *
+     *  @see #createPartialFactory()
+     */
+    void merge(MetricsFactory partial) {
+        Map<Metrics, Metrics> merged = new IdentityHashMap<Metrics, Metrics>();
+
+        mergeMetrics(projects, partial.projects, merged);
+
+        for (Metrics metrics : mergeMetrics(groups, partial.groups, merged)) {
+            initializeGroupMetrics(metrics.getName(), metrics);
+        }
+
+        for (Metrics metrics : mergeMetrics(classes, partial.classes, merged)) {
+            initializeClassMetrics(getClassName(metrics.getName()), metrics);
+        }
+
+        for (Metrics metrics : mergeMetrics(methods, partial.methods, merged)) {
+            initializeMethodMetrics(getFeatureName(metrics.getName()), metrics);
+        }
+
+        for (Map.Entry<Metrics, Metrics> entry : merged.entrySet()) {
+            Metrics target = entry.getValue();
+
+            Collection<Metrics> submetrics = new ArrayList<Metrics>(entry.getKey().getSubMetrics());
+            if (target == entry.getKey()) {
+                target.clearSubMetrics();
+            }
+
+            for (Metrics metrics : submetrics) {
+                target.addSubMetrics(merged.get(metrics));
+            }
+        }
+
+        mergeIncludedMetrics(includedProjects, partial.includedProjects, merged);
+        mergeIncludedMetrics(includedGroups, partial.includedGroups, merged);
+        mergeIncludedMetrics(includedClasses, partial.includedClasses, merged);
+        mergeIncludedMetrics(includedMethods, partial.includedMethods, merged);
+
+        partial.clear();
+    }
+
+    /**
+     *  Parents must be merged before their children.
+     *
+     *  @return the metrics that were taken over from the partial factory.
+     */
+    private Collection<Metrics> mergeMetrics(Map<String, Metrics> target, Map<String, Metrics> source, Map<Metrics, Metrics> merged) {
+        Collection<Metrics> result = new ArrayList<Metrics>();
+
+        for (Metrics metrics : source.values()) {
+            Metrics existing = target.get(metrics.getName());
+
+            if (existing == null) {
+                if (metrics.getParent() != null) {
+                    metrics.setParent(merged.get(metrics.getParent()));
+                }
+                target.put(metrics.getName(), metrics);
+                merged.put(metrics, metrics);
+                result.add(metrics);
+            } else {
+                existing.mergeMeasurements(metrics);
+                merged.put(metrics, existing);
+            }
+        }
+
+        return result;
+    }
+
+    private void mergeIncludedMetrics(Map<String, Metrics> target, Map<String, Metrics> source, Map<Metrics, Metrics> merged) {
+        for (Metrics metrics : source.values()) {
+            target.put(metrics.getName(), merged.get(metrics));
+        }
+    }
+
     private void populateMetrics(Metrics metrics, Collection<MeasurementDescriptor> descriptors) {
         for (MeasurementDescriptor descriptor : descriptors) {
             try {
@@ -33,9 +33,9 @@
 package com.jeantessier.metrics;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.log4j.*;
-import org.apache.oro.text.perl.*;
 
 import com.jeantessier.classreader.*;
 
@@ -44,9 +44,21 @@ import com.jeantessier.classreader.*;
  *  
  *  This class can only approximate SLOC based on information provided
  *  by the compiler.
+ *
+ *  <p>With a thread count greater than one,
+ *  {@link #visitClassfiles(Collection)} splits the classfiles in
+ *  consecutive chunks and gathers each one in its own partial
+ *  {@link MetricsFactory} on a pool of worker threads.  It then
+ *  merges the partial factories into this gatherer's factory, in the
+ *  order of the chunks, for the same results as a single-threaded
+ *  run.  Listeners get their events one at a time, but in no
+ *  particular order between the beginning and the end of the session,
+ *  and with metrics from the partial factories.</p>
  */
 public class MetricsGatherer extends VisitorBase {
-    private static final Perl5Util perl = new Perl5Util();
+    public static final int DEFAULT_THREAD_COUNT = 1;
+
+    private static final int CHUNKS_PER_THREAD = 4;
 
     private MetricsFactory factory;
 
@@ -61,7 +73,9 @@ public class MetricsGatherer extends VisitorBase {
     private int sloc;
     private boolean isSynthetic;
     
-    private HashSet<MetricsListener> metricsListeners = new HashSet<MetricsListener>();
+    private Collection<MetricsListener> metricsListeners = new CopyOnWriteArraySet<MetricsListener>();
+
+    private int threadCount = DEFAULT_THREAD_COUNT;
 
     public MetricsGatherer(MetricsFactory factory) {
         this.factory = factory;
@@ -80,6 +94,23 @@ public class MetricsGatherer extends VisitorBase {
     public void setFilterIncludes(Collection<String> filter) {
         this.filter = filter;
     }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     *  Number of threads gathering metrics in
+     *  {@link #visitClassfiles(Collection)}.  The default of one
+     *  does everything on the calling thread.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1, not " + threadCount);
+        }
+
+        this.threadCount = threadCount;
+    }
     
     private Metrics getCurrentProject() {
         return currentProject;
@@ -116,10 +147,98 @@ public class MetricsGatherer extends VisitorBase {
     public void visitClassfiles(Collection<Classfile> classfiles) {
         fireBeginSession(classfiles.size());
 
-        super.visitClassfiles(classfiles);
+        if (getThreadCount() == 1 || classfiles.size() < 2) {
+            super.visitClassfiles(classfiles);
+        } else {
+            visitClassfilesInParallel(new ArrayList<Classfile>(classfiles));
+        }
         
         fireEndSession();
     }
+
+    private void visitClassfilesInParallel(List<Classfile> classfiles) {
+        int nbChunks = Math.min(classfiles.size(), getThreadCount() * CHUNKS_PER_THREAD);
+        Logger.getLogger(getClass()).debug("Gathering metrics in " + nbChunks + " chunks with " + getThreadCount() + " threads");
+
+        ExecutorService executor = Executors.newFixedThreadPool(getThreadCount());
+        try {
+            List<Future<MetricsFactory>> partialFactories = new ArrayList<Future<MetricsFactory>>(nbChunks);
+            for (int i = 0; i < nbChunks; i++) {
+                final Collection<Classfile> chunk = classfiles.subList(i * classfiles.size() / nbChunks, (i + 1) * classfiles.size() / nbChunks);
+                partialFactories.add(executor.submit(new Callable<MetricsFactory>() {
+                    public MetricsFactory call() {
+                        return gatherPartialMetrics(chunk);
+                    }
+                }));
+            }
+
+            for (Future<MetricsFactory> partialFactory : partialFactories) {
+                getMetricsFactory().merge(partialFactory.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while gathering metrics", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            } else {
+                throw new RuntimeException(ex.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     *  Runs on a worker thread, with a gatherer of its own that relays
+     *  its events to this one's listeners.
+     */
+    private MetricsFactory gatherPartialMetrics(Collection<Classfile> classfiles) {
+        MetricsGatherer gatherer = new MetricsGatherer(getMetricsFactory().createPartialFactory());
+        gatherer.setScopeIncludes(scope);
+        gatherer.setFilterIncludes(filter);
+        gatherer.addMetricsListener(new MetricsListener() {
+            public void beginSession(MetricsEvent event) {
+                // Do nothing
+            }
+
+            public void beginClass(MetricsEvent event) {
+                synchronized (MetricsGatherer.this) {
+                    fireBeginClass(event.getClassfile());
+                }
+            }
+
+            public void beginMethod(MetricsEvent event) {
+                synchronized (MetricsGatherer.this) {
+                    fireBeginMethod(event.getMethod());
+                }
+            }
+
+            public void endMethod(MetricsEvent event) {
+                synchronized (MetricsGatherer.this) {
+                    fireEndMethod(event.getMethod(), event.getMetrics());
+                }
+            }
+
+            public void endClass(MetricsEvent event) {
+                synchronized (MetricsGatherer.this) {
+                    fireEndClass(event.getClassfile(), event.getMetrics());
+                }
+            }
+
+            public void endSession(MetricsEvent event) {
+                // Do nothing
+            }
+        });
+
+        for (Classfile classfile : classfiles) {
+            classfile.accept(gatherer);
+        }
+
+        return gatherer.getMetricsFactory();
+    }
     
     // Classfile
     public void visitClassfile(Classfile classfile) {
@@ -486,7 +605,7 @@ public class MetricsGatherer extends VisitorBase {
         boolean result;
 
         if (helper.getOuterClassInfo().equals("")) {
-            result = perl.match("/^" + getCurrentClass().getName() + "\\$\\d+$/", helper.getInnerClassInfo());
+            result = isAnonymousClassOf(helper.getInnerClassInfo(), getCurrentClass().getName());
         } else {
             result = helper.getOuterClassInfo().equals(getCurrentClass().getName());
         }
@@ -494,6 +613,23 @@ public class MetricsGatherer extends VisitorBase {
         return result;
     }
 
+    /**
+     *  Anonymous classes are named after their outer class, followed by
+     *  <code>$</code> and a number.
+     */
+    private static boolean isAnonymousClassOf(String innerClassName, String outerClassName) {
+        String prefix = outerClassName + "$";
+
+        boolean result = innerClassName.length() > prefix.length() && innerClassName.startsWith(prefix);
+
+        for (int i = prefix.length(); result && i < innerClassName.length(); i++) {
+            char c = innerClassName.charAt(i);
+            result = c >= '0' && c <= '9';
+        }
+
+        return result;
+    }
+
     public void visitLineNumber(LineNumber helper) {
         sloc++;
     }
@@ -622,64 +758,52 @@ public class MetricsGatherer extends VisitorBase {
     }
 
     public void addMetricsListener(MetricsListener listener) {
-        synchronized(metricsListeners) {
-            metricsListeners.add(listener);
-        }
+        metricsListeners.add(listener);
     }
 
     public void removeMetricsListener(MetricsListener listener) {
-        synchronized(metricsListeners) {
-            metricsListeners.remove(listener);
-        }
+        metricsListeners.remove(listener);
     }
 
     protected void fireBeginSession(int size) {
         MetricsEvent event = new MetricsEvent(this, size);
-        for (MetricsListener listener : cloneListeners()) {
+        for (MetricsListener listener : metricsListeners) {
             listener.beginSession(event);
         }
     }
 
     protected void fireBeginClass(Classfile classfile) {
         MetricsEvent event = new MetricsEvent(this, classfile);
-        for (MetricsListener listener : cloneListeners()) {
+        for (MetricsListener listener : metricsListeners) {
             listener.beginClass(event);
         }
     }
 
     protected void fireBeginMethod(Method_info method) {
         MetricsEvent event = new MetricsEvent(this, method);
-        for (MetricsListener listener : cloneListeners()) {
+        for (MetricsListener listener : metricsListeners) {
             listener.beginMethod(event);
         }
     }
 
     protected void fireEndMethod(Method_info method, Metrics metrics) {
         MetricsEvent event = new MetricsEvent(this, method, metrics);
-        for (MetricsListener listener : cloneListeners()) {
+        for (MetricsListener listener : metricsListeners) {
             listener.endMethod(event);
         }
     }
 
     protected void fireEndClass(Classfile classfile, Metrics metrics) {
         MetricsEvent event = new MetricsEvent(this, classfile, metrics);
-        for (MetricsListener listener : cloneListeners()) {
+        for (MetricsListener listener : metricsListeners) {
             listener.endClass(event);
         }
     }
 
     protected void fireEndSession() {
         MetricsEvent event = new MetricsEvent(this);
-        for (MetricsListener listener : cloneListeners()) {
+        for (MetricsListener listener : metricsListeners) {
             listener.endSession(event);
         }
     }
-
-    private Collection<MetricsListener> cloneListeners() {
-        Collection<MetricsListener> result;
-        synchronized(metricsListeners) {
-            result = (Collection<MetricsListener>) metricsListeners.clone();
-        }
-        return result;
-    }
 }
@@ -79,6 +79,14 @@ public class NameListMeasurement extends MeasurementBase implements CollectionMe
         }
     }
 
+    /**
+     *  Adds the other list's values after this one's.  Used to
+     *  combine metrics that were gathered separately.
+     */
+    void merge(NameListMeasurement other) {
+        values.addAll(other.values);
+    }
+
     public void accept(MeasurementVisitor visitor) {
         visitor.visitNameListMeasurement(this);
     }
@@ -40,6 +40,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  *  Counts the number of submetrics according to selection
@@ -68,15 +70,13 @@ public class NbSubMetricsMeasurement extends MeasurementBase {
     private static final String EQUALS = "==";
     private static final String NOT_EQUALS = "!=";
 
-    private static final String OPERATORS_REGULAR_EXPRESSION =
-        "/" +
+    private static final Pattern OPERATORS = Pattern.compile(
         "(" + LESSER_THAN_OR_EQUAL + ")|" +
         "(" + LESSER_THAN + ")|" +
         "(" + GREATER_THAN_OR_EQUAL + ")|" +
         "(" + GREATER_THAN + ")|" +
         "(" + EQUALS + ")|" +
-        "(" + NOT_EQUALS + ")" +
-        "/";
+        "(" + NOT_EQUALS + ")");
 
     private static final double DELTA = 0.1;
 
@@ -159,8 +159,7 @@ public class NbSubMetricsMeasurement extends MeasurementBase {
 
         Logger.getLogger(getClass()).debug("EvaluateTerm(\"" + term + "\", " + metrics + ")");
         
-        List<String> elements = new ArrayList<String>();
-        perl().split(elements, OPERATORS_REGULAR_EXPRESSION, term);
+        List<String> elements = split(term);
 
         result = (elements.size() > 0) && ((elements.size() % 2) == 1);
         
@@ -217,6 +216,30 @@ public class NbSubMetricsMeasurement extends MeasurementBase {
         return result;
     }
 
+    /**
+     *  Splits the term around its operators, keeping the operators
+     *  in the result the way <code>Perl5Util.split()</code> used to,
+     *  including dropping trailing empty strings.
+     */
+    private static List<String> split(String term) {
+        List<String> result = new ArrayList<String>();
+
+        Matcher matcher = OPERATORS.matcher(term);
+        int start = 0;
+        while (matcher.find()) {
+            result.add(term.substring(start, matcher.start()));
+            result.add(matcher.group());
+            start = matcher.end();
+        }
+        result.add(term.substring(start));
+
+        while (!result.isEmpty() && result.get(result.size() - 1).length() == 0) {
+            result.remove(result.size() - 1);
+        }
+
+        return result;
+    }
+
     private double resolveOperand(String name, Metrics metrics) {
         double result = 0;
             
@@ -227,34 +250,33 @@ public class NbSubMetricsMeasurement extends MeasurementBase {
         if (name.length() != 0) {
             int dispose;
 
-            synchronized (perl()) {
-                if (perl().match("/(.*)\\s+(dispose_\\w+)$/i", name)) {
-                    name = perl().group(1);
-                    
-                    String disposeText = perl().group(2);
-                    
-                    if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
-                        dispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
-                        dispose = StatisticalMeasurement.DISPOSE_MINIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
-                        dispose = StatisticalMeasurement.DISPOSE_MEDIAN;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
-                        dispose = StatisticalMeasurement.DISPOSE_AVERAGE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
-                        dispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
-                        dispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
-                        dispose = StatisticalMeasurement.DISPOSE_SUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
-                        dispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
-                    } else {
-                        dispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    }
+            Matcher disposeMatcher = matchDispose(name);
+            if (disposeMatcher != null) {
+                name = disposeMatcher.group(1);
+                
+                String disposeText = disposeMatcher.group(2);
+                
+                if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
+                    dispose = StatisticalMeasurement.DISPOSE_IGNORE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
+                    dispose = StatisticalMeasurement.DISPOSE_MINIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
+                    dispose = StatisticalMeasurement.DISPOSE_MEDIAN;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
+                    dispose = StatisticalMeasurement.DISPOSE_AVERAGE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
+                    dispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
+                    dispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
+                    dispose = StatisticalMeasurement.DISPOSE_SUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
+                    dispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
                 } else {
                     dispose = StatisticalMeasurement.DISPOSE_IGNORE;
                 }
+            } else {
+                dispose = StatisticalMeasurement.DISPOSE_IGNORE;
             }
             
             Measurement measurement = metrics.getMeasurement(name);
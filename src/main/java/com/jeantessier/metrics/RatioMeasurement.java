@@ -33,6 +33,7 @@
 package com.jeantessier.metrics;
 
 import java.io.*;
+import java.util.regex.*;
 
 import org.apache.log4j.*;
 
@@ -66,64 +67,64 @@ public class RatioMeasurement extends MeasurementBase {
         try {
             BufferedReader in = new BufferedReader(new StringReader(initText));
 
-            synchronized (perl()) {
-                baseName = in.readLine().trim();
-                if (perl().match("/(.*)\\s+(dispose_\\w+)$/i", baseName)) {
-                    baseName = perl().group(1);
-                    
-                    String disposeText = perl().group(2);
-                    
-                    if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_MINIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_MEDIAN;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_AVERAGE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_SUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
-                        baseDispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
-                    } else {
-                        baseDispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    }
+            baseName = in.readLine().trim();
+            Matcher baseMatcher = matchDispose(baseName);
+            if (baseMatcher != null) {
+                baseName = baseMatcher.group(1);
+                
+                String disposeText = baseMatcher.group(2);
+                
+                if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_IGNORE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_MINIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_MEDIAN;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_AVERAGE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_SUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
+                    baseDispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
                 } else {
                     baseDispose = StatisticalMeasurement.DISPOSE_IGNORE;
                 }
+            } else {
+                baseDispose = StatisticalMeasurement.DISPOSE_IGNORE;
+            }
+            
+            dividerName = in.readLine().trim();
+            Matcher dividerMatcher = matchDispose(dividerName);
+            if (dividerMatcher != null) {
+                dividerName = dividerMatcher.group(1);
                 
-                dividerName = in.readLine().trim();
-                if (perl().match("/(.*)\\s+(dispose_\\w+)$/i", dividerName)) {
-                    dividerName = perl().group(1);
-                    
-                    String disposeText = perl().group(2);
-                    
-                    if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_MINIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_MEDIAN;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_AVERAGE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_SUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
-                    } else {
-                        dividerDispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    }
+                String disposeText = dividerMatcher.group(2);
+                
+                if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_IGNORE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_MINIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_MEDIAN;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_AVERAGE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_SUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
+                    dividerDispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
                 } else {
                     dividerDispose = StatisticalMeasurement.DISPOSE_IGNORE;
                 }
+            } else {
+                dividerDispose = StatisticalMeasurement.DISPOSE_IGNORE;
             }
 
             in.close();
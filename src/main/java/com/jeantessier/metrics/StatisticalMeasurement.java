@@ -34,7 +34,7 @@ package com.jeantessier.metrics;
 
 import java.io.*;
 import java.text.*;
-import java.util.*;
+import java.util.regex.*;
 
 import org.apache.log4j.*;
 
@@ -186,8 +186,6 @@ public class StatisticalMeasurement extends MeasurementBase {
     private int    dispose;
     private int    selfDispose;
     
-    private List<Double> data = new LinkedList<Double>();
-
     private double minimum           = 0.0;
     private double median            = 0.0;
     private double average           = 0.0;
@@ -205,34 +203,33 @@ public class StatisticalMeasurement extends MeasurementBase {
             BufferedReader in = new BufferedReader(new StringReader(initText));
             monitoredMeasurement = in.readLine().trim();
 
-            synchronized (perl()) {
-                if (perl().match("/(.*)\\s+(dispose_\\w+)$/i", monitoredMeasurement)) {
-                    monitoredMeasurement = perl().group(1);
-                    
-                    String disposeText = perl().group(2);
-                    
-                    if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
-                        dispose = DISPOSE_IGNORE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
-                        dispose = DISPOSE_MINIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
-                        dispose = DISPOSE_MEDIAN;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
-                        dispose = DISPOSE_AVERAGE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
-                        dispose = DISPOSE_STANDARD_DEVIATION;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
-                        dispose = DISPOSE_MAXIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
-                        dispose = DISPOSE_SUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
-                        dispose = DISPOSE_NB_DATA_POINTS;
-                    } else {
-                        dispose = DISPOSE_IGNORE;
-                    }
+            Matcher disposeMatcher = matchDispose(monitoredMeasurement);
+            if (disposeMatcher != null) {
+                monitoredMeasurement = disposeMatcher.group(1);
+                
+                String disposeText = disposeMatcher.group(2);
+                
+                if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
+                    dispose = DISPOSE_IGNORE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
+                    dispose = DISPOSE_MINIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
+                    dispose = DISPOSE_MEDIAN;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
+                    dispose = DISPOSE_AVERAGE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
+                    dispose = DISPOSE_STANDARD_DEVIATION;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
+                    dispose = DISPOSE_MAXIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
+                    dispose = DISPOSE_SUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
+                    dispose = DISPOSE_NB_DATA_POINTS;
                 } else {
                     dispose = DISPOSE_IGNORE;
                 }
+            } else {
+                dispose = DISPOSE_IGNORE;
             }
 
             String selfDisposeText = in.readLine();
@@ -312,46 +309,20 @@ public class StatisticalMeasurement extends MeasurementBase {
         if (getContext().getSubMetrics().size() != nbSubmetrics) {
             synchronized (this) {
                 if (getContext().getSubMetrics().size() != nbSubmetrics) {
-                    data = new LinkedList<Double>();
+                    StatisticsAccumulator data = new StatisticsAccumulator();
                     setEmpty(true);
 
                     for (Metrics metrics : getContext().getSubMetrics()) {
-                        visitMetrics(metrics);
-                    }
-                    
-                    if (!data.isEmpty()) {
-                        Collections.sort(data);
-                        
-                        minimum      = data.get(0);
-                        median       = data.get(data.size() / 2);
-                        maximum      = data.get(data.size() - 1);
-                        nbDataPoints = data.size();
-                        
-                        sum = 0.0;
-                        for (Double number : data) {
-                            sum += number;
-                        }
-                    } else {
-                        minimum      = Double.NaN;
-                        median       = Double.NaN;
-                        maximum      = Double.NaN;
-                        nbDataPoints = 0;
-                        sum            = 0.0;
+                        visitMetrics(metrics, data);
                     }
                     
-                    average = sum / nbDataPoints;
-                    
-                    if (!data.isEmpty()) {
-                        double temp = 0.0;
-
-                        for (Double number : data) {
-                            temp += Math.pow(number - average, 2);
-                        }
-                        
-                        standardDeviation = Math.sqrt(temp / nbDataPoints);
-                    } else {
-                        standardDeviation = Double.NaN;
-                    }
+                    minimum           = data.getMinimum();
+                    median            = data.getMedian();
+                    average           = data.getAverage();
+                    standardDeviation = data.getStandardDeviation();
+                    maximum           = data.getMaximum();
+                    sum               = data.getSum();
+                    nbDataPoints      = data.size();
                     
                     nbSubmetrics = getContext().getSubMetrics().size();
                 }
@@ -359,7 +330,7 @@ public class StatisticalMeasurement extends MeasurementBase {
         }
     }
     
-    private void visitMetrics(Metrics metrics) {
+    private void visitMetrics(Metrics metrics, StatisticsAccumulator data) {
         Logger.getLogger(getClass()).debug("VisitMetrics: " + metrics.getName());
         
         Measurement measurement = metrics.getMeasurement(monitoredMeasurement);
@@ -411,14 +382,14 @@ public class StatisticalMeasurement extends MeasurementBase {
                 default:
                     Logger.getLogger(getClass()).debug("Skipping to next level ...");
                     for (Metrics subMetrics : metrics.getSubMetrics()) {
-                        visitMetrics(subMetrics);
+                        visitMetrics(subMetrics, data);
                     }
                     break;
             }
         } else if (measurement instanceof NullMeasurement) {
             Logger.getLogger(getClass()).debug("Skipping to next level ...");
             for (Metrics subMetrics : metrics.getSubMetrics()) {
-                visitMetrics(subMetrics);
+                visitMetrics(subMetrics, data);
             }
         } else {
             Number value = measurement.getValue();
@@ -0,0 +1,201 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.metrics;
+
+import java.util.*;
+
+/**
+ *  <p>Collects data points in a growing <code>double</code> array and
+ *  keeps the minimum, maximum, sum, and variance up to date as they
+ *  come in, using Welford's method for the variance.  The median is
+ *  found with a three-way quickselect on a copy of the data, in
+ *  expected linear time, and is remembered until the next data point
+ *  comes in.</p>
+ *
+ *  <p>Values are ordered like {@link Double#compare(double, double)},
+ *  the same as sorting a list of <code>Double</code>, so
+ *  <code>NaN</code> counts as larger than everything else.  The
+ *  median is the element at index <code>size / 2</code> of the sorted
+ *  data, the upper one when there is an even number of data
+ *  points.</p>
+ */
+class StatisticsAccumulator {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] data = new double[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private double minimum = Double.NaN;
+    private double maximum = Double.NaN;
+    private double sum = 0.0;
+    private double mean = 0.0;
+    private double sumOfSquaredDeviations = 0.0;
+
+    private double median = Double.NaN;
+    private boolean medianIsValid = true;
+
+    public void add(double value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, size * 2);
+        }
+        data[size++] = value;
+
+        if (size == 1 || Double.compare(value, minimum) < 0) {
+            minimum = value;
+        }
+        if (size == 1 || Double.compare(value, maximum) > 0) {
+            maximum = value;
+        }
+
+        sum += value;
+
+        double delta = value - mean;
+        mean += delta / size;
+        sumOfSquaredDeviations += delta * (value - mean);
+
+        medianIsValid = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getMinimum() {
+        return minimum;
+    }
+
+    public double getMaximum() {
+        return maximum;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     *  @return <code>NaN</code> if there are no data points.
+     */
+    public double getAverage() {
+        return sum / size;
+    }
+
+    /**
+     *  Real standard deviation of the data set.
+     *  This is NOT the estimator "s".
+     *
+     *  @return <code>NaN</code> if there are no data points.
+     */
+    public double getStandardDeviation() {
+        double result = Double.NaN;
+
+        if (size > 0) {
+            result = Math.sqrt(sumOfSquaredDeviations / size);
+        }
+
+        return result;
+    }
+
+    /**
+     *  @return <code>NaN</code> if there are no data points.
+     */
+    public double getMedian() {
+        if (!medianIsValid) {
+            median = select(Arrays.copyOf(data, size), size / 2);
+            medianIsValid = true;
+        }
+
+        return median;
+    }
+
+    /**
+     *  Finds the k-th smallest value, rearranging the array as it
+     *  goes.  The three-way partition keeps it linear when there are
+     *  many equal values, as is common with metrics.
+     */
+    private static double select(double[] values, int k) {
+        int low = 0;
+        int high = values.length - 1;
+
+        while (low < high) {
+            double pivot = medianOfThree(values[low], values[(low + high) >>> 1], values[high]);
+
+            int lessThan = low;
+            int i = low;
+            int greaterThan = high;
+            while (i <= greaterThan) {
+                int comparison = Double.compare(values[i], pivot);
+                if (comparison < 0) {
+                    swap(values, lessThan++, i++);
+                } else if (comparison > 0) {
+                    swap(values, i, greaterThan--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lessThan) {
+                high = lessThan - 1;
+            } else if (k > greaterThan) {
+                low = greaterThan + 1;
+            } else {
+                return values[k];
+            }
+        }
+
+        return values[k];
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        if (Double.compare(a, b) > 0) {
+            double temp = a;
+            a = b;
+            b = temp;
+        }
+
+        if (Double.compare(b, c) > 0) {
+            b = c;
+        }
+
+        return Double.compare(a, b) > 0 ? a : b;
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+}
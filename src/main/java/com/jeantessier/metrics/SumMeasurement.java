@@ -34,6 +34,7 @@ package com.jeantessier.metrics;
 
 import java.io.*;
 import java.util.*;
+import java.util.regex.*;
 
 import org.apache.log4j.*;
 
@@ -149,34 +150,33 @@ public class SumMeasurement extends MeasurementBase {
         if (name.length() != 0) {
             int dispose;
             
-            synchronized (perl()) {
-                if (perl().match("/(.*)\\s+(dispose_\\w+)$/i", name)) {
-                    name = perl().group(1);
-                    
-                    String disposeText = perl().group(2);
-                    
-                    if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
-                        dispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
-                        dispose = StatisticalMeasurement.DISPOSE_MINIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
-                        dispose = StatisticalMeasurement.DISPOSE_MEDIAN;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
-                        dispose = StatisticalMeasurement.DISPOSE_AVERAGE;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
-                        dispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
-                        dispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
-                        dispose = StatisticalMeasurement.DISPOSE_SUM;
-                    } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
-                        dispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
-                    } else {
-                        dispose = StatisticalMeasurement.DISPOSE_IGNORE;
-                    }
+            Matcher disposeMatcher = matchDispose(name);
+            if (disposeMatcher != null) {
+                name = disposeMatcher.group(1);
+                
+                String disposeText = disposeMatcher.group(2);
+                
+                if (disposeText.equalsIgnoreCase("DISPOSE_IGNORE")) {
+                    dispose = StatisticalMeasurement.DISPOSE_IGNORE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MINIMUM")) {
+                    dispose = StatisticalMeasurement.DISPOSE_MINIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MEDIAN")) {
+                    dispose = StatisticalMeasurement.DISPOSE_MEDIAN;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_AVERAGE")) {
+                    dispose = StatisticalMeasurement.DISPOSE_AVERAGE;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_STANDARD_DEVIATION")) {
+                    dispose = StatisticalMeasurement.DISPOSE_STANDARD_DEVIATION;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_MAXIMUM")) {
+                    dispose = StatisticalMeasurement.DISPOSE_MAXIMUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_SUM")) {
+                    dispose = StatisticalMeasurement.DISPOSE_SUM;
+                } else if (disposeText.equalsIgnoreCase("DISPOSE_NB_DATA_POINTS")) {
+                    dispose = StatisticalMeasurement.DISPOSE_NB_DATA_POINTS;
                 } else {
                     dispose = StatisticalMeasurement.DISPOSE_IGNORE;
                 }
+            } else {
+                dispose = StatisticalMeasurement.DISPOSE_IGNORE;
             }
             
             Measurement measurement = getContext().getMeasurement(name);
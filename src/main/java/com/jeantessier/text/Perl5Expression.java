@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.text;
+
+import org.apache.oro.text.perl.*;
+import org.apache.oro.text.regex.*;
+
+/**
+ *  <p>A Perl-style regular expression, like <code>/^java\./</code> or
+ *  <code>m=Test=i</code>, split into its body and options the same way
+ *  {@link Perl5Util} does.</p>
+ *
+ *  <p>Unlike <code>Perl5Util</code>, which keeps the last match in its
+ *  own state and must be locked by callers who share it, the
+ *  {@link Pattern} from {@link #compile()} is compiled with
+ *  <code>READ_ONLY_MASK</code>, so matchers never write to it, and it
+ *  can be used from many threads at once, each with its own matcher
+ *  from {@link #matcher()}.</p>
+ */
+public final class Perl5Expression {
+    private static final Pattern FORMAT;
+    static {
+        try {
+            FORMAT = new Perl5Compiler().compile("m?(\\W)(.*)\\1([imsx]*)", Perl5Compiler.SINGLELINE_MASK | Perl5Compiler.READ_ONLY_MASK);
+        } catch (MalformedPatternException ex) {
+            throw new RuntimeException(ex.getMessage());
+        }
+    }
+
+    private static final ThreadLocal<Perl5Matcher> matcher = new ThreadLocal<Perl5Matcher>() {
+        protected Perl5Matcher initialValue() {
+            return new Perl5Matcher();
+        }
+    };
+
+    private final String body;
+    private final String options;
+
+    private Perl5Expression(String body, String options) {
+        this.body = body;
+        this.options = options;
+    }
+
+    /**
+     *  @throws MalformedPerl5PatternException if the expression is not in
+     *          the <code>m/regex/options</code> format.
+     */
+    public static Perl5Expression parse(String expression) {
+        Perl5Matcher formatMatcher = new Perl5Matcher();
+        if (!formatMatcher.matches(expression, FORMAT)) {
+            throw new MalformedPerl5PatternException("Invalid expression: " + expression);
+        }
+
+        MatchResult match = formatMatcher.getMatch();
+        return new Perl5Expression(match.group(2), match.group(3));
+    }
+
+    /**
+     *  Shortcut for <code>parse(expression).compile()</code>.
+     */
+    public static Pattern compile(String expression) {
+        return parse(expression).compile();
+    }
+
+    /**
+     *  A matcher for use by the current thread only.
+     */
+    public static Perl5Matcher matcher() {
+        return matcher.get();
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String getOptions() {
+        return options;
+    }
+
+    /**
+     *  @throws MalformedPerl5PatternException if the regular expression is
+     *          malformed.
+     */
+    public Pattern compile() {
+        try {
+            return new Perl5Compiler().compile(getBody(), getCompilerOptions());
+        } catch (MalformedPatternException ex) {
+            throw new MalformedPerl5PatternException(ex.getMessage());
+        }
+    }
+
+    private int getCompilerOptions() {
+        int result = Perl5Compiler.DEFAULT_MASK | Perl5Compiler.READ_ONLY_MASK;
+
+        for (int i = 0; i < options.length(); i++) {
+            switch (options.charAt(i)) {
+                case 'i':
+                    result |= Perl5Compiler.CASE_INSENSITIVE_MASK;
+                    break;
+                case 'm':
+                    result |= Perl5Compiler.MULTILINE_MASK;
+                    break;
+                case 's':
+                    result |= Perl5Compiler.SINGLELINE_MASK;
+                    break;
+                case 'x':
+                    result |= Perl5Compiler.EXTENDED_MASK;
+                    break;
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.text;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.oro.text.*;
+import org.apache.oro.text.perl.*;
+import org.apache.oro.text.regex.*;
+
+/**
+ *  <p>Matches names against a set of Perl-style regular expressions, like
+ *  <code>/^java\./</code> or <code>m=Test=i</code>, the way
+ *  {@link Perl5Util#match(String, String)} would, but much faster when
+ *  there are many of them.</p>
+ *
+ *  <p>Each expression is analyzed once, when it is added.  Expressions
+ *  without options whose body is plain text, optionally anchored with
+ *  <code>^</code> and <code>$</code>, do not need a regular expression
+ *  engine at all: exact names go in a hash set, prefixes in a sorted
+ *  set, and suffixes and substrings are checked with plain
+ *  <code>String</code> methods.  Only the remaining expressions are
+ *  compiled with the Perl5 compiler from Jakarta ORO.  When some are,
+ *  verdicts are cached by name, since the same names come up over and
+ *  over while extracting dependencies.</p>
+ *
+ *  <p>Once populated, a set can be shared between threads.  The
+ *  compiled patterns are read-only (see {@link Perl5Expression}) and
+ *  each thread matches with its own matcher.</p>
+ */
+public class RegularExpressionSet {
+    private static final int MAX_CACHED_VERDICTS = 10000;
+
+    private Set<String> names = new HashSet<String>();
+    private NavigableSet<String> prefixes = new TreeSet<String>();
+    private List<String> suffixes = new ArrayList<String>();
+    private List<String> substrings = new ArrayList<String>();
+    private List<Pattern> patterns = new ArrayList<Pattern>();
+
+    private Map<String, Boolean> verdicts = new ConcurrentHashMap<String, Boolean>();
+
+    public RegularExpressionSet() {
+        // Empty set
+    }
+
+    public RegularExpressionSet(Collection<String> expressions) {
+        for (String expression : expressions) {
+            add(expression);
+        }
+    }
+
+    /**
+     *  @throws MalformedPerl5PatternException if the expression is not in
+     *          the <code>m/regex/options</code> format or if the regular
+     *          expression in it is malformed.
+     */
+    public void add(String expression) {
+        Perl5Expression parsedExpression = Perl5Expression.parse(expression);
+
+        if (parsedExpression.getOptions().length() > 0 || !addLiteral(parsedExpression.getBody())) {
+            patterns.add(parsedExpression.compile());
+        }
+
+        verdicts.clear();
+    }
+
+    public boolean isEmpty() {
+        return names.isEmpty() && prefixes.isEmpty() && suffixes.isEmpty() && substrings.isEmpty() && patterns.isEmpty();
+    }
+
+    /**
+     *  Whether at least one of the expressions matches somewhere in
+     *  <code>name</code>.
+     */
+    public boolean matches(String name) {
+        if (names.contains(name) || matchesPrefix(name) || matchesSuffix(name) || matchesSubstring(name)) {
+            return true;
+        }
+
+        if (patterns.isEmpty()) {
+            return false;
+        }
+
+        Boolean result = verdicts.get(name);
+        if (result == null) {
+            result = matchesPattern(name);
+            if (verdicts.size() >= MAX_CACHED_VERDICTS) {
+                verdicts.clear();
+            }
+            verdicts.put(name, result);
+        }
+
+        return result;
+    }
+
+    private boolean matchesPrefix(String name) {
+        // The prefixes never start with one another, so only the
+        // greatest one that is not after the name can be its prefix.
+        String prefix = prefixes.floor(name);
+        return prefix != null && name.startsWith(prefix);
+    }
+
+    private boolean matchesSuffix(String name) {
+        for (String suffix : suffixes) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean matchesSubstring(String name) {
+        for (String substring : substrings) {
+            if (name.contains(substring)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean matchesPattern(String name) {
+        Perl5Matcher perl5Matcher = Perl5Expression.matcher();
+        for (Pattern pattern : patterns) {
+            if (perl5Matcher.contains(name, pattern)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     *  Files the body of an expression by what kind of plain text it
+     *  stands for, if it is plain text.
+     *
+     *  @return false if the body needs a regular expression engine.
+     */
+    private boolean addLiteral(String body) {
+        boolean startAnchor = body.startsWith("^");
+        boolean endAnchor = false;
+
+        StringBuilder text = new StringBuilder(body.length());
+        int last = body.length() - 1;
+        for (int i = startAnchor ? 1 : 0; i <= last; i++) {
+            char c = body.charAt(i);
+            if (c == '\\') {
+                if (i == last || Character.isLetterOrDigit(body.charAt(i + 1))) {
+                    return false;
+                }
+                text.append(body.charAt(++i));
+            } else if (c == '$' && i == last) {
+                endAnchor = true;
+            } else if (".[]{}()*+?|^$".indexOf(c) >= 0) {
+                return false;
+            } else {
+                text.append(c);
+            }
+        }
+
+        String literal = text.toString();
+        if (startAnchor && endAnchor) {
+            names.add(literal);
+        } else if (startAnchor) {
+            addPrefix(literal);
+        } else if (endAnchor) {
+            suffixes.add(literal);
+        } else {
+            substrings.add(literal);
+        }
+
+        return true;
+    }
+
+    private void addPrefix(String prefix) {
+        String floor = prefixes.floor(prefix);
+        if (floor != null && prefix.startsWith(floor)) {
+            return;
+        }
+
+        Iterator<String> i = prefixes.tailSet(prefix, true).iterator();
+        while (i.hasNext() && i.next().startsWith(prefix)) {
+            i.remove();
+        }
+
+        prefixes.add(prefix);
+    }
+}
@@ -86,4 +86,33 @@ public class TestAggregatingClassfileLoader extends TestCase {
 
         assertNotNull("No Classfile from " + TEST_FILENAME, loader.getClassfile(TEST_CLASS));
     }
+
+    public void testAllAttributeTypesByDefault() {
+        loader.load(Collections.singleton(TEST_FILENAME));
+
+        Classfile classfile = loader.getClassfile(TEST_CLASS);
+        assertFalse("Class attributes", classfile.getAttributes().isEmpty());
+        for (Method_info method : classfile.getAllMethods()) {
+            assertFalse("Code attributes of " + method, method.getCode().getAttributes().isEmpty());
+        }
+    }
+
+    public void testOnlyRequestedAttributeTypes() {
+        loader = new AggregatingClassfileLoader(EnumSet.of(AttributeType.CODE));
+        loader.load(Collections.singleton(TEST_FILENAME));
+
+        Classfile classfile = loader.getClassfile(TEST_CLASS);
+        assertOnlyCustomAttributes("Class attributes", classfile.getAttributes());
+        for (Method_info method : classfile.getAllMethods()) {
+            assertEquals("Attributes of " + method, 1, method.getAttributes().size());
+            assertNotNull("Code of " + method, method.getCode());
+            assertOnlyCustomAttributes("Code attributes of " + method, method.getCode().getAttributes());
+        }
+    }
+
+    private void assertOnlyCustomAttributes(String message, Collection<? extends Attribute_info> attributes) {
+        for (Attribute_info attribute : attributes) {
+            assertTrue(message + ": " + attribute, attribute instanceof Custom_attribute);
+        }
+    }
 }
@@ -52,6 +52,8 @@ import static org.junit.runners.Suite.SuiteClasses;
         TestDirectoryExplorer.class,
         TestAggregatingClassfileLoader.class,
         TestTransientClassfileLoader.class,
+        TestByteBufferInputStream.class,
+        TestClassfileLoaderEventSourceWithThreads.class,
         TestDirectoryClassfileLoader.class,
         TestClassfile.class,
         TestPermissiveDispatcher.class,
@@ -69,11 +71,14 @@ import static org.junit.runners.Suite.SuiteClasses;
         TestXMLPrinterEscaping.class,
         TestDeprecationPrinter.class,
         TestLoadListenerDecorator.class,
+        TestSynchronizedLoadListener.class,
         TestGroupFilteringLoadListener.class,
         TestFileFilteringLoadListener.class,
         TestClassfileFilteringLoadListener.class,
         TestLoadListenerVisitorAdapter.class,
         TestMonitor.class,
+        TestIncrementalClassfileLoader.class,
+        TestClassfileIndex.class,
         TestSymbolGathererStrategyDecorator.class,
         TestFilteringSymbolGathererStrategy.class,
         TestNonPrivateFieldSymbolGathererStrategy.class,
@@ -0,0 +1,164 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.*;
+
+import junit.framework.*;
+
+public class TestByteBufferInputStream extends TestCase {
+    private byte[] bytes;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeBoolean(true);
+        out.writeByte(-2);
+        out.writeByte(0xFE);
+        out.writeShort(-3);
+        out.writeShort(0xFFFD);
+        out.writeChar('\u20ac');
+        out.writeInt(0xCAFEBABE);
+        out.writeLong(Long.MIN_VALUE + 1);
+        out.writeFloat(3.14f);
+        out.writeDouble(Math.E);
+        out.writeUTF("caf\u00e9");
+        out.writeBytes("first line\r\nsecond line\n");
+        out.close();
+
+        bytes = buffer.toByteArray();
+    }
+
+    public void testReadsLikeDataInputStream() throws IOException {
+        DataInput expected = new DataInputStream(new ByteArrayInputStream(bytes));
+        DataInput actual = new ByteBufferInputStream(bytes);
+
+        assertEquals("boolean", expected.readBoolean(), actual.readBoolean());
+        assertEquals("byte", expected.readByte(), actual.readByte());
+        assertEquals("unsigned byte", expected.readUnsignedByte(), actual.readUnsignedByte());
+        assertEquals("short", expected.readShort(), actual.readShort());
+        assertEquals("unsigned short", expected.readUnsignedShort(), actual.readUnsignedShort());
+        assertEquals("char", expected.readChar(), actual.readChar());
+        assertEquals("int", expected.readInt(), actual.readInt());
+        assertEquals("long", expected.readLong(), actual.readLong());
+        assertEquals("float", expected.readFloat(), actual.readFloat());
+        assertEquals("double", expected.readDouble(), actual.readDouble());
+        assertEquals("UTF", expected.readUTF(), actual.readUTF());
+        assertEquals("line", expected.readLine(), actual.readLine());
+        assertEquals("line", expected.readLine(), actual.readLine());
+        assertEquals("end", expected.readLine(), actual.readLine());
+    }
+
+    public void testReadsLikeInputStream() throws IOException {
+        InputStream sut = new ByteBufferInputStream(bytes);
+
+        assertEquals("available", bytes.length, sut.available());
+        assertEquals("first byte", bytes[0] & 0xFF, sut.read());
+        assertEquals("skip", 2, sut.skip(2));
+
+        byte[] buffer = new byte[bytes.length];
+        assertEquals("read", bytes.length - 3, sut.read(buffer, 0, buffer.length));
+        assertEquals("fourth byte", bytes[3], buffer[0]);
+
+        assertEquals("end", -1, sut.read());
+        assertEquals("end", -1, sut.read(buffer, 0, buffer.length));
+    }
+
+    public void testReadFullyPastEnd() throws IOException {
+        DataInput sut = new ByteBufferInputStream(new byte[] {1, 2, 3});
+
+        try {
+            sut.readFully(new byte[4]);
+            fail("Read past end of buffer");
+        } catch (EOFException ex) {
+            // Expected
+        }
+    }
+
+    public void testReadIntPastEnd() throws IOException {
+        DataInput sut = new ByteBufferInputStream(new byte[] {1, 2, 3});
+
+        try {
+            sut.readInt();
+            fail("Read past end of buffer");
+        } catch (EOFException ex) {
+            // Expected
+        }
+    }
+
+    public void testMarkAndReset() throws IOException {
+        InputStream sut = new ByteBufferInputStream(new byte[] {1, 2, 3});
+
+        assertTrue("mark supported", sut.markSupported());
+        assertEquals(1, sut.read());
+        sut.mark(2);
+        assertEquals(2, sut.read());
+        sut.reset();
+        assertEquals(2, sut.read());
+    }
+
+    public void testGetBufferIsWhatIsLeft() throws IOException {
+        ByteBufferInputStream sut = new ByteBufferInputStream(new byte[] {1, 2, 3});
+        sut.read();
+
+        ByteBuffer buffer = sut.getBuffer();
+        assertEquals("remaining", 2, buffer.remaining());
+        assertEquals("first", 2, buffer.get());
+    }
+
+    public void testDoesNotMoveCallersBuffer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {1, 2, 3});
+
+        new ByteBufferInputStream(buffer).readShort();
+
+        assertEquals("position", 0, buffer.position());
+    }
+
+    public void testLoadsBufferOnFirstRead() throws IOException {
+        final int[] nbLoads = {0};
+        InputStream sut = new ByteBufferInputStream() {
+            protected ByteBuffer loadBuffer() {
+                nbLoads[0]++;
+                return ByteBuffer.wrap(new byte[] {1, 2, 3});
+            }
+        };
+
+        assertEquals("before reading", 0, nbLoads[0]);
+        assertEquals(1, sut.read());
+        assertEquals(2, sut.read());
+        assertEquals("after reading", 1, nbLoads[0]);
+    }
+}
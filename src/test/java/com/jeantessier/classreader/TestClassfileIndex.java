@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestClassfileIndex extends TestCase {
+    public void testRoundTrip() throws IOException {
+        Map<String, String> digests = new HashMap<String, String>();
+        digests.put("classes/a/A.class", "0123");
+        digests.put("lib/b.jar!/b/B.class", "4567");
+        digests.put("lib/b.jar!/broken.class", "89ab");
+
+        Map<String, String> classNames = new HashMap<String, String>();
+        classNames.put("classes/a/A.class", "a.A");
+        classNames.put("lib/b.jar!/b/B.class", "b.B");
+        classNames.put("classes/gone/Gone.class", "gone.Gone");
+
+        StringWriter out = new StringWriter();
+        new ClassfileIndex(digests, classNames).save(out);
+
+        ClassfileIndex index = new ClassfileIndex();
+        index.load(new BufferedReader(new StringReader(out.toString())));
+
+        assertEquals("digests", digests, index.getDigests());
+
+        classNames.remove("classes/gone/Gone.class");
+        assertEquals("class names", classNames, index.getClassNames());
+    }
+
+    public void testFilenameWithTab() throws IOException {
+        String filename = "odd\tdirectory/A.class";
+
+        StringWriter out = new StringWriter();
+        new ClassfileIndex(Collections.singletonMap(filename, "0123"), Collections.singletonMap(filename, "A")).save(out);
+
+        ClassfileIndex index = new ClassfileIndex();
+        index.load(new BufferedReader(new StringReader(out.toString())));
+
+        assertEquals("digest", "0123", index.getDigests().get(filename));
+        assertEquals("class name", "A", index.getClassNames().get(filename));
+    }
+
+    public void testMalformedEntry() {
+        try {
+            new ClassfileIndex().load(new BufferedReader(new StringReader("0123 A classes/A.class\n")));
+            fail("Loaded malformed index");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+}
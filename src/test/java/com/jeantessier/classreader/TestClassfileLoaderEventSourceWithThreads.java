@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestClassfileLoaderEventSourceWithThreads extends TestCase {
+    public static final String TEST_DIR = "tests" + File.separator + "JarJarDiff";
+
+    private Collection<String> filenames;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        filenames = new ArrayList<String>();
+        filenames.add(TEST_DIR + File.separator + "onelevel.jar");
+        filenames.add(TEST_DIR + File.separator + "twolevel.zip");
+        filenames.add(TEST_DIR + File.separator + "new");
+
+        for (String filename : filenames) {
+            assertTrue(filename + " missing", new File(filename).exists());
+        }
+    }
+
+    public void testDefaultThreadCount() {
+        assertEquals("thread count", ClassfileLoaderEventSource.DEFAULT_THREAD_COUNT, new TransientClassfileLoader().getThreadCount());
+    }
+
+    public void testIllegalThreadCount() {
+        try {
+            new TransientClassfileLoader().setThreadCount(0);
+            fail("Accepted thread count of zero");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testSameEventsAsSingleThread() {
+        List<String> expectedEvents = loadWithThreads(new AggregatingClassfileLoader(), 1);
+        List<String> actualEvents = loadWithThreads(new AggregatingClassfileLoader(), 4);
+
+        assertTrue("no events", expectedEvents.size() > 2);
+        assertEquals("events", expectedEvents, actualEvents);
+    }
+
+    public void testSameClassfilesAsSingleThread() {
+        AggregatingClassfileLoader expectedLoader = new AggregatingClassfileLoader();
+        loadWithThreads(expectedLoader, 1);
+
+        AggregatingClassfileLoader actualLoader = new AggregatingClassfileLoader();
+        loadWithThreads(actualLoader, 4);
+
+        assertEquals("class names", new ArrayList<String>(expectedLoader.getAllClassNames()), new ArrayList<String>(actualLoader.getAllClassNames()));
+        for (String className : expectedLoader.getAllClassNames()) {
+            assertEquals(className, expectedLoader.getClassfile(className).getDeclaration(), actualLoader.getClassfile(className).getDeclaration());
+        }
+    }
+
+    public void testLoaderIsReusable() {
+        TransientClassfileLoader loader = new TransientClassfileLoader();
+
+        List<String> firstEvents = loadWithThreads(loader, 2);
+        List<String> secondEvents = loadWithThreads(loader, 2);
+
+        assertEquals("events", firstEvents, secondEvents);
+    }
+
+    private List<String> loadWithThreads(ClassfileLoaderEventSource loader, int threadCount) {
+        EventRecorder recorder = new EventRecorder();
+
+        loader.setThreadCount(threadCount);
+        loader.addLoadListener(recorder);
+        loader.load(filenames);
+        loader.removeLoadListener(recorder);
+
+        return recorder.getEvents();
+    }
+
+    private static class EventRecorder implements LoadListener {
+        private List<String> events = new LinkedList<String>();
+        private Thread thread = Thread.currentThread();
+
+        public List<String> getEvents() {
+            return events;
+        }
+
+        public void beginSession(LoadEvent event) {
+            record("beginSession", event);
+        }
+
+        public void beginGroup(LoadEvent event) {
+            record("beginGroup", event);
+        }
+
+        public void beginFile(LoadEvent event) {
+            record("beginFile", event);
+        }
+
+        public void beginClassfile(LoadEvent event) {
+            record("beginClassfile", event);
+        }
+
+        public void endClassfile(LoadEvent event) {
+            record("endClassfile", event);
+        }
+
+        public void endFile(LoadEvent event) {
+            record("endFile", event);
+        }
+
+        public void endGroup(LoadEvent event) {
+            record("endGroup", event);
+        }
+
+        public void endSession(LoadEvent event) {
+            record("endSession", event);
+        }
+
+        private void record(String type, LoadEvent event) {
+            assertSame("listener called from another thread", thread, Thread.currentThread());
+            events.add(type + " " + event.getGroupName() + " " + event.getFilename() + " " + event.getClassfile() + " " + event.getSize());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestIncrementalClassfileLoader extends TestCase {
+    public static final String TEST_DIR = "tests" + File.separator + "JarJarDiff";
+    public static final String TEST_JAR = TEST_DIR + File.separator + "onelevel.jar";
+    public static final String TEST_CLASSES = TEST_DIR + File.separator + "new";
+
+    private Collection<String> filenames;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        filenames = new ArrayList<String>();
+        filenames.add(TEST_JAR);
+        filenames.add(TEST_CLASSES);
+    }
+
+    public void testFirstRunParsesEverything() {
+        IncrementalClassfileLoader loader = new IncrementalClassfileLoader(Collections.<String, String>emptyMap());
+        ClassfileCounter counter = load(loader);
+
+        assertTrue("no classfiles", counter.getNbClassfiles() > 0);
+        assertEquals("digests", counter.getNbClassfiles(), loader.getDigests().size());
+        assertEquals("skipped", 0, loader.getNbSkippedClassfiles());
+    }
+
+    public void testUnchangedRunSkipsEverything() {
+        IncrementalClassfileLoader firstLoader = new IncrementalClassfileLoader(Collections.<String, String>emptyMap());
+        ClassfileCounter firstCounter = load(firstLoader);
+
+        IncrementalClassfileLoader secondLoader = new IncrementalClassfileLoader(firstLoader.getDigests());
+        ClassfileCounter secondCounter = load(secondLoader);
+
+        assertEquals("classfiles", 0, secondCounter.getNbClassfiles());
+        assertEquals("files", firstCounter.getNbFiles(), secondCounter.getNbFiles());
+        assertEquals("skipped", firstCounter.getNbClassfiles(), secondLoader.getNbSkippedClassfiles());
+        assertEquals("digests", firstLoader.getDigests(), secondLoader.getDigests());
+    }
+
+    public void testChangedClassfileIsParsed() {
+        IncrementalClassfileLoader firstLoader = new IncrementalClassfileLoader(Collections.<String, String>emptyMap());
+        ClassfileCounter firstCounter = load(firstLoader);
+
+        Map<String, String> previousDigests = new HashMap<String, String>(firstLoader.getDigests());
+        String changedFilename = previousDigests.keySet().iterator().next();
+        previousDigests.put(changedFilename, "changed");
+
+        IncrementalClassfileLoader secondLoader = new IncrementalClassfileLoader(previousDigests);
+        ClassfileCounter secondCounter = load(secondLoader);
+
+        assertEquals("classfiles", 1, secondCounter.getNbClassfiles());
+        assertEquals("skipped", firstCounter.getNbClassfiles() - 1, secondLoader.getNbSkippedClassfiles());
+        assertEquals("digests", firstLoader.getDigests(), secondLoader.getDigests());
+    }
+
+    public void testJarEntriesAreQualified() {
+        IncrementalClassfileLoader loader = new IncrementalClassfileLoader(Collections.<String, String>emptyMap());
+        load(loader);
+
+        boolean foundJarEntry = false;
+        boolean foundDirectoryFile = false;
+        for (String filename : loader.getDigests().keySet()) {
+            foundJarEntry |= filename.startsWith(TEST_JAR + "!/");
+            foundDirectoryFile |= filename.startsWith(TEST_CLASSES + File.separator);
+        }
+
+        assertTrue("no qualified JAR entry in " + loader.getDigests().keySet(), foundJarEntry);
+        assertTrue("no file from directory in " + loader.getDigests().keySet(), foundDirectoryFile);
+    }
+
+    public void testWithThreads() {
+        IncrementalClassfileLoader firstLoader = new IncrementalClassfileLoader(Collections.<String, String>emptyMap());
+        ClassfileCounter firstCounter = load(firstLoader);
+
+        Map<String, String> previousDigests = new HashMap<String, String>(firstLoader.getDigests());
+        previousDigests.remove(previousDigests.keySet().iterator().next());
+
+        IncrementalClassfileLoader secondLoader = new IncrementalClassfileLoader(previousDigests);
+        secondLoader.setThreadCount(2);
+        ClassfileCounter secondCounter = load(secondLoader);
+
+        assertEquals("classfiles", 1, secondCounter.getNbClassfiles());
+        assertEquals("skipped", firstCounter.getNbClassfiles() - 1, secondLoader.getNbSkippedClassfiles());
+    }
+
+    private ClassfileCounter load(ClassfileLoader loader) {
+        ClassfileCounter counter = new ClassfileCounter();
+        loader.addLoadListener(counter);
+        loader.load(filenames);
+        return counter;
+    }
+
+    private static class ClassfileCounter extends LoadAdapter {
+        private int nbFiles;
+        private int nbClassfiles;
+
+        public int getNbFiles() {
+            return nbFiles;
+        }
+
+        public int getNbClassfiles() {
+            return nbClassfiles;
+        }
+
+        public void beginFile(LoadEvent event) {
+            nbFiles++;
+        }
+
+        public void endClassfile(LoadEvent event) {
+            if (event.getClassfile() != null) {
+                nbClassfiles++;
+            }
+        }
+    }
+}
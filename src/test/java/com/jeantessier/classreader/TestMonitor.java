@@ -33,6 +33,7 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.util.*;
 
 import junit.framework.*;
 
@@ -393,6 +394,161 @@ public class TestMonitor extends TestCase {
         assertAdditionsAndRemovals(1, 1);
     }
 
+    public void testGetClassNamesByFile() {
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.beginClassfile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endClassfile(new LoadEvent(this, null, TEST_FILENAME, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertEquals("class names", Collections.singletonMap(TEST_FILENAME, TEST_CLASS), monitor.getClassNamesByFile());
+    }
+
+    public void testRestoreWithSkippedFile() {
+        monitor.restore(Collections.singletonMap(TEST_FILENAME, TEST_CLASS));
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertAdditionsAndRemovals(0, 0);
+        assertEquals("class names", Collections.singletonMap(TEST_FILENAME, TEST_CLASS), monitor.getClassNamesByFile());
+    }
+
+    public void testRestoreWithReadFile() {
+        monitor.restore(Collections.singletonMap(TEST_FILENAME, TEST_CLASS));
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.beginClassfile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endClassfile(new LoadEvent(this, null, TEST_FILENAME, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertAdditionsAndRemovals(1, 1);
+    }
+
+    public void testRestoreWithMissingFile() {
+        monitor.restore(Collections.singletonMap(TEST_FILENAME, TEST_CLASS));
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertAdditionsAndRemovals(0, 1);
+        assertEquals("class names", 0, monitor.getClassNamesByFile().size());
+    }
+
+    public void testRestoreWithClassInOtherFile() {
+        String otherFilename = "other.jar!/test.class";
+        monitor.restore(Collections.singletonMap(otherFilename, TEST_CLASS));
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.beginClassfile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endClassfile(new LoadEvent(this, null, TEST_FILENAME, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertAdditionsAndRemovals(1, 1);
+        assertEquals("class names", Collections.singletonMap(TEST_FILENAME, TEST_CLASS), monitor.getClassNamesByFile());
+    }
+
+    public void testClassMovesToOtherFile() {
+        String otherFilename = "other" + File.separator + "test.class";
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, otherFilename, null));
+        monitor.beginClassfile(new LoadEvent(this, null, otherFilename, null));
+        monitor.endClassfile(new LoadEvent(this, null, otherFilename, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, otherFilename, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.beginClassfile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endClassfile(new LoadEvent(this, null, TEST_FILENAME, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertAdditionsAndRemovals(2, 1);
+        assertEquals("class names", Collections.singletonMap(TEST_FILENAME, TEST_CLASS), monitor.getClassNamesByFile());
+    }
+
+    public void testClassesSwapFiles() {
+        String oldFilename = "old" + File.separator + "test.class";
+        String newFilename = "new" + File.separator + "test.class";
+
+        ClassfileLoader loader = new AggregatingClassfileLoader();
+        loader.load("classes" + File.separator + "testenum.class");
+        Classfile otherClassfile = loader.getClassfile("testenum");
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, oldFilename, null));
+        monitor.endClassfile(new LoadEvent(this, null, oldFilename, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, oldFilename, null));
+        monitor.beginFile(new LoadEvent(this, null, newFilename, null));
+        monitor.endClassfile(new LoadEvent(this, null, newFilename, otherClassfile));
+        monitor.endFile(new LoadEvent(this, null, newFilename, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        removeVisitor.reset();
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, newFilename, null));
+        monitor.endClassfile(new LoadEvent(this, null, newFilename, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, newFilename, null));
+        monitor.beginFile(new LoadEvent(this, null, oldFilename, null));
+        monitor.endClassfile(new LoadEvent(this, null, oldFilename, otherClassfile));
+        monitor.endFile(new LoadEvent(this, null, oldFilename, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        // Each class is removed before it is collected again, and never after
+        assertEquals("removed " + TEST_CLASS, 1, Collections.frequency(removeVisitor.getVisitedClasses(), TEST_CLASS));
+        assertTrue("removed testenum", removeVisitor.getVisitedClasses().contains("testenum"));
+
+        Map<String, String> expectedClassNames = new TreeMap<String, String>();
+        expectedClassNames.put(newFilename, TEST_CLASS);
+        expectedClassNames.put(oldFilename, "testenum");
+        assertEquals("class names", expectedClassNames, monitor.getClassNamesByFile());
+    }
+
+    public void testSameEntryInDifferentGroups() {
+        String entryName = "test.class";
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, "a.jar", -1));
+        monitor.beginFile(new LoadEvent(this, "a.jar", entryName, null));
+        monitor.endFile(new LoadEvent(this, "a.jar", entryName, null));
+        monitor.endGroup(new LoadEvent(this, "a.jar", null, null));
+        monitor.beginGroup(new LoadEvent(this, "b.jar", -1));
+        monitor.beginFile(new LoadEvent(this, "b.jar", entryName, null));
+        monitor.endFile(new LoadEvent(this, "b.jar", entryName, null));
+        monitor.endGroup(new LoadEvent(this, "b.jar", null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertEquals("previous", 2, monitor.previousFiles.size());
+        assertTrue("a.jar entry not in previous", monitor.previousFiles.contains("a.jar!/" + entryName));
+        assertTrue("b.jar entry not in previous", monitor.previousFiles.contains("b.jar!/" + entryName));
+    }
+
     private void assertAdditionsAndRemovals(int expectedAdded, int expectedRemoved) {
         assertAddedClasses(expectedAdded);
         assertRemovedClasses(expectedRemoved);
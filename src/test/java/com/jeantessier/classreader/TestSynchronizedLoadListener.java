@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+
+import org.jmock.integration.junit3.*;
+import org.jmock.*;
+
+public class TestSynchronizedLoadListener extends MockObjectTestCase {
+    public static final String TEST_DIR = "tests" + File.separator + "JarJarDiff";
+
+    public void testDelegatesEvents() {
+        final LoadEvent testEvent = new LoadEvent(this, null, 0);
+        final LoadListener mockDelegate = mock(LoadListener.class);
+
+        checking(new Expectations() {{
+            one (mockDelegate).beginSession(testEvent);
+            one (mockDelegate).endClassfile(testEvent);
+            one (mockDelegate).endSession(testEvent);
+        }});
+
+        LoadListener sut = new SynchronizedLoadListener(mockDelegate);
+        sut.beginSession(testEvent);
+        sut.endClassfile(testEvent);
+        sut.endSession(testEvent);
+    }
+
+    public void testSharedByConcurrentLoaders() throws Exception {
+        final Collection<String> filenames = Collections.singleton(TEST_DIR + File.separator + "new");
+
+        final List<String> expectedClassnames = new ArrayList<String>();
+        ClassfileLoader loader = new TransientClassfileLoader();
+        loader.addLoadListener(new RecordingListener(expectedClassnames));
+        loader.load(filenames);
+        assertFalse("no classfiles", expectedClassnames.isEmpty());
+
+        final List<String> actualClassnames = new ArrayList<String>();
+        final LoadListener sut = new SynchronizedLoadListener(new RecordingListener(actualClassnames));
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 25; j++) {
+                        ClassfileLoader loader = new TransientClassfileLoader();
+                        loader.addLoadListener(sut);
+                        loader.load(filenames);
+                    }
+                }
+            };
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals("classfiles", expectedClassnames.size() * threads.length * 25, actualClassnames.size());
+        assertEquals("distinct classfiles", new TreeSet<String>(expectedClassnames), new TreeSet<String>(actualClassnames));
+    }
+
+    private static class RecordingListener extends LoadAdapter {
+        private List<String> classnames;
+
+        public RecordingListener(List<String> classnames) {
+            this.classnames = classnames;
+        }
+
+        public void endClassfile(LoadEvent event) {
+            classnames.add(event.getClassfile().getClassName());
+        }
+    }
+}
@@ -206,7 +206,7 @@ public class TestTextPrinter extends MockObjectTestCase {
         checking(new Expectations() {{
             one (mockOut).print("        CODE");
 
-            one (mockCode).iterator();
+            one (mockCode).instructionCursor();
             one (mockCode).getExceptionHandlers();
                 will(returnValue(Collections.EMPTY_LIST));
 
@@ -224,7 +224,7 @@ public class TestTextPrinter extends MockObjectTestCase {
             one (mockOut).print("        CODE");
             one (mockOut).print("        EXCEPTION HANDLING");
 
-            one (mockCode).iterator();
+            one (mockCode).instructionCursor();
             one (mockCode).getExceptionHandlers();
                 will(returnValue(Collections.singleton(mockExceptionHandler)));
             one (mockExceptionHandler).accept(sut);
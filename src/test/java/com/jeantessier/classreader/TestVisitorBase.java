@@ -217,7 +217,7 @@ public class TestVisitorBase extends MockObjectTestCase {
         final Attribute_info mockAttribute = mock(Attribute_info.class);
 
         checking(new Expectations() {{
-            one (mockCode).iterator();
+            one (mockCode).instructionCursor();
                 will(returnIterator(mockInstruction));
             one (mockInstruction).accept(sut);
             one (mockCode).getExceptionHandlers();
@@ -231,6 +231,54 @@ public class TestVisitorBase extends MockObjectTestCase {
         sut.visitCode_attribute(mockCode);
     }
 
+    public void testVisitCode_attribute_WithoutInstructionCursor() {
+        final Instruction mockInstruction = mock(Instruction.class);
+
+        Code_attribute code = new Code_attribute() {
+            public int getMaxStack() {
+                return 0;
+            }
+
+            public int getMaxLocals() {
+                return 0;
+            }
+
+            public byte[] getCode() {
+                return new byte[0];
+            }
+
+            public Iterator<Instruction> iterator() {
+                return Collections.singleton(mockInstruction).iterator();
+            }
+
+            public Collection<? extends ExceptionHandler> getExceptionHandlers() {
+                return Collections.emptyList();
+            }
+
+            public Collection<? extends Attribute_info> getAttributes() {
+                return Collections.emptyList();
+            }
+
+            public Visitable getOwner() {
+                return null;
+            }
+
+            public String getAttributeName() {
+                return AttributeType.CODE.getAttributeName();
+            }
+
+            public void accept(Visitor visitor) {
+                visitor.visitCode_attribute(this);
+            }
+        };
+
+        checking(new Expectations() {{
+            one (mockInstruction).accept(sut);
+        }});
+
+        sut.visitCode_attribute(code);
+    }
+
     public void testVisitExceptions_attribute() {
         final Exceptions_attribute mockExceptions = mock(Exceptions_attribute.class);
         final Class_info mockClass = mock(Class_info.class);
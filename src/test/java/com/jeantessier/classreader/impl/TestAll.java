@@ -43,6 +43,7 @@ import static org.junit.runners.Suite.SuiteClasses;
         TestField_info.class,
         TestMethod_info.class,
         TestInstruction.class,
+        TestCodeIterator.class,
         TestConstantValue_attribute.class,
         TestCode_attribute.class,
         TestExceptions_attribute.class,
@@ -88,6 +89,7 @@ import static org.junit.runners.Suite.SuiteClasses;
         TestCustom_attribute.class,
         TestAttributeFactory.class,
         TestClass_info.class,
+        TestUTF8_info.class,
         TestClassfile.class
 })
 public class TestAll {}
@@ -32,6 +32,10 @@
 
 package com.jeantessier.classreader.impl;
 
+import java.util.*;
+
+import org.jmock.*;
+
 public class TestAttributeFactory extends TestAttributeBase {
     private static final int ATTRIBUTE_NAME_INDEX = 2;
 
@@ -106,4 +110,49 @@ public class TestAttributeFactory extends TestAttributeBase {
         assertNotNull("Element value is null", elementValue);
         assertTrue("Element value not the expected " + ByteConstantElementValue.class.getSimpleName(), ByteConstantElementValue.class.isInstance(elementValue));
     }
+
+    public void testSkipUnrequestedAttribute() throws Exception {
+        sut = new AttributeFactory(EnumSet.of(com.jeantessier.classreader.AttributeType.CODE));
+
+        expectReadU2(ATTRIBUTE_NAME_INDEX);
+        expectLookupUtf8(ATTRIBUTE_NAME_INDEX, AttributeType.LINE_NUMBER_TABLE.getAttributeName());
+        expectReadAttributeLength(10);
+        expectSkipBytes(10, 10);
+
+        Attribute_info attribute = sut.create(mockConstantPool, mockOwner, mockIn);
+        assertNull("AttributeFactory did not skip", attribute);
+    }
+
+    public void testSkipUnrequestedAttributeInSeveralSteps() throws Exception {
+        sut = new AttributeFactory(EnumSet.noneOf(com.jeantessier.classreader.AttributeType.class));
+
+        expectReadU2(ATTRIBUTE_NAME_INDEX);
+        expectLookupUtf8(ATTRIBUTE_NAME_INDEX, AttributeType.LOCAL_VARIABLE_TABLE.getAttributeName());
+        expectReadAttributeLength(10);
+        expectSkipBytes(10, 4);
+        expectSkipBytes(6, 6);
+
+        Attribute_info attribute = sut.create(mockConstantPool, mockOwner, mockIn);
+        assertNull("AttributeFactory did not skip", attribute);
+    }
+
+    public void testKeepsUnknownAttributeWhenSkipping() throws Exception {
+        sut = new AttributeFactory(EnumSet.noneOf(com.jeantessier.classreader.AttributeType.class));
+
+        expectReadU2(ATTRIBUTE_NAME_INDEX);
+        expectLookupUtf8(ATTRIBUTE_NAME_INDEX, "Unknown");
+        expectReadAttributeLength(0);
+        expectReadFully();
+
+        Attribute_info attribute = sut.create(mockConstantPool, mockOwner, mockIn);
+        assertTrue("Not a " + Custom_attribute.class.getSimpleName(), Custom_attribute.class.isInstance(attribute));
+    }
+
+    private void expectSkipBytes(final int n, final int skipped) throws Exception {
+        checking(new Expectations() {{
+            one (mockIn).skipBytes(n);
+                inSequence(dataReads);
+                will(returnValue(skipped));
+        }});
+    }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader.impl;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestCodeIterator extends TestCase {
+    private static final byte[] BYTECODE = {
+        (byte) 0x03,                                            // iconst_0
+        (byte) 0x10, (byte) 0x05,                               // bipush 5
+        (byte) 0xc4, (byte) 0x84, (byte) 0x00, (byte) 0x01, (byte) 0x00, (byte) 0x02, // wide iinc 1 2
+        (byte) 0xa7, (byte) 0xff, (byte) 0xf7,                  // goto 0
+    };
+
+    private static final int[] STARTS = {0, 1, 3, 9};
+    private static final int[] OPCODES = {0x03, 0x10, 0xc4, 0xa7};
+
+    public void testNewInstructionEachTime() {
+        Iterator<com.jeantessier.classreader.Instruction> i = new CodeIterator(null, BYTECODE);
+
+        com.jeantessier.classreader.Instruction previous = null;
+        for (int j = 0; j < STARTS.length; j++) {
+            com.jeantessier.classreader.Instruction instruction = i.next();
+            assertNotSame("instruction " + j, previous, instruction);
+            assertEquals("start", STARTS[j], instruction.getStart());
+            assertEquals("opcode", OPCODES[j], instruction.getOpcode());
+            previous = instruction;
+        }
+        assertFalse("More instructions", i.hasNext());
+    }
+
+    public void testReuseInstruction() {
+        Iterator<com.jeantessier.classreader.Instruction> i = new CodeIterator(null, BYTECODE, true);
+
+        com.jeantessier.classreader.Instruction first = null;
+        for (int j = 0; j < STARTS.length; j++) {
+            assertTrue("Missing instruction " + j, i.hasNext());
+            com.jeantessier.classreader.Instruction instruction = i.next();
+            if (first == null) {
+                first = instruction;
+            }
+            assertSame("instruction " + j, first, instruction);
+            assertEquals("start", STARTS[j], instruction.getStart());
+            assertEquals("opcode", OPCODES[j], instruction.getOpcode());
+        }
+        assertFalse("More instructions", i.hasNext());
+    }
+
+    public void testReusedInstructionHasSameValues() {
+        Iterator<com.jeantessier.classreader.Instruction> expected = new CodeIterator(null, BYTECODE);
+        Iterator<com.jeantessier.classreader.Instruction> actual = new CodeIterator(null, BYTECODE, true);
+
+        while (expected.hasNext()) {
+            com.jeantessier.classreader.Instruction expectedInstruction = expected.next();
+            com.jeantessier.classreader.Instruction actualInstruction = actual.next();
+
+            assertEquals("mnemonic", expectedInstruction.getMnemonic(), actualInstruction.getMnemonic());
+            assertEquals("length", expectedInstruction.getLength(), actualInstruction.getLength());
+            assertEquals("index", expectedInstruction.getIndex(), actualInstruction.getIndex());
+            assertEquals("offset", expectedInstruction.getOffset(), actualInstruction.getOffset());
+            assertEquals("value", expectedInstruction.getValue(), actualInstruction.getValue());
+        }
+        assertFalse("More instructions", actual.hasNext());
+    }
+
+    public void testNextPastEnd() {
+        Iterator<com.jeantessier.classreader.Instruction> i = new CodeIterator(null, new byte[0], true);
+
+        assertFalse("hasNext()", i.hasNext());
+        try {
+            i.next();
+            fail("next() past the end");
+        } catch (NoSuchElementException ex) {
+            // Expected
+        }
+    }
+}
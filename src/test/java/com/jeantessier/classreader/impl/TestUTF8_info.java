@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader.impl;
+
+import java.io.*;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class TestUTF8_info {
+    /**
+     * UTF8_info never looks at its constant pool.
+     */
+    private ConstantPool constantPool = null;
+
+    @Test
+    public void testGetValue_ascii() throws IOException {
+        assertRoundTrip("java/lang/Object");
+    }
+
+    @Test
+    public void testGetValue_empty() throws IOException {
+        assertRoundTrip("");
+    }
+
+    @Test
+    public void testGetValue_twoByteCharacters() throws IOException {
+        assertRoundTrip("caf\u00e9 \u00e0 la cr\u00e8me");
+    }
+
+    @Test
+    public void testGetValue_threeByteCharacters() throws IOException {
+        assertRoundTrip("\u4e2d\u6587\u20ac");
+    }
+
+    @Test
+    public void testGetValue_nullCharacter() throws IOException {
+        assertRoundTrip("a\u0000b");
+    }
+
+    @Test
+    public void testGetValue_surrogatePair() throws IOException {
+        assertRoundTrip("\ud83d\ude00");
+    }
+
+    @Test
+    public void testGetValue_calledTwice() throws IOException {
+        UTF8_info sut = new UTF8_info(constantPool, encode("foo"));
+
+        assertThat("first call", sut.getValue(), is("foo"));
+        assertThat("second call", sut.getValue(), sameInstance(sut.getValue()));
+    }
+
+    @Test
+    public void testEquals() throws IOException {
+        UTF8_info sut = new UTF8_info(constantPool, encode("foo"));
+        UTF8_info same = new UTF8_info(constantPool, encode("foo"));
+        UTF8_info different = new UTF8_info(constantPool, encode("bar"));
+
+        assertThat("same", sut, is(same));
+        assertThat("hash code", sut.hashCode(), is(same.hashCode()));
+        assertThat("different", sut, is(not(different)));
+    }
+
+    @Test(expected = UTFDataFormatException.class)
+    public void testMalformedContinuationByte() throws IOException {
+        new UTF8_info(constantPool, raw(0xC3, 0x41));
+    }
+
+    @Test(expected = UTFDataFormatException.class)
+    public void testPartialCharacterAtEnd() throws IOException {
+        new UTF8_info(constantPool, raw(0x41, 0xE4, 0xB8));
+    }
+
+    @Test(expected = UTFDataFormatException.class)
+    public void testFourByteLeadByte() throws IOException {
+        new UTF8_info(constantPool, raw(0xF0, 0x9F, 0x98, 0x80));
+    }
+
+    @Test(expected = UTFDataFormatException.class)
+    public void testStrayContinuationByte() throws IOException {
+        new UTF8_info(constantPool, raw(0x80));
+    }
+
+    private void assertRoundTrip(String expectedValue) throws IOException {
+        UTF8_info sut = new UTF8_info(constantPool, encode(expectedValue));
+        assertThat("value", sut.getValue(), is(expectedValue));
+        assertThat("value", sut.getValue(), is(encode(expectedValue).readUTF()));
+    }
+
+    private DataInput encode(String value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeUTF(value);
+        out.close();
+
+        return new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+    }
+
+    private DataInput raw(int ... bytes) {
+        byte[] buffer = new byte[bytes.length + 2];
+        buffer[0] = (byte) (bytes.length >> 8);
+        buffer[1] = (byte) bytes.length;
+        for (int i=0; i<bytes.length; i++) {
+            buffer[i + 2] = (byte) bytes[i];
+        }
+
+        return new DataInputStream(new ByteArrayInputStream(buffer));
+    }
+}
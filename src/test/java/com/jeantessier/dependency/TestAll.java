@@ -39,8 +39,11 @@ import static org.junit.runners.Suite.*;
 @RunWith(Suite.class)
 @SuiteClasses({
         TestNodeFactory.class,
+        TestConcurrentNodeFactory.class,
         TestDeletingVisitor.class,
         TestNode.class,
+        TestNodeSet.class,
+        TestNodeMap.class,
         TestPackageNode.class,
         TestClassNode.class,
         TestFeatureNode.class,
@@ -63,12 +66,17 @@ import static org.junit.runners.Suite.*;
         TestHTMLPrinter.class,
         TestHTMLPrinterEscapeMetaCharacters.class,
         TestXMLPrinter.class,
+        TestStreamingXMLPrinter.class,
         TestNodeNamePrinter.class,
         TestNodeHandler.class,
+        TestNameTable.class,
         TestNodeLoader.class,
+        TestGraphSnapshot.class,
+        TestLoadingScope.class,
         TestCodeDependencyCollector.class,
         TestCodeDependencyCollectorWithFiltering.class,
         TestCodeDependencyCollectorUsingMocks.class,
+        TestBytecodeDependencyCollector.class,
         TestDependencyExtractor.class,
         TestGraphCopier.class,
         TestGraphCopierWithFiltering.class,
@@ -92,6 +100,7 @@ import static org.junit.runners.Suite.*;
         TestClosureInboundSelector.class,
         TestClosureStopSelector.class,
         TestTransitiveClosureEngine.class,
+        TestTransitiveClosureEngineWithThreads.class,
         TestMetricsGatherer.class,
         TestLCOM4Gatherer.class
 })
@@ -0,0 +1,193 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.*;
+
+public class TestBytecodeDependencyCollector extends TestCase {
+    public static final String TEST_FILENAME = "classes" + File.separator + "test.class";
+    public static final String TEST_CLASSES_DIR = "classes";
+    public static final String TEST_JAR = "tests" + File.separator + "JarJarDiff" + File.separator + "twolevel.jar";
+
+    public void testSameGraphAsCodeDependencyCollector() {
+        assertSameGraph(Arrays.asList(TEST_CLASSES_DIR, TEST_JAR), new ComprehensiveSelectionCriteria());
+    }
+
+    public void testSameGraphWithFilter() {
+        RegularExpressionSelectionCriteria filterCriteria = new RegularExpressionSelectionCriteria();
+        filterCriteria.setGlobalExcludes("/^java\\.lang\\./");
+
+        assertSameGraph(Arrays.asList(TEST_CLASSES_DIR, TEST_JAR), filterCriteria);
+    }
+
+    public void testSameGraphWithoutFeatures() {
+        RegularExpressionSelectionCriteria filterCriteria = new RegularExpressionSelectionCriteria();
+        filterCriteria.setMatchingFeatures(false);
+
+        assertSameGraph(Arrays.asList(TEST_CLASSES_DIR, TEST_JAR), filterCriteria);
+    }
+
+    public void testSameEventsAsCodeDependencyCollector() {
+        Collection<String> filenames = Collections.singleton(TEST_CLASSES_DIR);
+
+        RecordingListener expectedEvents = new RecordingListener();
+        CodeDependencyCollector expectedCollector = new CodeDependencyCollector();
+        expectedCollector.addDependencyListener(expectedEvents);
+        ClassfileLoader loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(expectedCollector));
+        loader.load(filenames);
+
+        RecordingListener actualEvents = new RecordingListener();
+        BytecodeDependencyCollector actualCollector = new BytecodeDependencyCollector();
+        actualCollector.addDependencyListener(actualEvents);
+        new BytecodeDependencyLoader(actualCollector).load(filenames);
+
+        assertTrue("no events", expectedEvents.events.size() > 2);
+        assertEquals("events", expectedEvents.events, actualEvents.events);
+    }
+
+    public void testConfirmedNodes() throws IOException {
+        NodeFactory factory = new NodeFactory();
+        new BytecodeDependencyCollector(factory).collect(readBytes(TEST_FILENAME));
+
+        assertTrue("test not confirmed", factory.getClasses().get("test").isConfirmed());
+        assertTrue("test.main(java.lang.String[]) not confirmed", factory.getFeatures().get("test.main(java.lang.String[])").isConfirmed());
+        assertFalse("java.lang.Object confirmed", factory.getClasses().get("java.lang.Object").isConfirmed());
+        assertTrue("test does not extend java.lang.Object", ((ClassNode) factory.getClasses().get("test")).getParents().contains(factory.getClasses().get("java.lang.Object")));
+    }
+
+    public void testNotAClassfile() {
+        try {
+            new BytecodeDependencyCollector().collect(new byte[] {0x50, 0x4b, 0x03, 0x04, 0, 0, 0, 0, 0, 0});
+            fail("Collected from bad magic number");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testTruncatedClassfile() throws IOException {
+        byte[] bytes = readBytes(TEST_FILENAME);
+
+        try {
+            new BytecodeDependencyCollector().collect(Arrays.copyOf(bytes, bytes.length / 2));
+            fail("Collected from truncated classfile");
+        } catch (EOFException ex) {
+            // Expected
+        }
+    }
+
+    private void assertSameGraph(Collection<String> filenames, SelectionCriteria filterCriteria) {
+        NodeFactory expectedFactory = new NodeFactory();
+        ClassfileLoader loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(expectedFactory, filterCriteria)));
+        loader.load(filenames);
+
+        NodeFactory actualFactory = new NodeFactory();
+        new BytecodeDependencyLoader(new BytecodeDependencyCollector(actualFactory, filterCriteria)).load(filenames);
+
+        assertFalse("no classes", expectedFactory.getClasses().isEmpty());
+        assertEquals("packages", describe(expectedFactory.getPackages().values()), describe(actualFactory.getPackages().values()));
+        assertEquals("classes", describe(expectedFactory.getClasses().values()), describe(actualFactory.getClasses().values()));
+        assertEquals("features", describe(expectedFactory.getFeatures().values()), describe(actualFactory.getFeatures().values()));
+    }
+
+    private Map<String, String> describe(Collection<? extends Node> nodes) {
+        Map<String, String> result = new TreeMap<String, String>();
+
+        for (Node node : nodes) {
+            StringBuilder description = new StringBuilder();
+            description.append(node.isConfirmed() ? "confirmed" : "unconfirmed");
+            description.append(" --> ").append(names(node.getOutboundDependencies()));
+            description.append(" <-- ").append(names(node.getInboundDependencies()));
+            if (node instanceof ClassNode) {
+                description.append(" extends ").append(names(((ClassNode) node).getParents()));
+            }
+            result.put(node.getName(), description.toString());
+        }
+
+        return result;
+    }
+
+    private Collection<String> names(Collection<? extends Node> nodes) {
+        Collection<String> result = new TreeSet<String>();
+
+        for (Node node : nodes) {
+            result.add(node.getName());
+        }
+
+        return result;
+    }
+
+    private byte[] readBytes(String filename) throws IOException {
+        File file = new File(filename);
+        byte[] result = new byte[(int) file.length()];
+
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            in.readFully(result);
+        } finally {
+            in.close();
+        }
+
+        return result;
+    }
+
+    private static class RecordingListener implements DependencyListener {
+        private List<String> events = new ArrayList<String>();
+
+        public void beginSession(DependencyEvent event) {
+            events.add("begin session");
+        }
+
+        public void beginClass(DependencyEvent event) {
+            events.add("begin class " + event.getClassName());
+        }
+
+        public void dependency(DependencyEvent event) {
+            events.add(event.getDependent() + " --> " + event.getDependable());
+        }
+
+        public void endClass(DependencyEvent event) {
+            events.add("end class " + event.getClassName());
+        }
+
+        public void endSession(DependencyEvent event) {
+            events.add("end session");
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.*;
+
+public class TestConcurrentNodeFactory extends TestCase {
+    public static final String TEST_DIR = "tests" + File.separator + "JarJarDiff" + File.separator + "new";
+
+    private static final int NB_THREADS = 4;
+
+    private NodeFactory factory;
+    private ExecutorService executor;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new ConcurrentNodeFactory();
+        executor = Executors.newFixedThreadPool(NB_THREADS);
+    }
+
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+
+        super.tearDown();
+    }
+
+    public void testCreateFeature() {
+        FeatureNode node = factory.createFeature("a.A.a(int)");
+
+        assertEquals("name", "a.A.a(int)", node.getName());
+        assertEquals("class name", "a.A", node.getClassNode().getName());
+        assertEquals("package name", "a", node.getClassNode().getPackageNode().getName());
+        assertSame("lookup", node, factory.createFeature("a.A.a(int)"));
+    }
+
+    public void testSameNodesFromManyThreads() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Collection<Future<List<Node>>> results = new ArrayList<Future<List<Node>>>();
+        for (int i = 0; i < NB_THREADS; i++) {
+            final boolean confirmed = (i == 0);
+            results.add(executor.submit(new Callable<List<Node>>() {
+                public List<Node> call() throws Exception {
+                    start.await();
+
+                    List<Node> result = new ArrayList<Node>();
+                    for (int j = 0; j < 1000; j++) {
+                        result.add(factory.createFeature("p" + (j % 10) + ".C" + (j % 100) + ".f" + j + "()", confirmed));
+                    }
+                    return result;
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Node> expected = null;
+        for (Future<List<Node>> result : results) {
+            List<Node> nodes = result.get();
+            if (expected == null) {
+                expected = nodes;
+            } else {
+                for (int j = 0; j < expected.size(); j++) {
+                    assertSame("node " + j, expected.get(j), nodes.get(j));
+                }
+            }
+        }
+
+        assertEquals("packages", 10, factory.getPackages().size());
+        assertEquals("classes", 100, factory.getClasses().size());
+        assertEquals("features", 1000, factory.getFeatures().size());
+
+        for (PackageNode packageNode : factory.getPackages().values()) {
+            assertEquals(packageNode.getName() + " classes", 10, packageNode.getClasses().size());
+            assertTrue(packageNode.getName() + " not confirmed", packageNode.isConfirmed());
+        }
+
+        for (ClassNode classNode : factory.getClasses().values()) {
+            assertEquals(classNode.getName() + " features", 10, classNode.getFeatures().size());
+            assertTrue(classNode.getName() + " not confirmed", classNode.isConfirmed());
+        }
+    }
+
+    public void testDependenciesFromManyThreads() throws Exception {
+        final FeatureNode target = factory.createFeature("a.A.a");
+
+        Collection<Future<?>> results = new ArrayList<Future<?>>();
+        for (int i = 0; i < NB_THREADS; i++) {
+            final int thread = i;
+            results.add(executor.submit(new Callable<Object>() {
+                public Object call() {
+                    for (int j = 0; j < 1000; j++) {
+                        FeatureNode source = factory.createFeature("b.B" + thread + ".b" + j);
+                        source.addDependency(target);
+                        target.addDependency(source);
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertEquals("inbound", NB_THREADS * 1000, target.getInboundDependencies().size());
+        assertEquals("outbound", NB_THREADS * 1000, target.getOutboundDependencies().size());
+    }
+
+    public void testCollectorsOnSeparateThreads() throws Exception {
+        AggregatingClassfileLoader loader = new AggregatingClassfileLoader();
+        loader.load(Collections.singleton(TEST_DIR));
+        assertTrue("no classfiles", loader.getAllClassfiles().size() > 1);
+
+        NodeFactory expectedFactory = new NodeFactory();
+        CodeDependencyCollector expectedCollector = new CodeDependencyCollector(expectedFactory);
+        for (Classfile classfile : loader.getAllClassfiles()) {
+            classfile.accept(expectedCollector);
+        }
+
+        Collection<Future<?>> results = new ArrayList<Future<?>>();
+        for (final Classfile classfile : loader.getAllClassfiles()) {
+            results.add(executor.submit(new Callable<Object>() {
+                public Object call() {
+                    classfile.accept(new CodeDependencyCollector(factory));
+                    return null;
+                }
+            }));
+        }
+
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertEquals("packages", expectedFactory.getPackages().keySet(), factory.getPackages().keySet());
+        assertEquals("classes", expectedFactory.getClasses().keySet(), factory.getClasses().keySet());
+        assertEquals("features", expectedFactory.getFeatures().keySet(), factory.getFeatures().keySet());
+
+        assertSameDependencies(expectedFactory.getPackages(), factory.getPackages());
+        assertSameDependencies(expectedFactory.getClasses(), factory.getClasses());
+        assertSameDependencies(expectedFactory.getFeatures(), factory.getFeatures());
+    }
+
+    private void assertSameDependencies(Map<String, ? extends Node> expectedNodes, Map<String, ? extends Node> actualNodes) {
+        for (Node expected : expectedNodes.values()) {
+            Node actual = actualNodes.get(expected.getName());
+            assertEquals(expected.getName() + " confirmed", expected.isConfirmed(), actual.isConfirmed());
+            assertEquals(expected.getName() + " inbound", new TreeSet<Node>(expected.getInboundDependencies()).toString(), new TreeSet<Node>(actual.getInboundDependencies()).toString());
+            assertEquals(expected.getName() + " outbound", new TreeSet<Node>(expected.getOutboundDependencies()).toString(), new TreeSet<Node>(actual.getOutboundDependencies()).toString());
+        }
+    }
+}
@@ -201,4 +201,91 @@ public class TestCycleDetector extends TestCase {
         assertEquals("a.A.a", a_A_a_feature, i.next());
         assertEquals("b.B.b", b_B_b_feature, i.next());
     }
+
+    public void testCycleThroughClassAndFeature() {
+        Node b_B_class = factory.createClass("b.B");
+        a_A_a_feature.addDependency(b_B_class);
+        b_B_b_feature.addDependency(a_A_a_feature);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+
+        Cycle cycle = detector.getCycles().iterator().next();
+        assertEquals("cycle length", 3, cycle.getLength());
+        Iterator i = cycle.getPath().iterator();
+        assertEquals("a.A.a", a_A_a_feature, i.next());
+        assertEquals("b.B", b_B_class, i.next());
+        assertEquals("b.B.b", b_B_b_feature, i.next());
+    }
+
+    public void testCycleThroughClassAndFeatureFromClassesOnly() {
+        Node b_B_class = factory.createClass("b.B");
+        a_A_a_feature.addDependency(b_B_class);
+        b_B_b_feature.addDependency(a_A_a_feature);
+
+        RegularExpressionSelectionCriteria criteria = new RegularExpressionSelectionCriteria("//");
+        criteria.setMatchingPackages(false);
+        criteria.setMatchingFeatures(false);
+        detector = new CycleDetector(criteria);
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("Nb cycles", 0, detector.getCycles().size());
+    }
+
+    public void testCompleteGraph() {
+        connectAllPackages();
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 10 + 20 + 30 + 24, detector.getCycles().size());
+    }
+
+    public void testCompleteGraphWithMaximumLength() {
+        connectAllPackages();
+        detector.setMaximumCycleLength(3);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 10 + 20, detector.getCycles().size());
+    }
+
+    public void testMaximumCount() {
+        connectAllPackages();
+        detector.setMaximumCycleCount(7);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 7, detector.getCycles().size());
+    }
+
+    public void testLongCycle() {
+        int length = 10000;
+
+        Node previous = factory.createPackage("p" + (length - 1));
+        for (int i = 0; i < length; i++) {
+            Node next = factory.createPackage("p" + i);
+            previous.addDependency(next);
+            previous = next;
+        }
+
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+        assertEquals("cycle length", length, detector.getCycles().iterator().next().getLength());
+    }
+
+    public void testSeparateTraversals() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        c_package.addDependency(d_package);
+        d_package.addDependency(c_package);
+
+        detector.traverseNodes(Collections.singleton(a_package));
+        assertEquals("Nb cycles after a", 1, detector.getCycles().size());
+
+        detector.traverseNodes(Collections.singleton(c_package));
+        assertEquals("Nb cycles after c", 2, detector.getCycles().size());
+    }
+
+    private void connectAllPackages() {
+        for (Node source : factory.getPackages().values()) {
+            for (Node target : factory.getPackages().values()) {
+                if (source != target) {
+                    source.addDependency(target);
+                }
+            }
+        }
+    }
 }
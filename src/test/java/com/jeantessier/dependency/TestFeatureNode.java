@@ -130,4 +130,44 @@ public class TestFeatureNode extends TestCase {
 
         assertEquals(featureName, sut.getSimpleName());
     }
+
+    public void testGetNameIsBuiltFromClassName() {
+        node = factory.createFeature("a.A.a(a.A)", true);
+
+        assertEquals("name", "a.A.a(a.A)", node.getName());
+        assertEquals("simple name", "a(a.A)", node.getSimpleName());
+        assertEquals("hash code", "a.A.a(a.A)".hashCode(), node.hashCode());
+    }
+
+    public void testGetNameInClassWithoutName() {
+        node = factory.createFeature("a", true);
+
+        assertEquals("class", "", node.getClassNode().getName());
+        assertEquals("name", "a", node.getName());
+    }
+
+    public void testHasName() {
+        node = factory.createFeature("a.A.a", true);
+
+        assertTrue("a.A.a", node.hasName("a.A.a"));
+        assertFalse("a.A.b", node.hasName("a.A.b"));
+        assertFalse("a.B.a", node.hasName("a.B.a"));
+        assertFalse("a.A_a", node.hasName("a.A_a"));
+        assertFalse("a.A.aa", node.hasName("a.A.aa"));
+        assertFalse("a.A", node.hasName("a.A"));
+    }
+
+    public void testCompareToFollowsFullNames() {
+        String[] names = {"a.A.a", "a.A.b", "a.A$B.a", "a.A$B.b", "a.A-B.a", "a.AB.a", "a.A.a(int)", "a.A.a(a.A$B)"};
+
+        for (String name1 : names) {
+            for (String name2 : names) {
+                FeatureNode node1 = factory.createFeature(name1);
+                FeatureNode node2 = factory.createFeature(name2);
+
+                assertEquals(name1 + " <=> " + name2, Integer.signum(name1.compareTo(name2)), Integer.signum(node1.compareTo(node2)));
+                assertEquals(name1 + " == " + name2, name1.equals(name2), node1.equals(node2));
+            }
+        }
+    }
 }
@@ -0,0 +1,291 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.*;
+
+public class TestGraphSnapshot extends TestCase {
+    public static final String TEST_DIR = "tests" + File.separator + "JarJarDiff" + File.separator + "new";
+
+    private NodeFactory factory;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+
+        FeatureNode main = factory.createFeature("a.A.main(java.lang.String[])", true);
+        FeatureNode field = factory.createFeature("a.A.field", true);
+        FeatureNode ctor = factory.createFeature("b.B.B(a.A, int)", true);
+        FeatureNode toString = factory.createFeature("b.B.toString()", true);
+        ClassNode defaultPackageClass = factory.createClass("Default", true);
+        FeatureNode otherToString = factory.createFeature("Default.toString()", false);
+        ClassNode unconfirmed = factory.createClass("java.lang.Object", false);
+
+        main.addDependency(ctor);
+        main.addDependency(field);
+        ctor.addDependency(toString);
+        toString.addDependency(otherToString);
+        main.getClassNode().addDependency(unconfirmed);
+        defaultPackageClass.addDependency(unconfirmed);
+        factory.createPackage("a").addDependency(factory.createPackage("b"));
+    }
+
+    public void testRoundTrip() throws IOException {
+        NodeFactory copy = new GraphSnapshotLoader().load(new ByteArrayInputStream(write(factory.getPackages().values())));
+
+        assertEquals("packages", factory.getPackages().keySet(), copy.getPackages().keySet());
+        assertEquals("classes", factory.getClasses().keySet(), copy.getClasses().keySet());
+        assertEquals("features", factory.getFeatures().keySet(), copy.getFeatures().keySet());
+        assertEquals(print(factory), print(copy));
+    }
+
+    public void testRoundTripKeepsConfirmation() throws IOException {
+        NodeFactory copy = new GraphSnapshotLoader().load(new ByteArrayInputStream(write(factory.getPackages().values())));
+
+        assertTrue("a.A", copy.getClasses().get("a.A").isConfirmed());
+        assertFalse("java.lang.Object", copy.getClasses().get("java.lang.Object").isConfirmed());
+        assertFalse("java.lang", copy.getPackages().get("java.lang").isConfirmed());
+        assertFalse("Default.toString()", copy.getFeatures().get("Default.toString()").isConfirmed());
+        assertTrue("Default", copy.getClasses().get("Default").isConfirmed());
+    }
+
+    public void testRoundTripExtractedGraph() throws IOException {
+        NodeFactory extracted = new NodeFactory();
+        ClassfileLoader loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(extracted)));
+        loader.load(Collections.singleton(TEST_DIR));
+        assertFalse("Nothing extracted", extracted.getFeatures().isEmpty());
+
+        NodeFactory copy = new GraphSnapshotLoader().load(new ByteArrayInputStream(write(extracted.getPackages().values())));
+
+        assertEquals(print(extracted), print(copy));
+    }
+
+    public void testWritePartOfGraph() throws IOException {
+        NodeFactory copy = new GraphSnapshotLoader().load(new ByteArrayInputStream(write(Collections.singleton(factory.getPackages().get("b")))));
+
+        assertTrue("b.B.toString()", copy.getFeatures().get("b.B.toString()").getOutboundDependencies().contains(copy.getFeatures().get("Default.toString()")));
+        assertTrue("b.B.B(a.A, int)", copy.getFeatures().get("b.B.B(a.A, int)").getInboundDependencies().isEmpty());
+        assertFalse("a.A.main(java.lang.String[])", copy.getFeatures().containsKey("a.A.main(java.lang.String[])"));
+    }
+
+    public void testLoadMergesIntoFactory() throws IOException {
+        NodeFactory target = new NodeFactory();
+        FeatureNode existing = target.createFeature("c.C.c()", true);
+        existing.addDependency(target.createFeature("b.B.toString()", false));
+
+        new GraphSnapshotLoader(target).load(new ByteArrayInputStream(write(factory.getPackages().values())));
+
+        assertTrue("b.B.toString() confirmed", target.getFeatures().get("b.B.toString()").isConfirmed());
+        assertEquals("b.B.toString() inbound", 2, target.getFeatures().get("b.B.toString()").getInboundDependencies().size());
+        assertTrue("a.A.field", target.getFeatures().containsKey("a.A.field"));
+    }
+
+    public void testListenerEvents() throws IOException {
+        final List<DependencyEvent> dependencies = new ArrayList<DependencyEvent>();
+        final List<String> classes = new ArrayList<String>();
+
+        GraphSnapshotLoader loader = new GraphSnapshotLoader();
+        loader.addDependencyListener(new DependencyListener() {
+            public void beginSession(DependencyEvent event) {
+            }
+
+            public void beginClass(DependencyEvent event) {
+                classes.add(event.getClassName());
+            }
+
+            public void dependency(DependencyEvent event) {
+                dependencies.add(event);
+            }
+
+            public void endClass(DependencyEvent event) {
+            }
+
+            public void endSession(DependencyEvent event) {
+            }
+        });
+        loader.load(new ByteArrayInputStream(write(factory.getPackages().values())));
+
+        assertEquals("classes", 4, classes.size());
+        assertEquals("dependencies", 7, dependencies.size());
+    }
+
+    public void testIsSnapshot() throws IOException {
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(write(factory.getPackages().values())));
+
+        assertTrue("snapshot", GraphSnapshotLoader.isSnapshot(in));
+        assertNotNull("stream was not reset", new GraphSnapshotLoader().load(in));
+    }
+
+    public void testIsNotSnapshot() throws IOException {
+        assertFalse("XML", GraphSnapshotLoader.isSnapshot(new BufferedInputStream(new ByteArrayInputStream("<?xml version=\"1.0\" ?>".getBytes()))));
+        assertFalse("short", GraphSnapshotLoader.isSnapshot(new BufferedInputStream(new ByteArrayInputStream(new byte[] {'D'}))));
+    }
+
+    public void testLoadNotSnapshot() {
+        try {
+            new GraphSnapshotLoader().load(new ByteArrayInputStream("<?xml version=\"1.0\" ?>".getBytes()));
+            fail("Loaded XML as a snapshot");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testLoadTruncatedSnapshot() {
+        byte[] bytes = write(factory.getPackages().values());
+
+        try {
+            new GraphSnapshotLoader().load(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2)));
+            fail("Loaded truncated snapshot");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testLoadEveryTruncation() {
+        byte[] bytes = write(factory.getPackages().values());
+
+        for (int length = 0; length < bytes.length; length++) {
+            assertMalformed("truncated to " + length + " bytes", Arrays.copyOf(bytes, length));
+        }
+    }
+
+    public void testLoadCorruptSnapshot() {
+        byte[] bytes = write(factory.getPackages().values());
+
+        for (int i = GraphSnapshotWriter.MAGIC.length; i < bytes.length; i++) {
+            for (int value : new int[] {0x00, 0x7F, 0x80, 0xFF}) {
+                byte[] corrupt = bytes.clone();
+                corrupt[i] = (byte) value;
+                try {
+                    new GraphSnapshotLoader().load(new ByteArrayInputStream(corrupt));
+                } catch (IOException ex) {
+                    // Expected for most of them
+                } catch (RuntimeException ex) {
+                    fail("Byte " + i + " set to " + value + ": " + ex);
+                }
+            }
+        }
+    }
+
+    public void testLoadNameIdOutOfRange() {
+        assertMalformed("name id", snapshot(GraphSnapshotWriter.PACKAGE, 5, 1, GraphSnapshotWriter.END));
+    }
+
+    public void testLoadNegativeNameLength() {
+        assertMalformed("name length", snapshot(GraphSnapshotWriter.STRING, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F, GraphSnapshotWriter.END));
+    }
+
+    public void testLoadHugeNameLength() {
+        assertMalformed("name length", snapshot(GraphSnapshotWriter.STRING, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 'a', GraphSnapshotWriter.END));
+    }
+
+    public void testLoadParentIdOutOfRange() {
+        assertMalformed("parent id", snapshot(GraphSnapshotWriter.STRING, 1, 'a', GraphSnapshotWriter.CLASS, 3, 0, 1, GraphSnapshotWriter.END));
+    }
+
+    public void testLoadClassInClass() {
+        assertMalformed("parent type", snapshot(
+                GraphSnapshotWriter.STRING, 1, 'a',
+                GraphSnapshotWriter.PACKAGE, 0, 1,
+                GraphSnapshotWriter.CLASS, 0, 0, 1,
+                GraphSnapshotWriter.CLASS, 1, 0, 1,
+                GraphSnapshotWriter.END));
+    }
+
+    public void testLoadFeatureInPackage() {
+        assertMalformed("parent type", snapshot(
+                GraphSnapshotWriter.STRING, 1, 'a',
+                GraphSnapshotWriter.PACKAGE, 0, 1,
+                GraphSnapshotWriter.FEATURE, 0, 0, 1,
+                GraphSnapshotWriter.END));
+    }
+
+    public void testLoadDependencyIdOutOfRange() {
+        assertMalformed("dependent id", snapshot(
+                GraphSnapshotWriter.STRING, 1, 'a',
+                GraphSnapshotWriter.PACKAGE, 0, 1,
+                GraphSnapshotWriter.OUTBOUND, 1, 0,
+                GraphSnapshotWriter.END));
+        assertMalformed("dependable id", snapshot(
+                GraphSnapshotWriter.STRING, 1, 'a',
+                GraphSnapshotWriter.PACKAGE, 0, 1,
+                GraphSnapshotWriter.OUTBOUND, 0, 1, 1,
+                GraphSnapshotWriter.END));
+    }
+
+    private void assertMalformed(String message, byte[] bytes) {
+        try {
+            new GraphSnapshotLoader().load(new ByteArrayInputStream(bytes));
+            fail("Loaded malformed snapshot: " + message);
+        } catch (IOException ex) {
+            // Expected
+        } catch (RuntimeException ex) {
+            fail(message + ": " + ex);
+        }
+    }
+
+    private byte[] snapshot(int ... values) {
+        byte[] result = Arrays.copyOf(GraphSnapshotWriter.MAGIC, GraphSnapshotWriter.MAGIC.length + values.length);
+
+        for (int i = 0; i < values.length; i++) {
+            result[GraphSnapshotWriter.MAGIC.length + i] = (byte) values[i];
+        }
+
+        return result;
+    }
+
+    private byte[] write(Collection<? extends Node> nodes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+            new GraphSnapshotWriter(out).write(nodes);
+        } catch (IOException ex) {
+            fail(ex.toString());
+        }
+
+        return out.toByteArray();
+    }
+
+    private String print(NodeFactory factory) {
+        StringWriter out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+}
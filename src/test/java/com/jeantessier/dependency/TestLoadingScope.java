@@ -0,0 +1,237 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestLoadingScope extends TestCase {
+    private NodeFactory factory;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+
+        FeatureNode main = factory.createFeature("a.A.main(java.lang.String[])", true);
+        FeatureNode field = factory.createFeature("a.A.field", true);
+        FeatureNode ctor = factory.createFeature("b.B.B(a.A, int)", true);
+        FeatureNode toString = factory.createFeature("b.B.toString()", true);
+        ClassNode defaultPackageClass = factory.createClass("Default", true);
+        FeatureNode otherToString = factory.createFeature("Default.toString()", false);
+        ClassNode unconfirmed = factory.createClass("java.lang.Object", false);
+        FeatureNode helper = factory.createFeature("c.C.helper()", true);
+
+        main.addDependency(ctor);
+        main.addDependency(field);
+        ctor.addDependency(toString);
+        toString.addDependency(otherToString);
+        main.getClassNode().addDependency(unconfirmed);
+        defaultPackageClass.addDependency(unconfirmed);
+        helper.addDependency(field);
+        factory.createPackage("a").addDependency(factory.createPackage("b"));
+    }
+
+    public void testSkipsNodesOutOfScope() throws Exception {
+        LoadingScope scope = new LoadingScope(criteria("/^b/", true, true, true), new ComprehensiveSelectionCriteria());
+
+        NodeFactory loaded = loadXML(writeXML(true), scope);
+
+        assertTrue("b.B.toString()", loaded.getFeatures().containsKey("b.B.toString()"));
+        assertTrue("a.A.main(java.lang.String[])", loaded.getFeatures().containsKey("a.A.main(java.lang.String[])"));
+        assertFalse("a.A.field", loaded.getFeatures().containsKey("a.A.field"));
+        assertFalse("c.C.helper()", loaded.getFeatures().containsKey("c.C.helper()"));
+        assertFalse("c", loaded.getPackages().containsKey("c"));
+    }
+
+    public void testKeepsNodesInScopeWithoutDependencies() throws Exception {
+        LoadingScope scope = new LoadingScope(criteria("/^c/", true, true, true), criteria("/^b/", true, true, true));
+
+        NodeFactory loaded = loadXML(writeXML(true), scope);
+
+        assertTrue("c.C.helper()", loaded.getFeatures().containsKey("c.C.helper()"));
+        assertTrue("c.C.helper() outbound", loaded.getFeatures().get("c.C.helper()").getOutboundDependencies().isEmpty());
+        assertFalse("a.A.field", loaded.getFeatures().containsKey("a.A.field"));
+    }
+
+    public void testKeepsTargetsInScope() throws Exception {
+        LoadingScope scope = new LoadingScope(criteria("/Object/", false, true, false), criteria("/^b/", true, true, true));
+
+        StringWriter out = new StringWriter();
+        XMLPrinter printer = new XMLPrinter(new PrintWriter(out));
+        printer.setShowInbounds(false);
+        printer.setShowEmptyNodes(false);
+        printer.traverseNodes(factory.getPackages().values());
+
+        NodeFactory loaded = loadXML(out.toString(), scope);
+
+        assertTrue("java.lang.Object", loaded.getClasses().containsKey("java.lang.Object"));
+        assertTrue("java.lang.Object inbound", loaded.getClasses().get("java.lang.Object").getInboundDependencies().isEmpty());
+    }
+
+    public void testConfirmsParentsOfSkippedNodes() throws Exception {
+        LoadingScope scope = new LoadingScope(criteria("/^b/", true, true, true), new ComprehensiveSelectionCriteria());
+
+        assertConfirmedParents(loadXML(writeXML(true), scope));
+        assertConfirmedParents(loadXML(writeXML(false), scope));
+        assertConfirmedParents(loadSnapshot(writeSnapshot(), scope));
+    }
+
+    public void testConfirmsTargetsFromTheirOwnElements() throws Exception {
+        StringBuffer xml = new StringBuffer();
+        xml.append("<dependencies>\n");
+        xml.append("    <package confirmed=\"yes\">\n");
+        xml.append("        <name>a</name>\n");
+        xml.append("        <class confirmed=\"yes\">\n");
+        xml.append("            <name>a.A</name>\n");
+        xml.append("            <feature confirmed=\"yes\">\n");
+        xml.append("                <name>a.A.a()</name>\n");
+        xml.append("                <outbound type=\"feature\" confirmed=\"no\">b.B.b()</outbound>\n");
+        xml.append("            </feature>\n");
+        xml.append("        </class>\n");
+        xml.append("    </package>\n");
+        xml.append("    <package confirmed=\"yes\">\n");
+        xml.append("        <name>b</name>\n");
+        xml.append("        <class confirmed=\"yes\">\n");
+        xml.append("            <name>b.B</name>\n");
+        xml.append("            <feature confirmed=\"yes\">\n");
+        xml.append("                <name>b.B.b()</name>\n");
+        xml.append("            </feature>\n");
+        xml.append("        </class>\n");
+        xml.append("    </package>\n");
+        xml.append("</dependencies>\n");
+
+        NodeFactory loaded = loadXML(xml.toString(), new LoadingScope(criteria("/^a/", true, true, true), new ComprehensiveSelectionCriteria()));
+
+        assertTrue("b.B.b()", loaded.getFeatures().get("b.B.b()").isConfirmed());
+        assertTrue("b.B", loaded.getClasses().get("b.B").isConfirmed());
+    }
+
+    public void testSummariesMatchFullGraph() throws Exception {
+        List<SelectionCriteria> scopes = new ArrayList<SelectionCriteria>();
+        scopes.add(criteria("/^b/", true, true, true));
+        scopes.add(criteria("/^b/", true, false, false));
+        scopes.add(criteria("/^a/", false, true, false));
+        scopes.add(criteria("/toString/", false, false, true));
+        scopes.add(criteria("/^D/", false, true, false));
+        scopes.add(criteria("/java/", true, true, true));
+
+        List<SelectionCriteria> filters = new ArrayList<SelectionCriteria>();
+        filters.add(new ComprehensiveSelectionCriteria());
+        filters.add(criteria("/^a/", true, false, false));
+        filters.add(criteria("/B|Object/", false, true, true));
+
+        String xml = writeXML(true);
+        String outboundsOnly = writeXML(false);
+        byte[] snapshot = writeSnapshot();
+
+        for (SelectionCriteria scopeCriteria : scopes) {
+            for (SelectionCriteria filterCriteria : filters) {
+                LoadingScope scope = new LoadingScope(scopeCriteria, filterCriteria);
+                String expected = summarize(factory, scopeCriteria, filterCriteria);
+
+                assertEquals("XML", expected, summarize(loadXML(xml, scope), scopeCriteria, filterCriteria));
+                assertEquals("outbounds only", expected, summarize(loadXML(outboundsOnly, scope), scopeCriteria, filterCriteria));
+                assertEquals("snapshot", expected, summarize(loadSnapshot(snapshot, scope), scopeCriteria, filterCriteria));
+            }
+        }
+    }
+
+    public void testCopiesMatchFullGraph() throws Exception {
+        SelectionCriteria scopeCriteria = criteria("/^b/", false, true, true);
+        SelectionCriteria filterCriteria = criteria("/A/", false, false, true);
+        LoadingScope scope = new LoadingScope(scopeCriteria, filterCriteria);
+
+        String expected = copy(factory, scopeCriteria, filterCriteria);
+
+        assertEquals("XML", expected, copy(loadXML(writeXML(true), scope), scopeCriteria, filterCriteria));
+        assertEquals("outbounds only", expected, copy(loadXML(writeXML(false), scope), scopeCriteria, filterCriteria));
+        assertEquals("snapshot", expected, copy(loadSnapshot(writeSnapshot(), scope), scopeCriteria, filterCriteria));
+    }
+
+    private void assertConfirmedParents(NodeFactory loaded) {
+        assertFalse("Default.toString()", loaded.getFeatures().get("Default.toString()").isConfirmed());
+        assertTrue("Default", loaded.getClasses().get("Default").isConfirmed());
+        assertTrue("a", loaded.getPackages().get("a").isConfirmed());
+    }
+
+    private RegularExpressionSelectionCriteria criteria(String includes, boolean matchingPackages, boolean matchingClasses, boolean matchingFeatures) {
+        RegularExpressionSelectionCriteria result = new RegularExpressionSelectionCriteria(includes);
+        result.setMatchingPackages(matchingPackages);
+        result.setMatchingClasses(matchingClasses);
+        result.setMatchingFeatures(matchingFeatures);
+        return result;
+    }
+
+    private String writeXML(boolean showInbounds) {
+        StringWriter out = new StringWriter();
+        XMLPrinter printer = new XMLPrinter(new PrintWriter(out));
+        printer.setShowInbounds(showInbounds);
+        printer.traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+
+    private byte[] writeSnapshot() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GraphSnapshotWriter(out).write(factory.getPackages().values());
+        return out.toByteArray();
+    }
+
+    private NodeFactory loadXML(String xml, LoadingScope scope) throws Exception {
+        return new NodeLoader(new NodeFactory(), false, scope).load(new StringReader(xml));
+    }
+
+    private NodeFactory loadSnapshot(byte[] snapshot, LoadingScope scope) throws IOException {
+        return new GraphSnapshotLoader(new NodeFactory(), scope).load(new ByteArrayInputStream(snapshot));
+    }
+
+    private String summarize(NodeFactory graph, SelectionCriteria scopeCriteria, SelectionCriteria filterCriteria) {
+        return print(new GraphSummarizer(scopeCriteria, filterCriteria), graph);
+    }
+
+    private String copy(NodeFactory graph, SelectionCriteria scopeCriteria, SelectionCriteria filterCriteria) {
+        return print(new GraphCopier(new SelectiveTraversalStrategy(scopeCriteria, filterCriteria)), graph);
+    }
+
+    private String print(GraphCopier copier, NodeFactory graph) {
+        copier.traverseNodes(graph.getPackages().values());
+
+        StringWriter out = new StringWriter();
+        XMLPrinter printer = new XMLPrinter(new PrintWriter(out));
+        printer.setShowEmptyNodes(true);
+        printer.traverseNodes(copier.getScopeFactory().getPackages().values());
+        return out.toString();
+    }
+}
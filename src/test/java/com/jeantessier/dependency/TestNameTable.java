@@ -0,0 +1,106 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import junit.framework.*;
+
+public class TestNameTable extends TestCase {
+    private NameTable table;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        table = new NameTable();
+    }
+
+    public void testIntern() {
+        char[] chars = "xx a.A.a() yy".toCharArray();
+
+        String name = table.intern(chars, 3, 7);
+
+        assertEquals("name", "a.A.a()", name);
+        assertEquals("size", 1, table.size());
+    }
+
+    public void testSameCharactersGiveSameInstance() {
+        String first = table.intern("a.A".toCharArray(), 0, 3);
+        String second = table.intern("b a.A".toCharArray(), 2, 3);
+
+        assertSame("second", first, second);
+        assertEquals("size", 1, table.size());
+    }
+
+    public void testDifferentCharactersGiveDifferentNames() {
+        String first = table.intern("a.A".toCharArray(), 0, 3);
+        String second = table.intern("a.AB".toCharArray(), 0, 4);
+        String empty = table.intern("a.A".toCharArray(), 0, 0);
+
+        assertEquals("first", "a.A", first);
+        assertEquals("second", "a.AB", second);
+        assertEquals("empty", "", empty);
+        assertEquals("size", 3, table.size());
+    }
+
+    public void testCollidingHashCodes() {
+        // "Aa" and "BB" have the same String hash code
+        String first = table.intern("Aa".toCharArray(), 0, 2);
+        String second = table.intern("BB".toCharArray(), 0, 2);
+
+        assertEquals("first", "Aa", first);
+        assertEquals("second", "BB", second);
+        assertSame("first again", first, table.intern("Aa".toCharArray(), 0, 2));
+        assertSame("second again", second, table.intern("BB".toCharArray(), 0, 2));
+    }
+
+    public void testGrow() {
+        String[] names = new String[5000];
+        for (int i = 0; i < names.length; i++) {
+            char[] chars = ("p.C" + i).toCharArray();
+            names[i] = table.intern(chars, 0, chars.length);
+        }
+
+        assertEquals("size", names.length, table.size());
+        for (int i = 0; i < names.length; i++) {
+            char[] chars = ("p.C" + i).toCharArray();
+            assertSame("p.C" + i, names[i], table.intern(chars, 0, chars.length));
+        }
+    }
+
+    public void testClear() {
+        String first = table.intern("a.A".toCharArray(), 0, 3);
+        table.clear();
+
+        assertEquals("size", 0, table.size());
+        assertNotSame("after clear", first, table.intern("a.A".toCharArray(), 0, 3));
+    }
+}
@@ -123,6 +123,49 @@ public class TestNodeFactory extends TestCase {
         assertEquals("package name", "", node.getClassNode().getPackageNode().getName());
     }
 
+    public void testCreateMethod() {
+        FeatureNode node = factory.createFeature("a.A.a(java.lang.String, int)");
+
+        assertEquals("name", "a.A.a(java.lang.String, int)", node.getName());
+        assertEquals("class name", "a.A", node.getClassNode().getName());
+        assertEquals("package name", "a", node.getClassNode().getPackageNode().getName());
+    }
+
+    public void testCreateConstructor() {
+        FeatureNode node = factory.createFeature("a.A.A()");
+
+        assertEquals("name", "a.A.A()", node.getName());
+        assertEquals("class name", "a.A", node.getClassNode().getName());
+    }
+
+    public void testCreateMethodInDefaultPackage() {
+        FeatureNode node = factory.createFeature("A.a(java.lang.Object[])");
+
+        assertEquals("name", "A.a(java.lang.Object[])", node.getName());
+        assertEquals("class name", "A", node.getClassNode().getName());
+        assertEquals("package name", "", node.getClassNode().getPackageNode().getName());
+    }
+
+    public void testCreateMethodOfInnerClass() {
+        FeatureNode node = factory.createFeature("a.A$B.a(a.A$B)");
+
+        assertEquals("class name", "a.A$B", node.getClassNode().getName());
+        assertEquals("package name", "a", node.getClassNode().getPackageNode().getName());
+    }
+
+    public void testGetParentName() {
+        assertEquals("", NodeFactory.getParentName(""));
+        assertEquals("", NodeFactory.getParentName("a"));
+        assertEquals("", NodeFactory.getParentName("a()"));
+        assertEquals("a", NodeFactory.getParentName("a.b"));
+        assertEquals("a.A", NodeFactory.getParentName("a.A.b"));
+        assertEquals("a.A", NodeFactory.getParentName("a.A.b()"));
+        assertEquals("a.A", NodeFactory.getParentName("a.A.b(c.C)"));
+        assertEquals("a.A", NodeFactory.getParentName("a.A.b(c.C, d.D)"));
+        assertEquals("a.A.b(c", NodeFactory.getParentName("a.A.b(c.C"));
+        assertEquals("a.A.b(c", NodeFactory.getParentName("a.A.b(c.C)x"));
+    }
+
     public void testCreateReferencedPackageNode() {
         PackageNode node = factory.createPackage("a", false);
 
@@ -283,4 +326,57 @@ public class TestNodeFactory extends TestCase {
         assertTrue("Not concrete", node.getClassNode().isConfirmed());
         assertTrue("Not concrete", node.getClassNode().getPackageNode().isConfirmed());
     }
+
+    public void testMergeCreatesNodes() {
+        NodeFactory other = new NodeFactory();
+        other.createFeature("a.A.a", true);
+        other.createClass("b.B", false);
+        other.createPackage("c", false);
+
+        factory.merge(other);
+
+        assertEquals("packages", other.getPackages().keySet(), factory.getPackages().keySet());
+        assertEquals("classes", other.getClasses().keySet(), factory.getClasses().keySet());
+        assertEquals("features", other.getFeatures().keySet(), factory.getFeatures().keySet());
+        assertTrue("a.A.a", factory.getFeatures().get("a.A.a").isConfirmed());
+        assertTrue("a.A", factory.getClasses().get("a.A").isConfirmed());
+        assertFalse("b.B", factory.getClasses().get("b.B").isConfirmed());
+        assertFalse("c", factory.getPackages().get("c").isConfirmed());
+        assertNotSame("a.A.a", other.getFeatures().get("a.A.a"), factory.getFeatures().get("a.A.a"));
+    }
+
+    public void testMergeConfirmsNodes() {
+        factory.createClass("a.A", false);
+        factory.createClass("b.B", true);
+
+        NodeFactory other = new NodeFactory();
+        other.createClass("a.A", true);
+        other.createClass("b.B", false);
+
+        factory.merge(other);
+
+        assertTrue("a.A", factory.getClasses().get("a.A").isConfirmed());
+        assertTrue("a", factory.getPackages().get("a").isConfirmed());
+        assertTrue("b.B", factory.getClasses().get("b.B").isConfirmed());
+    }
+
+    public void testMergeDependencies() {
+        FeatureNode a_A_a = factory.createFeature("a.A.a", true);
+        a_A_a.addDependency(factory.createFeature("b.B.b"));
+
+        NodeFactory other = new NodeFactory();
+        other.createFeature("a.A.a", true).addDependency(other.createClass("c.C"));
+        other.createPackage("c").addDependency(other.createPackage("a"));
+
+        factory.merge(other);
+
+        assertEquals("a.A.a outbounds", 2, a_A_a.getOutboundDependencies().size());
+        assertTrue("a.A.a --> b.B.b", a_A_a.getOutboundDependencies().contains(factory.getFeatures().get("b.B.b")));
+        assertTrue("a.A.a --> c.C", a_A_a.getOutboundDependencies().contains(factory.getClasses().get("c.C")));
+        assertTrue("c.C <-- a.A.a", factory.getClasses().get("c.C").getInboundDependencies().contains(a_A_a));
+        assertTrue("c --> a", factory.getPackages().get("c").getOutboundDependencies().contains(factory.getPackages().get("a")));
+        for (Node node : a_A_a.getOutboundDependencies()) {
+            assertNotSame(node.getName(), other.getClasses().get(node.getName()), node);
+        }
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestNodeMap extends TestCase {
+    private NodeFactory factory;
+    private NodeMap<FeatureNode> map;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+        map = new NodeMap<FeatureNode>();
+    }
+
+    public void testEmpty() {
+        assertEquals("size", 0, map.size());
+        assertNull("get", map.get("a.A.a"));
+        assertFalse("containsKey", map.containsKey("a.A.a"));
+        assertFalse("values", map.values().iterator().hasNext());
+    }
+
+    public void testPutIfAbsent() {
+        FeatureNode node = factory.createFeature("a.A.a");
+
+        assertNull("first put", map.putIfAbsent("a.A.a", node));
+        assertSame("second put", node, map.putIfAbsent("a.A.a", factory.createFeature("a.A.a")));
+        assertSame("get", node, map.get("a.A.a"));
+        assertEquals("size", 1, map.size());
+    }
+
+    public void testPutWithOtherKey() {
+        try {
+            map.put("a.A.b", factory.createFeature("a.A.a"));
+            fail("Put node under another name");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testGetWithOtherType() {
+        map.put("a.A.a", factory.createFeature("a.A.a"));
+
+        assertNull("get", map.get(new Object()));
+    }
+
+    public void testManyNodes() {
+        Map<String, FeatureNode> expected = new HashMap<String, FeatureNode>();
+        for (int i = 0; i < 1000; i++) {
+            FeatureNode node = factory.createFeature("p" + (i % 7) + ".C" + (i % 13) + ".f" + i + "()");
+            expected.put(node.getName(), node);
+            map.put(node.getName(), node);
+        }
+
+        assertEquals("size", expected.size(), map.size());
+        assertEquals("map", expected, map);
+        assertEquals("values", new HashSet<FeatureNode>(expected.values()), new HashSet<FeatureNode>(map.values()));
+        for (String name : expected.keySet()) {
+            assertSame(name, expected.get(name), map.get(name));
+        }
+    }
+
+    public void testRemove() {
+        List<FeatureNode> nodes = new ArrayList<FeatureNode>();
+        for (int i = 0; i < 100; i++) {
+            FeatureNode node = factory.createFeature("a.A.f" + i);
+            nodes.add(node);
+            map.put(node.getName(), node);
+        }
+
+        for (int i = 0; i < nodes.size(); i += 2) {
+            assertSame("remove " + i, nodes.get(i), map.remove(nodes.get(i).getName()));
+        }
+
+        assertEquals("size", 50, map.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            assertEquals("containsKey " + i, i % 2 == 1, map.containsKey(nodes.get(i).getName()));
+        }
+        assertNull("remove again", map.remove(nodes.get(0).getName()));
+    }
+
+    public void testClear() {
+        map.put("a.A.a", factory.createFeature("a.A.a"));
+
+        map.clear();
+
+        assertEquals("size", 0, map.size());
+        assertNull("get", map.get("a.A.a"));
+    }
+
+    public void testChangeWhileIterating() {
+        map.put("a.A.a", factory.createFeature("a.A.a"));
+        map.put("a.A.b", factory.createFeature("a.A.b"));
+
+        Iterator<FeatureNode> i = map.values().iterator();
+        i.next();
+        map.put("a.A.c", factory.createFeature("a.A.c"));
+
+        try {
+            i.next();
+            fail("Iterated over changed map");
+        } catch (ConcurrentModificationException ex) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestNodeSet extends TestCase {
+    private NodeSet<Node> set;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        set = new NodeSet<Node>();
+    }
+
+    public void testEmpty() {
+        assertEquals("size", 0, set.size());
+        assertTrue("isEmpty", set.isEmpty());
+        assertFalse("contains", set.contains(new PackageNode("a", true)));
+        assertFalse("iterator", set.iterator().hasNext());
+    }
+
+    public void testAddSmall() {
+        assertTrue("first add", set.add(new PackageNode("a", true)));
+        assertFalse("second add", set.add(new PackageNode("a", false)));
+        assertTrue("other add", set.add(new PackageNode("b", true)));
+
+        assertEquals("size", 2, set.size());
+        assertTrue("contains a", set.contains(new PackageNode("a", true)));
+        assertTrue("contains b", set.contains(new PackageNode("b", true)));
+        assertFalse("contains c", set.contains(new PackageNode("c", true)));
+    }
+
+    public void testEqualityFollowsNodeClass() {
+        set.add(new PackageNode("a", true));
+
+        assertFalse("contains class with same name", set.contains(new ClassNode(new PackageNode("", true), "a", true)));
+        assertFalse("contains string", set.contains("a"));
+    }
+
+    public void testAddLarge() {
+        Collection<Node> expected = new HashSet<Node>();
+        for (int i = 0; i < 1000; i++) {
+            Node node = new PackageNode("p" + i, true);
+            expected.add(node);
+            assertTrue("add " + node, set.add(node));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse("re-add p" + i, set.add(new PackageNode("p" + i, true)));
+        }
+
+        assertEquals("size", 1000, set.size());
+        assertEquals("elements", expected, new HashSet<Node>(set));
+        assertFalse("contains missing", set.contains(new PackageNode("q", true)));
+    }
+
+    public void testRemoveSmall() {
+        set.add(new PackageNode("a", true));
+        set.add(new PackageNode("b", true));
+        set.add(new PackageNode("c", true));
+
+        assertTrue("remove a", set.remove(new PackageNode("a", true)));
+        assertFalse("remove a again", set.remove(new PackageNode("a", true)));
+
+        assertEquals("size", 2, set.size());
+        assertFalse("contains a", set.contains(new PackageNode("a", true)));
+        assertTrue("contains b", set.contains(new PackageNode("b", true)));
+        assertTrue("contains c", set.contains(new PackageNode("c", true)));
+    }
+
+    public void testRemoveLarge() {
+        for (int i = 0; i < 1000; i++) {
+            set.add(new PackageNode("p" + i, true));
+        }
+
+        for (int i = 0; i < 1000; i += 3) {
+            assertTrue("remove p" + i, set.remove(new PackageNode("p" + i, true)));
+        }
+
+        assertEquals("size", 666, set.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("contains p" + i, i % 3 != 0, set.contains(new PackageNode("p" + i, true)));
+        }
+    }
+
+    public void testIteratorRemove() {
+        for (int i = 0; i < 100; i++) {
+            set.add(new PackageNode("p" + i, true));
+        }
+
+        Collection<Node> visited = new HashSet<Node>();
+        Iterator<Node> i = set.iterator();
+        while (i.hasNext()) {
+            Node node = i.next();
+            assertTrue("visited " + node + " twice", visited.add(node));
+            if (node.getName().endsWith("0")) {
+                i.remove();
+            }
+        }
+
+        assertEquals("visited", 100, visited.size());
+        assertEquals("size", 90, set.size());
+        assertFalse("contains p10", set.contains(new PackageNode("p10", true)));
+        assertTrue("contains p11", set.contains(new PackageNode("p11", true)));
+    }
+
+    public void testIteratorRemoveBeforeNext() {
+        set.add(new PackageNode("a", true));
+
+        try {
+            set.iterator().remove();
+            fail("removed before calling next()");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+    }
+
+    public void testClear() {
+        for (int i = 0; i < 100; i++) {
+            set.add(new PackageNode("p" + i, true));
+        }
+
+        set.clear();
+
+        assertEquals("size", 0, set.size());
+        assertTrue("add after clear", set.add(new PackageNode("p0", true)));
+        assertEquals("size after add", 1, set.size());
+    }
+}
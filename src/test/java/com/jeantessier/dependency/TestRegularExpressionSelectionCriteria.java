@@ -215,4 +215,32 @@ public class TestRegularExpressionSelectionCriteria extends TestCase {
         assertTrue("c.C in package scope",       !criteria.matches(c_C));
         assertTrue("c.C.c in package scope",     !criteria.matches(c_C_c));
     }
+
+    public void testSettersRecompileExpressions() {
+        criteria.setGlobalIncludes("/^b/");
+        assertTrue("b.B before",  criteria.matches(b_B));
+        assertTrue("c.C before", !criteria.matches(c_C));
+
+        criteria.setGlobalIncludes("/^c/");
+        assertTrue("b.B after global", !criteria.matches(b_B));
+        assertTrue("c.C after global",  criteria.matches(c_C));
+
+        criteria.setClassIncludes("/^b/");
+        assertTrue("b.B after class", criteria.matches(b_B));
+        assertTrue("b after class",  !criteria.matches(b));
+
+        criteria.setClassExcludes("/^b/");
+        assertTrue("b.B after exclude", !criteria.matches(b_B));
+    }
+
+    public void testMalformedRegularExpression() {
+        criteria.setGlobalIncludes("/^a/ /(/");
+
+        try {
+            criteria.matches(a);
+            fail("Matched with malformed regular expression");
+        } catch (MatchException ex) {
+            assertEquals("message", "/(/", ex.getMessage());
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.*;
+
+public class TestStreamingXMLPrinter extends TestCase {
+    public static final String TEST_DIR = "tests" + File.separator + "JarJarDiff" + File.separator + "new";
+
+    private NodeFactory factory;
+    private StringWriter buffer;
+    private StreamingXMLPrinter printer;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+        buffer = new StringWriter();
+        printer = new StreamingXMLPrinter(factory, new PrintWriter(buffer));
+    }
+
+    public void testEmptyDocument() throws Exception {
+        printer.finish();
+
+        NodeFactory copy = new NodeLoader().load(new StringReader(buffer.toString()));
+
+        assertTrue("packages", copy.getPackages().isEmpty());
+    }
+
+    public void testFinishTwice() throws Exception {
+        printer.finish();
+        printer.finish();
+
+        assertEquals("closing tags", 1, buffer.toString().split("</dependencies>", -1).length - 1);
+    }
+
+    public void testEndClassClearsFactory() {
+        FeatureNode main = factory.createFeature("a.A.main()", true);
+        main.addDependency(factory.createFeature("b.B.b()"));
+
+        printer.endClass(new DependencyEvent(this, "a.A"));
+
+        assertTrue("packages", factory.getPackages().isEmpty());
+        assertTrue("classes", factory.getClasses().isEmpty());
+        assertTrue("features", factory.getFeatures().isEmpty());
+    }
+
+    public void testOnlyPrintsCurrentClass() throws Exception {
+        FeatureNode main = factory.createFeature("a.A.main()", true);
+        main.addDependency(factory.createFeature("a.Other.other()"));
+
+        printer.endClass(new DependencyEvent(this, "a.A"));
+        printer.finish();
+
+        String xml = buffer.toString();
+        assertTrue(xml, xml.contains("<name>a.A.main()</name>"));
+        assertTrue(xml, xml.contains("<outbound type=\"feature\" confirmed=\"no\">a.Other.other()</outbound>"));
+        assertFalse(xml, xml.contains("<name>a.Other</name>"));
+        assertFalse(xml, xml.contains("<inbound"));
+    }
+
+    public void testSameGraphAsXMLPrinter() throws Exception {
+        NodeFactory extracted = new NodeFactory();
+        ClassfileLoader loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(extracted)));
+        loader.load(Collections.singleton(TEST_DIR));
+        assertFalse("Nothing extracted", extracted.getFeatures().isEmpty());
+
+        CodeDependencyCollector collector = new CodeDependencyCollector(factory);
+        collector.addDependencyListener(printer);
+        loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+        loader.load(Collections.singleton(TEST_DIR));
+        printer.finish();
+
+        assertTrue("Nodes left behind", factory.getPackages().isEmpty());
+
+        NodeFactory copy = new NodeLoader().load(new StringReader(buffer.toString()));
+
+        assertEquals(print(extracted), print(copy));
+    }
+
+    private String print(NodeFactory factory) {
+        StringWriter out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+}
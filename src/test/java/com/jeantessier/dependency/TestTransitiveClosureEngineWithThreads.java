@@ -0,0 +1,166 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestTransitiveClosureEngineWithThreads extends TestCase {
+    private static final int NB_CLASSES = 30;
+
+    private NodeFactory factory;
+
+    private RegularExpressionSelectionCriteria startCriteria;
+    private RegularExpressionSelectionCriteria stopCriteria;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+
+        // Each class depends on the next three, so most nodes can be
+        // reached from several nodes in the previous layer.
+        for (int i = 0; i < NB_CLASSES; i++) {
+            for (int j = i + 1; j <= i + 3 && j < NB_CLASSES; j++) {
+                factory.createFeature("p" + (i % 3) + ".C" + i + ".f").addDependency(factory.createFeature("p" + (j % 3) + ".C" + j + ".f"));
+            }
+        }
+
+        startCriteria = new RegularExpressionSelectionCriteria();
+        startCriteria.setGlobalIncludes("/C[0-3]\\.f/");
+
+        stopCriteria = new RegularExpressionSelectionCriteria();
+        stopCriteria.setGlobalIncludes(Collections.<String>emptyList());
+    }
+
+    public void testSetThreadCount() {
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(new ConcurrentNodeFactory(), factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+        assertEquals("default", TransitiveClosureEngine.DEFAULT_THREAD_COUNT, engine.getThreadCount());
+
+        engine.setThreadCount(4);
+        assertEquals("set", 4, engine.getThreadCount());
+
+        try {
+            engine.setThreadCount(0);
+            fail("Accepted zero threads");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testSetThreadCountWithPlainFactory() {
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+
+        engine.setThreadCount(1);
+        assertEquals("set", 1, engine.getThreadCount());
+
+        try {
+            engine.setThreadCount(4);
+            fail("Accepted 4 threads with a plain NodeFactory");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+
+        assertEquals("after failure", 1, engine.getThreadCount());
+    }
+
+    public void testOutboundLayers() {
+        assertEquals(describeLayers(computeAllLayers(1, new ClosureOutboundSelector())), describeLayers(computeAllLayers(4, new ClosureOutboundSelector())));
+    }
+
+    public void testInboundLayers() {
+        startCriteria.setGlobalIncludes("/C2[6-9]\\.f/");
+
+        assertEquals(describeLayers(computeAllLayers(1, new ClosureInboundSelector())), describeLayers(computeAllLayers(4, new ClosureInboundSelector())));
+    }
+
+    public void testAnonymousSelector() {
+        assertEquals(describeLayers(computeAllLayers(1, new ClosureOutboundSelector())), describeLayers(computeAllLayers(4, new ClosureOutboundSelector() {})));
+    }
+
+    public void testSelectorThatCannotBeSplit() {
+        ClosureLayerSelector layerSelector = new ClosureOutboundSelector() {
+            protected ClosureLayerSelector createPartialSelector(NodeFactory factory, Collection<? extends Node> coverage) {
+                return null;
+            }
+        };
+
+        assertEquals(describeLayers(computeAllLayers(1, new ClosureOutboundSelector())), describeLayers(computeAllLayers(4, layerSelector)));
+    }
+
+    public void testStopCriteria() {
+        stopCriteria.setGlobalIncludes("/C1[56]\\.f/");
+
+        TransitiveClosureEngine sequential = computeAllLayers(1, new ClosureOutboundSelector());
+        TransitiveClosureEngine parallel = computeAllLayers(4, new ClosureOutboundSelector());
+
+        assertEquals("Nb layers", sequential.getNbLayers(), parallel.getNbLayers());
+        assertEquals(describeLayers(sequential), describeLayers(parallel));
+        assertNull("went past stop", parallel.getFactory().getFeatures().get("p2.C29.f"));
+    }
+
+    public void testComputeLayers() {
+        TransitiveClosureEngine sequential = new TransitiveClosureEngine(new ConcurrentNodeFactory(), factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+        sequential.computeLayers(2);
+
+        TransitiveClosureEngine parallel = new TransitiveClosureEngine(new ConcurrentNodeFactory(), factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+        parallel.setThreadCount(4);
+        parallel.computeLayers(2);
+
+        assertEquals("Nb layers", 3, parallel.getNbLayers());
+        assertEquals(describeLayers(sequential), describeLayers(parallel));
+    }
+
+    private TransitiveClosureEngine computeAllLayers(int threadCount, ClosureLayerSelector layerSelector) {
+        TransitiveClosureEngine result = new TransitiveClosureEngine(new ConcurrentNodeFactory(), factory.getPackages().values(), startCriteria, stopCriteria, layerSelector);
+        result.setThreadCount(threadCount);
+        result.computeAllLayers();
+        return result;
+    }
+
+    private List<String> describeLayers(TransitiveClosureEngine engine) {
+        List<String> result = new ArrayList<String>();
+
+        for (int i = 0; i < engine.getNbLayers(); i++) {
+            SortedSet<String> layer = new TreeSet<String>();
+            for (Object object : engine.getLayer(i)) {
+                Node node = (Node) object;
+                layer.add(node.getName() + " -> " + new TreeSet<Node>(node.getOutboundDependencies()) + " <- " + new TreeSet<Node>(node.getInboundDependencies()));
+            }
+            result.add(layer.toString());
+        }
+
+        return result;
+    }
+}
@@ -40,7 +40,8 @@ import static org.junit.runners.Suite.*;
 @SuiteClasses({
         TestVerboseListener.class,
         TestClassMatcher.class,
-        TestCommand.class
+        TestCommand.class,
+        TestDependencyGraphCommand.class
 })
 public class TestAll {
 }
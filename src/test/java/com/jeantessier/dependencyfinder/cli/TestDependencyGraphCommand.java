@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependencyfinder.cli;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.commandline.*;
+
+public class TestDependencyGraphCommand extends TestCase {
+    private DependencyGraphCommand sut;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        sut = new DependencyGraphCommand() {
+            protected void doProcessing() throws Exception {
+                // Do Nothing
+            }
+
+            protected void showSpecificUsage(PrintStream out) {
+                // Do Nothing
+            }
+        };
+    }
+
+    public void testDefaultThreads() {
+        Collection<CommandLineException> exceptions = sut.parseCommandLine(new String[0]);
+
+        assertTrue("exceptions: " + exceptions, exceptions.isEmpty());
+        assertEquals("thread count", 1, sut.getThreadCount());
+    }
+
+    public void testPositiveThreads() {
+        Collection<CommandLineException> exceptions = sut.parseCommandLine(new String[] {"-threads", "4"});
+
+        assertTrue("exceptions: " + exceptions, exceptions.isEmpty());
+        assertEquals("thread count", 4, sut.getThreadCount());
+    }
+
+    public void testZeroThreads() {
+        Collection<CommandLineException> exceptions = sut.parseCommandLine(new String[] {"-threads", "0"});
+
+        assertEquals("exceptions: " + exceptions, 1, exceptions.size());
+    }
+
+    public void testNegativeThreads() {
+        Collection<CommandLineException> exceptions = sut.parseCommandLine(new String[] {"-threads", "-2"});
+
+        assertEquals("exceptions: " + exceptions, 1, exceptions.size());
+    }
+
+    public void testNonNumericThreads() {
+        Collection<CommandLineException> exceptions = sut.parseCommandLine(new String[] {"-threads", "many"});
+
+        assertEquals("exceptions: " + exceptions, 1, exceptions.size());
+    }
+
+    public void testInvalidThreadsShowsUsage() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        assertFalse("validated", sut.validateCommandLine(new String[] {"-threads", "0"}, new PrintStream(buffer)));
+        assertTrue("no usage in " + buffer, buffer.toString().contains("-threads"));
+    }
+}
@@ -58,6 +58,7 @@ import static org.junit.runners.Suite.*;
         TestStatisticalMeasurementEmpty.class,
         TestStatisticalMeasurementWithMetrics.class,
         TestStatisticalMeasurementWithDispose.class,
+        TestStatisticsAccumulator.class,
         TestMetricsComparator.class,
         TestMetricsGatherer.class,
         TestMetricsGathererEvents.class,
@@ -66,6 +67,7 @@ import static org.junit.runners.Suite.*;
         TestMetricsGathererDependenciesScope.class,
         TestMetricsGathererDependenciesFilter.class,
         TestMetricsGathererSLOC.class,
+        TestMetricsGathererWithThreads.class,
         TestXMLPrinter.class
 })
 public class TestAll {
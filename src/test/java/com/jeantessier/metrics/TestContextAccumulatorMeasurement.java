@@ -259,6 +259,31 @@ public class TestContextAccumulatorMeasurement extends TestCase implements Measu
         assertTrue("\"1234\" not in " + measurement.getValues(), measurement.getValues().contains("1234"));
     }
 
+    public void testSharedCompiledInitText() throws Exception {
+        descriptor.setInitText("NL /(a)/");
+
+        Metrics other = new Metrics("other");
+        AccumulatorMeasurement otherMeasurement = (AccumulatorMeasurement) descriptor.createMeasurement(other);
+        measurement = (AccumulatorMeasurement) descriptor.createMeasurement(metrics);
+        assertNotNull("compiled init text", descriptor.getCompiledInitText());
+
+        metrics.track(nameList.createMeasurement(metrics));
+        metrics.addToMeasurement("NL", "bar");
+
+        other.track(nameList.createMeasurement(other));
+        other.addToMeasurement("NL", "foo");
+
+        assertEquals("measurement", 1, measurement.getValue().intValue());
+        assertTrue("\"a\" not in " + measurement.getValues(), measurement.getValues().contains("a"));
+        assertEquals("other measurement", 0, otherMeasurement.getValue().intValue());
+
+        descriptor.setInitText("NL /o/");
+        assertNull("compiled init text after change", descriptor.getCompiledInitText());
+
+        measurement = (AccumulatorMeasurement) descriptor.createMeasurement(other);
+        assertTrue("\"foo\" not in " + measurement.getValues(), measurement.getValues().contains("foo"));
+    }
+
     public void testAccept() throws Exception {
         measurement = (AccumulatorMeasurement) descriptor.createMeasurement(metrics);
 
@@ -169,6 +169,26 @@ public class TestCounterMeasurement extends TestCase implements MeasurementVisit
         assertEquals(-0.5, measurement.getValue().doubleValue(), 0.01);
     }
 
+    public void testMerge() {
+        measurement = new CounterMeasurement(null, null, "2");
+        measurement.add(3);
+
+        CounterMeasurement other = new CounterMeasurement(null, null, "2");
+        other.add(4);
+
+        measurement.merge(other);
+        assertEquals(9.0, measurement.getValue().doubleValue(), 0.01);
+        assertFalse("empty", measurement.isEmpty());
+    }
+
+    public void testMergeEmpty() {
+        measurement = new CounterMeasurement(null, null, "2");
+
+        measurement.merge(new CounterMeasurement(null, null, "2"));
+        assertEquals(2.0, measurement.getValue().doubleValue(), 0.01);
+        assertTrue("empty", measurement.isEmpty());
+    }
+
     public void testInUndefinedRange() {
         assertTrue(measurement.isInRange());
 
@@ -1337,6 +1337,48 @@ public class TestMetricsGathererAccumulators extends MockObjectTestCase {
         assertEquals("return value", false, sut.isInnerClassOfCurrentClass(mockInnerClass));
     }
 
+    public void testIsInnerClassOfCurrentClass_AnonymousInnerClass_OfNestedCurrentClass() throws Exception {
+        final String anonymousInnerClassName = INNER_CLASS_NAME + "$1";
+
+        final MetricsFactory mockFactory = mock(MetricsFactory.class);
+        final InnerClass mockInnerClass = mock(InnerClass.class);
+        final Metrics mockMetrics = mock(Metrics.class);
+
+        checking(new Expectations() {{
+            allowing (mockFactory).createProjectMetrics();
+            one (mockMetrics).getName();
+                will(returnValue(INNER_CLASS_NAME));
+            one (mockInnerClass).getOuterClassInfo();
+                will(returnValue(""));
+            one (mockInnerClass).getInnerClassInfo();
+                will(returnValue(anonymousInnerClassName));
+        }});
+
+        MetricsGatherer sut = new MetricsGatherer(mockFactory);
+        sut.setCurrentClass(mockMetrics);
+        assertEquals("return value", true, sut.isInnerClassOfCurrentClass(mockInnerClass));
+    }
+
+    public void testIsInnerClassOfCurrentClass_NamedInnerClass_WithoutOuterClass() throws Exception {
+        final MetricsFactory mockFactory = mock(MetricsFactory.class);
+        final InnerClass mockInnerClass = mock(InnerClass.class);
+        final Metrics mockMetrics = mock(Metrics.class);
+
+        checking(new Expectations() {{
+            allowing (mockFactory).createProjectMetrics();
+            one (mockMetrics).getName();
+                will(returnValue(CLASS_NAME));
+            one (mockInnerClass).getOuterClassInfo();
+                will(returnValue(""));
+            one (mockInnerClass).getInnerClassInfo();
+                will(returnValue(INNER_CLASS_NAME));
+        }});
+
+        MetricsGatherer sut = new MetricsGatherer(mockFactory);
+        sut.setCurrentClass(mockMetrics);
+        assertEquals("return value", false, sut.isInnerClassOfCurrentClass(mockInnerClass));
+    }
+
     public void testVisitInnerClass_public() throws Exception {
         final MetricsFactory mockFactory = mock(MetricsFactory.class);
         final InnerClass mockInnerClass = mock(InnerClass.class);
@@ -0,0 +1,192 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.metrics;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.*;
+
+public class TestMetricsGathererWithThreads extends TestCase {
+    public static final String TEST_DIR = "tests" + File.separator + "JarJarDiff";
+    public static final String CONFIGURATION_FILENAME = "etc" + File.separator + "MetricsConfig.xml";
+
+    private MetricsConfiguration configuration;
+    private Collection<Classfile> classfiles;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        configuration = new MetricsConfigurationLoader(Boolean.getBoolean("DEPENDENCYFINDER_TESTS_VALIDATE")).load(CONFIGURATION_FILENAME);
+
+        Collection<String> filenames = new ArrayList<String>();
+        filenames.add(TEST_DIR + File.separator + "onelevel.jar");
+        filenames.add(TEST_DIR + File.separator + "twolevel.zip");
+        filenames.add(TEST_DIR + File.separator + "new");
+
+        ClassfileLoader loader = new AggregatingClassfileLoader();
+        loader.load(filenames);
+        classfiles = loader.getAllClassfiles();
+    }
+
+    public void testDefaultThreadCount() {
+        assertEquals("thread count", MetricsGatherer.DEFAULT_THREAD_COUNT, new MetricsGatherer(new MetricsFactory("test", configuration)).getThreadCount());
+    }
+
+    public void testIllegalThreadCount() {
+        try {
+            new MetricsGatherer(new MetricsFactory("test", configuration)).setThreadCount(0);
+            fail("Accepted thread count of zero");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testSameMetricsAsSingleThread() {
+        String expected = describe(gatherWithThreads(1));
+        String actual = describe(gatherWithThreads(4));
+
+        assertTrue("no classes", classfiles.size() > 4);
+        assertEquals("metrics", expected, actual);
+    }
+
+    public void testSameMetricsWithMoreThreadsThanClassfiles() {
+        List<Classfile> someClassfiles = new ArrayList<Classfile>(classfiles).subList(0, 3);
+
+        assertEquals("metrics", describe(gatherWithThreads(someClassfiles, 1)), describe(gatherWithThreads(someClassfiles, 8)));
+    }
+
+    public void testSameEventsAsSingleThread() {
+        MetricsFactory factory = new MetricsFactory("test", configuration);
+        MetricsGatherer gatherer = new MetricsGatherer(factory);
+        gatherer.setThreadCount(4);
+
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        gatherer.addMetricsListener(new MetricsListener() {
+            public void beginSession(MetricsEvent event) {
+                events.add("beginSession " + event.getSize());
+            }
+
+            public void beginClass(MetricsEvent event) {
+                events.add("beginClass " + event.getClassfile().getClassName());
+            }
+
+            public void beginMethod(MetricsEvent event) {
+                events.add("beginMethod " + event.getMethod().getFullSignature());
+            }
+
+            public void endMethod(MetricsEvent event) {
+                events.add("endMethod " + event.getMethod().getFullSignature());
+            }
+
+            public void endClass(MetricsEvent event) {
+                events.add("endClass " + event.getClassfile().getClassName());
+            }
+
+            public void endSession(MetricsEvent event) {
+                events.add("endSession");
+            }
+        });
+
+        gatherer.visitClassfiles(classfiles);
+
+        assertEquals("first event", "beginSession " + classfiles.size(), events.get(0));
+        assertEquals("last event", "endSession", events.get(events.size() - 1));
+        for (Classfile classfile : classfiles) {
+            assertTrue("missing beginClass for " + classfile.getClassName(), events.contains("beginClass " + classfile.getClassName()));
+            assertTrue("missing endClass for " + classfile.getClassName(), events.contains("endClass " + classfile.getClassName()));
+        }
+    }
+
+    private MetricsFactory gatherWithThreads(int threadCount) {
+        return gatherWithThreads(classfiles, threadCount);
+    }
+
+    private MetricsFactory gatherWithThreads(Collection<Classfile> classfiles, int threadCount) {
+        MetricsFactory result = new MetricsFactory("test", configuration);
+
+        MetricsGatherer gatherer = new MetricsGatherer(result);
+        gatherer.setThreadCount(threadCount);
+        gatherer.visitClassfiles(classfiles);
+
+        return result;
+    }
+
+    private String describe(MetricsFactory factory) {
+        StringBuilder result = new StringBuilder();
+
+        describe(result, "project", factory.getAllProjectMetrics(), factory.getProjectNames());
+        describe(result, "group", factory.getAllGroupMetrics(), factory.getGroupNames());
+        describe(result, "class", factory.getAllClassMetrics(), factory.getClassNames());
+        describe(result, "method", factory.getAllMethodMetrics(), factory.getMethodNames());
+
+        return result.toString();
+    }
+
+    private void describe(StringBuilder result, String level, Collection<Metrics> metricsList, Collection<String> includedNames) {
+        Map<String, Metrics> sortedMetrics = new TreeMap<String, Metrics>();
+        for (Metrics metrics : metricsList) {
+            sortedMetrics.put(metrics.getName(), metrics);
+        }
+
+        for (Metrics metrics : sortedMetrics.values()) {
+            result.append(level).append(" ").append(metrics.getName());
+            if (includedNames.contains(metrics.getName())) {
+                result.append(" (included)");
+            }
+            if (metrics.getParent() != null) {
+                result.append(" in ").append(metrics.getParent().getName());
+            }
+            result.append("\n");
+
+            for (Metrics submetrics : metrics.getSubMetrics()) {
+                result.append("    sub ").append(submetrics.getName()).append("\n");
+            }
+
+            for (String name : metrics.getMeasurementNames()) {
+                Measurement measurement = metrics.getMeasurement(name);
+                result.append("    ").append(name).append(" = ").append(measurement.getValue()).append(" empty=").append(measurement.isEmpty()).append("\n");
+
+                if (measurement instanceof CollectionMeasurement) {
+                    Collection<String> values = ((CollectionMeasurement) measurement).getValues();
+                    if (!"list".equalsIgnoreCase(String.valueOf(measurement.getDescriptor().getInitText()).trim())) {
+                        values = new TreeSet<String>(values);
+                    }
+                    result.append("        ").append(values).append("\n");
+                }
+            }
+        }
+    }
+}
@@ -32,6 +32,8 @@
 
 package com.jeantessier.metrics;
 
+import java.util.*;
+
 import junit.framework.*;
 
 public class TestNameListMeasurement extends TestCase implements MeasurementVisitor {
@@ -158,6 +160,30 @@ public class TestNameListMeasurement extends TestCase implements MeasurementVisi
         }
     }
 
+    public void testMergeList() {
+        measurement = new NameListMeasurement(null, null, "list");
+        measurement.add("foo");
+        measurement.add("bar");
+
+        NameListMeasurement other = new NameListMeasurement(null, null, "list");
+        other.add("baz");
+        other.add("foo");
+
+        measurement.merge(other);
+        assertEquals("values", Arrays.asList("foo", "bar", "baz", "foo"), new ArrayList<String>(measurement.getValues()));
+    }
+
+    public void testMergeSet() {
+        measurement.add("foo");
+
+        NameListMeasurement other = new NameListMeasurement(null, null, "set");
+        other.add("foo");
+        other.add("bar");
+
+        measurement.merge(other);
+        assertEquals("size", 2, measurement.getValue().intValue());
+    }
+
     public void testAddInt() {
         assertEquals("zero", 0, measurement.getValue().intValue());
         assertEquals("zero", 0.0, measurement.getValue().doubleValue(), 0.01);
@@ -168,6 +168,13 @@ public class TestNbSubMetricsMeasurementSelectionCriteria extends TestCase {
         assertEquals("or", 2, measurement.getValue().intValue());
     }
 
+    public void testMissingOperand() throws Exception {
+        descriptor.setInitText("C <");
+
+        NbSubMetricsMeasurement measurement = (NbSubMetricsMeasurement) descriptor.createMeasurement(metrics);
+        assertEquals("missing operand", 0, measurement.getValue().intValue());
+    }
+
     public void testSplit() {
         String operators = "/(<)|(<=)|(>)|(>=)|(==)|(!=)/";
         Perl5Util perl = new org.apache.oro.text.perl.Perl5Util();
@@ -0,0 +1,136 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.metrics;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestStatisticsAccumulator extends TestCase {
+    private StatisticsAccumulator accumulator;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        accumulator = new StatisticsAccumulator();
+    }
+
+    public void testEmpty() {
+        assertTrue("empty", accumulator.isEmpty());
+        assertEquals("size", 0, accumulator.size());
+        assertTrue("minimum", Double.isNaN(accumulator.getMinimum()));
+        assertTrue("median", Double.isNaN(accumulator.getMedian()));
+        assertTrue("average", Double.isNaN(accumulator.getAverage()));
+        assertTrue("standard deviation", Double.isNaN(accumulator.getStandardDeviation()));
+        assertTrue("maximum", Double.isNaN(accumulator.getMaximum()));
+        assertEquals("sum", 0.0, accumulator.getSum(), 0.0);
+    }
+
+    public void testSingleValue() {
+        accumulator.add(3);
+
+        assertFalse("empty", accumulator.isEmpty());
+        assertEquals("size", 1, accumulator.size());
+        assertEquals("minimum", 3.0, accumulator.getMinimum(), 0.0);
+        assertEquals("median", 3.0, accumulator.getMedian(), 0.0);
+        assertEquals("average", 3.0, accumulator.getAverage(), 0.0);
+        assertEquals("standard deviation", 0.0, accumulator.getStandardDeviation(), 0.0);
+        assertEquals("maximum", 3.0, accumulator.getMaximum(), 0.0);
+        assertEquals("sum", 3.0, accumulator.getSum(), 0.0);
+    }
+
+    public void testUpperMedianOfEvenNumberOfValues() {
+        accumulator.add(4);
+        accumulator.add(1);
+        accumulator.add(3);
+        accumulator.add(2);
+
+        assertEquals("median", 3.0, accumulator.getMedian(), 0.0);
+    }
+
+    public void testMedianAfterMoreValues() {
+        accumulator.add(1);
+        assertEquals("median", 1.0, accumulator.getMedian(), 0.0);
+
+        accumulator.add(5);
+        accumulator.add(7);
+        assertEquals("median", 5.0, accumulator.getMedian(), 0.0);
+    }
+
+    public void testNaNSortsLast() {
+        accumulator.add(2);
+        accumulator.add(Double.NaN);
+        accumulator.add(1);
+
+        assertEquals("minimum", 1.0, accumulator.getMinimum(), 0.0);
+        assertEquals("median", 2.0, accumulator.getMedian(), 0.0);
+        assertTrue("maximum", Double.isNaN(accumulator.getMaximum()));
+        assertTrue("average", Double.isNaN(accumulator.getAverage()));
+    }
+
+    public void testSameAsSortedList() {
+        Random random = new Random(42);
+
+        for (int size = 1; size < 200; size += 7) {
+            StatisticsAccumulator accumulator = new StatisticsAccumulator();
+            List<Double> data = new ArrayList<Double>();
+
+            for (int i = 0; i < size; i++) {
+                double value = random.nextInt(10) == 0 ? random.nextGaussian() * 100 : random.nextInt(5);
+                accumulator.add(value);
+                data.add(value);
+            }
+
+            Collections.sort(data);
+
+            double sum = 0.0;
+            for (Double value : data) {
+                sum += value;
+            }
+            double average = sum / data.size();
+
+            double squaredDeviations = 0.0;
+            for (Double value : data) {
+                squaredDeviations += Math.pow(value - average, 2);
+            }
+
+            assertEquals("size " + size, data.size(), accumulator.size());
+            assertEquals("minimum " + size, data.get(0), accumulator.getMinimum(), 0.0);
+            assertEquals("median " + size, data.get(data.size() / 2), accumulator.getMedian(), 0.0);
+            assertEquals("maximum " + size, data.get(data.size() - 1), accumulator.getMaximum(), 0.0);
+            assertEquals("sum " + size, sum, accumulator.getSum(), 1e-9);
+            assertEquals("average " + size, average, accumulator.getAverage(), 1e-9);
+            assertEquals("standard deviation " + size, Math.sqrt(squaredDeviations / data.size()), accumulator.getStandardDeviation(), 1e-9);
+        }
+    }
+}
@@ -41,7 +41,9 @@ import static org.junit.runners.Suite.*;
         TestMaximumCapacityPatternCache.class,
         TestHex.class,
         TestPrinterBuffer.class,
-        TestRegularExpressionParser.class
+        TestRegularExpressionParser.class,
+        TestRegularExpressionSet.class,
+        TestPerl5Expression.class
 })
 public class TestAll {
 }
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.text;
+
+import junit.framework.*;
+
+import org.apache.oro.text.perl.*;
+import org.apache.oro.text.regex.*;
+
+public class TestPerl5Expression extends TestCase {
+    public void testParse() {
+        Perl5Expression expression = Perl5Expression.parse("/^java\\./");
+        assertEquals("body", "^java\\.", expression.getBody());
+        assertEquals("options", "", expression.getOptions());
+    }
+
+    public void testParseWithOptions() {
+        Perl5Expression expression = Perl5Expression.parse("m=Object=ix");
+        assertEquals("body", "Object", expression.getBody());
+        assertEquals("options", "ix", expression.getOptions());
+    }
+
+    public void testParseInvalidExpression() {
+        try {
+            Perl5Expression.parse("java");
+            fail("Parsed expression without delimiters");
+        } catch (MalformedPerl5PatternException ex) {
+            // Expected
+        }
+    }
+
+    public void testCompileInvalidExpression() {
+        try {
+            Perl5Expression.compile("/(/");
+            fail("Compiled malformed regular expression");
+        } catch (MalformedPerl5PatternException ex) {
+            // Expected
+        }
+    }
+
+    public void testCompileCaseInsensitive() {
+        Pattern pattern = Perl5Expression.compile("/object/i");
+        assertTrue("java.lang.Object", Perl5Expression.matcher().contains("java.lang.Object", pattern));
+        assertFalse("java.lang.String", Perl5Expression.matcher().contains("java.lang.String", pattern));
+    }
+
+    public void testGroups() {
+        Pattern pattern = Perl5Expression.compile("/^(java\\.\\w+)\\./");
+        Perl5Matcher matcher = Perl5Expression.matcher();
+        assertTrue("match", matcher.contains("java.lang.Object", pattern));
+        assertEquals("group(1)", "java.lang", matcher.getMatch().group(1));
+    }
+
+    public void testCompiledPatternsAreReadOnly() {
+        assertReadOnly("/^java\\./");
+        assertReadOnly("/object/i");
+        assertReadOnly("m=Object$=mx");
+    }
+
+    private void assertReadOnly(String expression) {
+        Perl5Pattern pattern = (Perl5Pattern) Perl5Expression.compile(expression);
+        assertTrue(expression + " not read-only", (pattern.getOptions() & Perl5Compiler.READ_ONLY_MASK) != 0);
+    }
+
+    public void testMatcherIsPerThread() throws InterruptedException {
+        final Perl5Matcher[] otherMatcher = new Perl5Matcher[1];
+        Thread thread = new Thread() {
+            public void run() {
+                otherMatcher[0] = Perl5Expression.matcher();
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertSame("same thread", Perl5Expression.matcher(), Perl5Expression.matcher());
+        assertNotSame("other thread", Perl5Expression.matcher(), otherMatcher[0]);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.text;
+
+import java.util.*;
+
+import junit.framework.*;
+
+import org.apache.oro.text.*;
+import org.apache.oro.text.perl.*;
+
+public class TestRegularExpressionSet extends TestCase {
+    private static final String[] EXPRESSIONS = {
+        "//",
+        "/^/",
+        "/$/",
+        "/^java\\./",
+        "/^java\\.lang\\.Object$/",
+        "/^java\\.lang\\.Object\\.toString\\(\\)$/",
+        "/\\.toString\\(\\)$/",
+        "/Object/",
+        "/object/i",
+        "m=java.lang=",
+        "m#^java/#",
+        "/a\\/b/",
+        "/^java\\.(lang|util)\\./",
+        "/^java\\..*Exception$/",
+        "/\\w+\\(int\\)/",
+        "/Object$/m",
+        "/^x$/",
+        "/\\$/",
+        "/\\$$/",
+        "/\\\\$/",
+    };
+
+    private static final String[] NAMES = {
+        "",
+        "java",
+        "java.lang",
+        "java.lang.Object",
+        "java.lang.Object.toString()",
+        "java.lang.String.valueOf(int)",
+        "java.util.ConcurrentModificationException",
+        "javax.swing.JFrame",
+        "com.foo.MyObject",
+        "com.foo.myobject",
+        "a/b",
+        "java/lang",
+        "x",
+        "Outer$Inner",
+        "Outer$",
+        "back\\",
+    };
+
+    public void testEmpty() {
+        RegularExpressionSet set = new RegularExpressionSet();
+
+        assertTrue("isEmpty", set.isEmpty());
+        assertFalse("matches", set.matches("java.lang.Object"));
+    }
+
+    public void testSameAsPerl5UtilOneAtATime() {
+        Perl5Util perl = new Perl5Util();
+
+        for (String expression : EXPRESSIONS) {
+            RegularExpressionSet set = new RegularExpressionSet(Collections.singleton(expression));
+            for (String name : NAMES) {
+                assertEquals(expression + " on \"" + name + "\"", perl.match(expression, name), set.matches(name));
+            }
+        }
+    }
+
+    public void testSameAsPerl5UtilAllTogether() {
+        Perl5Util perl = new Perl5Util();
+
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            List<String> expressions = Arrays.asList(EXPRESSIONS).subList(i, EXPRESSIONS.length);
+            RegularExpressionSet set = new RegularExpressionSet(expressions);
+            for (String name : NAMES) {
+                boolean expected = false;
+                for (String expression : expressions) {
+                    expected |= perl.match(expression, name);
+                }
+                assertEquals(expressions + " on \"" + name + "\"", expected, set.matches(name));
+            }
+        }
+    }
+
+    public void testOverlappingPrefixes() {
+        RegularExpressionSet set = new RegularExpressionSet(Arrays.asList("/^java\\.lang\\./", "/^java\\./", "/^java\\.util\\./", "/^javax\\./"));
+
+        assertTrue("java.lang.Object", set.matches("java.lang.Object"));
+        assertTrue("java.io.File", set.matches("java.io.File"));
+        assertTrue("javax.swing.JFrame", set.matches("javax.swing.JFrame"));
+        assertFalse("javafx.Stage", set.matches("javafx.Stage"));
+        assertFalse("com.foo.Bar", set.matches("com.foo.Bar"));
+    }
+
+    public void testManyPrefixes() {
+        List<String> expressions = new ArrayList<String>();
+        for (int i = 0; i < 200; i++) {
+            expressions.add("/^p" + i + "\\./");
+        }
+        RegularExpressionSet set = new RegularExpressionSet(expressions);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue("p" + i, set.matches("p" + i + ".Foo"));
+        }
+        assertFalse("p200", set.matches("p200.Foo"));
+        assertFalse("p1", set.matches("p1"));
+    }
+
+    public void testRepeatedMatchesWithRegularExpression() {
+        RegularExpressionSet set = new RegularExpressionSet(Collections.singleton("/^java\\.(lang|util)\\./"));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue("java.lang.Object", set.matches("java.lang.Object"));
+            assertFalse("java.io.File", set.matches("java.io.File"));
+        }
+    }
+
+    public void testAddClearsCachedVerdicts() {
+        RegularExpressionSet set = new RegularExpressionSet(Collections.singleton("/^java\\.(lang|util)\\./"));
+        assertFalse("before", set.matches("java.io.File"));
+
+        set.add("/^java\\.(io|nio)\\./");
+        assertTrue("after", set.matches("java.io.File"));
+    }
+
+    public void testMatchesFromManyThreads() throws Exception {
+        final RegularExpressionSet set = new RegularExpressionSet(Arrays.asList("/^java\\.(lang|util)\\.\\w+Exception$/", "/^com\\.foo\\..*Bar\\d+$/i"));
+        final Perl5Util perl = new Perl5Util();
+
+        final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int thread = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 20000; j++) {
+                        String[] names = {
+                            "java.lang.Foo" + thread + "x" + j + "Exception",
+                            "java.io.Foo" + thread + "x" + j + "Exception",
+                            "com.foo.Foo" + thread + "x" + j + "bar" + j,
+                            "com.foo.Foo" + thread + "x" + j + "baz" + j,
+                        };
+                        for (String name : names) {
+                            boolean expected;
+                            synchronized (perl) {
+                                expected = perl.match("/^java\\.(lang|util)\\.\\w+Exception$/", name) || perl.match("/^com\\.foo\\..*Bar\\d+$/i", name);
+                            }
+                            Thread.yield();
+                            if (set.matches(name) != expected) {
+                                failures.add(name);
+                            }
+                        }
+                    }
+                }
+            };
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals("Wrong verdicts", Collections.emptyList(), failures);
+    }
+
+    public void testInvalidFormat() {
+        try {
+            new RegularExpressionSet().add("java");
+            fail("Added expression without delimiters");
+        } catch (MalformedCachePatternException ex) {
+            // Expected
+        }
+    }
+
+    public void testInvalidRegularExpression() {
+        try {
+            new RegularExpressionSet().add("/java(/");
+            fail("Added malformed regular expression");
+        } catch (MalformedCachePatternException ex) {
+            // Expected
+        }
+    }
+}